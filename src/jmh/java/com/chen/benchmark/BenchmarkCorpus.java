@@ -0,0 +1,159 @@
+package com.chen.benchmark;
+
+import com.chen.entity.ColumnMeta;
+import com.chen.entity.PlanNode;
+import com.chen.entity.SqlStatementRange;
+import com.chen.utils.SqlStatementSplitter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 基准测试语料：Mapper XML 语句、普通 SQL 脚本，以及构造的执行计划、表结构与 ER 图数据
+ *
+ * @author czh
+ * @version 1.0
+ * @since 2025/7/1
+ */
+public final class BenchmarkCorpus {
+
+    public static final String MAPPER_PATH = "corpus/OrderMapper.xml";
+    public static final String SCRIPT_PATH = "corpus/migration.sql";
+    /** mysqldump 风格的导出：注释、版本注释与带注释前缀的 DELIMITER 指令 */
+    public static final String DUMP_PATH = "corpus/dump.sql";
+
+    private BenchmarkCorpus() {
+    }
+
+    /**
+     * 读取 classpath 下的文本资源
+     */
+    public static String read(String path) {
+        try (InputStream is = BenchmarkCorpus.class.getClassLoader().getResourceAsStream(path)) {
+            if (is == null) throw new IllegalStateException("资源未找到: " + path);
+            return new String(is.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Mapper 中全部语句标签的内容体
+     */
+    public static List<String> mapperStatements() {
+        String xml = read(MAPPER_PATH);
+        List<String> statements = new ArrayList<>();
+        for (SqlStatementRange range : SqlStatementSplitter.splitMapper(xml)) {
+            statements.add(xml.substring(range.getStart(), range.getEnd()).trim());
+        }
+        return statements;
+    }
+
+    /**
+     * SQL 脚本中按分号切分的全部语句
+     */
+    public static List<String> scriptStatements(String dialect) {
+        String script = read(SCRIPT_PATH);
+        List<String> statements = new ArrayList<>();
+        for (SqlStatementRange range : SqlStatementSplitter.splitScript(script, dialect)) {
+            statements.add(script.substring(range.getStart(), range.getEnd()));
+        }
+        return statements;
+    }
+
+    /**
+     * 覆盖语料中各语句常用参数的取值，部分参数留空以走到 if 的不成立分支
+     */
+    public static Map<String, Object> paramValues() {
+        Map<String, Object> values = new HashMap<>();
+        values.put("id", "10086");
+        values.put("orderNo", "SO202507010001");
+        values.put("userId", "20001");
+        values.put("shopId", "");
+        values.put("status", "3");
+        values.put("beginTime", "2025-01-01 00:00:00");
+        values.put("endTime", "2025-07-01 00:00:00");
+        values.put("keyword", "");
+        values.put("offset", "0");
+        values.put("pageSize", "20");
+        values.put("ids", "1,2,3,4,5,6,7,8");
+        values.put("items", "1001,1002,1003");
+        values.put("minCount", "10");
+        values.put("payType", "2");
+        values.put("payAmount", "199.00");
+        values.put("remark", "benchmark");
+        values.put("minutes", "30");
+        values.put("before", "2024-01-01");
+        return values;
+    }
+
+    /**
+     * 模拟 MySQL 执行计划树：一个查询块下的嵌套循环连接，每张表一个访问节点，每三张表一次全表扫描
+     */
+    public static PlanNode explainPlan(int count) {
+        PlanNode loop = new PlanNode("NESTED LOOP", null);
+        for (int i = 0; i < count; i++) {
+            boolean fullScan = i % 3 == 0;
+            loop.addChild(new PlanNode(fullScan ? "ALL" : "ref",
+                    fullScan ? "t_order_" + i : "t_order_" + i + ".idx_user_time")
+                    .setEstimatedRows(1000.0 * (i + 1))
+                    .setCost(12.5 * (i + 1))
+                    .setDetail(fullScan ? "Using where" : "Using where; Using index"));
+        }
+        return new PlanNode("QUERY BLOCK", "#1").setCost(12.5 * count).addChild(loop);
+    }
+
+    /**
+     * 模拟表字段元数据
+     */
+    public static List<ColumnMeta> columns(int count) {
+        List<ColumnMeta> columns = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            columns.add(new ColumnMeta("column_" + i, i % 2 == 0 ? "bigint(20)" : "varchar(64)",
+                    i == 0, i % 5 == 0, "字段备注 " + i));
+        }
+        return columns;
+    }
+
+    /**
+     * 模拟 ER 图表备注：表名 -> 备注
+     */
+    public static Map<String, String> tableRemarks(int tables) {
+        Map<String, String> remarks = new HashMap<>();
+        for (int t = 0; t < tables; t++) remarks.put("t_table_" + t, "业务表 " + t);
+        return remarks;
+    }
+
+    /**
+     * 模拟 ER 图字段：表名 -> (字段名 -> 类型+备注)
+     */
+    public static Map<String, Map<String, String>> tableFields(int tables, int fieldsPerTable) {
+        Map<String, Map<String, String>> tableFields = new LinkedHashMap<>();
+        for (int t = 0; t < tables; t++) {
+            Map<String, String> fields = new LinkedHashMap<>();
+            for (int f = 0; f < fieldsPerTable; f++) fields.put("field_" + f, "varchar(64) (字段 \"" + f + "\")");
+            tableFields.put("t_table_" + t, fields);
+        }
+        return tableFields;
+    }
+
+    /**
+     * 模拟 ER 图外键：每张表引用前一张表
+     */
+    public static List<Map<String, String>> links(int tables) {
+        List<Map<String, String>> links = new ArrayList<>();
+        for (int t = 1; t < tables; t++) {
+            String from = "t_table_" + (t - 1);
+            String to = "t_table_" + t;
+            links.add(Map.of("from", from, "to", to, "label", from + ".id -> " + to + ".parent_id"));
+        }
+        return links;
+    }
+}
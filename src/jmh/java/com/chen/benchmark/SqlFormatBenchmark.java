@@ -0,0 +1,74 @@
+package com.chen.benchmark;
+
+import com.chen.utils.SqlFormatUtil;
+import com.chen.utils.SqlStreamFormatter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * {@link SqlFormatUtil#formatSql} 基准：Mapper 动态语句、普通 SQL 脚本与整份 Mapper 文档，
+ * 以及 {@link SqlStreamFormatter} 流式格式化 mysqldump 导出
+ *
+ * @author czh
+ * @version 1.0
+ * @since 2025/7/1
+ */
+@State(Scope.Benchmark)
+public class SqlFormatBenchmark {
+
+    @Param({"mysql", "postgresql"})
+    public String dialect;
+
+    private List<String> mapperStatements;
+    private List<String> scriptStatements;
+    private String mapperXml;
+    private Path dumpSource;
+    private Path dumpTarget;
+
+    @Setup
+    public void setup() throws IOException {
+        mapperStatements = BenchmarkCorpus.mapperStatements();
+        scriptStatements = BenchmarkCorpus.scriptStatements(dialect);
+        mapperXml = BenchmarkCorpus.read(BenchmarkCorpus.MAPPER_PATH);
+        dumpSource = Files.createTempFile("dump", ".sql");
+        Files.writeString(dumpSource, BenchmarkCorpus.read(BenchmarkCorpus.DUMP_PATH), StandardCharsets.UTF_8);
+        dumpTarget = Files.createTempFile("dump", ".formatted.sql");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(dumpSource);
+        Files.deleteIfExists(dumpTarget);
+    }
+
+    @Benchmark
+    public void formatMapperStatements(Blackhole bh) {
+        for (String sql : mapperStatements) bh.consume(SqlFormatUtil.formatSql(sql, dialect));
+    }
+
+    @Benchmark
+    public void formatScriptStatements(Blackhole bh) {
+        for (String sql : scriptStatements) bh.consume(SqlFormatUtil.formatSql(sql, dialect));
+    }
+
+    @Benchmark
+    public Object formatMapperDocument() {
+        return SqlFormatUtil.formatStatements(mapperXml, dialect);
+    }
+
+    @Benchmark
+    public long formatDumpStream() throws IOException {
+        return SqlStreamFormatter.formatFile(dumpSource, dumpTarget, dialect, null);
+    }
+}
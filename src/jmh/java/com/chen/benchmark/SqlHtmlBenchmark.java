@@ -0,0 +1,65 @@
+package com.chen.benchmark;
+
+import com.chen.constant.FileConstant;
+import com.chen.entity.ColumnMeta;
+import com.chen.entity.PlanNode;
+import com.chen.utils.SqlHtmlUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link SqlHtmlUtil} 基准：执行计划表格、表结构悬浮文档与 ER 图页面
+ *
+ * @author czh
+ * @version 1.0
+ * @since 2025/7/1
+ */
+@State(Scope.Benchmark)
+public class SqlHtmlBenchmark {
+
+    /** 表数量，执行计划节点数与字段数同比例放大 */
+    @Param({"10", "100"})
+    public int size;
+
+    private String sql;
+    private PlanNode explainPlan;
+    private List<ColumnMeta> columns;
+    private Map<String, String> tableRemarks;
+    private Map<String, Map<String, String>> tableFields;
+    private List<Map<String, String>> links;
+    private String d3Js;
+    private String dagreJs;
+
+    @Setup
+    public void setup() {
+        sql = BenchmarkCorpus.scriptStatements("mysql").get(0);
+        explainPlan = BenchmarkCorpus.explainPlan(size);
+        columns = BenchmarkCorpus.columns(size);
+        tableRemarks = BenchmarkCorpus.tableRemarks(size);
+        tableFields = BenchmarkCorpus.tableFields(size, 12);
+        links = BenchmarkCorpus.links(size);
+        d3Js = BenchmarkCorpus.read(FileConstant.D3_JS_PATH);
+        dagreJs = BenchmarkCorpus.read(FileConstant.DAGRE_JS_PATH);
+    }
+
+    @Benchmark
+    public String buildExplainHtml() {
+        return SqlHtmlUtil.buildExplainHtmlWithChinese(sql, explainPlan, List.of());
+    }
+
+    @Benchmark
+    public String buildTableHtml() {
+        return SqlHtmlUtil.buildHtmlTable("t_order", "订单表", columns);
+    }
+
+    @Benchmark
+    public String buildERHtml() {
+        return SqlHtmlUtil.buildERHtml(tableRemarks, tableFields, links, d3Js, dagreJs);
+    }
+}
@@ -0,0 +1,41 @@
+package com.chen.benchmark;
+
+import com.chen.utils.SqlParamUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link SqlParamUtils} 基准：参数提取与真实 SQL 渲染
+ *
+ * @author czh
+ * @version 1.0
+ * @since 2025/7/1
+ */
+@State(Scope.Benchmark)
+public class SqlParamBenchmark {
+
+    private List<String> mapperStatements;
+    private Map<String, Object> paramValues;
+
+    @Setup
+    public void setup() {
+        mapperStatements = BenchmarkCorpus.mapperStatements();
+        paramValues = BenchmarkCorpus.paramValues();
+    }
+
+    @Benchmark
+    public void extractParams(Blackhole bh) {
+        for (String sql : mapperStatements) bh.consume(SqlParamUtils.extractParams(sql));
+    }
+
+    @Benchmark
+    public void buildFinalSql(Blackhole bh) {
+        for (String sql : mapperStatements) bh.consume(SqlParamUtils.buildFinalSql(sql, paramValues));
+    }
+}
@@ -0,0 +1,56 @@
+-- MySQL dump 10.13  Distrib 8.0.33, for Linux (x86_64)
+--
+-- Host: 127.0.0.1    Database: shop
+-- ------------------------------------------------------
+
+/*!40101 SET @OLD_CHARACTER_SET_CLIENT=@@CHARACTER_SET_CLIENT */;
+/*!40101 SET NAMES utf8mb4 */;
+
+--
+-- Table structure for table `t_order_log`
+--
+
+DROP TABLE IF EXISTS `t_order_log`;
+CREATE TABLE `t_order_log` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `order_id` bigint NOT NULL,
+  `status` tinyint NOT NULL,
+  `create_time` datetime NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (`id`),
+  KEY `idx_order` (`order_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+INSERT INTO `t_order_log` VALUES (1,10086,1,'2025-07-01 10:00:00'),(2,10086,3,'2025-07-01 10:05:00'),(3,10087,1,'2025-07-01 11:00:00');
+
+--
+-- Triggers for table `t_order`
+--
+
+/*!50003 SET @saved_cs_client      = @@character_set_client */ ;
+-- 状态变化时写入订单日志，DELIMITER 前带有注释
+DELIMITER ;;
+/*!50003 CREATE*/ /*!50003 TRIGGER `trg_order_status` AFTER UPDATE ON `t_order` FOR EACH ROW BEGIN
+  IF NEW.status <> OLD.status THEN
+    INSERT INTO t_order_log (order_id, status) VALUES (NEW.id, NEW.status);
+  END IF;
+END */;;
+/* 恢复默认分隔符 */ DELIMITER ;
+/*!50003 SET character_set_client  = @saved_cs_client */ ;
+
+--
+-- Dumping routines for database 'shop'
+--
+
+-- 统计用户订单数
+DELIMITER ;;
+CREATE PROCEDURE `sp_user_order_count`(IN p_user_id BIGINT, OUT p_count INT)
+BEGIN
+  SELECT COUNT(*) INTO p_count FROM t_order WHERE user_id = p_user_id AND deleted = 0;
+END ;;
+DELIMITER ;
+
+SELECT o.id, o.order_no, l.status, l.create_time FROM t_order o JOIN t_order_log l ON l.order_id = o.id WHERE o.user_id = 20001 ORDER BY l.create_time DESC LIMIT 20;
+
+/*!40101 SET CHARACTER_SET_CLIENT=@OLD_CHARACTER_SET_CLIENT */;
+
+-- Dump completed on 2025-07-01 12:00:00
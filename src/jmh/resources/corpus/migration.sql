@@ -0,0 +1,27 @@
+-- 订单模块迁移脚本
+CREATE TABLE t_order_archive (
+  id BIGINT NOT NULL AUTO_INCREMENT COMMENT '主键',
+  order_no VARCHAR(32) NOT NULL COMMENT '订单号',
+  user_id BIGINT NOT NULL COMMENT '用户ID',
+  shop_id BIGINT NOT NULL COMMENT '店铺ID',
+  status TINYINT NOT NULL DEFAULT 0 COMMENT '状态',
+  pay_amount DECIMAL(12, 2) NOT NULL DEFAULT 0.00 COMMENT '实付金额',
+  create_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  PRIMARY KEY (id),
+  UNIQUE KEY uk_order_no (order_no),
+  KEY idx_user_time (user_id, create_time)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='历史订单';
+
+INSERT INTO t_order_archive (order_no, user_id, shop_id, status, pay_amount, create_time) SELECT order_no, user_id, shop_id, status, pay_amount, create_time FROM t_order WHERE create_time < '2024-01-01' AND status IN (3, 4, 5);
+
+DELETE FROM t_order WHERE create_time < '2024-01-01' AND status IN (3, 4, 5) AND id IN (SELECT id FROM t_order_archive);
+
+UPDATE t_user u JOIN (SELECT user_id, COUNT(*) AS cnt, SUM(pay_amount) AS total FROM t_order WHERE deleted = 0 GROUP BY user_id) t ON t.user_id = u.id SET u.order_count = t.cnt, u.total_amount = t.total, u.update_time = NOW();
+
+SELECT DATE_FORMAT(o.create_time, '%Y-%m') AS month, s.shop_name, COUNT(DISTINCT o.user_id) AS buyers, SUM(o.pay_amount) AS gmv FROM t_order o LEFT JOIN t_shop s ON s.id = o.shop_id WHERE o.deleted = 0 AND o.status = 3 GROUP BY month, s.shop_name HAVING gmv > 10000 ORDER BY month DESC, gmv DESC LIMIT 50;
+
+WITH ranked AS (SELECT o.*, ROW_NUMBER() OVER (PARTITION BY o.user_id ORDER BY o.create_time DESC) AS rn FROM t_order o WHERE o.deleted = 0) SELECT r.user_id, r.order_no, r.pay_amount FROM ranked r WHERE r.rn = 1;
+
+ALTER TABLE t_order ADD COLUMN channel VARCHAR(16) NULL COMMENT '下单渠道' AFTER pay_type, ADD INDEX idx_channel (channel);
+
+SELECT u.id, u.nickname, (SELECT COUNT(*) FROM t_order o WHERE o.user_id = u.id AND o.status = 4) AS refund_count, CASE WHEN u.level >= 3 THEN 'VIP' WHEN u.level = 2 THEN 'GOLD' ELSE 'NORMAL' END AS level_name FROM t_user u WHERE u.deleted = 0 AND EXISTS (SELECT 1 FROM t_order o WHERE o.user_id = u.id AND o.create_time > DATE_SUB(NOW(), INTERVAL 30 DAY)) ORDER BY refund_count DESC;
@@ -0,0 +1,188 @@
+package com.chen.action;
+
+import com.chen.constant.MessageConstants;
+import com.chen.dialog.SqlCheckPanel;
+import com.chen.entity.DbConfig;
+import com.chen.entity.MapperStatement;
+import com.chen.entity.SqlStatementRange;
+import com.chen.utils.ConnectionHealthMonitor;
+import com.chen.utils.MapperStatementIndex;
+import com.chen.utils.MapperStatementParser;
+import com.chen.utils.SqlBatchChecker;
+import com.chen.utils.SqlBatchChecker.Target;
+import com.chen.utils.SqlFormatUtil;
+import com.chen.utils.SqlStatementSplitter;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.CommonDataKeys;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.openapi.vfs.VfsUtilCore;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.search.FilenameIndex;
+import com.intellij.psi.search.GlobalSearchScope;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static com.chen.constant.DataSourceConstants.MAX_POOL_SIZE;
+import static com.chen.constant.FileConstant.SQL_SUFFIX;
+import static com.chen.constant.FileConstant.XML;
+import static com.chen.constant.MessageConstants.*;
+import static com.chen.constant.SqlConstants.SQL_CHECK_TIMEOUT_SECONDS;
+import static com.chen.utils.DbConfigUtil.*;
+
+/**
+ * 批量 SQL 检查
+ * 检查范围为当前文件、项目视图中选中的文件或目录，未选中时为整个项目内的 Mapper XML 与 SQL 文件。
+ * 后台任务中按连接池大小并发试运行检查（开启“执行并回滚”时真正执行），每条语句设置执行超时，
+ * 结果逐条展示在 SQL Check 工具窗口中，双击可跳转到对应语句
+ *
+ * @author czh
+ * @version 1.0
+ * @date 2025/7/9
+ */
+public class BatchCheckSqlAction extends AnAction {
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        if (project == null) return;
+        VirtualFile root = e.getData(CommonDataKeys.VIRTUAL_FILE);
+
+        Optional<DbConfig> dbConfigOpt = Optional.ofNullable(loadFromCache(project))
+                .or(() -> Optional.ofNullable(tryLoadDbConfig(project)))
+                .or(() -> Optional.ofNullable(promptUserInputSync(project)));
+        if (!dbConfigOpt.isPresent()) {
+            Messages.showErrorDialog(project,
+                    MessageConstants.SQL_ERROR_NO_DB_CONFIG,
+                    MessageConstants.SQL_ERROR_TITLE);
+            return;
+        }
+        DbConfig dbConfig = dbConfigOpt.get();
+        String dialect = SqlFormatUtil.resolveDialect(dbConfig);
+        boolean execute = CheckByExecuteToggleAction.isEnabled(project);
+        String scope = root == null ? SQL_BATCH_CHECK_SCOPE_PROJECT : root.getPresentableUrl();
+
+        // 未保存的修改先落盘，跳转位置与磁盘内容保持一致
+        FileDocumentManager.getInstance().saveAllDocuments();
+
+        new Task.Backgroundable(project, SQL_BATCH_CHECK_TITLE, true) {
+            private boolean empty;
+            private long elapsed;
+            private SqlCheckPanel panel;
+
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                indicator.setIndeterminate(false);
+                indicator.setText(SQL_BATCH_CHECK_COLLECTING);
+                List<Target> targets = collectTargets(project, root, dialect, indicator);
+                if (targets.isEmpty()) {
+                    empty = true;
+                    return;
+                }
+
+                // 先确认数据源可用，避免每条语句都报同样的连接错误
+                if (!ConnectionHealthMonitor.isAvailable(dbConfig)) {
+                    throw new RuntimeException(SQL_ERROR_CONNECTION_FAIL + "\n"
+                            + ConnectionHealthMonitor.getHealth(dbConfig).getLastError());
+                }
+
+                ApplicationManager.getApplication().invokeAndWait(() -> {
+                    panel = SqlCheckToolWindowFactory.showPanel(project);
+                    if (panel != null) panel.start(scope, targets.size());
+                });
+                if (panel == null) return;
+
+                indicator.setText(SQL_BATCH_CHECK_RUNNING);
+                long begin = System.nanoTime();
+                SqlBatchChecker.checkAll(dbConfig, targets, MAX_POOL_SIZE, SQL_CHECK_TIMEOUT_SECONDS, execute,
+                        indicator, result -> ApplicationManager.getApplication().invokeLater(() -> panel.add(result)));
+                elapsed = (System.nanoTime() - begin) / 1_000_000;
+            }
+
+            @Override
+            public void onSuccess() {
+                if (empty) {
+                    Messages.showInfoMessage(project, SQL_BATCH_CHECK_EMPTY, SQL_BATCH_CHECK_TITLE);
+                } else if (panel != null) {
+                    panel.finish(elapsed);
+                }
+            }
+
+            @Override
+            public void onThrowable(@NotNull Throwable error) {
+                Messages.showErrorDialog(project, error.getMessage(), SQL_ERROR_TITLE_CONNECTION_FAIL);
+            }
+        }.queue();
+    }
+
+    /**
+     * 收集检查范围内的全部语句：Mapper XML 取每个语句标签（展开 include，跳过 sql 片段），SQL 文件按语句拆分
+     */
+    private static List<Target> collectTargets(Project project, VirtualFile root, String dialect,
+                                               ProgressIndicator indicator) {
+        List<VirtualFile> files = ReadAction.compute(() -> collectFiles(project, root));
+        List<Target> targets = new ArrayList<>();
+        for (int i = 0; i < files.size(); i++) {
+            indicator.checkCanceled();
+            VirtualFile file = files.get(i);
+            indicator.setFraction((double) i / files.size());
+            indicator.setText2(file.getPresentableUrl());
+            ReadAction.run(() -> {
+                Document document = FileDocumentManager.getInstance().getDocument(file);
+                if (document == null) return;
+                String text = document.getText();
+                String path = file.getPath();
+                if (SqlStatementSplitter.isMapperXml(text)) {
+                    for (MapperStatement statement : MapperStatementParser.parse(text)) {
+                        if ("sql".equals(statement.getTagName())) continue;
+                        MapperStatement resolved = MapperStatementIndex.resolveExternal(project, statement);
+                        targets.add(new Target(path, statement.getStart(),
+                                document.getLineNumber(statement.getStart()) + 1,
+                                statement.getQualifiedId(), resolved.getResolvedBody(), true));
+                    }
+                } else if (isSqlFile(file)) {
+                    for (SqlStatementRange range : SqlStatementSplitter.splitScript(text, dialect)) {
+                        String sql = text.substring(range.getStart(), range.getEnd());
+                        if (sql.trim().isEmpty()) continue;
+                        targets.add(new Target(path, range.getStart(),
+                                document.getLineNumber(range.getStart()) + 1, null, sql, false));
+                    }
+                }
+            });
+        }
+        return targets;
+    }
+
+    private static List<VirtualFile> collectFiles(Project project, VirtualFile root) {
+        List<VirtualFile> files = new ArrayList<>();
+        if (root == null) {
+            GlobalSearchScope projectScope = GlobalSearchScope.projectScope(project);
+            files.addAll(FilenameIndex.getAllFilesByExt(project, XML, projectScope));
+            files.addAll(FilenameIndex.getAllFilesByExt(project, SQL_SUFFIX.substring(1), projectScope));
+        } else if (root.isDirectory()) {
+            VfsUtilCore.iterateChildrenRecursively(root, null, file -> {
+                if (!file.isDirectory() && (XML.equalsIgnoreCase(file.getExtension()) || isSqlFile(file))) {
+                    files.add(file);
+                }
+                return true;
+            });
+        } else {
+            files.add(root);
+        }
+        return files;
+    }
+
+    private static boolean isSqlFile(VirtualFile file) {
+        return SQL_SUFFIX.equalsIgnoreCase("." + file.getExtension());
+    }
+}
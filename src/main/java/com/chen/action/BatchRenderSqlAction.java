@@ -0,0 +1,95 @@
+package com.chen.action;
+
+import com.chen.entity.BatchRenderResult;
+import com.chen.utils.MapperStatementIndex;
+import com.chen.utils.SqlBatchRenderer;
+import com.chen.utils.SqlFormatUtil;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.CommonDataKeys;
+import com.intellij.openapi.editor.Editor;
+import com.intellij.openapi.fileChooser.FileChooser;
+import com.intellij.openapi.fileChooser.FileChooserDescriptor;
+import com.intellij.openapi.fileChooser.FileChooserDescriptorFactory;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.openapi.vfs.LocalFileSystem;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static com.chen.constant.FileConstant.RENDERED_SQL_SUFFIX;
+import static com.chen.constant.MessageConstants.*;
+import static com.chen.utils.DbConfigUtil.loadFromCache;
+
+/**
+ * 批量生成实际 SQL 操作类
+ * 用于压测数据准备：选中一条 Mapper 语句（或将光标置于语句内）后选择参数文件（CSV / JSON Lines / JSON 数组），
+ * 在后台任务中并行渲染每组参数，结果流式写入参数文件同目录下的 xxx.rendered.sql，完成后提示吞吐量。
+ * 单组参数的预览仍使用 {@link ViewRealSqlAction}
+ *
+ * @author czh
+ * @version 1.0
+ * @date 2025/7/6
+ */
+public class BatchRenderSqlAction extends AnAction {
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        Editor editor = e.getData(CommonDataKeys.EDITOR);
+        if (project == null || editor == null) return;
+
+        String sql = MapperStatementIndex.statementText(project, editor);
+        if (sql == null || sql.trim().isEmpty()) {
+            Messages.showWarningDialog(project, MESSAGE_SELECT_STATEMENT, BATCH_RENDER_TITLE);
+            return;
+        }
+
+        FileChooserDescriptor descriptor = FileChooserDescriptorFactory.createSingleFileNoJarsDescriptor()
+                .withTitle(BATCH_RENDER_TITLE)
+                .withDescription(BATCH_RENDER_CHOOSE_FILE);
+        VirtualFile file = FileChooser.chooseFile(descriptor, project, null);
+        if (file == null || !file.isInLocalFileSystem()) return;
+
+        Path source = file.toNioPath();
+        Path target = source.resolveSibling(file.getNameWithoutExtension() + RENDERED_SQL_SUFFIX);
+        SqlBatchRenderer.Format format = SqlBatchRenderer.Format.of(source);
+        String dialect = SqlFormatUtil.resolveDialect(loadFromCache(project));
+
+        new Task.Backgroundable(project, BATCH_RENDER_TITLE, true) {
+            private BatchRenderResult result;
+
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                indicator.setIndeterminate(false);
+                indicator.setText(BATCH_RENDER_RUNNING);
+                indicator.setText2(file.getPresentableUrl());
+                try {
+                    result = SqlBatchRenderer.render(sql, source, format, target, file.getCharset(),
+                            dialect, AppExecutorUtil.getAppExecutorService(), indicator);
+                } catch (IOException ex) {
+                    throw new RuntimeException(BATCH_RENDER_FAIL_PREFIX + ex.getMessage(), ex);
+                }
+            }
+
+            @Override
+            public void onSuccess() {
+                LocalFileSystem.getInstance().refreshAndFindFileByNioFile(target);
+                Messages.showInfoMessage(project, String.format(BATCH_RENDER_DONE, result.getRendered(),
+                        result.getFailed(), result.getElapsedMillis(), result.getThroughput(), target),
+                        BATCH_RENDER_TITLE);
+            }
+
+            @Override
+            public void onThrowable(@NotNull Throwable error) {
+                Messages.showErrorDialog(project, error.getMessage(), BATCH_RENDER_TITLE);
+            }
+        }.queue();
+    }
+}
@@ -0,0 +1,41 @@
+package com.chen.action;
+
+import com.chen.utils.SqlCacheService;
+import com.chen.utils.SqlTextCache;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.Messages;
+import org.jetbrains.annotations.NotNull;
+
+import static com.chen.constant.MessageConstants.*;
+
+/**
+ * SQL 缓存统计
+ * 展示格式化结果缓存与渲染 SQL 缓存的命中、未命中、占用与淘汰情况，并支持一键清空
+ *
+ * @author czh
+ * @version 1.0
+ * @date 2025/7/2
+ */
+public class CacheStatsAction extends AnAction {
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        if (project == null) return;
+
+        SqlCacheService service = SqlCacheService.getInstance(project);
+        String message = describe(CACHE_STATS_FORMAT_NAME, service.getFormatCache())
+                + "\n" + describe(CACHE_STATS_RENDER_NAME, service.getRenderCache());
+
+        int choice = Messages.showYesNoDialog(project, message, CACHE_STATS_TITLE,
+                CACHE_STATS_CLEAR, CACHE_STATS_CLOSE, Messages.getInformationIcon());
+        if (choice == Messages.YES) service.clear();
+    }
+
+    private static String describe(String name, SqlTextCache cache) {
+        return String.format(CACHE_STATS_LINE, name, cache.getHits(), cache.getMisses(), cache.getHitRate() * 100,
+                cache.getSize(), cache.getTotalChars(), cache.getMaxChars(), cache.getEvictions());
+    }
+}
@@ -0,0 +1,41 @@
+package com.chen.action;
+
+import com.intellij.ide.util.PropertiesComponent;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.ToggleAction;
+import com.intellij.openapi.project.Project;
+import org.jetbrains.annotations.NotNull;
+
+import static com.chen.constant.SqlConstants.SQL_CHECK_EXECUTE_KEY;
+
+/**
+ * SQL 检查方式开关（按项目保存）：开启后执行语句并回滚，关闭时只试运行（预编译 / 解释）
+ *
+ * @author czh
+ * @version 1.0
+ * @date 2025/7/9
+ */
+public class CheckByExecuteToggleAction extends ToggleAction {
+
+    /**
+     * 当前项目是否使用执行并回滚方式检查 SQL
+     *
+     * @param project 当前项目
+     * @return 开启返回 true
+     */
+    public static boolean isEnabled(Project project) {
+        return project != null && PropertiesComponent.getInstance(project).getBoolean(SQL_CHECK_EXECUTE_KEY, false);
+    }
+
+    @Override
+    public boolean isSelected(@NotNull AnActionEvent e) {
+        return isEnabled(e.getProject());
+    }
+
+    @Override
+    public void setSelected(@NotNull AnActionEvent e, boolean state) {
+        Project project = e.getProject();
+        if (project == null) return;
+        PropertiesComponent.getInstance(project).setValue(SQL_CHECK_EXECUTE_KEY, state, false);
+    }
+}
@@ -0,0 +1,94 @@
+package com.chen.action;
+
+import com.chen.entity.DbConfig;
+import com.chen.entity.PlanHistoryEntry;
+import com.chen.entity.PlanNode;
+import com.chen.entity.PreparedSql;
+import com.chen.utils.ConnectionHealthMonitor;
+import com.chen.utils.ExplainPlanUtil;
+import com.chen.utils.HtmlViewerUtil;
+import com.chen.utils.PlanHistoryUtil;
+import com.chen.utils.SqlHtmlUtil;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.Messages;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.chen.constant.MessageConstants.*;
+import static com.chen.utils.DbConfigUtil.loadFromCache;
+
+/**
+ * 执行计划回归检查
+ * 表结构变更或依赖升级后，重新获取当前数据源下所有记录过的语句的执行计划，
+ * 与各自上一次的计划比较，列出新增全表扫描、不再使用索引、预估行数激增的语句。
+ * 检查不写入历史，回归会一直报告，直到通过“执行计划分析”重新获取该语句的计划作为新的基准
+ *
+ * @author czh
+ * @version 1.0
+ * @date 2025/7/9
+ */
+public class CheckPlanRegressionAction extends AnAction {
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        if (project == null) return;
+        DbConfig dbConfig = loadFromCache(project);
+        if (dbConfig == null) {
+            Messages.showErrorDialog(project, SQL_ERROR_NO_DB_CONFIG, SQL_ERROR_TITLE);
+            return;
+        }
+        List<PlanHistoryEntry> entries = PlanHistoryUtil.latestEntries(project, dbConfig);
+        if (entries.isEmpty()) {
+            Messages.showInfoMessage(project, PLAN_REGRESSION_EMPTY, PLAN_REGRESSION_TITLE);
+            return;
+        }
+        new Task.Backgroundable(project, PLAN_REGRESSION_TITLE, true) {
+            private final Map<String, List<String>> regressions = new LinkedHashMap<>();
+
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                if (!ConnectionHealthMonitor.isAvailable(dbConfig)) {
+                    throw new RuntimeException(SQL_ERROR_CONNECTION_FAIL + "\n"
+                            + ConnectionHealthMonitor.getHealth(dbConfig).getLastError());
+                }
+                indicator.setIndeterminate(false);
+                indicator.setText(PLAN_REGRESSION_RUNNING);
+                for (int i = 0; i < entries.size(); i++) {
+                    indicator.checkCanceled();
+                    indicator.setFraction((double) i / entries.size());
+                    PlanHistoryEntry entry = entries.get(i);
+                    PreparedSql sql = PlanHistoryUtil.replaySql(entry);
+                    try {
+                        PlanNode plan = ExplainPlanUtil.explain(dbConfig, sql);
+                        if (plan == null) continue;
+                        List<String> problems = PlanHistoryUtil.compare(entry, plan);
+                        if (!problems.isEmpty()) regressions.put(entry.getSql(), problems);
+                    } catch (Exception ex) {
+                        // 表或字段被删除等导致语句失效，同样需要关注
+                        regressions.put(entry.getSql(), List.of(ERROR_ANALYZE_FAIL_PREFIX + ex.getMessage()));
+                    }
+                }
+            }
+
+            @Override
+            public void onSuccess() {
+                HtmlViewerUtil.showHtml(project, SqlHtmlUtil.buildPlanRegressionHtml(regressions, entries.size()),
+                        PLAN_REGRESSION_TITLE, null, false);
+            }
+
+            @Override
+            public void onThrowable(@NotNull Throwable error) {
+                Messages.showErrorDialog(project, PLAN_REGRESSION_FAIL_PREFIX + error.getMessage(),
+                        PLAN_REGRESSION_TITLE);
+            }
+        }.queue();
+    }
+}
@@ -2,6 +2,8 @@ package com.chen.action;
 
 import com.chen.constant.MessageConstants;
 import com.chen.entity.DbConfig;
+import com.chen.entity.PreparedSql;
+import com.chen.utils.ConnectionHealthMonitor;
 import com.chen.utils.SqlCheckUtil;
 import com.intellij.openapi.actionSystem.AnAction;
 import com.intellij.openapi.actionSystem.AnActionEvent;
@@ -11,10 +13,10 @@ import com.intellij.openapi.project.Project;
 import com.intellij.openapi.ui.Messages;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Collections;
 import java.util.Optional;
 
 import static com.chen.utils.DbConfigUtil.*;
-import static com.chen.utils.JdbcTableInfoUtil.testConnection;
 
 /**
  * @author czh
@@ -62,23 +64,19 @@ public class CheckSqlAction extends AnAction {
 
         DbConfig dbConfig = dbConfigOpt.get();
 
-        try {
-            if (!testConnection(dbConfig)) {
-                Messages.showErrorDialog(e.getProject(),
-                        MessageConstants.SQL_ERROR_CONNECTION_FAIL,
-                        MessageConstants.SQL_ERROR_TITLE_CONNECTION_FAIL);
-                return;
-            }
-        } catch (Exception ex) {
+        // 读取健康监控的缓存状态，数据源熔断期间直接提示，不再重新建立连接
+        if (!ConnectionHealthMonitor.isAvailable(dbConfig)) {
             Messages.showErrorDialog(e.getProject(),
-                    "数据库连接异常：" + ex.getMessage(),
+                    MessageConstants.SQL_ERROR_CONNECTION_FAIL + "\n"
+                            + ConnectionHealthMonitor.getHealth(dbConfig).getLastError(),
                     MessageConstants.SQL_ERROR_TITLE_CONNECTION_FAIL);
             return;
         }
 
 
         // 语法检查
-        String syntaxResult = SqlCheckUtil.checkSQLWithRollback(dbConfig, sql);
+        String syntaxResult = SqlCheckUtil.checkSQL(dbConfig, new PreparedSql(sql, Collections.emptyList()),
+                0, CheckByExecuteToggleAction.isEnabled(project));
         if (syntaxResult != null) {
             Messages.showErrorDialog(project,
                     syntaxResult,
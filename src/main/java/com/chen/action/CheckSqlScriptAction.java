@@ -0,0 +1,114 @@
+package com.chen.action;
+
+import com.chen.dialog.SqlCheckPanel;
+import com.chen.entity.DbConfig;
+import com.chen.entity.SqlStatementRange;
+import com.chen.utils.SqlBatchChecker.Target;
+import com.chen.utils.SqlFormatUtil;
+import com.chen.utils.SqlScriptChecker;
+import com.chen.utils.SqlStatementSplitter;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.CommonDataKeys;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.openapi.vfs.VirtualFile;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static com.chen.constant.FileConstant.SQL_SUFFIX;
+import static com.chen.constant.MessageConstants.*;
+import static com.chen.constant.SqlConstants.SQL_CHECK_TIMEOUT_SECONDS;
+import static com.chen.utils.DbConfigUtil.*;
+
+/**
+ * SQL 脚本检查操作类
+ * 在单个连接、单个事务中按顺序执行迁移脚本的全部语句（每条语句一个保存点，出错回滚到保存点后继续），
+ * 结束后整体回滚；每条语句的结果与耗时按顺序展示在 SQL Check 工具窗口中
+ *
+ * @author czh
+ * @version 1.0
+ * @date 2025/7/9
+ */
+public class CheckSqlScriptAction extends AnAction {
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        VirtualFile file = e.getData(CommonDataKeys.VIRTUAL_FILE);
+        if (project == null) return;
+        if (file == null || file.isDirectory() || !SQL_SUFFIX.equalsIgnoreCase("." + file.getExtension())) {
+            Messages.showWarningDialog(project, SCRIPT_CHECK_NOT_SQL, SCRIPT_CHECK_TITLE);
+            return;
+        }
+
+        Optional<DbConfig> dbConfigOpt = Optional.ofNullable(loadFromCache(project))
+                .or(() -> Optional.ofNullable(tryLoadDbConfig(project)))
+                .or(() -> Optional.ofNullable(promptUserInputSync(project)));
+        if (!dbConfigOpt.isPresent()) {
+            Messages.showErrorDialog(project, SQL_ERROR_NO_DB_CONFIG, SQL_ERROR_TITLE);
+            return;
+        }
+        DbConfig dbConfig = dbConfigOpt.get();
+        String dialect = SqlFormatUtil.resolveDialect(dbConfig);
+
+        List<Target> statements = ReadAction.compute(() -> collectStatements(file, dialect));
+        if (statements.isEmpty()) {
+            Messages.showInfoMessage(project, SQL_BATCH_CHECK_EMPTY, SCRIPT_CHECK_TITLE);
+            return;
+        }
+        SqlCheckPanel panel = SqlCheckToolWindowFactory.showPanel(project);
+        if (panel == null) return;
+        panel.start(file.getPresentableUrl(), statements.size(), true);
+
+        new Task.Backgroundable(project, SCRIPT_CHECK_TITLE, true) {
+            private long elapsed;
+
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                indicator.setIndeterminate(false);
+                indicator.setText(SCRIPT_CHECK_RUNNING);
+                long begin = System.nanoTime();
+                SqlScriptChecker.check(dbConfig, statements, SQL_CHECK_TIMEOUT_SECONDS, indicator,
+                        result -> ApplicationManager.getApplication().invokeLater(() -> panel.add(result)));
+                elapsed = (System.nanoTime() - begin) / 1_000_000;
+            }
+
+            @Override
+            public void onSuccess() {
+                panel.finish(elapsed);
+            }
+
+            @Override
+            public void onThrowable(@NotNull Throwable error) {
+                Messages.showErrorDialog(project, error.getMessage(), SCRIPT_CHECK_TITLE);
+            }
+        }.queue();
+    }
+
+    /**
+     * 按分号拆分脚本，使用编辑器中的最新内容
+     */
+    private static List<Target> collectStatements(VirtualFile file, String dialect) {
+        List<Target> statements = new ArrayList<>();
+        Document document = FileDocumentManager.getInstance().getDocument(file);
+        if (document == null) return statements;
+        String text = document.getText();
+        for (SqlStatementRange range : SqlStatementSplitter.splitScript(text, dialect)) {
+            String sql = text.substring(range.getStart(), range.getEnd());
+            if (sql.trim().isEmpty()) continue;
+            statements.add(new Target(file.getPath(), range.getStart(),
+                    document.getLineNumber(range.getStart()) + 1, null, sql, false));
+        }
+        return statements;
+    }
+}
@@ -2,6 +2,7 @@ package com.chen.action;
 
 import com.chen.entity.DbConfig;
 import com.chen.utils.DataSourceManager;
+import com.chen.utils.SqlHtmlUtil;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.wm.ToolWindow;
 import com.intellij.openapi.wm.ToolWindowFactory;
@@ -109,9 +110,6 @@ public class ERDiagramToolWindowFactory implements ToolWindowFactory {
      * @throws IOException  IO异常（js文件读取）
      */
     public String buildERHtml(Connection conn) throws SQLException, IOException {
-        StringBuilder nodesBuilder = new StringBuilder();
-        StringBuilder edgesBuilder = new StringBuilder();
-
         String catalog = conn.getCatalog();
 
         // 1. 批量查询所有表备注
@@ -123,41 +121,10 @@ public class ERDiagramToolWindowFactory implements ToolWindowFactory {
         // 3. 批量查询所有外键信息
         List<Map<String, String>> links = queryForeignKeys(conn, catalog);
 
-        // 4. 生成节点（表+备注+字段）
-        for (Map.Entry<String, Map<String, String>> entry : tableFields.entrySet()) {
-            String table = entry.getKey();
-            Map<String, String> fields = entry.getValue();
-            StringBuilder label = new StringBuilder();
-            label.append(table);
-            // 拼接表备注（如 user(用户表)）
-            if (tableRemarks.containsKey(table) && !tableRemarks.get(table).isEmpty()) {
-                label.append("(").append(tableRemarks.get(table)).append(")");
-            }
-            label.append("\\n———\\n");
-            // 拼接字段及备注
-            for (Map.Entry<String, String> field : fields.entrySet()) {
-                label.append(field.getKey()).append(": ").append(field.getValue()).append("\\n");
-            }
-            nodesBuilder.append("g.setNode(\"").append(table).append("\", {\n")
-                    .append("label: \"").append(label.toString().replace("\"", "\\\"")).append("\",\n")
-                    .append("shape: \"rect\"\n")
-                    .append("});\n");
-        }
-
-        // 5. 生成边（外键关系）
-        for (Map<String, String> link : links) {
-            edgesBuilder.append("g.setEdge(\"").append(link.get("from")).append("\", \"")
-                    .append(link.get("to")).append("\", {\n")
-                    .append("label: \"").append(link.get("label")).append("\",\n")
-                    .append("lineInterpolate: \"basis\",\n")
-                    .append("arrowhead: \"vee\"\n")
-                    .append("});\n");
-        }
-
-        // 6. 读取d3.js和dagre-d3.js资源
+        // 4. 读取d3.js和dagre-d3.js资源，生成节点、边与页面
         String d3Js = readJsResource(D3_JS_PATH);
         String dagreJs = readJsResource(DAGRE_JS_PATH);
-        return String.format(HTML_TEMPLATE, d3Js, dagreJs, nodesBuilder, edgesBuilder);
+        return SqlHtmlUtil.buildERHtml(tableRemarks, tableFields, links, d3Js, dagreJs);
     }
 
     /**
@@ -283,82 +250,4 @@ public class ERDiagramToolWindowFactory implements ToolWindowFactory {
         JOptionPane.showMessageDialog(parent, message, "提示", JOptionPane.INFORMATION_MESSAGE);
     }
 
-    /**
-     * ER图HTML模板，内嵌D3与Dagre-D3绘图脚本和样式
-     */
-    private static final String HTML_TEMPLATE = """
-        <!DOCTYPE html>
-        <html>
-        <head>
-            <meta charset="UTF-8" />
-            <title>ER 图</title>
-            <script>
-            %s
-            </script>
-            <script>
-            %s
-            </script>
-            <style>
-                html, body { margin:0; padding:0; width:100vw; height:100vh; background:#1e1e1e; overflow:hidden; }
-                svg { width: 100%%; height: 100%%; cursor: grab; user-select: none; }
-                .node rect { fill:#4e88af; stroke:#333; stroke-width:1.5px; rx:8; ry:8; cursor:move; }
-                .node text { fill:white; font-family:monospace; font-size:12px; white-space:pre; pointer-events: none; }
-                .edgePath path { stroke:#ccc; stroke-width:1.5px; fill:none; }
-                .edgeLabel text { fill:#ccc; font-size:11px; }
-            </style>
-        </head>
-        <body>
-        <svg id="svg-canvas">
-            <g id="graph-container"></g>
-        </svg>
-        <script>
-            const g = new dagreD3.graphlib.Graph().setGraph({
-                rankdir: "LR", nodesep: 40, ranksep: 100, marginx: 20, marginy: 20
-            });
-            %s
-            %s
-            const svg = d3.select("#svg-canvas");
-            const inner = svg.select("#graph-container");
-            const render = new dagreD3.render();
-            render(inner, g);
-
-            inner.selectAll("g.node")
-                .attr("transform", d => {
-                    const node = g.node(d);
-                    node.x = node.x || 0;
-                    node.y = node.y || 0;
-                    return `translate(${node.x},${node.y})`;
-                });
-
-            const zoom = d3.zoom()
-                .scaleExtent([0.1, 2])
-                .on("zoom", event => {
-                    inner.attr("transform", event.transform);
-                });
-            svg.call(zoom);
-            svg.call(zoom.transform, d3.zoomIdentity.translate(20, 20).scale(1));
-
-            const drag = d3.drag()
-                .on("drag", (event, nodeId) => {
-                    const node = g.node(nodeId);
-                    node.x += event.dx;
-                    node.y += event.dy;
-                    inner.select(`g.node[id='${nodeId}']`).attr("transform", `translate(${node.x},${node.y})`);
-                    inner.selectAll("g.edgePath").each(function(d) {
-                        const edge = g.edge(d);
-                        const sourceNode = g.node(d.v);
-                        const targetNode = g.node(d.w);
-                        if (!sourceNode || !targetNode) return;
-                        const path = `M${sourceNode.x},${sourceNode.y}L${targetNode.x},${targetNode.y}`;
-                        d3.select(this).select("path").attr("d", path);
-                    });
-                });
-
-            inner.selectAll("g.node")
-                .attr("id", d => d)
-                .call(drag);
-        </script>
-        </body>
-        </html>
-        """;
 }
\ No newline at end of file
@@ -0,0 +1,42 @@
+package com.chen.action;
+
+import com.intellij.ide.util.PropertiesComponent;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.ToggleAction;
+import com.intellij.openapi.project.Project;
+import org.jetbrains.annotations.NotNull;
+
+import static com.chen.constant.SqlConstants.EXPLAIN_ANALYZE_KEY;
+
+/**
+ * 执行计划分析方式开关（按项目保存）：开启后使用 EXPLAIN ANALYZE 真正执行语句（事务内执行并回滚），
+ * 展示实际行数与耗时；关闭时只获取预估计划
+ *
+ * @author czh
+ * @version 1.0
+ * @date 2025/7/9
+ */
+public class ExplainAnalyzeToggleAction extends ToggleAction {
+
+    /**
+     * 当前项目是否使用 EXPLAIN ANALYZE 分析执行计划
+     *
+     * @param project 当前项目
+     * @return 开启返回 true
+     */
+    public static boolean isEnabled(Project project) {
+        return project != null && PropertiesComponent.getInstance(project).getBoolean(EXPLAIN_ANALYZE_KEY, false);
+    }
+
+    @Override
+    public boolean isSelected(@NotNull AnActionEvent e) {
+        return isEnabled(e.getProject());
+    }
+
+    @Override
+    public void setSelected(@NotNull AnActionEvent e, boolean state) {
+        Project project = e.getProject();
+        if (project == null) return;
+        PropertiesComponent.getInstance(project).setValue(EXPLAIN_ANALYZE_KEY, state, false);
+    }
+}
@@ -0,0 +1,186 @@
+package com.chen.action;
+
+import com.chen.entity.TextReplacement;
+import com.chen.utils.SqlCacheService;
+import com.chen.utils.SqlFormatUtil;
+import com.chen.utils.SqlStatementSplitter;
+import com.chen.utils.SqlTextCache;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.search.FilenameIndex;
+import com.intellij.psi.search.GlobalSearchScope;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static com.chen.constant.FileConstant.XML;
+import static com.chen.constant.MessageConstants.*;
+import static com.chen.utils.DbConfigUtil.loadFromCache;
+
+/**
+ * 批量格式化项目内全部 Mapper XML
+ * 后台任务中并行格式化所有语句（支持进度展示与取消），完成后分批写回文档，
+ * 每批文件合并为一次 WriteCommandAction，期间被修改过的文件自动跳过
+ *
+ * @author czh
+ * @version 1.0
+ * @date 2025/6/29
+ */
+public class FormatAllMapperAction extends AnAction {
+
+    /** 每个写命令处理的文件数 */
+    private static final int WRITE_BATCH_SIZE = 200;
+
+    /**
+     * 待写回的单个文件格式化结果
+     */
+    private static final class FileResult {
+        private final Document document;
+        private final long modificationStamp;
+        private final List<TextReplacement> replacements;
+
+        FileResult(Document document, long modificationStamp, List<TextReplacement> replacements) {
+            this.document = document;
+            this.modificationStamp = modificationStamp;
+            this.replacements = replacements;
+        }
+    }
+
+    /**
+     * 读取到的单个 Mapper 文件快照
+     */
+    private static final class MapperSnapshot {
+        private final VirtualFile file;
+        private final Document document;
+        private final long modificationStamp;
+        private final String text;
+
+        MapperSnapshot(VirtualFile file, Document document, long modificationStamp, String text) {
+            this.file = file;
+            this.document = document;
+            this.modificationStamp = modificationStamp;
+            this.text = text;
+        }
+    }
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        if (project == null) return;
+        String dialect = SqlFormatUtil.resolveDialect(loadFromCache(project));
+        SqlTextCache formatCache = SqlCacheService.getInstance(project).getFormatCache();
+
+        new Task.Backgroundable(project, FORMAT_ALL_TITLE, true) {
+            private List<FileResult> results = List.of();
+
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                indicator.setIndeterminate(false);
+                indicator.setText(FORMAT_ALL_SCANNING);
+                List<MapperSnapshot> mappers = collectMappers(project, indicator);
+
+                indicator.setText(FORMAT_ALL_RUNNING);
+                results = formatInParallel(mappers, dialect, formatCache, indicator);
+            }
+
+            @Override
+            public void onSuccess() {
+                int changed = applyInBatches(project, results);
+                Messages.showInfoMessage(project, FORMAT_ALL_DONE_PREFIX + changed, FORMAT_ALL_TITLE);
+            }
+        }.queue();
+    }
+
+    /**
+     * 在读操作中收集项目内所有 Mapper XML 的文档快照
+     */
+    private static List<MapperSnapshot> collectMappers(Project project, ProgressIndicator indicator) {
+        Collection<VirtualFile> xmlFiles = ReadAction.compute(() ->
+                FilenameIndex.getAllFilesByExt(project, XML, GlobalSearchScope.projectScope(project)));
+        List<MapperSnapshot> mappers = new ArrayList<>();
+        for (VirtualFile file : xmlFiles) {
+            indicator.checkCanceled();
+            MapperSnapshot snapshot = ReadAction.compute(() -> {
+                Document document = FileDocumentManager.getInstance().getDocument(file);
+                if (document == null || !document.isWritable()) return null;
+                String text = document.getText();
+                if (!SqlStatementSplitter.isMapperXml(text)) return null;
+                return new MapperSnapshot(file, document, document.getModificationStamp(), text);
+            });
+            if (snapshot != null) mappers.add(snapshot);
+        }
+        return mappers;
+    }
+
+    /**
+     * 在独立的 ForkJoinPool 中并行格式化所有 Mapper，每个文件完成后更新进度并响应取消
+     */
+    private static List<FileResult> formatInParallel(List<MapperSnapshot> mappers, String dialect,
+                                                     SqlTextCache formatCache, ProgressIndicator indicator) {
+        int total = mappers.size();
+        AtomicInteger done = new AtomicInteger();
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+        try {
+            List<FileResult> results = pool.submit(() -> mappers.parallelStream()
+                    .map(snapshot -> {
+                        if (indicator.isCanceled()) return null;
+                        List<TextReplacement> replacements = SqlFormatUtil.formatStatements(snapshot.text, dialect, formatCache);
+                        indicator.setFraction((double) done.incrementAndGet() / total);
+                        indicator.setText2(snapshot.file.getPresentableUrl());
+                        return replacements.isEmpty() ? null
+                                : new FileResult(snapshot.document, snapshot.modificationStamp, replacements);
+                    })
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList())).get();
+            indicator.checkCanceled();
+            return results;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return List.of();
+        } catch (ExecutionException ex) {
+            throw new RuntimeException(ex.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * 分批写回格式化结果，每批一个写命令；格式化期间被修改过的文档跳过
+     *
+     * @return 实际修改的文件数
+     */
+    private static int applyInBatches(Project project, List<FileResult> results) {
+        AtomicInteger changed = new AtomicInteger();
+        for (int from = 0; from < results.size(); from += WRITE_BATCH_SIZE) {
+            List<FileResult> batch = results.subList(from, Math.min(results.size(), from + WRITE_BATCH_SIZE));
+            WriteCommandAction.runWriteCommandAction(project, FORMAT_ALL_TITLE, null, () -> {
+                for (FileResult result : batch) {
+                    if (result.document.getModificationStamp() != result.modificationStamp) continue;
+                    List<TextReplacement> replacements = result.replacements;
+                    for (int i = replacements.size() - 1; i >= 0; i--) {
+                        TextReplacement replacement = replacements.get(i);
+                        result.document.replaceString(replacement.getStart(), replacement.getEnd(), replacement.getText());
+                    }
+                    changed.incrementAndGet();
+                }
+            });
+        }
+        return changed.get();
+    }
+}
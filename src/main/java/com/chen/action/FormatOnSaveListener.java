@@ -0,0 +1,45 @@
+package com.chen.action;
+
+import com.chen.utils.MapperSaveFormatter;
+import com.chen.utils.SqlCacheService;
+import com.chen.utils.SqlFormatUtil;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.fileEditor.FileDocumentManagerListener;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectFileIndex;
+import com.intellij.openapi.vfs.VirtualFile;
+import org.jetbrains.annotations.NotNull;
+
+import static com.chen.constant.FileConstant.XML;
+import static com.chen.utils.DbConfigUtil.loadFromCache;
+
+/**
+ * 保存时格式化 Mapper XML
+ * 开启“保存时格式化 Mapper”后，项目内的 Mapper XML 在保存前自动格式化发生变化的语句，
+ * 单个文件有严格的时间预算，不会拖慢保存
+ *
+ * @author czh
+ * @version 1.0
+ * @date 2025/7/3
+ */
+public class FormatOnSaveListener implements FileDocumentManagerListener {
+
+    private final Project project;
+
+    public FormatOnSaveListener(Project project) {
+        this.project = project;
+    }
+
+    @Override
+    public void beforeDocumentSaving(@NotNull Document document) {
+        if (project.isDisposed() || !FormatOnSaveToggleAction.isEnabled(project)) return;
+        VirtualFile file = FileDocumentManager.getInstance().getFile(document);
+        if (file == null || !XML.equalsIgnoreCase(file.getExtension()) || !document.isWritable()) return;
+        if (!ProjectFileIndex.getInstance(project).isInContent(file)) return;
+
+        String dialect = SqlFormatUtil.resolveDialect(loadFromCache(project));
+        MapperSaveFormatter.formatOnSave(project, document, dialect,
+                SqlCacheService.getInstance(project).getFormatCache());
+    }
+}
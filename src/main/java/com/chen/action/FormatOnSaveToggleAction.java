@@ -0,0 +1,42 @@
+package com.chen.action;
+
+import com.intellij.ide.util.PropertiesComponent;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.ToggleAction;
+import com.intellij.openapi.project.Project;
+import org.jetbrains.annotations.NotNull;
+
+import static com.chen.constant.SqlConstants.FORMAT_ON_SAVE_KEY;
+
+/**
+ * 保存时格式化 Mapper 开关（按项目保存）
+ *
+ * @author czh
+ * @version 1.0
+ * @date 2025/7/3
+ */
+public class FormatOnSaveToggleAction extends ToggleAction {
+
+    /**
+     * 当前项目是否开启保存时格式化
+     *
+     * @param project 当前项目
+     * @return 开启返回 true
+     */
+    public static boolean isEnabled(Project project) {
+        return PropertiesComponent.getInstance(project).getBoolean(FORMAT_ON_SAVE_KEY, false);
+    }
+
+    @Override
+    public boolean isSelected(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        return project != null && isEnabled(project);
+    }
+
+    @Override
+    public void setSelected(@NotNull AnActionEvent e, boolean state) {
+        Project project = e.getProject();
+        if (project == null) return;
+        PropertiesComponent.getInstance(project).setValue(FORMAT_ON_SAVE_KEY, state, false);
+    }
+}
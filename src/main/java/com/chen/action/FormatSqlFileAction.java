@@ -0,0 +1,85 @@
+package com.chen.action;
+
+import com.chen.utils.SqlFormatUtil;
+import com.chen.utils.SqlStreamFormatter;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.CommonDataKeys;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.openapi.vfs.LocalFileSystem;
+import com.intellij.openapi.vfs.VirtualFile;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static com.chen.constant.FileConstant.FORMATTED_SQL_SUFFIX;
+import static com.chen.constant.FileConstant.SQL_SUFFIX;
+import static com.chen.constant.MessageConstants.*;
+import static com.chen.utils.DbConfigUtil.loadFromCache;
+
+/**
+ * 大 SQL 文件流式格式化操作类
+ * 针对 SQL 导出、迁移脚本等超大文件，不载入编辑器文档，
+ * 在后台任务中逐条语句格式化并写出到同目录下的 xxx.formatted.sql
+ *
+ * @author czh
+ * @version 1.0
+ * @date 2025/6/30
+ */
+public class FormatSqlFileAction extends AnAction {
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        VirtualFile file = e.getData(CommonDataKeys.VIRTUAL_FILE);
+        if (project == null) return;
+        if (file == null || file.isDirectory() || !file.isInLocalFileSystem()
+                || !SQL_SUFFIX.equalsIgnoreCase("." + file.getExtension())) {
+            Messages.showWarningDialog(project, FORMAT_FILE_NOT_SQL, FORMAT_FILE_TITLE);
+            return;
+        }
+
+        // 已打开且未保存的修改先落盘，保证读取到的是最新内容
+        FileDocumentManager documentManager = FileDocumentManager.getInstance();
+        Document document = documentManager.getCachedDocument(file);
+        if (document != null) documentManager.saveDocument(document);
+
+        String dialect = SqlFormatUtil.resolveDialect(loadFromCache(project));
+        Path source = file.toNioPath();
+        String name = file.getNameWithoutExtension() + FORMATTED_SQL_SUFFIX;
+        Path target = source.resolveSibling(name);
+
+        new Task.Backgroundable(project, FORMAT_FILE_TITLE, true) {
+            private long count;
+
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                indicator.setIndeterminate(false);
+                indicator.setText(file.getPresentableUrl());
+                try {
+                    count = SqlStreamFormatter.formatFile(source, target, dialect, file.getCharset(), indicator);
+                } catch (IOException ex) {
+                    throw new RuntimeException(FORMAT_FILE_FAIL_PREFIX + ex.getMessage(), ex);
+                }
+            }
+
+            @Override
+            public void onSuccess() {
+                LocalFileSystem.getInstance().refreshAndFindFileByNioFile(target);
+                Messages.showInfoMessage(project,
+                        FORMAT_FILE_DONE_PREFIX + count + "\n" + target, FORMAT_FILE_TITLE);
+            }
+
+            @Override
+            public void onThrowable(@NotNull Throwable error) {
+                Messages.showErrorDialog(project, error.getMessage(), FORMAT_FILE_TITLE);
+            }
+        }.queue();
+    }
+}
@@ -0,0 +1,101 @@
+package com.chen.action;
+
+import com.chen.entity.DbConfig;
+import com.chen.entity.SchemaSnapshot;
+import com.chen.utils.MapperStatementIndex;
+import com.chen.utils.OfflineSqlValidator;
+import com.chen.utils.SchemaSnapshotUtil;
+import com.chen.utils.SqlTemplate;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.CommonDataKeys;
+import com.intellij.openapi.editor.Editor;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.Messages;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import static com.chen.constant.FileConstant.DATE_FORMAT;
+import static com.chen.constant.MessageConstants.*;
+import static com.chen.utils.DbConfigUtil.*;
+
+/**
+ * 离线 SQL 校验
+ * 按项目中缓存的表结构快照校验选中 SQL 或光标所在 Mapper 语句引用的表、字段与比较类型，
+ * 不访问数据库；快照不存在时先在后台读取一次表结构
+ *
+ * @author czh
+ * @version 1.0
+ * @date 2025/7/9
+ */
+public class OfflineCheckSqlAction extends AnAction {
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        Editor editor = e.getData(CommonDataKeys.EDITOR);
+        if (project == null || editor == null) return;
+
+        String statement = MapperStatementIndex.statementText(project, editor);
+        if (statement == null || statement.trim().isEmpty()) {
+            Messages.showWarningDialog(project, MESSAGE_SELECT_STATEMENT, OFFLINE_CHECK_TITLE);
+            return;
+        }
+        // MyBatis 语句按全部分支渲染，动态片段都参与校验，参数位置为 ? 占位符
+        String sql = SqlTemplate.compile(statement).renderAllBranches().getSql();
+
+        Optional<DbConfig> dbConfigOpt = Optional.ofNullable(loadFromCache(project))
+                .or(() -> Optional.ofNullable(tryLoadDbConfig(project)))
+                .or(() -> Optional.ofNullable(promptUserInputSync(project)));
+        if (!dbConfigOpt.isPresent()) {
+            Messages.showErrorDialog(project, SQL_ERROR_NO_DB_CONFIG, SQL_ERROR_TITLE);
+            return;
+        }
+        DbConfig dbConfig = dbConfigOpt.get();
+
+        // 读取快照文件与首次采集表结构都在后台进行
+        new Task.Backgroundable(project, SCHEMA_SNAPSHOT_TITLE, true) {
+            private SchemaSnapshot captured;
+
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                indicator.setText(SCHEMA_SNAPSHOT_RUNNING);
+                try {
+                    captured = SchemaSnapshotUtil.loadOrCapture(project, dbConfig);
+                } catch (IOException ex) {
+                    throw new RuntimeException(ex);
+                }
+            }
+
+            @Override
+            public void onSuccess() {
+                showResult(project, captured, sql);
+            }
+
+            @Override
+            public void onThrowable(@NotNull Throwable error) {
+                Messages.showErrorDialog(project, SCHEMA_SNAPSHOT_FAIL_PREFIX + error.getMessage(),
+                        SCHEMA_SNAPSHOT_TITLE);
+            }
+        }.queue();
+    }
+
+    private static void showResult(Project project, SchemaSnapshot snapshot, String sql) {
+        List<String> problems = OfflineSqlValidator.validate(snapshot, sql);
+        if (problems.isEmpty()) {
+            String capturedAt = new SimpleDateFormat(DATE_FORMAT).format(new Date(snapshot.getCapturedAt()));
+            int tables = snapshot.getTables() == null ? 0 : snapshot.getTables().size();
+            Messages.showInfoMessage(project, String.format(OFFLINE_CHECK_PASSED, capturedAt, tables),
+                    OFFLINE_CHECK_TITLE);
+            return;
+        }
+        Messages.showWarningDialog(project, OFFLINE_CHECK_FAILED + String.join("\n", problems), OFFLINE_CHECK_TITLE);
+    }
+}
@@ -0,0 +1,43 @@
+package com.chen.action;
+
+import com.intellij.ide.util.PropertiesComponent;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.ToggleAction;
+import com.intellij.openapi.project.Project;
+import org.jetbrains.annotations.NotNull;
+
+import static com.chen.constant.SqlConstants.PLAN_HISTORY_KEEP_VALUES_KEY;
+
+/**
+ * 执行计划历史保存参数值开关（按项目保存，默认关闭）：关闭时历史文件只记录参数类型，
+ * 回归检查以同类型的中性值重新获取计划；开启后明文记录输入的参数值，回归检查按原值重放
+ *
+ * @author czh
+ * @version 1.0
+ * @date 2025/7/9
+ */
+public class PlanHistoryKeepValuesToggleAction extends ToggleAction {
+
+    /**
+     * 当前项目的执行计划历史是否保存参数值
+     *
+     * @param project 当前项目
+     * @return 开启返回 true
+     */
+    public static boolean isEnabled(Project project) {
+        return project != null
+                && PropertiesComponent.getInstance(project).getBoolean(PLAN_HISTORY_KEEP_VALUES_KEY, false);
+    }
+
+    @Override
+    public boolean isSelected(@NotNull AnActionEvent e) {
+        return isEnabled(e.getProject());
+    }
+
+    @Override
+    public void setSelected(@NotNull AnActionEvent e, boolean state) {
+        Project project = e.getProject();
+        if (project == null) return;
+        PropertiesComponent.getInstance(project).setValue(PLAN_HISTORY_KEEP_VALUES_KEY, state, false);
+    }
+}
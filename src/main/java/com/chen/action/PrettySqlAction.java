@@ -1,26 +1,44 @@
 package com.chen.action;
 
-import com.chen.entity.DbConfig;
+import com.chen.entity.TextReplacement;
+import com.chen.utils.IncrementalSqlFormatter;
+import com.chen.utils.SqlCacheService;
 import com.chen.utils.SqlFormatUtil;
+import com.chen.utils.SqlStatementSplitter;
+import com.chen.utils.SqlTextCache;
 import com.intellij.openapi.actionSystem.AnAction;
 import com.intellij.openapi.actionSystem.AnActionEvent;
 import com.intellij.openapi.actionSystem.CommonDataKeys;
 import com.intellij.openapi.command.WriteCommandAction;
-import com.intellij.openapi.editor.CaretModel;
+import com.intellij.openapi.editor.Caret;
+import com.intellij.openapi.editor.CaretState;
+import com.intellij.openapi.editor.Document;
 import com.intellij.openapi.editor.Editor;
-import com.intellij.openapi.editor.SelectionModel;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.Task;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.util.DocumentUtil;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.stream.Collectors;
 
+import static com.chen.constant.FileConstant.SQL_SUFFIX;
+import static com.chen.constant.FileConstant.XML;
+import static com.chen.constant.MessageConstants.FORMAT_SQL_RUNNING;
+import static com.chen.constant.MessageConstants.FORMAT_SQL_TITLE;
 import static com.chen.utils.DbConfigUtil.loadFromCache;
 
 
 /**
  * SQL 格式化操作类
- * 当用户选中 SQL 文本时，自动进行美化格式化，并替换选中内容
+ * 当用户选中 SQL 文本时，自动进行美化格式化，并替换选中内容（支持多光标，各选区并行格式化）；
+ * 未选中时按语句增量格式化整个文档，仅限 Mapper XML 与 .sql 脚本，其他文件不做处理
+ * 全部结果在同一个写命令中写回，一次即可撤销
+ * 格式化在可取消的后台任务中执行，完成后若文档或选区已变化则重新格式化一次，仍变化则丢弃结果
  * 适用于 IntelliJ Platform 插件开发
  *
  * @author czh
@@ -29,6 +47,86 @@ import static com.chen.utils.DbConfigUtil.loadFromCache;
  */
 public class PrettySqlAction extends AnAction {
 
+    /** 选中格式化时每行添加的缩进（11 个空格） */
+    private static final String INDENT = "           ";
+
+    /** 结果过期后自动重新格式化的次数 */
+    private static final int MAX_RETRIES = 1;
+
+    /**
+     * 单个光标的选区快照
+     */
+    private static final class Selection {
+        private final int start;
+        private final int end;
+        private final String text;
+
+        Selection(int start, int end, String text) {
+            this.start = start;
+            this.end = end;
+            this.text = text;
+        }
+    }
+
+    /**
+     * 发起格式化时的文档与全部选区快照
+     */
+    private static final class FormatRequest {
+        private final Document document;
+        private final long modificationStamp;
+        /** 各光标选区，按偏移升序；为空表示整文档格式化 */
+        private final List<Selection> selections;
+        /** 整文档格式化时的文档内容 */
+        private final String text;
+
+        FormatRequest(Document document, long modificationStamp, List<Selection> selections, String text) {
+            this.document = document;
+            this.modificationStamp = modificationStamp;
+            this.selections = selections;
+            this.text = text;
+        }
+
+        boolean isSelection() {
+            return !selections.isEmpty();
+        }
+
+        /**
+         * 文档与各选区是否仍与快照一致
+         */
+        boolean isUpToDate(Editor editor) {
+            if (document.getModificationStamp() != modificationStamp) return false;
+            if (!isSelection()) return true;
+            List<Selection> current = captureSelections(editor);
+            if (current.size() != selections.size()) return false;
+            for (int i = 0; i < current.size(); i++) {
+                if (current.get(i).start != selections.get(i).start || current.get(i).end != selections.get(i).end) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * 在 EDT 上抓取当前编辑器所有光标的选区，均未选中时抓取整个文档
+         */
+        static FormatRequest capture(Editor editor) {
+            Document document = editor.getDocument();
+            List<Selection> selections = captureSelections(editor);
+            return new FormatRequest(document, document.getModificationStamp(), selections,
+                    selections.isEmpty() ? document.getText() : null);
+        }
+
+        private static List<Selection> captureSelections(Editor editor) {
+            List<Selection> selections = new ArrayList<>();
+            for (Caret caret : editor.getCaretModel().getAllCarets()) {
+                String selectedText = caret.getSelectedText();
+                if (selectedText == null || selectedText.isEmpty()) continue;
+                selections.add(new Selection(caret.getSelectionStart(), caret.getSelectionEnd(), selectedText));
+            }
+            return selections;
+        }
+    }
+
     /**
      * 执行格式化操作的入口方法
      *
@@ -38,40 +136,118 @@ public class PrettySqlAction extends AnAction {
     public void actionPerformed(@NotNull AnActionEvent e) {
         // 获取当前编辑器
         Editor editor = e.getData(CommonDataKeys.EDITOR);
-        if (editor == null) return;
+        Project project = e.getProject();
+        if (editor == null || project == null) return;
 
-        // 获取当前选中内容
-        SelectionModel selectionModel = editor.getSelectionModel();
-        String selectedText = selectionModel.getSelectedText();
-        if (selectedText == null || selectedText.isEmpty()) return;
-        DbConfig dbConfig = loadFromCache(e.getProject());
-        // 使用工具类格式化 SQL 文本
-        String formattedSql = SqlFormatUtil.formatSql(selectedText, dbConfig.getUrl().replaceFirst("^jdbc:(\\w+):.*", "$1"));
+        FormatRequest request = FormatRequest.capture(editor);
+        // 未选中时只格式化 SQL 脚本与 Mapper XML，其他文件不做处理
+        if (!request.isSelection() && !isSqlDocument(request)) return;
 
-        // 设置缩进（这里是 11 个空格）
-        String indent = "           ";
+        String dialect = SqlFormatUtil.resolveDialect(loadFromCache(project));
+        formatInBackground(project, editor, request, dialect, MAX_RETRIES);
+    }
 
-        // 为格式化后的每一行添加统一缩进
-        String indentedSql = Arrays.stream(formattedSql.split("\n"))
-                .map(line -> indent + line)
-                .collect(Collectors.joining("\n"));
+    /**
+     * 是否为可整文档格式化的 .sql 文件或 Mapper XML
+     */
+    private static boolean isSqlDocument(FormatRequest request) {
+        VirtualFile file = FileDocumentManager.getInstance().getFile(request.document);
+        if (file == null) return false;
+        if (SQL_SUFFIX.equalsIgnoreCase("." + file.getExtension())) return true;
+        return XML.equalsIgnoreCase(file.getExtension()) && SqlStatementSplitter.isMapperXml(request.text);
+    }
 
-        // 获取选中文本的起止位置
-        int start = selectionModel.getSelectionStart();
-        int end = selectionModel.getSelectionEnd();
+    /**
+     * 后台格式化快照内容，完成后回到 EDT 校验快照是否过期再写回
+     *
+     * @param project 当前项目
+     * @param editor  当前编辑器
+     * @param request 文档与选区快照
+     * @param dialect SQL 方言
+     * @param retries 结果过期时剩余的重试次数
+     */
+    private void formatInBackground(Project project, Editor editor, FormatRequest request,
+                                    String dialect, int retries) {
+        // 文档监听需在 EDT 上注册，先于后台任务获取
+        IncrementalSqlFormatter incremental = request.isSelection() ? null
+                : IncrementalSqlFormatter.getInstance(project, request.document);
+        SqlTextCache formatCache = SqlCacheService.getInstance(project).getFormatCache();
 
-        Project project = e.getProject();
+        new Task.Backgroundable(project, FORMAT_SQL_TITLE, true) {
+            private List<TextReplacement> replacements = List.of();
+
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                indicator.setText(FORMAT_SQL_RUNNING);
+                if (incremental != null) {
+                    replacements = incremental.computeReplacements(request.text, request.modificationStamp, dialect);
+                    return;
+                }
+                // 各选区并行格式化，并为每一行添加统一缩进；结果保持选区顺序
+                List<TextReplacement> result = request.selections.parallelStream()
+                        .map(selection -> indicator.isCanceled() ? null : new TextReplacement(selection.start,
+                                selection.end, SqlFormatUtil.indent(SqlFormatUtil.formatSql(selection.text, dialect, formatCache), INDENT)))
+                        .collect(Collectors.toList());
+                indicator.checkCanceled();
+                replacements = result;
+            }
 
-        // 执行替换操作，并支持撤销（IDE 操作必须在 WriteCommandAction 中执行）
-        WriteCommandAction.runWriteCommandAction(project, () -> {
-            editor.getDocument().replaceString(start, end, indentedSql);
+            @Override
+            public void onSuccess() {
+                if (editor.isDisposed() || project.isDisposed()) return;
+                if (!request.isUpToDate(editor)) {
+                    // 格式化期间文档或选区发生变化：按当前内容重新格式化，次数用尽则丢弃
+                    if (retries > 0) {
+                        formatInBackground(project, editor, FormatRequest.capture(editor), dialect, retries - 1);
+                    }
+                    return;
+                }
+                apply(project, editor, request, replacements);
+            }
+        }.queue();
+    }
 
-            // 可选：将光标跳转到 SELECT 后的位置，便于继续编辑
-            int newOffset = start + indentedSql.indexOf("SELECT");
-            if (newOffset >= start) {
-                CaretModel caretModel = editor.getCaretModel();
-                caretModel.moveToOffset(newOffset + "SELECT".length() + 1);
+    /**
+     * 在同一个写命令（一次撤销）中写回全部格式化结果。
+     * 多处替换时使用文档批量模式，行偏移只在结束时重算一次
+     */
+    private void apply(Project project, Editor editor, FormatRequest request, List<TextReplacement> replacements) {
+        if (replacements.isEmpty()) return;
+        Document document = request.document;
+        WriteCommandAction.runWriteCommandAction(project, FORMAT_SQL_TITLE, null, () -> {
+            // 从后往前替换，前面语句的偏移不受影响
+            Runnable replaceAll = () -> {
+                for (int i = replacements.size() - 1; i >= 0; i--) {
+                    TextReplacement replacement = replacements.get(i);
+                    document.replaceString(replacement.getStart(), replacement.getEnd(), replacement.getText());
+                }
+            };
+            if (replacements.size() > 1) {
+                DocumentUtil.executeInBulk(document, true, replaceAll);
+            } else {
+                replaceAll.run();
             }
+            if (request.isSelection()) moveCarets(editor, replacements);
         });
     }
+
+    /**
+     * 将每个光标移动到对应格式化结果中 SELECT 之后的位置（没有 SELECT 时移到结果末尾），便于继续编辑
+     */
+    private void moveCarets(Editor editor, List<TextReplacement> replacements) {
+        List<CaretState> states = new ArrayList<>(replacements.size());
+        int shift = 0;
+        for (TextReplacement replacement : replacements) {
+            int newStart = replacement.getStart() + shift;
+            String indentedSql = replacement.getText();
+            int selectIndex = indentedSql.indexOf("SELECT");
+            int offset = selectIndex >= 0
+                    ? newStart + selectIndex + "SELECT".length() + 1
+                    : newStart + indentedSql.length();
+            offset = Math.min(offset, editor.getDocument().getTextLength());
+            states.add(new CaretState(editor.offsetToLogicalPosition(offset), null, null));
+            shift += indentedSql.length() - (replacement.getEnd() - replacement.getStart());
+        }
+        editor.getCaretModel().setCaretsAndSelections(states);
+    }
 }
@@ -0,0 +1,66 @@
+package com.chen.action;
+
+import com.chen.entity.DbConfig;
+import com.chen.entity.SchemaSnapshot;
+import com.chen.utils.SchemaSnapshotUtil;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.Messages;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+
+import static com.chen.constant.MessageConstants.*;
+import static com.chen.utils.DbConfigUtil.loadFromCache;
+
+/**
+ * 刷新表结构快照
+ * 表结构变更后重新读取当前数据源的全部表与字段，供离线 SQL 校验使用
+ *
+ * @author czh
+ * @version 1.0
+ * @date 2025/7/9
+ */
+public class RefreshSchemaSnapshotAction extends AnAction {
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent e) {
+        Project project = e.getProject();
+        if (project == null) return;
+        DbConfig dbConfig = loadFromCache(project);
+        if (dbConfig == null) {
+            Messages.showErrorDialog(project, SQL_ERROR_NO_DB_CONFIG, SQL_ERROR_TITLE);
+            return;
+        }
+
+        new Task.Backgroundable(project, SCHEMA_SNAPSHOT_TITLE, true) {
+            private SchemaSnapshot snapshot;
+
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                indicator.setText(SCHEMA_SNAPSHOT_RUNNING);
+                snapshot = SchemaSnapshotUtil.capture(dbConfig);
+                try {
+                    SchemaSnapshotUtil.save(project, snapshot);
+                } catch (IOException ex) {
+                    throw new RuntimeException(ex);
+                }
+            }
+
+            @Override
+            public void onSuccess() {
+                Messages.showInfoMessage(project,
+                        String.format(SCHEMA_SNAPSHOT_DONE, snapshot.getTables().size()), SCHEMA_SNAPSHOT_TITLE);
+            }
+
+            @Override
+            public void onThrowable(@NotNull Throwable error) {
+                Messages.showErrorDialog(project, SCHEMA_SNAPSHOT_FAIL_PREFIX + error.getMessage(),
+                        SCHEMA_SNAPSHOT_TITLE);
+            }
+        }.queue();
+    }
+}
@@ -0,0 +1,24 @@
+package com.chen.action;
+
+import com.chen.utils.SoarAnalyzer;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.project.ProjectManagerListener;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.file.Paths;
+
+/**
+ * 项目关闭时结束该项目数据源预热的 soar 进程
+ *
+ * @author czh
+ * @version 1.0
+ * @date 2025/7/9
+ */
+public class SoarProjectCloseListener implements ProjectManagerListener {
+
+    @Override
+    public void projectClosing(@NotNull Project project) {
+        if (project.getBasePath() == null) return;
+        SoarAnalyzer.shutdown(Paths.get(project.getBasePath()));
+    }
+}
@@ -0,0 +1,49 @@
+package com.chen.action;
+
+import com.chen.dialog.SqlCheckPanel;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.wm.ToolWindow;
+import com.intellij.openapi.wm.ToolWindowFactory;
+import com.intellij.openapi.wm.ToolWindowManager;
+import com.intellij.ui.content.Content;
+import com.intellij.ui.content.ContentFactory;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * IDEA 工具窗口：展示批量 SQL 检查结果（错误与警告列表），由 {@link BatchCheckSqlAction} 打开并填充
+ *
+ * @author czh
+ * @version 1.0
+ * @date 2025/7/9
+ */
+public class SqlCheckToolWindowFactory implements ToolWindowFactory {
+
+    /** 工具窗口 id，与 plugin.xml 中一致 */
+    public static final String TOOL_WINDOW_ID = "SQL Check";
+
+    @Override
+    public void createToolWindowContent(@NotNull Project project, @NotNull ToolWindow toolWindow) {
+        Content content = ContentFactory.getInstance().createContent(new SqlCheckPanel(project), "", false);
+        toolWindow.getContentManager().addContent(content);
+    }
+
+    /**
+     * 打开工具窗口并返回结果面板，需在 EDT 调用
+     *
+     * @param project 当前项目
+     * @return 结果面板，工具窗口未注册时返回 null
+     */
+    public static @Nullable SqlCheckPanel showPanel(Project project) {
+        ToolWindow toolWindow = ToolWindowManager.getInstance(project).getToolWindow(TOOL_WINDOW_ID);
+        if (toolWindow == null) return null;
+        toolWindow.show();
+        // 首次打开前内容尚未创建
+        if (toolWindow.getContentManager().getContentCount() == 0) {
+            new SqlCheckToolWindowFactory().createToolWindowContent(project, toolWindow);
+        }
+        Content content = toolWindow.getContentManager().getContent(0);
+        return content != null && content.getComponent() instanceof SqlCheckPanel
+                ? (SqlCheckPanel) content.getComponent() : null;
+    }
+}
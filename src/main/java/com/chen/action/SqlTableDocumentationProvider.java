@@ -5,6 +5,7 @@ import com.chen.entity.ColumnMeta;
 import com.chen.entity.DbConfig;
 import com.chen.entity.TableMeta;
 import com.chen.utils.JdbcTableInfoUtil;
+import com.chen.utils.SqlHtmlUtil;
 import com.intellij.lang.documentation.AbstractDocumentationProvider;
 import com.intellij.lang.documentation.DocumentationProvider;
 import com.intellij.openapi.ui.Messages;
@@ -103,49 +104,10 @@ public class SqlTableDocumentationProvider extends AbstractDocumentationProvider
             return ERROR_PREFIX + tableName + DATASOURCE + dbConfig.getUrl() + ERROR_NO_COLUMNS;
         }
 
-        return buildHtmlTable(tableName,tableRemark, columns);
+        return SqlHtmlUtil.buildHtmlTable(tableName, tableRemark, columns);
     }
 
 
-    /**
-     * 构建表结构的 HTML 表格展示
-     */
-    private String buildHtmlTable(String tableName, String tableRemark,List<ColumnMeta> columns) {
-        StringBuilder html = new StringBuilder();
-        html.append("<style>")
-                .append(".db-table { width:100%; border-collapse:collapse; font-family:'Segoe UI',Arial,sans-serif; background:#23272f; border: 1px solid #444b58; }")
-                .append(".db-table th, .db-table td { border:1px solid #444b58; padding:10px 8px; color:#d8dee9; text-align:center; vertical-align:middle; }")
-                .append(".db-table th { background:linear-gradient(90deg,#34495e 0%,#23272f 100%); font-weight:600; font-size:15px; }")
-                .append(".db-table td { background:#23272f; font-size:14px; }")
-                .append(".db-table tr:hover td { background:#2d333b; }")
-                .append(".db-table .pk { color:#ffb300; font-weight:bold; }")
-                .append(".db-table .idx { color:#4CAF50; font-weight:bold; }")
-                .append("</style>");
-
-        html.append("<b style='font-size:1.1em;color:#e1eaff;'>表名：</b> ")
-                .append(tableName)
-                .append(tableRemark != null && !tableRemark.isBlank() ? "（" + tableRemark + "）" : "")
-                .append("<br>");
-        html.append("<table class='db-table'><thead><tr>")
-                .append("<th style='width: 25%;'>字段名称</th>")
-                .append("<th style='width: 20%;'>类型</th>")
-                .append("<th style='width: 40%;'>备注</th>")
-                .append("<th style='width: 7.5%;'>主键</th>")
-                .append("<th style='width: 7.5%;'>索引</th>")
-                .append("</tr></thead><tbody>");
-
-        for (ColumnMeta col : columns) {
-            html.append("<tr><td>").append(col.getName()).append("</td>")
-                    .append("<td>").append(col.getType()).append("</td>")
-                    .append("<td>").append(col.getRemark() == null ? "" : col.getRemark()).append("</td>")
-                    .append("<td>").append(col.isPrimaryKey() ? "<span class='pk'>YES</span>" : "").append("</td>")
-                    .append("<td>").append(col.isIndex() ? "<span class='idx'>YES</span>" : "").append("</td></tr>");
-        }
-
-        html.append("</tbody></table>");
-        return html.toString();
-    }
-
     /**
      * 提取 SQL 中的表名，适配 MyBatis XML 或 SQL 字符串
      */
@@ -2,11 +2,14 @@ package com.chen.action;
 
 import com.chen.dialog.ParamInputDialog;
 import com.chen.dialog.SqlPreviewDialog;
+import com.chen.entity.PreparedSql;
+import com.chen.utils.MapperStatementIndex;
+import com.chen.utils.SqlCacheService;
+import com.chen.utils.SqlFormatUtil;
 import com.chen.utils.SqlParamUtils;
 import com.intellij.openapi.actionSystem.AnAction;
 import com.intellij.openapi.actionSystem.AnActionEvent;
 import com.intellij.openapi.editor.Editor;
-import com.intellij.openapi.editor.SelectionModel;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.ui.Messages;
 
@@ -15,7 +18,8 @@ import java.util.Map;
 import java.util.Set;
 
 import static com.chen.constant.MessageConstants.DIALOG_TITLE;
-import static com.chen.constant.MessageConstants.MESSAGE_SELECT_SQL;
+import static com.chen.constant.MessageConstants.MESSAGE_SELECT_STATEMENT;
+import static com.chen.utils.DbConfigUtil.loadFromCache;
 
 /**
  * 主 Action 类：用于处理 SQL 选中、参数提取、弹窗调用
@@ -29,11 +33,10 @@ public class ViewRealSqlAction extends AnAction {
         Editor editor = e.getData(com.intellij.openapi.actionSystem.CommonDataKeys.EDITOR);
         if (project == null || editor == null) return;
 
-        // 获取 SQL 文本
-        SelectionModel selectionModel = editor.getSelectionModel();
-        String sql = selectionModel.getSelectedText();
+        // 获取 SQL 文本：选中内容或光标所在的 Mapper 语句，<include> 已展开
+        String sql = MapperStatementIndex.statementText(project, editor);
         if (sql == null || sql.trim().isEmpty()) {
-            Messages.showWarningDialog(project, MESSAGE_SELECT_SQL, DIALOG_TITLE);
+            Messages.showWarningDialog(project, MESSAGE_SELECT_STATEMENT, DIALOG_TITLE);
             return;
         }
 
@@ -49,10 +52,13 @@ public class ViewRealSqlAction extends AnAction {
         }
 
         // 生成预览 SQL
-        String resultSql = SqlParamUtils.buildFinalSql(sql, paramValues);
+        String dialect = SqlFormatUtil.resolveDialect(loadFromCache(project));
+        String resultSql = SqlParamUtils.buildFinalSql(sql, paramValues, dialect,
+                SqlCacheService.getInstance(project).getRenderCache());
 
-        // 弹出预览窗口
-        SqlPreviewDialog previewDialog = new SqlPreviewDialog(project, resultSql);
+        // 弹出预览窗口，执行检查时使用 ? 占位符加绑定参数
+        PreparedSql preparedSql = SqlParamUtils.buildPreparedSql(sql, paramValues);
+        SqlPreviewDialog previewDialog = new SqlPreviewDialog(project, resultSql, preparedSql);
         previewDialog.showAndGet();
     }
 }
\ No newline at end of file
@@ -26,6 +26,23 @@ public class DataSourceConstants {
     public static final long IDLE_TIMEOUT = 30000L;         // 空闲连接超时时间（ms）
     public static final long MAX_LIFETIME = 60000L;         // 最大连接生存时间（ms）
 
+    // ================== 连接健康检查 ==================
+    public static final long HEALTH_CHECK_INTERVAL_MS = 30000L;     // 可用数据源的探测间隔（ms）
+    public static final long HEALTH_CHECK_TICK_MS = 5000L;          // 后台巡检间隔（ms）
+    public static final int HEALTH_CHECK_VALID_TIMEOUT_SECONDS = 3; // Connection.isValid 超时（秒）
+    public static final long HEALTH_BACKOFF_BASE_MS = 2000L;        // 失败后首次重试间隔（ms），之后逐次翻倍
+    public static final long HEALTH_BACKOFF_MAX_MS = 120000L;       // 重试间隔上限（ms）
+    public static final long HEALTH_CHECK_IDLE_MS = 600000L;        // 超过该时间未使用的数据源停止探测（ms）
+    public static final String HEALTH_CHECK_INVALID = "连接校验失败（isValid 返回 false）";
+
+    // ================== 预编译语句缓存（MySQL） ==================
+    public static final String MYSQL_USE_SERVER_PREP_STMTS = "useServerPrepStmts";
+    public static final String MYSQL_CACHE_PREP_STMTS = "cachePrepStmts";
+    public static final String MYSQL_PREP_STMT_CACHE_SIZE = "prepStmtCacheSize";
+    public static final String MYSQL_PREP_STMT_CACHE_SQL_LIMIT = "prepStmtCacheSqlLimit";
+    public static final int PREP_STMT_CACHE_SIZE = 250;          // 每个连接缓存的语句数
+    public static final int PREP_STMT_CACHE_SQL_LIMIT = 4096;    // 可缓存的最大 SQL 长度
+
     // ================== 支持的数据库类型 ==================
     public static final String DB_TYPE_MYSQL = "mysql";
     public static final String DB_TYPE_ORACLE = "oracle";
@@ -11,16 +11,24 @@ public class FileConstant {
     public static final String  CONFIG_PATH = ".idea/db-config.json";
     public static final String CONFIG_PATH_ALL = ".idea/db-all.json";
     public static final String XML = "xml";
+    public static final String SCHEMA_SNAPSHOT_PATH = ".idea/schema-snapshot.json";
+    public static final String PLAN_HISTORY_PATH = ".idea/plan-history.jsonl";
     public static final String SOARYMAL_PATH = ".idea/soar.yaml";
     public static final String SQL_SCRIPT_FILE_NAME = ".idea/executeSqlFile.sql";
     public static final String IDEA_DIR = ".idea";
-    public static final String SOAR_EXE_NAME = "soar.exe";
+    public static final String SOAR_RESOURCE_WINDOWS = "soar.exe";
+    public static final String SOAR_RESOURCE_LINUX_AMD64 = "soar-linux-amd64";
+    public static final String SOAR_RESOURCE_MAC_AMD64 = "soar-darwin-amd64";
+    public static final String SOAR_CACHE_DIR = "PrettySQL/soar";
     public static final String SQL_FILE_NAME = "executeSqlFile.sql";
     public static final String YAML_FILE_NAME = "soar.yaml";
-    public static final String RESULT_DIR = "C:\\result";
+    public static final String RESULT_DIR_NAME = "soar-result";
     public static final String REPORT_PREFIX = "SQL分析报告_";
     public static final String HTML_SUFFIX = ".html";
     public static final String MD_SUFFIX = ".md";
+    public static final String SQL_SUFFIX = ".sql";
+    public static final String FORMATTED_SQL_SUFFIX = ".formatted.sql";
+    public static final String RENDERED_SQL_SUFFIX = ".rendered.sql";
     public static final String DATE_FORMAT = "yyyy-MM-dd_HH-mm-ss";
     public static final String D3_JS_PATH = "static/js/d3.v7.min.js";
     public static final String DAGRE_JS_PATH = "static/js/dagre-d3.min.js";
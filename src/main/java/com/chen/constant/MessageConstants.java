@@ -36,15 +36,68 @@ public class MessageConstants {
     public static final String WARN_NOT_SELECT = "执行计划只支持 SELECT 语句";
     public static final String INFO_NO_RESULT = "执行计划无结果";
     public static final String ERROR_ANALYZE_FAIL_PREFIX = "执行计划分析失败：";
+    public static final String EXPLAIN_ANALYZE_PROGRESS = "正在执行 EXPLAIN ANALYZE（执行后回滚）...";
     public static final String DELETE_SUCCESS_MESSAGE = "数据源配置已删除";
     public static final String DELETE_SUCCESS_TITLE = "删除成功";
     public static final String NO_DB_CONFIG_HTML = "<html><body><h2 style='color:red;'>请先配置或者新增数据库连接！</h2></body></html>";
     public static final String MESSAGE_SELECT_SQL = "请先选中一段SQL语句";
+    public static final String MESSAGE_SELECT_STATEMENT = "请先选中一段SQL语句，或将光标置于 Mapper 语句内";
     public static final String PARAM_OPTIONAL_LABEL = "（选填）:";
     public static final String BTN_SQL_CHECK = "SQL执行检查";
     public static final String BTN_COPY = "复制";
     public static final String DIALOG_RESULT = "执行计划分析";
     public static final String COPY_SUCCESS_MSG = "已复制到剪贴板！";
+    public static final String FORMAT_SQL_TITLE = "格式化 SQL";
+    public static final String FORMAT_SQL_RUNNING = "正在格式化 SQL...";
+    public static final String CACHE_STATS_TITLE = "SQL 缓存统计";
+    public static final String CACHE_STATS_CLEAR = "清空缓存";
+    public static final String CACHE_STATS_CLOSE = "关闭";
+    public static final String CACHE_STATS_FORMAT_NAME = "格式化结果";
+    public static final String CACHE_STATS_RENDER_NAME = "渲染 SQL";
+    public static final String CACHE_STATS_LINE = "%s：命中 %d，未命中 %d，命中率 %.1f%%，条目 %d，占用 %d / %d 字符，淘汰 %d";
+    public static final String FORMAT_ALL_TITLE = "格式化全部 Mapper";
+    public static final String FORMAT_ALL_SCANNING = "正在扫描 Mapper XML 文件...";
+    public static final String FORMAT_ALL_RUNNING = "正在格式化 Mapper 语句...";
+    public static final String FORMAT_ALL_DONE_PREFIX = "格式化完成，已修改文件数：";
+    public static final String FORMAT_FILE_TITLE = "格式化 SQL 文件";
+    public static final String FORMAT_FILE_NOT_SQL = "请在项目视图或编辑器中选择一个本地 .sql 文件";
+    public static final String FORMAT_FILE_DONE_PREFIX = "格式化完成，语句条数：";
+    public static final String FORMAT_FILE_FAIL_PREFIX = "格式化 SQL 文件失败：";
+    public static final String BATCH_RENDER_TITLE = "批量生成实际 SQL";
+    public static final String BATCH_RENDER_CHOOSE_FILE = "选择参数文件（CSV 首行为参数名，.jsonl 每行一个对象，或 .json 对象数组）";
+    public static final String BATCH_RENDER_RUNNING = "正在批量生成 SQL...";
+    public static final String BATCH_RENDER_DONE = "生成完成：成功 %d 条，失败 %d 条，耗时 %d ms，吞吐量 %.0f 条/秒\n%s";
+    public static final String BATCH_RENDER_FAIL_PREFIX = "批量生成 SQL 失败：";
+    public static final String SQL_BATCH_CHECK_TITLE = "批量 SQL 检查";
+    public static final String SQL_BATCH_CHECK_COLLECTING = "正在收集 SQL 语句...";
+    public static final String SQL_BATCH_CHECK_RUNNING = "正在检查 SQL 语句...";
+    public static final String SQL_BATCH_CHECK_EMPTY = "未找到可检查的 SQL 语句";
+    public static final String SQL_BATCH_CHECK_IDLE = "在编辑器或项目视图中执行“批量 SQL 检查”后在此查看结果";
+    public static final String SQL_BATCH_CHECK_PROGRESS = "%s：正在检查 %d / %d";
+    public static final String SQL_BATCH_CHECK_SUMMARY = "%s：共检查 %d 条语句，错误 %d，警告 %d，通过 %d，耗时 %d ms";
+    public static final String SQL_BATCH_CHECK_SCOPE_PROJECT = "整个项目";
+    public static final String SQL_BATCH_CHECK_ERROR = "错误";
+    public static final String SQL_BATCH_CHECK_WARNING = "警告";
+    public static final String SQL_BATCH_CHECK_OK = "通过";
+    public static final String SQL_BATCH_CHECK_COL_SEVERITY = "级别";
+    public static final String SQL_BATCH_CHECK_COL_LOCATION = "位置";
+    public static final String SQL_BATCH_CHECK_COL_STATEMENT = "语句";
+    public static final String SQL_BATCH_CHECK_COL_MESSAGE = "信息";
+    public static final String SQL_BATCH_CHECK_COL_ELAPSED = "耗时";
+    public static final String SCRIPT_CHECK_TITLE = "SQL 脚本检查";
+    public static final String SCRIPT_CHECK_NOT_SQL = "请选择 .sql 脚本文件";
+    public static final String SCRIPT_CHECK_RUNNING = "正在单事务执行脚本（结束后回滚）...";
+    public static final String OFFLINE_CHECK_TITLE = "离线 SQL 校验";
+    public static final String OFFLINE_CHECK_PASSED = "离线校验通过（表结构快照：%s，共 %d 张表）";
+    public static final String OFFLINE_CHECK_FAILED = "离线校验发现以下问题：\n";
+    public static final String SCHEMA_SNAPSHOT_TITLE = "表结构快照";
+    public static final String SCHEMA_SNAPSHOT_RUNNING = "正在读取表结构...";
+    public static final String SCHEMA_SNAPSHOT_DONE = "表结构快照已更新：共 %d 张表";
+    public static final String SCHEMA_SNAPSHOT_FAIL_PREFIX = "读取表结构失败：";
+    public static final String PLAN_REGRESSION_TITLE = "执行计划回归检查";
+    public static final String PLAN_REGRESSION_RUNNING = "正在重新获取执行计划...";
+    public static final String PLAN_REGRESSION_EMPTY = "当前数据源还没有执行计划历史，请先使用“执行计划分析”";
+    public static final String PLAN_REGRESSION_FAIL_PREFIX = "执行计划回归检查失败：";
 
 }
 
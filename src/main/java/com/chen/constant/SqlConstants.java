@@ -17,6 +17,86 @@ public class SqlConstants {
     public static final String WARN_UNSAFE_DELETE_UPDATE =
             "SQL检查通过，警告：检测到未加 WHERE 的 DELETE/UPDATE 语句，可能会影响全表数据！";
 
+    public static final String WARN_LIMIT_ONLY_DELETE_UPDATE =
+            "SQL检查通过，警告：DELETE/UPDATE 语句未加 WHERE，仅由 LIMIT 限制行数，受影响的数据不确定！";
+    public static final String WARN_CONSTANT_WHERE =
+            "SQL检查通过，警告：DELETE/UPDATE 的 WHERE 条件未引用任何列（如 1=1），等同于全表操作！";
+    public static final String WARN_CARTESIAN_JOIN = "SQL检查通过，警告：与 %s 的 JOIN 缺少关联条件，将产生笛卡尔积！";
+    public static final String WARN_DROP_TRUNCATE = "SQL检查通过，警告：检测到 %s 语句，将删除表或数据！";
+    public static final String WARN_STATEMENT_PREFIX = "第 %d 条语句：";
+
     public static final String ERROR_SQL_EXECUTE_PREFIX = "SQL执行错误: ";
-}
+    public static final String ERROR_SQL_TIMEOUT = "SQL执行超时（超过 %d 秒）";
+    public static final String ERROR_SQL_SYNTAX_PREFIX = "SQL语法错误: ";
+
+    // 脚本检查提示
+    public static final String WARN_SCRIPT_DDL_SKIPPED = "当前数据库的 DDL 会隐式提交事务，无法回滚，已跳过执行";
+    public static final String WARN_SCRIPT_TRANSACTION_SKIPPED = "事务控制语句会破坏检查事务，已跳过执行";
+    public static final String WARN_BATCH_DANGEROUS_SKIPPED = "危险语句不执行并回滚，已跳过执行";
+
+    // 离线校验提示
+    public static final String ERROR_OFFLINE_UNPARSEABLE = "SQL无法解析，离线校验未执行";
+    public static final String ERROR_OFFLINE_UNKNOWN_TABLE = "未知表：%s";
+    public static final String ERROR_OFFLINE_UNKNOWN_COLUMN = "未知字段：%s";
+    public static final String ERROR_OFFLINE_TYPE_MISMATCH = "类型不匹配：字段 %s 为 %s 类型，与 %s 比较";
+    public static final String WARN_OFFLINE_IMPLICIT_CAST = "隐式类型转换：字段 %s 为 %s 类型，与数值 %s 比较，索引可能失效";
+
+    // ================== 缓存配置 ==================
+    public static final long FORMAT_CACHE_MAX_CHARS = 8L * 1024 * 1024;   // 格式化结果缓存上限（字符数）
+    public static final long RENDER_CACHE_MAX_CHARS = 4L * 1024 * 1024;   // 渲染 SQL 缓存上限（字符数）
+    public static final String CACHE_NS_RENDER = "render";                 // 渲染 SQL 缓存键命名空间
+
+    // ================== 保存时格式化 ==================
+    public static final long FORMAT_ON_SAVE_BUDGET_MS = 200L;                  // 单个文件保存时的格式化时间预算（ms）
+    public static final String FORMAT_ON_SAVE_KEY = "PrettySQL.formatOnSave";  // 开关在项目属性中的键
 
+    // ================== 批量 SQL 检查 ==================
+    public static final int SQL_CHECK_TIMEOUT_SECONDS = 10;                    // 单条语句执行超时（秒）
+    public static final String SQL_CHECK_EXECUTOR_NAME = "PrettySQL SQL Check"; // 检查线程池名称
+    public static final String SQL_CHECK_EXECUTE_KEY = "PrettySQL.checkByExecute";  // 执行并回滚开关在项目属性中的键
+    public static final String DRY_RUN_STATEMENT_NAME = "prettysql_dry_run";       // 试运行预编译语句名
+
+    // ================== SQL 语法树分析 ==================
+    public static final int SQL_AST_CACHE_SIZE = 1024;                         // 语法树缓存条数上限
+    public static final long SQL_PARSE_TIMEOUT_MS = 2000L;                     // 单次解析超时（ms）
+
+    // ================== 执行计划 ==================
+    public static final int EXPLAIN_TIMEOUT_SECONDS = 30;                     // 获取执行计划超时（秒）
+    public static final String PLAN_STATEMENT_ID = "PRETTYSQL_PLAN";          // Oracle PLAN_TABLE 中的 STATEMENT_ID
+    public static final String ERROR_EXPLAIN_PREFIX = "执行 EXPLAIN 失败：";
+    public static final String ERROR_EXPLAIN_UNSUPPORTED = "不支持获取该数据库的执行计划：%s";
+    public static final String INFO_EXPLAIN_EMPTY = "执行计划为空";
+
+    // ================== 执行计划 ANALYZE ==================
+    public static final int EXPLAIN_ANALYZE_TIMEOUT_SECONDS = 30;             // EXPLAIN ANALYZE 语句超时（秒）
+    public static final int MYSQL_EXPLAIN_ANALYZE_MIN_VERSION = 80018;        // 支持 EXPLAIN ANALYZE 的最低 MySQL 版本（8.0.18）
+    public static final double EXPLAIN_ROW_MISESTIMATE_FACTOR = 10;           // 实际行数与预估相差该倍数以上时高亮
+    public static final double EXPLAIN_TIME_HOTSPOT_RATIO = 0.3;              // 节点自身耗时占比达到该值时视为热点候选
+    public static final int EXPLAIN_MISESTIMATE_TOP = 3;                      // 摘要中列出的偏差最大节点数
+    public static final String MYSQL_NO_BACKSLASH_ESCAPES = "NO_BACKSLASH_ESCAPES"; // 关闭反斜杠转义的 sql_mode
+    public static final String EXPLAIN_ANALYZE_KEY = "PrettySQL.explainAnalyze"; // ANALYZE 开关在项目属性中的键
+    public static final String ERROR_EXPLAIN_ANALYZE_PREFIX = "执行 EXPLAIN ANALYZE 失败：";
+
+    // ================== 执行计划历史 ==================
+    public static final int PLAN_HISTORY_MAX_LINES = 5000;                    // 历史文件超过该行数时压缩
+    public static final int PLAN_HISTORY_KEEP_PER_KEY = 5;                    // 压缩时每条语句保留的最近记录数
+    public static final double PLAN_ROWS_EXPLOSION_FACTOR = 10;               // 预估行数增长到该倍数以上视为激增
+    public static final double PLAN_ROWS_EXPLOSION_MIN = 1000;                // 预估行数低于该值时不报激增
+    public static final String PLAN_HISTORY_KEEP_VALUES_KEY = "PrettySQL.planHistoryKeepValues"; // 保存参数值开关在项目属性中的键
+    public static final String PARAM_TYPE_NULL = "NULL";                      // 历史记录中的参数类型
+    public static final String PARAM_TYPE_NUMBER = "NUMBER";
+    public static final String PARAM_TYPE_BOOLEAN = "BOOLEAN";
+    public static final String PARAM_TYPE_STRING = "STRING";
+    public static final String WARN_PLAN_NEW_FULL_SCAN = "新增全表扫描：%s";
+    public static final String WARN_PLAN_LOST_INDEX = "不再使用索引：%s";
+    public static final String WARN_PLAN_ROWS_EXPLOSION = "预估行数激增：%s 由 %d 行增至 %d 行";
+
+    // ================== SOAR 分析 ==================
+    public static final int SOAR_TIMEOUT_SECONDS = 60;                        // 单次 soar 分析超时（秒），超时强制结束进程
+    public static final int SOAR_RESULT_CACHE_SIZE = 16;                      // 缓存的最近分析结果数
+    public static final long SOAR_RESULT_CACHE_TTL_MS = 60_000;               // 分析结果缓存有效期（毫秒），避免表结构变化后仍返回旧报告
+    public static final String SOAR_REPORT_MARKDOWN = "markdown";
+    public static final String SOAR_REPORT_REWRITE = "rewrite";
+    public static final String ERROR_SOAR_TIMEOUT = "soar 分析超时（%d 秒），进程已终止";
+    public static final String ERROR_SOAR_EXIT = "soar 进程异常退出，退出码：%d";
+}
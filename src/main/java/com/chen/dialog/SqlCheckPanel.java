@@ -0,0 +1,198 @@
+package com.chen.dialog;
+
+import com.chen.entity.SqlCheckResult;
+import com.chen.entity.SqlCheckResult.Severity;
+import com.intellij.icons.AllIcons;
+import com.intellij.openapi.fileEditor.OpenFileDescriptor;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.LocalFileSystem;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.ui.DoubleClickListener;
+import com.intellij.ui.components.JBLabel;
+import com.intellij.ui.components.JBScrollPane;
+import com.intellij.ui.table.TableView;
+import com.intellij.util.ui.ColumnInfo;
+import com.intellij.util.ui.JBUI;
+import com.intellij.util.ui.ListTableModel;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableCellRenderer;
+import javax.swing.table.TableCellRenderer;
+import java.awt.*;
+import java.awt.event.MouseEvent;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.function.Function;
+
+import static com.chen.constant.MessageConstants.*;
+
+/**
+ * @author czh
+ * @version 1.0
+ * @description: SQL 检查结果面板。以问题列表形式展示批量检查中的错误与警告，双击跳转到对应语句，
+ * 顶部显示检查范围与统计信息。结果可在检查过程中逐条追加（需在 EDT 调用）
+ * @date 2025/7/9
+ */
+public class SqlCheckPanel extends JPanel {
+
+    private final Project project;
+    private final JBLabel summaryLabel = new JBLabel(SQL_BATCH_CHECK_IDLE);
+    private final ListTableModel<SqlCheckResult> model;
+    private String scope = "";
+    private boolean showPassed;
+    private int total;
+    private int errors;
+    private int warnings;
+    private int passed;
+
+    public SqlCheckPanel(Project project) {
+        super(new BorderLayout());
+        this.project = project;
+        this.model = new ListTableModel<>(new ColumnInfo[]{
+                new SeverityColumn(),
+                column(SQL_BATCH_CHECK_COL_LOCATION, r -> fileName(r.getFilePath()) + ":" + r.getLine()),
+                column(SQL_BATCH_CHECK_COL_STATEMENT, r -> r.getStatementId() == null ? "" : r.getStatementId()),
+                column(SQL_BATCH_CHECK_COL_MESSAGE, SqlCheckResult::getMessage),
+                column(SQL_BATCH_CHECK_COL_ELAPSED, r -> r.getElapsedMillis() + " ms")
+        }, new ArrayList<>());
+
+        TableView<SqlCheckResult> table = new TableView<>(model);
+        table.getColumnModel().getColumn(0).setMaxWidth(JBUI.scale(80));
+        table.getColumnModel().getColumn(3).setPreferredWidth(JBUI.scale(600));
+        new DoubleClickListener() {
+            @Override
+            protected boolean onDoubleClick(@NotNull MouseEvent event) {
+                SqlCheckResult selected = table.getSelectedObject();
+                if (selected == null) return false;
+                navigate(selected);
+                return true;
+            }
+        }.installOn(table);
+
+        summaryLabel.setBorder(JBUI.Borders.empty(4, 8));
+        add(summaryLabel, BorderLayout.NORTH);
+        add(new JBScrollPane(table), BorderLayout.CENTER);
+    }
+
+    /**
+     * 开始新一轮检查，清空上次结果，只展示错误与警告
+     *
+     * @param scope 检查范围描述
+     * @param total 待检查语句数
+     */
+    public void start(String scope, int total) {
+        start(scope, total, false);
+    }
+
+    /**
+     * 开始新一轮检查，清空上次结果
+     *
+     * @param scope      检查范围描述
+     * @param total      待检查语句数
+     * @param showPassed 是否展示通过的语句；展示时按语句顺序排列，便于查看每条语句耗时
+     */
+    public void start(String scope, int total, boolean showPassed) {
+        model.setItems(new ArrayList<>());
+        this.scope = scope;
+        this.showPassed = showPassed;
+        this.total = total;
+        errors = 0;
+        warnings = 0;
+        passed = 0;
+        summaryLabel.setText(String.format(SQL_BATCH_CHECK_PROGRESS, scope, 0, total));
+    }
+
+    /**
+     * 追加一条检查结果，未开启展示通过语句时通过的语句只计数不展示
+     *
+     * @param result 检查结果
+     */
+    public void add(SqlCheckResult result) {
+        if (result.getSeverity() == Severity.OK) {
+            passed++;
+        } else if (result.getSeverity() == Severity.ERROR) {
+            errors++;
+        } else {
+            warnings++;
+        }
+        summaryLabel.setText(String.format(SQL_BATCH_CHECK_PROGRESS, scope, errors + warnings + passed, total));
+        if (result.getSeverity() == Severity.OK && !showPassed) return;
+        model.addRow(result);
+        if (showPassed) return;
+        // 错误排在警告之前，同级按位置排序
+        model.getItems().sort(Comparator.comparing(SqlCheckResult::getSeverity)
+                .thenComparing(SqlCheckResult::getFilePath)
+                .thenComparingInt(SqlCheckResult::getOffset));
+        model.fireTableDataChanged();
+    }
+
+    /**
+     * 检查结束，显示统计信息
+     *
+     * @param elapsedMillis 总耗时（ms）
+     */
+    public void finish(long elapsedMillis) {
+        summaryLabel.setText(String.format(SQL_BATCH_CHECK_SUMMARY, scope,
+                errors + warnings + passed, errors, warnings, passed, elapsedMillis));
+    }
+
+    private void navigate(SqlCheckResult result) {
+        VirtualFile file = LocalFileSystem.getInstance().findFileByPath(result.getFilePath());
+        if (file == null) return;
+        new OpenFileDescriptor(project, file, result.getOffset()).navigate(true);
+    }
+
+    private static String fileName(String path) {
+        int slash = Math.max(path.lastIndexOf('/'), path.lastIndexOf('\\'));
+        return slash < 0 ? path : path.substring(slash + 1);
+    }
+
+    private static ColumnInfo<SqlCheckResult, String> column(String name, Function<SqlCheckResult, String> getter) {
+        return new ColumnInfo<>(name) {
+            @Override
+            public @Nullable String valueOf(SqlCheckResult result) {
+                return getter.apply(result);
+            }
+        };
+    }
+
+    /**
+     * 级别列：图标加文字
+     */
+    private static final class SeverityColumn extends ColumnInfo<SqlCheckResult, Severity> {
+        private final TableCellRenderer renderer = new DefaultTableCellRenderer() {
+            @Override
+            public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected,
+                                                           boolean hasFocus, int row, int column) {
+                super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
+                if (value == Severity.ERROR) {
+                    setIcon(AllIcons.General.Error);
+                    setText(SQL_BATCH_CHECK_ERROR);
+                } else if (value == Severity.WARNING) {
+                    setIcon(AllIcons.General.Warning);
+                    setText(SQL_BATCH_CHECK_WARNING);
+                } else {
+                    setIcon(AllIcons.General.InspectionsOK);
+                    setText(SQL_BATCH_CHECK_OK);
+                }
+                return this;
+            }
+        };
+
+        SeverityColumn() {
+            super(SQL_BATCH_CHECK_COL_SEVERITY);
+        }
+
+        @Override
+        public @Nullable Severity valueOf(SqlCheckResult result) {
+            return result.getSeverity();
+        }
+
+        @Override
+        public @Nullable TableCellRenderer getRenderer(SqlCheckResult result) {
+            return renderer;
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package com.chen.dialog;
+import com.chen.action.CheckByExecuteToggleAction;
 import com.chen.constant.MessageConstants;
 import com.chen.entity.DbConfig;
+import com.chen.entity.PreparedSql;
+import com.chen.utils.ConnectionHealthMonitor;
 import com.chen.utils.SqlCheckUtil;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.ui.DialogWrapper;
@@ -10,10 +13,10 @@ import org.jetbrains.annotations.Nullable;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.datatransfer.StringSelection;
+import java.util.Collections;
 import java.util.Optional;
 
 import static com.chen.utils.DbConfigUtil.*;
-import static com.chen.utils.JdbcTableInfoUtil.testConnection;
 import static com.chen.constant.MessageConstants.*;
 /**
  * @author czh
@@ -25,15 +28,25 @@ public class SqlPreviewDialog extends DialogWrapper {
 
     private final Project project;
     private final String sql;
+    /** 执行检查时使用的预编译 SQL，为 null 时直接执行预览文本 */
+    private final PreparedSql preparedSql;
     private JTextArea textArea;
 
     /**
      * 构造方法
      */
     public SqlPreviewDialog(Project project, String sql) {
+        this(project, sql, null);
+    }
+
+    /**
+     * 构造方法，执行检查时以 PreparedStatement 执行预编译 SQL
+     */
+    public SqlPreviewDialog(Project project, String sql, @Nullable PreparedSql preparedSql) {
         super(project, true);
         this.project = project;
         this.sql = sql;
+        this.preparedSql = preparedSql;
         setTitle("预览实际 SQL");
         init();
     }
@@ -96,22 +109,19 @@ public class SqlPreviewDialog extends DialogWrapper {
 
         DbConfig dbConfig = dbConfigOpt.get();
 
-        try {
-            if (!testConnection(dbConfig)) {
-                Messages.showErrorDialog(project,
-                        MessageConstants.SQL_ERROR_CONNECTION_FAIL,
-                        MessageConstants.SQL_ERROR_TITLE_CONNECTION_FAIL);
-                return;
-            }
-        } catch (Exception ex) {
+        // 读取健康监控的缓存状态，数据源熔断期间直接提示，不再重新建立连接
+        if (!ConnectionHealthMonitor.isAvailable(dbConfig)) {
             Messages.showErrorDialog(project,
-                    "数据库连接异常：" + ex.getMessage(),
+                    MessageConstants.SQL_ERROR_CONNECTION_FAIL + "\n"
+                            + ConnectionHealthMonitor.getHealth(dbConfig).getLastError(),
                     MessageConstants.SQL_ERROR_TITLE_CONNECTION_FAIL);
             return;
         }
 
         // 语法检查
-        String syntaxResult = SqlCheckUtil.checkSQLWithRollback(dbConfig, sql);
+        String syntaxResult = SqlCheckUtil.checkSQL(dbConfig,
+                preparedSql != null ? preparedSql : new PreparedSql(sql, Collections.emptyList()),
+                0, CheckByExecuteToggleAction.isEnabled(project));
         if (syntaxResult != null) {
             Messages.showErrorDialog(project,
                     syntaxResult,
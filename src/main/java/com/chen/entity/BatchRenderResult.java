@@ -0,0 +1,55 @@
+package com.chen.entity;
+
+/**
+ * 批量渲染结果类
+ * 记录一次批量渲染的成功/失败条数与耗时，用于输出吞吐量
+ *
+ * @author czh
+ * @version 1.0
+ * @date 2025/7/6
+ */
+public class BatchRenderResult {
+
+    /** 成功渲染的参数组数 */
+    private final long rendered;
+
+    /** 解析或渲染失败的参数组数 */
+    private final long failed;
+
+    /** 总耗时（纳秒） */
+    private final long elapsedNanos;
+
+    public BatchRenderResult(long rendered, long failed, long elapsedNanos) {
+        this.rendered = rendered;
+        this.failed = failed;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getRendered() {
+        return rendered;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedNanos / 1_000_000;
+    }
+
+    /**
+     * 吞吐量：每秒渲染的参数组数
+     */
+    public double getThroughput() {
+        return elapsedNanos == 0 ? 0 : (rendered + failed) * 1_000_000_000d / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchRenderResult{" +
+                "rendered=" + rendered +
+                ", failed=" + failed +
+                ", elapsedMillis=" + getElapsedMillis() +
+                '}';
+    }
+}
@@ -0,0 +1,160 @@
+package com.chen.entity;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Mapper 语句索引信息类
+ * 描述 Mapper XML 中一条 &lt;select&gt;/&lt;insert&gt;/&lt;update&gt;/&lt;delete&gt;/&lt;sql&gt; 的内容体、
+ * 展开 &lt;include&gt; 后的内容体、引用的表名及内容哈希，以 namespace.id 为键存入索引
+ *
+ * @author czh
+ * @version 1.0
+ * @date 2025/7/7
+ */
+public class MapperStatement {
+
+    /** Mapper 命名空间 */
+    private String namespace;
+
+    /** 语句 id */
+    private String id;
+
+    /** 标签名（select/insert/update/delete/sql） */
+    private String tagName;
+
+    /** 内容体在文件中的起始偏移（包含） */
+    private int start;
+
+    /** 内容体在文件中的结束偏移（不包含） */
+    private int end;
+
+    /** 原始内容体 */
+    private String body;
+
+    /** 展开 &lt;include&gt; 后的内容体 */
+    private String resolvedBody;
+
+    /** 引用的表名，按出现顺序去重 */
+    private List<String> tables;
+
+    /** 原始内容体的内容哈希 */
+    private long hash;
+
+    public MapperStatement() {
+    }
+
+    public MapperStatement(String namespace, String id, String tagName, int start, int end, String body) {
+        this.namespace = namespace;
+        this.id = id;
+        this.tagName = tagName;
+        this.start = start;
+        this.end = end;
+        this.body = body;
+    }
+
+    /**
+     * 完整 id：namespace.id，命名空间为空时即为 id
+     */
+    public String getQualifiedId() {
+        return namespace == null || namespace.isEmpty() ? id : namespace + "." + id;
+    }
+
+    public String getNamespace() {
+        return namespace;
+    }
+
+    public void setNamespace(String namespace) {
+        this.namespace = namespace;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getTagName() {
+        return tagName;
+    }
+
+    public void setTagName(String tagName) {
+        this.tagName = tagName;
+    }
+
+    public int getStart() {
+        return start;
+    }
+
+    public void setStart(int start) {
+        this.start = start;
+    }
+
+    public int getEnd() {
+        return end;
+    }
+
+    public void setEnd(int end) {
+        this.end = end;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public void setBody(String body) {
+        this.body = body;
+    }
+
+    public String getResolvedBody() {
+        return resolvedBody;
+    }
+
+    public void setResolvedBody(String resolvedBody) {
+        this.resolvedBody = resolvedBody;
+    }
+
+    public List<String> getTables() {
+        return tables;
+    }
+
+    public void setTables(List<String> tables) {
+        this.tables = tables;
+    }
+
+    public long getHash() {
+        return hash;
+    }
+
+    public void setHash(long hash) {
+        this.hash = hash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof MapperStatement)) return false;
+        MapperStatement that = (MapperStatement) o;
+        return start == that.start && end == that.end && hash == that.hash
+                && Objects.equals(namespace, that.namespace) && Objects.equals(id, that.id)
+                && Objects.equals(tagName, that.tagName) && Objects.equals(resolvedBody, that.resolvedBody);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(namespace, id, start, hash);
+    }
+
+    @Override
+    public String toString() {
+        return "MapperStatement{" +
+                "qualifiedId='" + getQualifiedId() + '\'' +
+                ", tagName='" + tagName + '\'' +
+                ", start=" + start +
+                ", end=" + end +
+                ", tables=" + tables +
+                '}';
+    }
+}
@@ -0,0 +1,176 @@
+package com.chen.entity;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 执行计划历史记录类
+ * 计划历史文件中的一行，按 语句指纹 + 数据源 归属；计划树压平为步骤列表，只保留比较回归所需的字段
+ *
+ * @author czh
+ * @version 1.0
+ * @date 2025/7/9
+ */
+public class PlanHistoryEntry {
+
+    /** 语句指纹：字面量与参数归一为 ? 后的 SQL 哈希 */
+    private String fingerprint;
+
+    /** 数据源：连接地址与用户名 */
+    private String datasource;
+
+    /** 记录时间（毫秒时间戳） */
+    private long capturedAt;
+
+    /** 含 ? 占位符的 SQL，用于重新获取执行计划 */
+    private String sql;
+
+    /** 按占位符顺序排列的参数类型：NULL、NUMBER、BOOLEAN、STRING */
+    private List<String> parameterTypes = new ArrayList<>();
+
+    /** 按占位符顺序排列的参数值，只在开启保存参数值时记录 */
+    private List<Object> parameters = new ArrayList<>();
+
+    /** 计划步骤，按计划树先序排列 */
+    private List<Step> steps = new ArrayList<>();
+
+    /**
+     * 计划步骤
+     */
+    public static class Step {
+
+        /** 操作类型 */
+        private String operator;
+
+        /** 操作对象 */
+        private String object;
+
+        /** 预估行数 */
+        private Double rows;
+
+        /** 是否全表扫描 */
+        private boolean fullScan;
+
+        public Step() {}
+
+        public Step(String operator, String object, Double rows, boolean fullScan) {
+            this.operator = operator;
+            this.object = object;
+            this.rows = rows;
+            this.fullScan = fullScan;
+        }
+
+        public String getOperator() {
+            return operator;
+        }
+
+        public void setOperator(String operator) {
+            this.operator = operator;
+        }
+
+        public String getObject() {
+            return object;
+        }
+
+        public void setObject(String object) {
+            this.object = object;
+        }
+
+        public Double getRows() {
+            return rows;
+        }
+
+        public void setRows(Double rows) {
+            this.rows = rows;
+        }
+
+        public boolean isFullScan() {
+            return fullScan;
+        }
+
+        public void setFullScan(boolean fullScan) {
+            this.fullScan = fullScan;
+        }
+
+        @Override
+        public String toString() {
+            return "Step{" +
+                    "operator='" + operator + '\'' +
+                    ", object='" + object + '\'' +
+                    ", rows=" + rows +
+                    ", fullScan=" + fullScan +
+                    '}';
+        }
+    }
+
+    public PlanHistoryEntry() {}
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public void setFingerprint(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
+    public String getDatasource() {
+        return datasource;
+    }
+
+    public void setDatasource(String datasource) {
+        this.datasource = datasource;
+    }
+
+    public long getCapturedAt() {
+        return capturedAt;
+    }
+
+    public void setCapturedAt(long capturedAt) {
+        this.capturedAt = capturedAt;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public void setSql(String sql) {
+        this.sql = sql;
+    }
+
+    public List<String> getParameterTypes() {
+        return parameterTypes;
+    }
+
+    public void setParameterTypes(List<String> parameterTypes) {
+        this.parameterTypes = parameterTypes;
+    }
+
+    public List<Object> getParameters() {
+        return parameters;
+    }
+
+    public void setParameters(List<Object> parameters) {
+        this.parameters = parameters;
+    }
+
+    public List<Step> getSteps() {
+        return steps;
+    }
+
+    public void setSteps(List<Step> steps) {
+        this.steps = steps;
+    }
+
+    @Override
+    public String toString() {
+        return "PlanHistoryEntry{" +
+                "fingerprint='" + fingerprint + '\'' +
+                ", datasource='" + datasource + '\'' +
+                ", capturedAt=" + capturedAt +
+                ", sql='" + sql + '\'' +
+                ", parameterTypes=" + parameterTypes +
+                ", parameters=" + parameters +
+                ", steps=" + steps +
+                '}';
+    }
+}
@@ -0,0 +1,151 @@
+package com.chen.entity;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 执行计划节点类
+ * 各数据库的执行计划（MySQL JSON、PostgreSQL JSON、Oracle PLAN_TABLE、SQL Server ShowPlan XML）
+ * 统一转换为该节点树，子节点为当前节点的输入
+ *
+ * @author czh
+ * @version 1.0
+ * @date 2025/7/9
+ */
+public class PlanNode {
+
+    /** 操作类型，如 ALL、Seq Scan、TABLE ACCESS FULL、Clustered Index Seek */
+    private String operator;
+
+    /** 操作对象：表名，使用索引时为 表名.索引名 */
+    private String object;
+
+    /** 预估行数，数据库未给出时为 null */
+    private Double estimatedRows;
+
+    /** 预估代价，单位随数据库不同，只适合同一数据库内比较 */
+    private Double cost;
+
+    /** 实际每次循环输出的行数，仅 EXPLAIN ANALYZE 有值 */
+    private Double actualRows;
+
+    /** 实际每次循环耗时（ms，含子节点），仅 EXPLAIN ANALYZE 有值 */
+    private Double actualTimeMs;
+
+    /** 实际循环次数，仅 EXPLAIN ANALYZE 有值 */
+    private Long loops;
+
+    /** 附加信息，如过滤条件、Using filesort */
+    private String detail;
+
+    /** 子节点 */
+    private List<PlanNode> children = new ArrayList<>();
+
+    public PlanNode() {}
+
+    public PlanNode(String operator, String object) {
+        this.operator = operator;
+        this.object = object;
+    }
+
+    public String getOperator() {
+        return operator;
+    }
+
+    public PlanNode setOperator(String operator) {
+        this.operator = operator;
+        return this;
+    }
+
+    public String getObject() {
+        return object;
+    }
+
+    public PlanNode setObject(String object) {
+        this.object = object;
+        return this;
+    }
+
+    public Double getEstimatedRows() {
+        return estimatedRows;
+    }
+
+    public PlanNode setEstimatedRows(Double estimatedRows) {
+        this.estimatedRows = estimatedRows;
+        return this;
+    }
+
+    public Double getCost() {
+        return cost;
+    }
+
+    public PlanNode setCost(Double cost) {
+        this.cost = cost;
+        return this;
+    }
+
+    public Double getActualRows() {
+        return actualRows;
+    }
+
+    public PlanNode setActualRows(Double actualRows) {
+        this.actualRows = actualRows;
+        return this;
+    }
+
+    public Double getActualTimeMs() {
+        return actualTimeMs;
+    }
+
+    public PlanNode setActualTimeMs(Double actualTimeMs) {
+        this.actualTimeMs = actualTimeMs;
+        return this;
+    }
+
+    public Long getLoops() {
+        return loops;
+    }
+
+    public PlanNode setLoops(Long loops) {
+        this.loops = loops;
+        return this;
+    }
+
+    public String getDetail() {
+        return detail;
+    }
+
+    public PlanNode setDetail(String detail) {
+        this.detail = detail;
+        return this;
+    }
+
+    public List<PlanNode> getChildren() {
+        return children;
+    }
+
+    public PlanNode setChildren(List<PlanNode> children) {
+        this.children = children;
+        return this;
+    }
+
+    public PlanNode addChild(PlanNode child) {
+        children.add(child);
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "PlanNode{" +
+                "operator='" + operator + '\'' +
+                ", object='" + object + '\'' +
+                ", estimatedRows=" + estimatedRows +
+                ", cost=" + cost +
+                ", actualRows=" + actualRows +
+                ", actualTimeMs=" + actualTimeMs +
+                ", loops=" + loops +
+                ", detail='" + detail + '\'' +
+                ", children=" + children +
+                '}';
+    }
+}
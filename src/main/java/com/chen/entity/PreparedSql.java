@@ -0,0 +1,42 @@
+package com.chen.entity;
+
+import java.util.List;
+
+/**
+ * 预编译 SQL 类
+ * 由 MyBatis 语句渲染得到：#{} 参数替换为 ? 占位符，参数值按出现顺序放入绑定列表，
+ * ${} 仍按文本拼接。同一语句不同参数渲染出的 SQL 文本相同，可复用服务端的语句与执行计划缓存
+ *
+ * @author czh
+ * @version 1.0
+ * @date 2025/7/8
+ */
+public class PreparedSql {
+
+    /** 含 ? 占位符的 SQL */
+    private final String sql;
+
+    /** 按占位符顺序排列的参数值：数字字符串已转为 Long/BigDecimal，未填写的参数为 null */
+    private final List<Object> parameters;
+
+    public PreparedSql(String sql, List<Object> parameters) {
+        this.sql = sql;
+        this.parameters = parameters;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public List<Object> getParameters() {
+        return parameters;
+    }
+
+    @Override
+    public String toString() {
+        return "PreparedSql{" +
+                "sql='" + sql + '\'' +
+                ", parameters=" + parameters +
+                '}';
+    }
+}
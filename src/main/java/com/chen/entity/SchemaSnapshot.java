@@ -0,0 +1,135 @@
+package com.chen.entity;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 表结构快照类
+ * 保存某个数据源下全部表与字段的元数据（{@link TableMeta} / {@link ColumnMeta}），
+ * 缓存在项目 .idea 目录中，用于不连接数据库的离线 SQL 校验。
+ * 表名、字段名查找不区分大小写
+ *
+ * @author czh
+ * @version 1.0
+ * @date 2025/7/9
+ */
+public class SchemaSnapshot {
+
+    /** 数据库连接地址 */
+    private String url;
+
+    /** 数据库用户名 */
+    private String username;
+
+    /** 快照时间（毫秒时间戳） */
+    private long capturedAt;
+
+    /** 表结构列表 */
+    private List<TableMeta> tables;
+
+    /** 小写表名 → 小写字段名 → 字段，首次查找时构建 */
+    private transient Map<String, Map<String, ColumnMeta>> index;
+    private transient Map<String, TableMeta> tableIndex;
+
+    public SchemaSnapshot() {
+    }
+
+    public SchemaSnapshot(String url, String username, long capturedAt, List<TableMeta> tables) {
+        this.url = url;
+        this.username = username;
+        this.capturedAt = capturedAt;
+        this.tables = tables;
+    }
+
+    /**
+     * 按表名查找表结构（不区分大小写）
+     *
+     * @param tableName 表名
+     * @return 表结构，不存在返回 null
+     */
+    public TableMeta findTable(String tableName) {
+        ensureIndex();
+        return tableName == null ? null : tableIndex.get(tableName.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * 按表名与字段名查找字段（不区分大小写）
+     *
+     * @param tableName  表名
+     * @param columnName 字段名
+     * @return 字段，表或字段不存在返回 null
+     */
+    public ColumnMeta findColumn(String tableName, String columnName) {
+        ensureIndex();
+        if (tableName == null || columnName == null) return null;
+        Map<String, ColumnMeta> columns = index.get(tableName.toLowerCase(Locale.ROOT));
+        return columns == null ? null : columns.get(columnName.toLowerCase(Locale.ROOT));
+    }
+
+    private synchronized void ensureIndex() {
+        if (index != null) return;
+        Map<String, TableMeta> byName = new HashMap<>();
+        Map<String, Map<String, ColumnMeta>> byColumn = new HashMap<>();
+        if (tables != null) {
+            for (TableMeta table : tables) {
+                String key = table.getTableName().toLowerCase(Locale.ROOT);
+                byName.put(key, table);
+                Map<String, ColumnMeta> columns = new HashMap<>();
+                if (table.getColumns() != null) {
+                    for (ColumnMeta column : table.getColumns()) {
+                        columns.put(column.getName().toLowerCase(Locale.ROOT), column);
+                    }
+                }
+                byColumn.put(key, columns);
+            }
+        }
+        tableIndex = byName;
+        index = byColumn;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public long getCapturedAt() {
+        return capturedAt;
+    }
+
+    public void setCapturedAt(long capturedAt) {
+        this.capturedAt = capturedAt;
+    }
+
+    public List<TableMeta> getTables() {
+        return tables;
+    }
+
+    public synchronized void setTables(List<TableMeta> tables) {
+        this.tables = tables;
+        this.index = null;
+        this.tableIndex = null;
+    }
+
+    @Override
+    public String toString() {
+        return "SchemaSnapshot{" +
+                "url='" + url + '\'' +
+                ", username='" + username + '\'' +
+                ", capturedAt=" + capturedAt +
+                ", tables=" + (tables == null ? 0 : tables.size()) +
+                '}';
+    }
+}
@@ -0,0 +1,135 @@
+package com.chen.entity;
+
+/**
+ * SQL 检查结果类
+ * 描述批量检查中一条语句的位置、检查级别、提示信息及耗时，用于在 SQL 检查工具窗口中展示与跳转
+ *
+ * @author czh
+ * @version 1.0
+ * @date 2025/7/9
+ */
+public class SqlCheckResult {
+
+    /**
+     * 检查级别
+     */
+    public enum Severity {
+        /** 执行失败或超时 */
+        ERROR,
+        /** 可执行但存在风险 */
+        WARNING,
+        /** 检查通过 */
+        OK
+    }
+
+    /** 文件路径 */
+    private String filePath;
+
+    /** 语句在文件中的起始偏移 */
+    private int offset;
+
+    /** 语句所在行号（从 1 开始） */
+    private int line;
+
+    /** Mapper 语句 id，普通 SQL 文件为 null */
+    private String statementId;
+
+    /** 实际执行的 SQL */
+    private String sql;
+
+    /** 检查级别 */
+    private Severity severity;
+
+    /** 提示信息，检查通过时为 null */
+    private String message;
+
+    /** 检查耗时（ms） */
+    private long elapsedMillis;
+
+    public SqlCheckResult() {
+    }
+
+    public SqlCheckResult(String filePath, int offset, int line, String statementId, String sql) {
+        this.filePath = filePath;
+        this.offset = offset;
+        this.line = line;
+        this.statementId = statementId;
+        this.sql = sql;
+    }
+
+    public String getFilePath() {
+        return filePath;
+    }
+
+    public void setFilePath(String filePath) {
+        this.filePath = filePath;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public void setOffset(int offset) {
+        this.offset = offset;
+    }
+
+    public int getLine() {
+        return line;
+    }
+
+    public void setLine(int line) {
+        this.line = line;
+    }
+
+    public String getStatementId() {
+        return statementId;
+    }
+
+    public void setStatementId(String statementId) {
+        this.statementId = statementId;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public void setSql(String sql) {
+        this.sql = sql;
+    }
+
+    public Severity getSeverity() {
+        return severity;
+    }
+
+    public void setSeverity(Severity severity) {
+        this.severity = severity;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "SqlCheckResult{" +
+                "filePath='" + filePath + '\'' +
+                ", line=" + line +
+                ", statementId='" + statementId + '\'' +
+                ", severity=" + severity +
+                ", message='" + message + '\'' +
+                ", elapsedMillis=" + elapsedMillis +
+                '}';
+    }
+}
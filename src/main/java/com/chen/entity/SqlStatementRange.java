@@ -0,0 +1,84 @@
+package com.chen.entity;
+
+/**
+ * SQL 语句区间信息类
+ * 描述文档中一条语句的起止偏移：Mapper XML 中为 &lt;select&gt;/&lt;update&gt; 等标签的内容体，
+ * 普通 SQL 文件中为以分号分隔的单条语句（不含分号）
+ *
+ * @author czh
+ * @version 1.0
+ * @date 2025/6/28
+ */
+public class SqlStatementRange {
+
+    /** 语句起始偏移（包含） */
+    private int start;
+
+    /** 语句结束偏移（不包含） */
+    private int end;
+
+    /** Mapper 标签名（select/insert/update/delete/sql），普通 SQL 语句为 null */
+    private String tagName;
+
+    /** Mapper 语句 id，普通 SQL 语句为 null */
+    private String statementId;
+
+    public SqlStatementRange() {
+    }
+
+    public SqlStatementRange(int start, int end, String tagName, String statementId) {
+        this.start = start;
+        this.end = end;
+        this.tagName = tagName;
+        this.statementId = statementId;
+    }
+
+    public int getStart() {
+        return start;
+    }
+
+    public void setStart(int start) {
+        this.start = start;
+    }
+
+    public int getEnd() {
+        return end;
+    }
+
+    public void setEnd(int end) {
+        this.end = end;
+    }
+
+    public String getTagName() {
+        return tagName;
+    }
+
+    public void setTagName(String tagName) {
+        this.tagName = tagName;
+    }
+
+    public String getStatementId() {
+        return statementId;
+    }
+
+    public void setStatementId(String statementId) {
+        this.statementId = statementId;
+    }
+
+    /**
+     * 是否为 Mapper XML 中的语句
+     */
+    public boolean isMapperStatement() {
+        return tagName != null;
+    }
+
+    @Override
+    public String toString() {
+        return "SqlStatementRange{" +
+                "start=" + start +
+                ", end=" + end +
+                ", tagName='" + tagName + '\'' +
+                ", statementId='" + statementId + '\'' +
+                '}';
+    }
+}
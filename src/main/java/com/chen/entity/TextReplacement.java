@@ -0,0 +1,48 @@
+package com.chen.entity;
+
+/**
+ * 文本替换信息类
+ * 描述对文档 [start, end) 区间的一次替换，用于批量格式化时统一回写文档
+ *
+ * @author czh
+ * @version 1.0
+ * @date 2025/6/29
+ */
+public class TextReplacement {
+
+    /** 替换起始偏移（包含） */
+    private final int start;
+
+    /** 替换结束偏移（不包含） */
+    private final int end;
+
+    /** 替换后的文本 */
+    private final String text;
+
+    public TextReplacement(int start, int end, String text) {
+        this.start = start;
+        this.end = end;
+        this.text = text;
+    }
+
+    public int getStart() {
+        return start;
+    }
+
+    public int getEnd() {
+        return end;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    @Override
+    public String toString() {
+        return "TextReplacement{" +
+                "start=" + start +
+                ", end=" + end +
+                ", text='" + text + '\'' +
+                '}';
+    }
+}
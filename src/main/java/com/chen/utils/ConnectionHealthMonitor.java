@@ -0,0 +1,171 @@
+package com.chen.utils;
+
+import com.chen.entity.DbConfig;
+import com.intellij.util.concurrency.AppExecutorUtil;
+
+import java.sql.Connection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.chen.constant.DataSourceConstants.*;
+
+/**
+ * 数据源健康监控。
+ * <p>
+ * 在后台定期从 {@link DataSourceManager} 的连接池借出连接做 isValid 探测，缓存每个数据源的状态，
+ * 操作执行前只读缓存状态，不再每次通过 DriverManager 新建物理连接（TLS 与认证握手）。
+ * 探测失败后熔断：按指数退避安排下次探测，期间直接返回不可用；到达重试时间后的第一次调用
+ * 同步探测一次（半开），成功即恢复。长时间未使用的数据源停止后台探测。
+ * </p>
+ *
+ * @author czh
+ * @version 1.0
+ * @since 2025/7/9
+ */
+public class ConnectionHealthMonitor {
+
+    /**
+     * 数据源状态
+     */
+    public enum Status {
+        /** 尚未探测 */
+        UNKNOWN,
+        /** 可用 */
+        UP,
+        /** 不可用，熔断中 */
+        DOWN
+    }
+
+    /**
+     * 单个数据源的健康状态
+     */
+    public static final class Health {
+        private volatile Status status = Status.UNKNOWN;
+        private volatile String lastError;
+        private volatile long checkedAt;
+        private volatile long nextProbeAt;
+        private volatile long lastUsedAt;
+        private int consecutiveFailures;
+        private final AtomicBoolean probing = new AtomicBoolean();
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public String getLastError() {
+            return lastError;
+        }
+
+        public long getCheckedAt() {
+            return checkedAt;
+        }
+
+        public long getNextProbeAt() {
+            return nextProbeAt;
+        }
+    }
+
+    private static final Map<DbConfig, Health> STATES = new ConcurrentHashMap<>();
+    private static final AtomicBoolean STARTED = new AtomicBoolean();
+
+    private ConnectionHealthMonitor() {
+    }
+
+    /**
+     * 数据源当前是否可用。已知可用或熔断中时直接返回缓存状态，
+     * 首次使用或到达重试时间时同步探测一次
+     *
+     * @param config 数据库连接配置
+     * @return 可用返回 true
+     */
+    public static boolean isAvailable(DbConfig config) {
+        Health health = track(config);
+        Status status = health.status;
+        if (status == Status.UP) return true;
+        if (status == Status.DOWN && System.currentTimeMillis() < health.nextProbeAt) return false;
+        return probe(config);
+    }
+
+    /**
+     * 立即探测数据源（用于新增、切换数据源等需要确认当前配置的场景），并更新缓存状态
+     *
+     * @param config 数据库连接配置
+     * @return 可用返回 true
+     */
+    public static boolean probe(DbConfig config) {
+        String error = dial(config);
+        record(track(config), error);
+        return error == null;
+    }
+
+    /**
+     * 获取数据源的缓存健康状态，不触发探测
+     *
+     * @param config 数据库连接配置
+     * @return 健康状态
+     */
+    public static Health getHealth(DbConfig config) {
+        return STATES.computeIfAbsent(config, c -> new Health());
+    }
+
+    private static Health track(DbConfig config) {
+        Health health = getHealth(config);
+        health.lastUsedAt = System.currentTimeMillis();
+        if (STARTED.compareAndSet(false, true)) {
+            AppExecutorUtil.getAppScheduledExecutorService().scheduleWithFixedDelay(
+                    ConnectionHealthMonitor::tick, HEALTH_CHECK_TICK_MS, HEALTH_CHECK_TICK_MS, TimeUnit.MILLISECONDS);
+        }
+        return health;
+    }
+
+    /**
+     * 从连接池借出连接并校验，连接池初始化失败（数据库不可达）同样视为不可用
+     *
+     * @return 可用返回 null，否则返回错误信息
+     */
+    private static String dial(DbConfig config) {
+        try (Connection conn = DataSourceManager.getDataSource(config).getConnection()) {
+            return conn.isValid(HEALTH_CHECK_VALID_TIMEOUT_SECONDS) ? null : HEALTH_CHECK_INVALID;
+        } catch (Exception e) {
+            return e.getMessage();
+        }
+    }
+
+    private static synchronized void record(Health health, String error) {
+        long now = System.currentTimeMillis();
+        health.checkedAt = now;
+        if (error == null) {
+            health.consecutiveFailures = 0;
+            health.lastError = null;
+            health.status = Status.UP;
+            health.nextProbeAt = now + HEALTH_CHECK_INTERVAL_MS;
+        } else {
+            health.consecutiveFailures++;
+            long backoff = HEALTH_BACKOFF_BASE_MS << Math.min(health.consecutiveFailures - 1, 16);
+            health.lastError = error;
+            health.status = Status.DOWN;
+            health.nextProbeAt = now + Math.min(backoff, HEALTH_BACKOFF_MAX_MS);
+        }
+    }
+
+    /**
+     * 后台巡检：到期且近期使用过的数据源交给应用线程池探测，不阻塞调度线程
+     */
+    private static void tick() {
+        long now = System.currentTimeMillis();
+        for (Map.Entry<DbConfig, Health> entry : STATES.entrySet()) {
+            Health health = entry.getValue();
+            if (now - health.lastUsedAt > HEALTH_CHECK_IDLE_MS || now < health.nextProbeAt) continue;
+            if (!health.probing.compareAndSet(false, true)) continue;
+            AppExecutorUtil.getAppExecutorService().execute(() -> {
+                try {
+                    record(health, dial(entry.getKey()));
+                } finally {
+                    health.probing.set(false);
+                }
+            });
+        }
+    }
+}
@@ -82,6 +82,15 @@ public class DataSourceManager {
         hikariConfig.setConnectionTimeout(DataSourceConstants.CONNECTION_TIMEOUT); // 获取连接超时时间
         hikariConfig.setIdleTimeout(DataSourceConstants.IDLE_TIMEOUT);          // 空闲连接最大存活时间
         hikariConfig.setMaxLifetime(DataSourceConstants.MAX_LIFETIME);          // 连接最大生命周期
+        if (DataSourceConstants.DB_TYPE_MYSQL.equals(parseDbType(cfg.getUrl()))) {
+            // 服务端预编译并在连接上缓存语句，同一语句换参数执行时不再重复解析
+            hikariConfig.addDataSourceProperty(DataSourceConstants.MYSQL_USE_SERVER_PREP_STMTS, "true");
+            hikariConfig.addDataSourceProperty(DataSourceConstants.MYSQL_CACHE_PREP_STMTS, "true");
+            hikariConfig.addDataSourceProperty(DataSourceConstants.MYSQL_PREP_STMT_CACHE_SIZE,
+                    String.valueOf(DataSourceConstants.PREP_STMT_CACHE_SIZE));
+            hikariConfig.addDataSourceProperty(DataSourceConstants.MYSQL_PREP_STMT_CACHE_SQL_LIMIT,
+                    String.valueOf(DataSourceConstants.PREP_STMT_CACHE_SQL_LIMIT));
+        }
         return new HikariDataSource(hikariConfig);
     }
 }
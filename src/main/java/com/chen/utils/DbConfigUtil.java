@@ -542,8 +542,6 @@ public class DbConfigUtil {
                     if (DB_TYPE_MYSQL.equalsIgnoreCase(dbType)) {
                         String yamlTemplate = SoarYamlUtil.readYamlTemplate("soar.yaml");
                         String replacedYaml  = SoarYamlUtil.replaceDbConfigInYaml(config, yamlTemplate);
-                        Path ideaDir = Paths.get(project.getBasePath(), ".idea");
-                        SoarYamlUtil.copySoarExeToDir(ideaDir);
                         String userProjectPath = project.getBasePath();
                         SoarYamlUtil.writeYamlToProjectIdea(userProjectPath, replacedYaml);
                     }
@@ -565,8 +563,6 @@ public class DbConfigUtil {
             if (DB_TYPE_MYSQL.equalsIgnoreCase(dbType)) {
                 String yamlTemplate = SoarYamlUtil.readYamlTemplate("soar.yaml");
                 String replacedYaml  = SoarYamlUtil.replaceDbConfigInYaml(config, yamlTemplate);
-                Path ideaDir = Paths.get(project.getBasePath(), ".idea");
-                SoarYamlUtil.copySoarExeToDir(ideaDir);
                 String userProjectPath = project.getBasePath();
                 SoarYamlUtil.writeYamlToProjectIdea(userProjectPath, replacedYaml);
             }
@@ -0,0 +1,632 @@
+package com.chen.utils;
+
+import com.chen.entity.DbConfig;
+import com.chen.entity.PlanNode;
+import com.chen.entity.PreparedSql;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xml.sax.InputSource;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static com.chen.constant.DataSourceConstants.*;
+import static com.chen.constant.SqlConstants.*;
+
+/**
+ * 执行计划工具类。
+ * <p>
+ * 按数据库类型获取执行计划并转换为统一的 {@link PlanNode} 树：
+ * - MySQL：EXPLAIN FORMAT=JSON；
+ * - PostgreSQL：EXPLAIN (FORMAT JSON)；
+ * - Oracle：EXPLAIN PLAN 写入 PLAN_TABLE 后按 ID / PARENT_ID 读出，随后回滚；
+ * - SQL Server：SET SHOWPLAN_XML ON 后提交语句，只返回计划不执行。
+ * MySQL 与 PostgreSQL 以 ? 占位符加绑定参数执行；Oracle 与 SQL Server 的计划语句不接受绑定参数，
+ * 参数值以字面量代入，与真实执行时的计划更接近。
+ * </p>
+ * <p>
+ * {@link #explainAnalyze} 真正执行语句并收集每个节点的实际行数与耗时（MySQL 8.0.18+ 的 EXPLAIN ANALYZE、
+ * PostgreSQL 的 EXPLAIN (ANALYZE)），在回滚的事务中执行并设置语句超时；
+ * {@link #rowMisestimate} 与 {@link #isTimeHotspot} 找出实际值与估算偏差最大的节点。
+ * </p>
+ *
+ * @author czh
+ * @version 1.0
+ * @since 2025/7/9
+ */
+public class ExplainPlanUtil {
+
+    /**
+     * 单个数据库的执行计划获取方式
+     */
+    @FunctionalInterface
+    private interface PlanProvider {
+        PlanNode explain(Connection conn, PreparedSql sql) throws Exception;
+    }
+
+    private static final Map<String, PlanProvider> DB_TYPE_TO_PROVIDER = Map.of(
+            DB_TYPE_MYSQL, ExplainPlanUtil::explainMySql,
+            DB_TYPE_POSTGRESQL, ExplainPlanUtil::explainPostgreSql,
+            DB_TYPE_ORACLE, ExplainPlanUtil::explainOracle,
+            DB_TYPE_SQLSERVER, ExplainPlanUtil::explainSqlServer
+    );
+
+    private static final Map<String, PlanProvider> DB_TYPE_TO_ANALYZE_PROVIDER = Map.of(
+            DB_TYPE_MYSQL, ExplainPlanUtil::analyzeMySql,
+            DB_TYPE_POSTGRESQL, ExplainPlanUtil::analyzePostgreSql
+    );
+
+    /** 各数据库表示全表扫描的操作 */
+    private static final Set<String> FULL_SCAN_OPERATORS = Set.of(
+            "all", "seq scan", "table access full", "table scan", "clustered index scan");
+
+    /** MySQL JSON 计划中除表访问外的操作节点 */
+    private static final Map<String, String> MYSQL_OPERATIONS = Map.of(
+            "ordering_operation", "ORDER BY",
+            "grouping_operation", "GROUP BY",
+            "duplicates_removal", "DISTINCT",
+            "windowing", "WINDOW",
+            "union_result", "UNION",
+            "materialized_from_subquery", "MATERIALIZE",
+            "buffer_result", "BUFFER RESULT"
+    );
+
+    /** PostgreSQL 计划节点中作为附加信息展示的属性 */
+    private static final List<String> POSTGRESQL_DETAILS = List.of(
+            "Subplan Name", "Join Type", "Strategy", "Index Cond", "Hash Cond", "Merge Cond",
+            "Join Filter", "Filter", "Sort Key", "Group Key");
+
+    private static final Pattern TRAILING_SEMICOLON = Pattern.compile("[\\s;]+$");
+    private static final Pattern VERSION = Pattern.compile("(\\d+)\\.(\\d+)\\.(\\d+)");
+    /** MySQL EXPLAIN ANALYZE 树形输出的一行：-> 描述 (cost=.. rows=..) (actual time=a..b rows=.. loops=..) */
+    private static final Pattern MYSQL_TREE_LINE = Pattern.compile("^(\\s*)-> (.+?)"
+            + "(?:\\s+\\(cost=([\\d.e+-]+)(?:\\.\\.([\\d.e+-]+))?\\s+rows=([\\d.e+-]+)\\))?"
+            + "(?:\\s+\\(actual time=[\\d.e+-]+\\.\\.([\\d.e+-]+)\\s+rows=([\\d.e+-]+)\\s+loops=(\\d+)\\)"
+            + "|\\s+\\((never executed)\\))?\\s*$");
+    /** MySQL 树形节点描述中的表与索引，如 Index lookup on t2 using idx_a (a = t1.a) */
+    private static final Pattern MYSQL_TREE_OBJECT = Pattern.compile(
+            "^([A-Za-z -]+?) on (\\S+?)(?: using (\\S+))?(?: (.*))?$");
+    private static final Pattern MYSQL_TREE_LABEL = Pattern.compile("^([A-Za-z -]+?): (.*)$");
+
+    /**
+     * ObjectMapper 延迟到首次解析 JSON 计划时创建：SqlHtmlUtil 只调用节点判断方法，
+     * 不应因此加载平台提供的 Jackson，基准测试的类路径上没有它
+     */
+    private static final class Json {
+        private static final ObjectMapper MAPPER = new ObjectMapper();
+    }
+
+    private ExplainPlanUtil() {
+    }
+
+    /**
+     * 获取 SQL 的执行计划（不执行语句）
+     *
+     * @param config 数据库连接配置
+     * @param sql    预编译 SQL
+     * @return 执行计划树的根节点
+     * @throws Exception 数据库不支持或获取执行计划失败
+     */
+    public static PlanNode explain(DbConfig config, PreparedSql sql) throws Exception {
+        String dbType = DbConfigUtil.parseDbType(config.getUrl());
+        PlanProvider provider = DB_TYPE_TO_PROVIDER.get(dbType);
+        if (provider == null) {
+            throw new IllegalArgumentException(String.format(ERROR_EXPLAIN_UNSUPPORTED, dbType));
+        }
+        try (Connection conn = DataSourceManager.getDataSource(config).getConnection()) {
+            return provider.explain(conn, stripSemicolon(sql));
+        } catch (SQLException e) {
+            throw new Exception(ERROR_EXPLAIN_PREFIX + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 执行 SQL 并获取带实际行数与耗时的执行计划。
+     * 语句在事务中执行并在结束后回滚，超过 {@code EXPLAIN_ANALYZE_TIMEOUT_SECONDS} 时中止；
+     * 不支持的数据库（或低于 8.0.18 的 MySQL）退化为 {@link #explain}，返回的计划没有实际值
+     *
+     * @param config 数据库连接配置
+     * @param sql    预编译 SQL
+     * @return 执行计划树的根节点
+     * @throws Exception 执行失败或超时
+     */
+    public static PlanNode explainAnalyze(DbConfig config, PreparedSql sql) throws Exception {
+        String dbType = DbConfigUtil.parseDbType(config.getUrl());
+        PlanProvider provider = DB_TYPE_TO_ANALYZE_PROVIDER.get(dbType);
+        if (provider == null) return explain(config, sql);
+        PreparedSql statement = stripSemicolon(sql);
+        try (Connection conn = DataSourceManager.getDataSource(config).getConnection()) {
+            String version = conn.getMetaData().getDatabaseProductVersion();
+            if (DB_TYPE_MYSQL.equals(dbType) && !supportsMySqlAnalyze(version)) {
+                return explainMySql(conn, statement);
+            }
+            conn.setAutoCommit(false);
+            try {
+                return provider.explain(conn, statement);
+            } finally {
+                conn.rollback();          // 丢弃语句执行产生的修改
+                conn.setAutoCommit(true); // 归还连接池前恢复自动提交
+            }
+        } catch (SQLTimeoutException e) {
+            throw new Exception(ERROR_EXPLAIN_ANALYZE_PREFIX
+                    + String.format(ERROR_SQL_TIMEOUT, EXPLAIN_ANALYZE_TIMEOUT_SECONDS), e);
+        } catch (SQLException e) {
+            throw new Exception(ERROR_EXPLAIN_ANALYZE_PREFIX + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 计划中是否含有实际执行数据（EXPLAIN ANALYZE 的结果）
+     *
+     * @param node 执行计划根节点
+     * @return 任一节点有实际行数返回 true
+     */
+    public static boolean isAnalyzed(PlanNode node) {
+        if (node.getActualRows() != null) return true;
+        for (PlanNode child : node.getChildren()) {
+            if (isAnalyzed(child)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * 行数估算偏差倍数：每次循环的实际行数与预估行数之比，取大于 1 的方向
+     *
+     * @param node 执行计划节点
+     * @return 偏差倍数，缺少实际值或未执行的节点返回 0
+     */
+    public static double rowMisestimate(PlanNode node) {
+        if (node.getActualRows() == null || node.getEstimatedRows() == null
+                || node.getLoops() == null || node.getLoops() == 0) {
+            return 0;
+        }
+        double actual = Math.max(node.getActualRows(), 1);
+        double estimated = Math.max(node.getEstimatedRows(), 1);
+        return Math.max(actual / estimated, estimated / actual);
+    }
+
+    /**
+     * 节点自身（不含子节点）的实际总耗时（ms）
+     *
+     * @param node 执行计划节点
+     * @return 耗时，缺少实际值返回 0
+     */
+    public static double selfTimeMs(PlanNode node) {
+        double self = totalTimeMs(node);
+        for (PlanNode child : node.getChildren()) self -= totalTimeMs(child);
+        return Math.max(self, 0);
+    }
+
+    /**
+     * 耗时热点：节点自身耗时占整个计划的比例不低于 {@code EXPLAIN_TIME_HOTSPOT_RATIO}，
+     * 且自身代价占比不到耗时占比的一半，即优化器明显低估了该节点的开销
+     *
+     * @param node 执行计划节点
+     * @param root 执行计划根节点
+     * @return 是热点返回 true
+     */
+    public static boolean isTimeHotspot(PlanNode node, PlanNode root) {
+        double total = totalTimeMs(root);
+        if (total <= 0) return false;
+        double timeShare = selfTimeMs(node) / total;
+        if (timeShare < EXPLAIN_TIME_HOTSPOT_RATIO) return false;
+        if (root.getCost() == null || root.getCost() <= 0 || node.getCost() == null) return true;
+        double selfCost = node.getCost();
+        for (PlanNode child : node.getChildren()) {
+            if (child.getCost() != null) selfCost -= child.getCost();
+        }
+        return Math.max(selfCost, 0) / root.getCost() < timeShare / 2;
+    }
+
+    private static double totalTimeMs(PlanNode node) {
+        if (node.getActualTimeMs() == null || node.getLoops() == null) return 0;
+        return node.getActualTimeMs() * node.getLoops();
+    }
+
+    /**
+     * 是否为全表扫描节点
+     *
+     * @param node 执行计划节点
+     * @return 全表扫描返回 true
+     */
+    public static boolean isFullScan(PlanNode node) {
+        return node.getOperator() != null
+                && FULL_SCAN_OPERATORS.contains(node.getOperator().toLowerCase(Locale.ROOT));
+    }
+
+    // ================== MySQL ==================
+
+    private static PlanNode explainMySql(Connection conn, PreparedSql sql) throws Exception {
+        JsonNode json = Json.MAPPER.readTree(queryText(conn, "EXPLAIN FORMAT=JSON " + sql.getSql(), sql,
+                EXPLAIN_TIMEOUT_SECONDS));
+        PlanNode holder = new PlanNode("PLAN", null);
+        walkMySql(json, holder);
+        return unwrap(holder);
+    }
+
+    /**
+     * EXPLAIN ANALYZE 只支持树形输出；不接受绑定参数，参数值以字面量代入。
+     * 语句会真正执行，字面量转义按会话的 sql_mode 决定反斜杠是否为转义符
+     */
+    private static PlanNode analyzeMySql(Connection conn, PreparedSql sql) throws Exception {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.setQueryTimeout(EXPLAIN_ANALYZE_TIMEOUT_SECONDS);
+            boolean backslashEscapes;
+            try (ResultSet rs = stmt.executeQuery("SELECT @@SESSION.sql_mode")) {
+                String sqlMode = rs.next() ? rs.getString(1) : null;
+                backslashEscapes = sqlMode == null
+                        || !sqlMode.toUpperCase(Locale.ROOT).contains(MYSQL_NO_BACKSLASH_ESCAPES);
+            }
+            String analyzeSql = "EXPLAIN ANALYZE " + inlineParameters(sql, DB_TYPE_MYSQL, backslashEscapes);
+            try (ResultSet rs = stmt.executeQuery(analyzeSql)) {
+                if (!rs.next()) throw new SQLException(INFO_EXPLAIN_EMPTY);
+                return parseMySqlTree(rs.getString(1));
+            }
+        }
+    }
+
+    private static boolean supportsMySqlAnalyze(String version) {
+        Matcher matcher = VERSION.matcher(version == null ? "" : version);
+        if (!matcher.find()) return false;
+        int value = Integer.parseInt(matcher.group(1)) * 10000
+                + Integer.parseInt(matcher.group(2)) * 100 + Integer.parseInt(matcher.group(3));
+        return value >= MYSQL_EXPLAIN_ANALYZE_MIN_VERSION;
+    }
+
+    /**
+     * 每级缩进 4 个空格，按缩进深度确定父节点
+     */
+    private static PlanNode parseMySqlTree(String tree) {
+        PlanNode holder = new PlanNode("PLAN", null);
+        Deque<PlanNode> stack = new ArrayDeque<>();
+        for (String line : tree.split("\\R")) {
+            Matcher matcher = MYSQL_TREE_LINE.matcher(line);
+            if (!matcher.matches()) continue;
+            PlanNode node = mysqlTreeNode(matcher.group(2))
+                    .setCost(number(matcher.group(4) != null ? matcher.group(4) : matcher.group(3)))
+                    .setEstimatedRows(number(matcher.group(5)));
+            if (matcher.group(9) != null) {
+                node.setActualRows(0d).setActualTimeMs(0d).setLoops(0L);
+            } else if (matcher.group(8) != null) {
+                node.setActualTimeMs(number(matcher.group(6)))
+                        .setActualRows(number(matcher.group(7)))
+                        .setLoops(Long.parseLong(matcher.group(8)));
+            }
+            int depth = matcher.group(1).length() / 4;
+            while (stack.size() > depth) stack.pop();
+            (stack.isEmpty() ? holder : stack.peek()).addChild(node);
+            stack.push(node);
+        }
+        return unwrap(holder);
+    }
+
+    private static PlanNode mysqlTreeNode(String description) {
+        Matcher object = MYSQL_TREE_OBJECT.matcher(description);
+        if (object.matches()) {
+            String table = object.group(2);
+            return new PlanNode(object.group(1), object.group(3) == null ? table : table + "." + object.group(3))
+                    .setDetail(object.group(4));
+        }
+        Matcher label = MYSQL_TREE_LABEL.matcher(description);
+        if (label.matches()) {
+            return new PlanNode(label.group(1), null).setDetail(label.group(2));
+        }
+        return new PlanNode(description, null);
+    }
+
+    private static void walkMySql(JsonNode object, PlanNode parent) {
+        Iterator<Map.Entry<String, JsonNode>> fields = object.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            String key = field.getKey();
+            JsonNode value = field.getValue();
+            if ("query_block".equals(key)) {
+                PlanNode node = new PlanNode("QUERY BLOCK", "#" + value.path("select_id").asText())
+                        .setCost(number(value.path("cost_info").get("query_cost")));
+                parent.addChild(node);
+                walkMySql(value, node);
+            } else if ("table".equals(key)) {
+                PlanNode node = mysqlTable(value);
+                parent.addChild(node);
+                walkMySql(value, node);
+            } else if ("nested_loop".equals(key)) {
+                PlanNode node = new PlanNode("NESTED LOOP", null);
+                parent.addChild(node);
+                for (JsonNode item : value) walkMySql(item, node);
+            } else if (MYSQL_OPERATIONS.containsKey(key)) {
+                PlanNode node = new PlanNode(MYSQL_OPERATIONS.get(key), value.path("table_name").asText(null))
+                        .setDetail(mysqlFlags(value, null));
+                parent.addChild(node);
+                walkMySql(value, node);
+            } else if ("query_specifications".equals(key) || key.endsWith("_subqueries")) {
+                for (JsonNode item : value) walkMySql(item, parent);
+            }
+        }
+    }
+
+    private static PlanNode mysqlTable(JsonNode table) {
+        String name = table.path("table_name").asText(null);
+        String key = table.path("key").asText(null);
+        return new PlanNode(table.path("access_type").asText(null), key == null ? name : name + "." + key)
+                .setEstimatedRows(number(table.get("rows_examined_per_scan")))
+                .setCost(number(table.path("cost_info").get("prefix_cost")))
+                .setDetail(mysqlFlags(table, table.path("attached_condition").asText(null)));
+    }
+
+    /**
+     * 将 using_filesort、using_temporary_table 等为 true 的标记转为 Using filesort 形式，与条件一起拼接
+     */
+    private static String mysqlFlags(JsonNode object, String condition) {
+        List<String> parts = new ArrayList<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = object.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            if (field.getKey().startsWith("using_") && field.getValue().asBoolean(false)) {
+                parts.add("Using " + field.getKey().substring("using_".length()).replace('_', ' '));
+            }
+        }
+        if (condition != null) parts.add(condition);
+        return parts.isEmpty() ? null : String.join("; ", parts);
+    }
+
+    // ================== PostgreSQL ==================
+
+    private static PlanNode explainPostgreSql(Connection conn, PreparedSql sql) throws Exception {
+        JsonNode json = Json.MAPPER.readTree(queryText(conn, "EXPLAIN (FORMAT JSON) " + sql.getSql(), sql,
+                EXPLAIN_TIMEOUT_SECONDS));
+        return postgreSqlNode(json.path(0).path("Plan"));
+    }
+
+    /**
+     * 事务内设置 statement_timeout，随事务回滚自动恢复
+     */
+    private static PlanNode analyzePostgreSql(Connection conn, PreparedSql sql) throws Exception {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("SET LOCAL statement_timeout = " + EXPLAIN_ANALYZE_TIMEOUT_SECONDS * 1000);
+        }
+        JsonNode json = Json.MAPPER.readTree(queryText(conn, "EXPLAIN (ANALYZE, FORMAT JSON) " + sql.getSql(),
+                sql, EXPLAIN_ANALYZE_TIMEOUT_SECONDS));
+        return postgreSqlNode(json.path(0).path("Plan"));
+    }
+
+    private static PlanNode postgreSqlNode(JsonNode plan) {
+        String relation = plan.path("Relation Name").asText(null);
+        String index = plan.path("Index Name").asText(null);
+        String object = relation == null ? index : index == null ? relation : relation + "." + index;
+        if (object == null) object = plan.path("CTE Name").asText(plan.path("Function Name").asText(null));
+
+        List<String> details = new ArrayList<>();
+        for (String name : POSTGRESQL_DETAILS) {
+            JsonNode value = plan.get(name);
+            if (value == null) continue;
+            details.add(name + ": " + (value.isArray() ? joinArray(value) : value.asText()));
+        }
+
+        PlanNode node = new PlanNode(plan.path("Node Type").asText(null), object)
+                .setEstimatedRows(number(plan.get("Plan Rows")))
+                .setCost(number(plan.get("Total Cost")))
+                .setActualRows(number(plan.get("Actual Rows")))
+                .setActualTimeMs(number(plan.get("Actual Total Time")))
+                .setLoops(plan.has("Actual Loops") ? plan.get("Actual Loops").asLong() : null)
+                .setDetail(details.isEmpty() ? null : String.join("; ", details));
+        for (JsonNode child : plan.path("Plans")) {
+            node.addChild(postgreSqlNode(child));
+        }
+        return node;
+    }
+
+    // ================== Oracle ==================
+
+    private static PlanNode explainOracle(Connection conn, PreparedSql sql) throws Exception {
+        conn.setAutoCommit(false);
+        try (Statement stmt = conn.createStatement()) {
+            stmt.setQueryTimeout(EXPLAIN_TIMEOUT_SECONDS);
+            stmt.execute("EXPLAIN PLAN SET STATEMENT_ID = '" + PLAN_STATEMENT_ID + "' FOR "
+                    + inlineParameters(sql, DB_TYPE_ORACLE, false));
+            try (PreparedStatement ps = conn.prepareStatement("SELECT ID, PARENT_ID, OPERATION, OPTIONS, "
+                    + "OBJECT_NAME, CARDINALITY, COST, ACCESS_PREDICATES, FILTER_PREDICATES "
+                    + "FROM PLAN_TABLE WHERE STATEMENT_ID = ? ORDER BY ID")) {
+                ps.setString(1, PLAN_STATEMENT_ID);
+                try (ResultSet rs = ps.executeQuery()) {
+                    return oraclePlanTree(rs);
+                }
+            }
+        } finally {
+            conn.rollback();          // 丢弃写入 PLAN_TABLE 的计划
+            conn.setAutoCommit(true); // 归还连接池前恢复自动提交
+        }
+    }
+
+    /**
+     * PLAN_TABLE 按 ID 排序，父节点总在子节点之前
+     */
+    private static PlanNode oraclePlanTree(ResultSet rs) throws SQLException {
+        Map<Integer, PlanNode> nodes = new HashMap<>();
+        PlanNode root = null;
+        while (rs.next()) {
+            String options = rs.getString("OPTIONS");
+            String operation = rs.getString("OPERATION") + (options == null ? "" : " " + options);
+            List<String> details = new ArrayList<>();
+            if (rs.getString("ACCESS_PREDICATES") != null) {
+                details.add("access: " + rs.getString("ACCESS_PREDICATES"));
+            }
+            if (rs.getString("FILTER_PREDICATES") != null) {
+                details.add("filter: " + rs.getString("FILTER_PREDICATES"));
+            }
+            PlanNode node = new PlanNode(operation, rs.getString("OBJECT_NAME"))
+                    .setEstimatedRows(number(rs.getBigDecimal("CARDINALITY")))
+                    .setCost(number(rs.getBigDecimal("COST")))
+                    .setDetail(details.isEmpty() ? null : String.join("; ", details));
+            nodes.put(rs.getInt("ID"), node);
+            int parentId = rs.getInt("PARENT_ID");
+            PlanNode parent = rs.wasNull() ? null : nodes.get(parentId);
+            if (parent != null) {
+                parent.addChild(node);
+            } else if (root == null) {
+                root = node;
+            }
+        }
+        return root;
+    }
+
+    // ================== SQL Server ==================
+
+    private static PlanNode explainSqlServer(Connection conn, PreparedSql sql) throws Exception {
+        String xml = null;
+        try (Statement stmt = conn.createStatement()) {
+            stmt.setQueryTimeout(EXPLAIN_TIMEOUT_SECONDS);
+            stmt.execute("SET SHOWPLAN_XML ON");
+            try {
+                if (stmt.execute(inlineParameters(sql, DB_TYPE_SQLSERVER, false))) {
+                    try (ResultSet rs = stmt.getResultSet()) {
+                        if (rs.next()) xml = rs.getString(1);
+                    }
+                }
+            } finally {
+                stmt.execute("SET SHOWPLAN_XML OFF");
+            }
+        }
+        if (xml == null) return null;
+
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+        NodeList statements = factory.newDocumentBuilder()
+                .parse(new InputSource(new StringReader(xml)))
+                .getElementsByTagNameNS("*", "StmtSimple");
+        PlanNode holder = new PlanNode("BATCH", null);
+        for (int i = 0; i < statements.getLength(); i++) {
+            Element statement = (Element) statements.item(i);
+            PlanNode node = new PlanNode(statement.getAttribute("StatementType"), null)
+                    .setEstimatedRows(number(statement.getAttribute("StatementEstRows")))
+                    .setCost(number(statement.getAttribute("StatementSubTreeCost")));
+            holder.addChild(node);
+            walkShowPlan(statement, node);
+        }
+        return unwrap(holder);
+    }
+
+    /**
+     * RelOp 为计划节点，嵌套在操作元素（如 NestedLoops、IndexScan）中的 RelOp 为其输入；
+     * 节点访问的表与索引取自最近的 Object 元素
+     */
+    private static void walkShowPlan(Element element, PlanNode parent) {
+        for (Node child = element.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (!(child instanceof Element)) continue;
+            Element el = (Element) child;
+            if ("RelOp".equals(el.getLocalName())) {
+                String physical = el.getAttribute("PhysicalOp");
+                String logical = el.getAttribute("LogicalOp");
+                PlanNode node = new PlanNode(physical, null)
+                        .setEstimatedRows(number(el.getAttribute("EstimateRows")))
+                        .setCost(number(el.getAttribute("EstimatedTotalSubtreeCost")))
+                        .setDetail(logical.isEmpty() || logical.equals(physical) ? null : logical);
+                parent.addChild(node);
+                walkShowPlan(el, node);
+            } else {
+                if ("Object".equals(el.getLocalName()) && parent.getObject() == null) {
+                    parent.setObject(showPlanObject(el));
+                }
+                walkShowPlan(el, parent);
+            }
+        }
+    }
+
+    private static String showPlanObject(Element object) {
+        String table = object.getAttribute("Table").replaceAll("[\\[\\]]", "");
+        String index = object.getAttribute("Index").replaceAll("[\\[\\]]", "");
+        if (table.isEmpty()) return null;
+        return index.isEmpty() ? table : table + "." + index;
+    }
+
+    // ================== 公共方法 ==================
+
+    /**
+     * 以绑定参数执行计划语句，返回第一行第一列的文本（JSON 格式的计划）
+     */
+    private static String queryText(Connection conn, String explainSql, PreparedSql sql, int timeoutSeconds)
+            throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(explainSql)) {
+            ps.setQueryTimeout(timeoutSeconds);
+            SqlParamUtils.bindParameters(ps, sql.getParameters());
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) throw new SQLException(INFO_EXPLAIN_EMPTY);
+                return rs.getString(1);
+            }
+        }
+    }
+
+    /**
+     * PREPARE / EXPLAIN 只接受单条语句，去掉结尾分号
+     */
+    private static PreparedSql stripSemicolon(PreparedSql sql) {
+        return new PreparedSql(TRAILING_SEMICOLON.matcher(sql.getSql()).replaceAll(""), sql.getParameters());
+    }
+
+    /**
+     * 将 ? 占位符替换为参数字面量：null 为 NULL，数值原样，其余按字符串加单引号，
+     * 单引号双写；backslashEscapes 为 true 时（MySQL 未开启 NO_BACKSLASH_ESCAPES）反斜杠同样双写
+     */
+    private static String inlineParameters(PreparedSql sql, String dialect, boolean backslashEscapes) {
+        List<Object> parameters = sql.getParameters();
+        if (parameters.isEmpty()) return sql.getSql();
+        return SqlDryRunChecker.replacePlaceholders(sql.getSql(), dialect, i -> {
+            Object value = i <= parameters.size() ? parameters.get(i - 1) : null;
+            if (value == null) return "NULL";
+            if (value instanceof Number) return value.toString();
+            return SqlParamUtils.quoteLiteral(value.toString(), backslashEscapes);
+        });
+    }
+
+    /**
+     * 只有一个子节点的占位根节点直接返回该子节点
+     */
+    private static PlanNode unwrap(PlanNode holder) {
+        return holder.getChildren().size() == 1 ? holder.getChildren().get(0) : holder;
+    }
+
+    private static String joinArray(JsonNode array) {
+        List<String> items = new ArrayList<>();
+        for (JsonNode item : array) items.add(item.asText());
+        return String.join(", ", items);
+    }
+
+    private static Double number(JsonNode value) {
+        if (value == null || value.isNull() || value.isMissingNode()) return null;
+        return value.isNumber() ? Double.valueOf(value.asDouble()) : number(value.asText());
+    }
+
+    private static Double number(BigDecimal value) {
+        return value == null ? null : value.doubleValue();
+    }
+
+    private static Double number(String value) {
+        if (value == null || value.isEmpty()) return null;
+        try {
+            return Double.valueOf(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -1,13 +1,18 @@
 package com.chen.utils;
 
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.Task;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.ui.Messages;
 import com.intellij.openapi.ui.popup.JBPopup;
 import com.intellij.openapi.ui.popup.JBPopupFactory;
+import com.intellij.openapi.util.ThrowableComputable;
+import org.jetbrains.annotations.NotNull;
 import groovyjarjarantlr4.v4.runtime.misc.Nullable;
 
 import javax.swing.*;
 import java.awt.*;
+import java.util.function.Consumer;
 
 public class HtmlViewerUtil {
 
@@ -42,34 +47,21 @@ public class HtmlViewerUtil {
 
         if (isReportPage) {
             JButton rewriteSQLBtn = new JButton("SQL重写");
-            rewriteSQLBtn.addActionListener(e -> {
-                try {
-                    String rewriteSQL = SoarYamlUtil.rewriteSQL(project);
-                    Messages.showInfoMessage(project, rewriteSQL, "重写成功");
-                } catch (Exception ex) {
-                    throw new RuntimeException(ex);
-                }
-            });
+            rewriteSQLBtn.addActionListener(e -> runSoarInBackground(project, "SQL重写",
+                    () -> SoarYamlUtil.rewriteSQL(project),
+                    rewriteSQL -> Messages.showInfoMessage(project, rewriteSQL, "重写成功")));
             buttonPanel.add(rewriteSQLBtn);
 
             JButton generateHtmlBtn = new JButton("生成 HTML");
-            generateHtmlBtn.addActionListener(e -> {
-                try {
-                    SoarYamlUtil.downHtml(project);
-                } catch (Exception ex) {
-                    throw new RuntimeException(ex);
-                }
-            });
+            generateHtmlBtn.addActionListener(e -> runSoarInBackground(project, "生成 HTML",
+                    () -> SoarYamlUtil.downHtml(project).getAbsolutePath(),
+                    path -> Messages.showInfoMessage(project, "HTML 报告生成成功：\n" + path, "生成成功")));
             buttonPanel.add(generateHtmlBtn);
 
             JButton generateMdBtn = new JButton("生成 MD");
-            generateMdBtn.addActionListener(e -> {
-                try {
-                    SoarYamlUtil.downMD(project);
-                } catch (Exception ex) {
-                    throw new RuntimeException(ex);
-                }
-            });
+            generateMdBtn.addActionListener(e -> runSoarInBackground(project, "生成 MD",
+                    () -> SoarYamlUtil.downMD(project).getAbsolutePath(),
+                    path -> Messages.showInfoMessage(project, "Markdown 报告生成成功：\n" + path, "生成成功")));
             buttonPanel.add(generateMdBtn);
         }
 
@@ -97,6 +89,35 @@ public class HtmlViewerUtil {
         popup.showInFocusCenter();
     }
 
+    /**
+     * 在后台任务中运行 soar 分析，完成后在界面线程展示结果，避免分析耗时卡住界面
+     */
+    private static void runSoarInBackground(Project project, String title,
+                                            ThrowableComputable<String, Exception> analysis, Consumer<String> onDone) {
+        new Task.Backgroundable(project, title, true) {
+            private String result;
+
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                try {
+                    result = analysis.compute();
+                } catch (Exception ex) {
+                    throw new RuntimeException(ex.getMessage(), ex);
+                }
+            }
+
+            @Override
+            public void onSuccess() {
+                onDone.accept(result);
+            }
+
+            @Override
+            public void onThrowable(@NotNull Throwable error) {
+                Messages.showErrorDialog(project, error.getMessage(), title);
+            }
+        }.queue();
+    }
+
 
 
 
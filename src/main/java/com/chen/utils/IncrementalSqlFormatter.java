@@ -0,0 +1,237 @@
+package com.chen.utils;
+
+import com.chen.entity.SqlStatementRange;
+import com.chen.entity.TextReplacement;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.editor.event.DocumentEvent;
+import com.intellij.openapi.editor.event.DocumentListener;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Key;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 整文档增量格式化器。
+ * <p>
+ * 按语句（Mapper 语句标签内容体或分号分隔的 SQL）切分文档，并以“方言 + 语句内容哈希”缓存格式化结果。
+ * 通过监听文档变更事件维护语句区间：语句内部的普通编辑只平移后续区间并标记该语句待重算哈希，
+ * 涉及分号、标签、引号、注释等结构字符的编辑才触发重新切分。
+ * 再次格式化时只有内容发生变化的语句会真正调用 {@link SqlFormatUtil#formatSql}，且这些语句并行格式化。
+ * </p>
+ *
+ * @author czh
+ * @version 1.0
+ * @since 2025/6/28
+ */
+public class IncrementalSqlFormatter implements DocumentListener {
+
+    private static final Key<IncrementalSqlFormatter> KEY = Key.create("PrettySQL.IncrementalSqlFormatter");
+
+    /** 可能改变语句边界的字符 */
+    private static final String STRUCTURE_CHARS = ";<>'\"`-/*#";
+
+    /**
+     * 一条语句的区间及其内容哈希
+     */
+    private static final class Segment {
+        private final SqlStatementRange range;
+        private long hash;
+        private boolean dirty = true;
+
+        Segment(SqlStatementRange range) {
+            this.range = range;
+        }
+    }
+
+    private List<Segment> segments = new ArrayList<>();
+    private boolean structureDirty = true;
+    private String dialect;
+
+    /** 语句区间所对应的文档修改戳，文档每次变更后更新 */
+    private long documentStamp;
+
+    /** 语句内容哈希 -> 格式化结果（未加缩进），仅保留当前文档仍在使用的条目 */
+    private Map<Long, String> formattedByHash = new HashMap<>();
+
+    /** 项目级格式化结果缓存，跨文档共享，文档内未命中时再查询 */
+    private final SqlTextCache sharedCache;
+
+    private IncrementalSqlFormatter(long documentStamp, SqlTextCache sharedCache) {
+        this.documentStamp = documentStamp;
+        this.sharedCache = sharedCache;
+    }
+
+    /**
+     * 获取文档对应的增量格式化器，首次获取时注册文档监听，随项目关闭自动注销。
+     * 需在 EDT 或读操作中调用。
+     *
+     * @param project  当前项目
+     * @param document 编辑器文档
+     * @return 增量格式化器
+     */
+    public static synchronized IncrementalSqlFormatter getInstance(Project project, Document document) {
+        IncrementalSqlFormatter formatter = document.getUserData(KEY);
+        if (formatter == null) {
+            formatter = new IncrementalSqlFormatter(document.getModificationStamp(),
+                    SqlCacheService.getInstance(project).getFormatCache());
+            document.putUserData(KEY, formatter);
+            document.addDocumentListener(formatter, project);
+        }
+        return formatter;
+    }
+
+    /**
+     * 文档变更回调（EDT 写操作中），只做区间平移，不会等待后台格式化
+     */
+    @Override
+    public synchronized void documentChanged(@NotNull DocumentEvent event) {
+        documentStamp = event.getDocument().getModificationStamp();
+        if (structureDirty) return;
+        if (hasStructureChar(event.getOldFragment()) || hasStructureChar(event.getNewFragment())) {
+            structureDirty = true;
+            return;
+        }
+        int offset = event.getOffset();
+        int oldEnd = offset + event.getOldLength();
+        int delta = event.getNewLength() - event.getOldLength();
+        for (Segment segment : segments) {
+            SqlStatementRange range = segment.range;
+            if (range.getEnd() < offset) continue;
+            if (range.getStart() > oldEnd) {
+                range.setStart(range.getStart() + delta);
+                range.setEnd(range.getEnd() + delta);
+            } else if (range.getStart() < offset && oldEnd < range.getEnd()) {
+                range.setEnd(range.getEnd() + delta);
+                segment.dirty = true;
+            } else {
+                // 编辑触及语句边界，重新切分
+                structureDirty = true;
+                return;
+            }
+        }
+    }
+
+    /**
+     * 计算整文档格式化所需的替换列表，按偏移升序；内容未变化的语句直接复用缓存结果。
+     * <p>
+     * 可在后台线程调用：只在开始和结束时短暂持锁，格式化过程中文档仍可自由编辑；
+     * 若期间文档发生变化，结果仍会返回（由调用方按修改戳判断是否丢弃），但不会覆盖最新的语句区间。
+     * 通过 {@link ProgressManager#checkCanceled()} 响应取消。
+     * </p>
+     *
+     * @param text    文档内容快照
+     * @param stamp   快照对应的文档修改戳
+     * @param dialect SQL 方言
+     * @return 替换列表，已是格式化结果的语句不会出现在列表中
+     */
+    public List<TextReplacement> computeReplacements(String text, long stamp, String dialect) {
+        List<Segment> work;
+        Map<Long, String> cache;
+        synchronized (this) {
+            if (!dialect.equals(this.dialect)) {
+                this.dialect = dialect;
+                formattedByHash = new HashMap<>();
+            }
+            cache = formattedByHash;
+            work = !structureDirty && documentStamp == stamp ? copySegments(segments) : null;
+        }
+        if (work == null) {
+            work = new ArrayList<>();
+            for (SqlStatementRange range : SqlStatementSplitter.split(text, dialect)) {
+                work.add(new Segment(range));
+            }
+        }
+
+        // 先顺序计算哈希并收集未命中的语句，再并行格式化
+        Map<Long, String> misses = new HashMap<>();
+        for (Segment segment : work) {
+            ProgressManager.checkCanceled();
+            SqlStatementRange range = segment.range;
+            if (segment.dirty) {
+                segment.hash = StringUtils.contentHash(text, range.getStart(), range.getEnd());
+                segment.dirty = false;
+            }
+            if (!cache.containsKey(segment.hash) && !misses.containsKey(segment.hash)) {
+                misses.put(segment.hash, text.substring(range.getStart(), range.getEnd()).trim());
+            }
+        }
+        Map<Long, String> formattedMisses = formatInParallel(misses, dialect);
+
+        List<TextReplacement> replacements = new ArrayList<>();
+        Map<Long, String> next = new HashMap<>();
+        for (Segment segment : work) {
+            SqlStatementRange range = segment.range;
+            String formatted = cache.get(segment.hash);
+            if (formatted == null) formatted = formattedMisses.get(segment.hash);
+            next.put(segment.hash, formatted);
+
+            String rendered = SqlFormatUtil.renderStatement(text, range, formatted);
+            // 替换后的内容再次格式化时直接命中
+            next.put(StringUtils.contentHash(rendered), formatted);
+            if (!SqlFormatUtil.isSameText(text, range, rendered)) {
+                replacements.add(new TextReplacement(range.getStart(), range.getEnd(), rendered));
+            }
+        }
+
+        synchronized (this) {
+            // 缓存按内容寻址，总是可以保留；区间只有在文档未变化时才可信
+            if (dialect.equals(this.dialect)) formattedByHash = next;
+            if (documentStamp == stamp) {
+                segments = work;
+                structureDirty = false;
+            }
+        }
+        return replacements;
+    }
+
+    /**
+     * 并行格式化未命中缓存的语句；取消时抛出 ProcessCanceledException
+     *
+     * @param statements 语句内容哈希 -> 语句文本
+     * @param dialect    SQL 方言
+     * @return 语句内容哈希 -> 格式化结果
+     */
+    private Map<Long, String> formatInParallel(Map<Long, String> statements, String dialect) {
+        if (statements.size() <= 1) {
+            Map<Long, String> result = new HashMap<>();
+            statements.forEach((hash, sql) -> result.put(hash, SqlFormatUtil.formatSql(sql, dialect, sharedCache)));
+            return result;
+        }
+        // 工作线程不继承当前进度指示器，需显式传入以响应取消
+        ProgressIndicator indicator = ProgressManager.getGlobalProgressIndicator();
+        Map<Long, String> result = new ConcurrentHashMap<>();
+        statements.entrySet().parallelStream().forEach(entry -> {
+            if (indicator != null && indicator.isCanceled()) return;
+            result.put(entry.getKey(), SqlFormatUtil.formatSql(entry.getValue(), dialect, sharedCache));
+        });
+        ProgressManager.checkCanceled();
+        return result;
+    }
+
+    private static List<Segment> copySegments(List<Segment> source) {
+        List<Segment> copy = new ArrayList<>(source.size());
+        for (Segment segment : source) {
+            SqlStatementRange range = segment.range;
+            Segment s = new Segment(new SqlStatementRange(range.getStart(), range.getEnd(),
+                    range.getTagName(), range.getStatementId()));
+            s.hash = segment.hash;
+            s.dirty = segment.dirty;
+            copy.add(s);
+        }
+        return copy;
+    }
+
+    private static boolean hasStructureChar(CharSequence fragment) {
+        for (int i = 0; i < fragment.length(); i++) {
+            if (STRUCTURE_CHARS.indexOf(fragment.charAt(i)) >= 0) return true;
+        }
+        return false;
+    }
+}
@@ -1,6 +1,5 @@
 package com.chen.utils;
 
-import com.chen.constant.DataSourceConstants;
 import com.chen.entity.ColumnMeta;
 import com.chen.entity.DbConfig;
 import com.chen.entity.TableMeta;
@@ -8,9 +7,6 @@ import com.chen.entity.TableMeta;
 import java.sql.*;
 import java.util.*;
 
-import static com.chen.utils.DbConfigUtil.parseDbType;
-import static java.sql.DriverManager.getConnection;
-
 /**
  * JDBC 工具类，用于获取指定表的字段元数据信息
  * 包括字段名称、类型、是否主键和备注信息
@@ -23,14 +19,6 @@ import static java.sql.DriverManager.getConnection;
  */
 public class JdbcTableInfoUtil {
 
-    private static final Map<String, String> DRIVER_MAP = Map.of(
-            DataSourceConstants.DB_TYPE_MYSQL, DataSourceConstants.MYSQL_DRIVER,
-            DataSourceConstants.DB_TYPE_ORACLE, DataSourceConstants.ORACLE_DRIVER,
-            DataSourceConstants.DB_TYPE_SQLSERVER, DataSourceConstants.SQLSERVER_DRIVER,
-            DataSourceConstants.DB_TYPE_POSTGRESQL, DataSourceConstants.POSTGRESQL_DRIVER
-            // 可继续扩展
-    );
-
     /**
      * 获取指定表的字段元数据列表
      *
@@ -278,64 +266,13 @@ public class JdbcTableInfoUtil {
 
     /**
      * 检查数据库连接是否有效
+     * 立即通过连接池探测一次并刷新 {@link ConnectionHealthMonitor} 中的缓存状态，
+     * 用于新增、切换数据源等需要确认当前配置的场景；普通操作前使用 {@link ConnectionHealthMonitor#isAvailable}
      *
      * @param dbConfig 数据库连接配置
      * @return true 表示连接成功，false 表示连接失败
      */
-    public static boolean testConnection(DbConfig dbConfig) throws Exception {
-        String dbType = parseDbType(dbConfig.getUrl());
-        String driverClass = Optional.ofNullable(DRIVER_MAP.get(dbType))
-                .orElseThrow(() -> new RuntimeException("不支持的数据库类型: " + dbType));
-        Class.forName(driverClass);
-
-        try (Connection conn = getConnection(
-                dbConfig.getUrl(),
-                dbConfig.getUsername(),
-                dbConfig.getPassword())) {
-            return conn != null && !conn.isClosed();
-        }
+    public static boolean testConnection(DbConfig dbConfig) {
+        return ConnectionHealthMonitor.probe(dbConfig);
     }
-
-    /**
-     * 执行 EXPLAIN 查询，并返回每行结果映射列表
-     * 只支持 MySQL 的 EXPLAIN
-     *
-     * @param config 数据库连接配置
-     * @param sql    要执行 EXPLAIN 的 SQL 查询（必须是 SELECT）
-     * @return 结果集每行对应的 Map 集合列表
-     * @throws Exception 执行异常
-     */
-    public static List<Map<String, Object>> explainSql(DbConfig config, String sql) throws Exception {
-        if (sql == null || !sql.trim().toLowerCase().startsWith("select")) {
-            throw new IllegalArgumentException("只支持 SELECT 语句的执行计划");
-        }
-
-        String explainSql = "EXPLAIN " + sql;
-
-        try (Connection conn = DataSourceManager.getDataSource(config).getConnection()) {
-             PreparedStatement ps = conn.prepareStatement(explainSql);
-             ResultSet rs = ps.executeQuery();
-
-            ResultSetMetaData metaData = rs.getMetaData();
-            int colCount = metaData.getColumnCount();
-            List<Map<String, Object>> list = new ArrayList<>();
-
-            while (rs.next()) {
-                Map<String, Object> row = new LinkedHashMap<>();
-                for (int i = 1; i <= colCount; i++) {
-                    String colName = metaData.getColumnLabel(i);
-                    Object value = rs.getObject(i);
-                    row.put(colName, value);
-                }
-                list.add(row);
-            }
-
-            return list;
-        } catch (SQLException e) {
-            throw new Exception("执行 EXPLAIN 失败：" + e.getMessage(), e);
-        }
-    }
-
-
-
 }
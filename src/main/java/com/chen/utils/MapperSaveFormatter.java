@@ -0,0 +1,190 @@
+package com.chen.utils;
+
+import com.chen.entity.SqlStatementRange;
+import com.chen.entity.TextReplacement;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Key;
+import com.intellij.util.DocumentUtil;
+import com.intellij.util.concurrency.AppExecutorUtil;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static com.chen.constant.SqlConstants.FORMAT_ON_SAVE_BUDGET_MS;
+
+/**
+ * Mapper XML 保存时格式化。
+ * <p>
+ * 保存前按语句切分文档，只有内容哈希不在“上次保存时的哈希集合”中的语句才需要格式化；
+ * 文档第一次保存时只记录各语句哈希，不做格式化。
+ * 这些语句提交到后台线程池并行格式化，保存线程最多等待 {@link com.chen.constant.SqlConstants#FORMAT_ON_SAVE_BUDGET_MS}：
+ * 预算内完成的语句随本次保存写回；超时的语句保持原样，格式化完成后在 EDT 上按哈希重新定位并写回，
+ * 若文档在此期间未被修改则再次保存。
+ * </p>
+ *
+ * @author czh
+ * @version 1.0
+ * @since 2025/7/3
+ */
+public class MapperSaveFormatter {
+
+    private static final Key<SaveState> KEY = Key.create("PrettySQL.MapperSaveFormatter");
+
+    /**
+     * 文档的保存状态
+     */
+    private static final class SaveState {
+        /** 上次保存时各语句内容的哈希 */
+        private Set<Long> savedHashes = new HashSet<>();
+        /** 已排队等待后台格式化的语句哈希 */
+        private final Set<Long> pendingHashes = new HashSet<>();
+    }
+
+    /**
+     * 待格式化的语句
+     */
+    private static final class Candidate {
+        private final SqlStatementRange range;
+        private final long hash;
+        private final CompletableFuture<String> future;
+
+        Candidate(SqlStatementRange range, long hash, CompletableFuture<String> future) {
+            this.range = range;
+            this.hash = hash;
+            this.future = future;
+        }
+    }
+
+    /**
+     * 保存前格式化 Mapper 文档中发生变化的语句，需在 EDT 写操作中调用（beforeDocumentSaving）
+     *
+     * @param project  当前项目
+     * @param document 即将保存的文档
+     * @param dialect  SQL 方言
+     * @param cache    格式化结果缓存，可为 null
+     */
+    public static void formatOnSave(Project project, Document document, String dialect, SqlTextCache cache) {
+        String text = document.getText();
+        if (!SqlStatementSplitter.isMapperXml(text)) return;
+        SaveState state = document.getUserData(KEY);
+        if (state == null) {
+            // 首次保存只记录现有语句的哈希，不格式化，避免开启功能后第一次保存就改写整个文件
+            state = new SaveState();
+            for (SqlStatementRange range : SqlStatementSplitter.splitMapper(text)) {
+                state.savedHashes.add(StringUtils.contentHash(text, range.getStart(), range.getEnd()));
+            }
+            document.putUserData(KEY, state);
+            return;
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(FORMAT_ON_SAVE_BUDGET_MS);
+
+        // 1. 只提交内容变化过的语句，后台并行格式化
+        Set<Long> currentHashes = new HashSet<>();
+        List<Candidate> candidates = new ArrayList<>();
+        for (SqlStatementRange range : SqlStatementSplitter.splitMapper(text)) {
+            long hash = StringUtils.contentHash(text, range.getStart(), range.getEnd());
+            if (state.savedHashes.contains(hash) || state.pendingHashes.contains(hash)) {
+                currentHashes.add(hash);
+                continue;
+            }
+            String sql = text.substring(range.getStart(), range.getEnd()).trim();
+            candidates.add(new Candidate(range, hash, CompletableFuture.supplyAsync(
+                    () -> SqlFormatUtil.formatSql(sql, dialect, cache), AppExecutorUtil.getAppExecutorService())));
+        }
+
+        // 2. 在时间预算内收集结果，超时的语句留待后台完成
+        List<TextReplacement> replacements = new ArrayList<>();
+        List<Candidate> late = new ArrayList<>();
+        for (Candidate candidate : candidates) {
+            String formatted = await(candidate.future, deadline);
+            if (formatted == null) {
+                late.add(candidate);
+                continue;
+            }
+            String rendered = SqlFormatUtil.renderStatement(text, candidate.range, formatted);
+            currentHashes.add(StringUtils.contentHash(rendered));
+            if (!SqlFormatUtil.isSameText(text, candidate.range, rendered)) {
+                replacements.add(new TextReplacement(candidate.range.getStart(), candidate.range.getEnd(), rendered));
+            }
+        }
+        if (!replacements.isEmpty()) {
+            WriteCommandAction.runWriteCommandAction(project, () -> replaceAll(document, replacements));
+        }
+        state.savedHashes = currentHashes;
+
+        // 3. 超时语句排队，完成后回到 EDT 写回
+        for (Candidate candidate : late) {
+            state.pendingHashes.add(candidate.hash);
+            SaveState pendingState = state;
+            candidate.future.whenComplete((formatted, error) -> ApplicationManager.getApplication().invokeLater(() -> {
+                pendingState.pendingHashes.remove(candidate.hash);
+                if (formatted != null) applyLate(project, document, pendingState, candidate.hash, formatted);
+            }, project.getDisposed()));
+        }
+    }
+
+    /**
+     * 等待格式化结果直到截止时间，超时返回 null
+     */
+    private static String await(CompletableFuture<String> future, long deadline) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 写回后台完成的语句：按内容哈希在当前文档中重新定位，语句已被编辑则放弃
+     */
+    private static void applyLate(Project project, Document document, SaveState state, long hash, String formatted) {
+        String text = document.getText();
+        for (SqlStatementRange range : SqlStatementSplitter.splitMapper(text)) {
+            if (StringUtils.contentHash(text, range.getStart(), range.getEnd()) != hash) continue;
+            String rendered = SqlFormatUtil.renderStatement(text, range, formatted);
+            state.savedHashes.add(StringUtils.contentHash(rendered));
+            if (SqlFormatUtil.isSameText(text, range, rendered)) return;
+
+            FileDocumentManager fileDocumentManager = FileDocumentManager.getInstance();
+            boolean wasSaved = !fileDocumentManager.isDocumentUnsaved(document);
+            WriteCommandAction.runWriteCommandAction(project, () ->
+                    document.replaceString(range.getStart(), range.getEnd(), rendered));
+            // 保存后用户未再编辑，则把后台格式化结果也落盘
+            if (wasSaved) fileDocumentManager.saveDocument(document);
+            return;
+        }
+    }
+
+    /**
+     * 从后往前替换；多处替换时使用批量模式，行偏移只在结束时重算一次
+     */
+    private static void replaceAll(Document document, List<TextReplacement> replacements) {
+        Runnable replace = () -> {
+            for (int i = replacements.size() - 1; i >= 0; i--) {
+                TextReplacement replacement = replacements.get(i);
+                document.replaceString(replacement.getStart(), replacement.getEnd(), replacement.getText());
+            }
+        };
+        if (replacements.size() > 1) {
+            DocumentUtil.executeInBulk(document, true, replace);
+        } else {
+            replace.run();
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.chen.utils;
+
+import com.chen.entity.MapperStatement;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.editor.Editor;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.util.indexing.DataIndexer;
+import com.intellij.util.indexing.FileBasedIndex;
+import com.intellij.util.indexing.FileBasedIndexExtension;
+import com.intellij.util.indexing.FileContent;
+import com.intellij.util.indexing.ID;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.IOUtil;
+import com.intellij.util.io.KeyDescriptor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.chen.constant.FileConstant.XML;
+
+/**
+ * Mapper 语句索引。
+ * <p>
+ * 以 namespace.id 为键，索引项目内所有 Mapper XML 的语句内容体、展开同文件 &lt;include&gt; 后的内容体、
+ * 引用的表名及内容哈希（见 {@link MapperStatementParser}）。索引由平台在 VFS 变更时按文件增量更新，
+ * 未保存的文档同样会被重新索引，因此按 id 或光标位置获取语句只是一次索引查询，不再重新解析文件。
+ * 跨文件的 &lt;include&gt; 在查询时通过索引查找片段展开。
+ * </p>
+ *
+ * @author czh
+ * @version 1.0
+ * @since 2025/7/7
+ */
+public class MapperStatementIndex extends FileBasedIndexExtension<String, MapperStatement> {
+
+    public static final ID<String, MapperStatement> NAME = ID.create("com.chen.PrettySQL.MapperStatementIndex");
+
+    /** 索引结构或解析规则变化时递增，触发重建 */
+    private static final int VERSION = 1;
+
+    private static final String INCLUDE_TAG = "<include";
+
+    @Override
+    public @NotNull ID<String, MapperStatement> getName() {
+        return NAME;
+    }
+
+    @Override
+    public @NotNull DataIndexer<String, MapperStatement, FileContent> getIndexer() {
+        return inputData -> {
+            Map<String, MapperStatement> result = new HashMap<>();
+            for (MapperStatement statement : MapperStatementParser.parse(inputData.getContentAsText())) {
+                result.putIfAbsent(statement.getQualifiedId(), statement);
+            }
+            return result;
+        };
+    }
+
+    @Override
+    public @NotNull KeyDescriptor<String> getKeyDescriptor() {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+
+    @Override
+    public @NotNull DataExternalizer<MapperStatement> getValueExternalizer() {
+        return new DataExternalizer<>() {
+            @Override
+            public void save(@NotNull DataOutput out, MapperStatement value) throws IOException {
+                IOUtil.writeUTF(out, value.getNamespace());
+                IOUtil.writeUTF(out, value.getId());
+                IOUtil.writeUTF(out, value.getTagName());
+                out.writeInt(value.getStart());
+                out.writeInt(value.getEnd());
+                IOUtil.writeUTF(out, value.getBody());
+                // 无 include 时展开结果与原文相同，不重复存储
+                boolean same = value.getBody().equals(value.getResolvedBody());
+                out.writeBoolean(same);
+                if (!same) IOUtil.writeUTF(out, value.getResolvedBody());
+                List<String> tables = value.getTables();
+                out.writeInt(tables.size());
+                for (String table : tables) IOUtil.writeUTF(out, table);
+                out.writeLong(value.getHash());
+            }
+
+            @Override
+            public MapperStatement read(@NotNull DataInput in) throws IOException {
+                String namespace = IOUtil.readUTF(in);
+                String id = IOUtil.readUTF(in);
+                String tagName = IOUtil.readUTF(in);
+                int start = in.readInt();
+                int end = in.readInt();
+                String body = IOUtil.readUTF(in);
+                MapperStatement statement = new MapperStatement(namespace, id, tagName, start, end, body);
+                statement.setResolvedBody(in.readBoolean() ? body : IOUtil.readUTF(in));
+                int size = in.readInt();
+                List<String> tables = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) tables.add(IOUtil.readUTF(in));
+                statement.setTables(tables);
+                statement.setHash(in.readLong());
+                return statement;
+            }
+        };
+    }
+
+    @Override
+    public int getVersion() {
+        return VERSION;
+    }
+
+    @Override
+    public FileBasedIndex.@NotNull InputFilter getInputFilter() {
+        return file -> XML.equalsIgnoreCase(file.getExtension());
+    }
+
+    @Override
+    public boolean dependsOnFileContent() {
+        return true;
+    }
+
+    // ============================ 查询 ============================
+
+    /**
+     * 按 namespace.id 查找语句，跨文件的 &lt;include&gt; 已展开；索引构建中返回 null
+     *
+     * @param project     当前项目
+     * @param qualifiedId namespace.id
+     * @return 语句，未找到返回 null
+     */
+    public static @Nullable MapperStatement find(Project project, String qualifiedId) {
+        if (DumbService.isDumb(project)) return null;
+        return ReadAction.compute(() -> {
+            MapperStatement statement = lookup(project, qualifiedId);
+            return statement == null ? null : resolveExternal(project, statement);
+        });
+    }
+
+    /**
+     * 查找文件中包含指定偏移的语句，跨文件的 &lt;include&gt; 已展开；索引构建中返回 null
+     *
+     * @param project 当前项目
+     * @param file    Mapper XML 文件
+     * @param offset  文件内偏移（如光标位置）
+     * @return 语句，不在任何语句内返回 null
+     */
+    public static @Nullable MapperStatement findAt(Project project, VirtualFile file, int offset) {
+        if (DumbService.isDumb(project)) return null;
+        return ReadAction.compute(() -> {
+            Map<String, MapperStatement> data = FileBasedIndex.getInstance().getFileData(NAME, file, project);
+            MapperStatement found = null;
+            for (MapperStatement statement : data.values()) {
+                if (statement.getStart() <= offset && offset <= statement.getEnd()
+                        && (found == null || statement.getStart() > found.getStart())) {
+                    found = statement;
+                }
+            }
+            return found == null ? null : resolveExternal(project, found);
+        });
+    }
+
+    /**
+     * 获取编辑器中待处理的语句：有选中内容时取选中文本，否则取光标所在的 Mapper 语句；
+     * 两种情况下的 &lt;include&gt; 均会展开。索引构建期间只展开当前文件内的片段
+     *
+     * @param project 当前项目
+     * @param editor  编辑器
+     * @return 语句文本，无选中且光标不在 Mapper 语句内时返回 null
+     */
+    public static @Nullable String statementText(Project project, Editor editor) {
+        Document document = editor.getDocument();
+        VirtualFile file = FileDocumentManager.getInstance().getFile(document);
+        String selected = editor.getSelectionModel().getSelectedText();
+        if (selected != null && !selected.trim().isEmpty()) {
+            if (!selected.contains(INCLUDE_TAG) || !SqlStatementSplitter.isMapperXml(document.getText())) {
+                return selected;
+            }
+            String namespace = MapperStatementParser.namespaceOf(document.getCharsSequence());
+            if (DumbService.isDumb(project)) {
+                Map<String, String> local = localFragments(document);
+                return MapperStatementParser.resolveIncludes(selected, namespace, local::get);
+            }
+            return ReadAction.compute(() -> MapperStatementParser.resolveIncludes(selected, namespace,
+                    id -> fragmentBody(project, id)));
+        }
+
+        int offset = editor.getCaretModel().getOffset();
+        if (file != null && !DumbService.isDumb(project)) {
+            MapperStatement statement = findAt(project, file, offset);
+            return statement == null ? null : statement.getResolvedBody();
+        }
+        // 索引不可用时退化为解析当前文件
+        for (MapperStatement statement : MapperStatementParser.parse(document.getCharsSequence())) {
+            if (statement.getStart() <= offset && offset <= statement.getEnd()) return statement.getResolvedBody();
+        }
+        return null;
+    }
+
+    private static Map<String, String> localFragments(Document document) {
+        Map<String, String> fragments = new HashMap<>();
+        for (MapperStatement statement : MapperStatementParser.parse(document.getCharsSequence())) {
+            if ("sql".equals(statement.getTagName())) fragments.put(statement.getQualifiedId(), statement.getBody());
+        }
+        return fragments;
+    }
+
+    private static @Nullable MapperStatement lookup(Project project, String qualifiedId) {
+        Collection<MapperStatement> values = FileBasedIndex.getInstance()
+                .getValues(NAME, qualifiedId, GlobalSearchScope.projectScope(project));
+        return values.isEmpty() ? null : values.iterator().next();
+    }
+
+    private static @Nullable String fragmentBody(Project project, String qualifiedId) {
+        MapperStatement fragment = lookup(project, qualifiedId);
+        return fragment == null ? null : fragment.getBody();
+    }
+
+    /**
+     * 展开索引中未能解析的跨文件 include，返回副本，不修改索引缓存的对象；索引构建中原样返回
+     *
+     * @param project   当前项目
+     * @param statement 语句（来自索引或 {@link MapperStatementParser#parse}）
+     * @return 展开后的语句
+     */
+    public static MapperStatement resolveExternal(Project project, MapperStatement statement) {
+        String resolved = statement.getResolvedBody();
+        if (resolved == null || !resolved.contains(INCLUDE_TAG) || DumbService.isDumb(project)) return statement;
+        String expanded = ReadAction.compute(() -> MapperStatementParser.resolveIncludes(resolved,
+                statement.getNamespace(), id -> fragmentBody(project, id)));
+        if (expanded.equals(resolved)) return statement;
+
+        MapperStatement copy = new MapperStatement(statement.getNamespace(), statement.getId(),
+                statement.getTagName(), statement.getStart(), statement.getEnd(), statement.getBody());
+        copy.setHash(statement.getHash());
+        copy.setResolvedBody(expanded);
+        copy.setTables(MapperStatementParser.extractTables(expanded));
+        return copy;
+    }
+}
@@ -0,0 +1,179 @@
+package com.chen.utils;
+
+import com.chen.entity.MapperStatement;
+import com.chen.entity.SqlStatementRange;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Mapper XML 语句解析工具类。
+ * <p>
+ * 解析出文件内全部语句（含 &lt;sql&gt; 片段），展开 &lt;include refid&gt;（支持 &lt;property&gt; 替换 ${xx}
+ * 及嵌套引用），并从展开后的内容体中提取引用的表名。解析只依赖文件文本，可在索引过程中调用；
+ * 跨文件的片段由调用方通过查找函数提供，见 {@link MapperStatementIndex}。
+ * </p>
+ *
+ * @author czh
+ * @version 1.0
+ * @since 2025/7/7
+ */
+public class MapperStatementParser {
+
+    /** 片段嵌套展开的最大深度，防止循环引用 */
+    private static final int MAX_INCLUDE_DEPTH = 8;
+
+    private static final Pattern NAMESPACE = Pattern.compile("<mapper\\b[^>]*?\\bnamespace\\s*=\\s*[\"']([^\"']*)[\"']");
+
+    private static final Pattern INCLUDE = Pattern.compile("<include\\b([^>]*?)(?:/>|>([\\s\\S]*?)</include\\s*>)");
+
+    private static final Pattern REFID_ATTR = Pattern.compile("\\brefid\\s*=\\s*[\"']([^\"']*)[\"']");
+
+    private static final Pattern PROPERTY = Pattern.compile(
+            "<property\\b[^>]*?\\bname\\s*=\\s*[\"']([^\"']*)[\"'][^>]*?\\bvalue\\s*=\\s*[\"']([^\"']*)[\"'][^>]*/?>");
+
+    private static final Pattern XML_COMMENT = Pattern.compile("<!--[\\s\\S]*?-->");
+
+    private static final Pattern XML_TAG = Pattern.compile("<!\\[CDATA\\[|]]>|</?[a-zA-Z][^>]*>");
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("[#$]\\{[^}]*}");
+
+    /** 表名出现位置：FROM/JOIN/UPDATE/INTO 之后 */
+    private static final Pattern TABLE_REF = Pattern.compile(
+            "(?i)\\b(from|join|update|into)\\s+([`\"\\[]?[\\w$]+[`\"\\]]?(?:\\.[`\"\\[]?[\\w$]+[`\"\\]]?)?)");
+
+    /** FROM 子句中逗号分隔的后续表 */
+    private static final Pattern NEXT_TABLE = Pattern.compile(
+            "\\G(?:\\s+(?:(?i)as\\s+)?(?!(?i:where|join|inner|left|right|full|cross|on|group|order|limit|union|set|having)\\b)\\w+)?\\s*,\\s*" +
+                    "([`\"\\[]?[\\w$]+[`\"\\]]?(?:\\.[`\"\\[]?[\\w$]+[`\"\\]]?)?)");
+
+    /**
+     * 解析 Mapper XML 中的全部语句，同文件内的 &lt;include&gt; 已展开
+     *
+     * @param xml Mapper XML 内容
+     * @return 语句列表，按偏移升序；非 Mapper 文件返回空列表
+     */
+    public static List<MapperStatement> parse(CharSequence xml) {
+        String text = xml.toString();
+        if (!SqlStatementSplitter.isMapperXml(text)) return new ArrayList<>();
+        String namespace = namespaceOf(text);
+
+        List<MapperStatement> statements = new ArrayList<>();
+        Map<String, String> fragments = new HashMap<>();
+        for (SqlStatementRange range : SqlStatementSplitter.splitMapper(text)) {
+            if (range.getStatementId() == null || range.getStatementId().isEmpty()) continue;
+            String body = text.substring(range.getStart(), range.getEnd());
+            MapperStatement statement = new MapperStatement(namespace, range.getStatementId(), range.getTagName(),
+                    range.getStart(), range.getEnd(), body);
+            statement.setHash(StringUtils.contentHash(body));
+            statements.add(statement);
+            if ("sql".equals(range.getTagName())) fragments.put(statement.getQualifiedId(), body);
+        }
+        for (MapperStatement statement : statements) {
+            String resolved = resolveIncludes(statement.getBody(), namespace, fragments::get);
+            statement.setResolvedBody(resolved);
+            statement.setTables(extractTables(resolved));
+        }
+        return statements;
+    }
+
+    /**
+     * 读取 &lt;mapper namespace&gt;
+     *
+     * @param xml Mapper XML 内容
+     * @return 命名空间，未声明时返回空串
+     */
+    public static String namespaceOf(CharSequence xml) {
+        Matcher matcher = NAMESPACE.matcher(xml);
+        return matcher.find() ? matcher.group(1).trim() : "";
+    }
+
+    /**
+     * 补全片段引用：不含点号的 refid 属于当前命名空间
+     *
+     * @param refid     include 的 refid
+     * @param namespace 当前命名空间
+     * @return namespace.id
+     */
+    public static String qualify(String refid, String namespace) {
+        if (refid.indexOf('.') >= 0 || namespace == null || namespace.isEmpty()) return refid;
+        return namespace + "." + refid;
+    }
+
+    /**
+     * 展开内容体中的 &lt;include&gt;，找不到的片段保留原标签
+     *
+     * @param body      语句内容体
+     * @param namespace 内容体所属命名空间
+     * @param fragments 片段查找函数：namespace.id -&gt; 片段内容体，未找到返回 null
+     * @return 展开后的内容体
+     */
+    public static String resolveIncludes(String body, String namespace, Function<String, String> fragments) {
+        return resolveIncludes(body, namespace, fragments, 0);
+    }
+
+    private static String resolveIncludes(String body, String namespace, Function<String, String> fragments, int depth) {
+        if (body == null || body.indexOf("<include") < 0 || depth >= MAX_INCLUDE_DEPTH) return body;
+        Matcher matcher = INCLUDE.matcher(body);
+        StringBuilder sb = new StringBuilder(body.length() + 128);
+        int last = 0;
+        while (matcher.find()) {
+            Matcher refid = REFID_ATTR.matcher(matcher.group(1));
+            if (!refid.find()) continue;
+            String qualified = qualify(refid.group(1).trim(), namespace);
+            String fragment = fragments.apply(qualified);
+            if (fragment == null) continue;
+
+            if (matcher.group(2) != null) {
+                Matcher property = PROPERTY.matcher(matcher.group(2));
+                while (property.find()) {
+                    fragment = fragment.replace("${" + property.group(1) + "}", property.group(2));
+                }
+            }
+            int dot = qualified.lastIndexOf('.');
+            String fragmentNamespace = dot < 0 ? namespace : qualified.substring(0, dot);
+            sb.append(body, last, matcher.start())
+                    .append(resolveIncludes(fragment, fragmentNamespace, fragments, depth + 1));
+            last = matcher.end();
+        }
+        if (last == 0) return body;
+        return sb.append(body, last, body.length()).toString();
+    }
+
+    /**
+     * 提取内容体中引用的表名（FROM/JOIN/UPDATE/INTO 之后及 FROM 中逗号分隔的表），动态标签按文本处理
+     *
+     * @param body 语句内容体（建议为展开 include 后的内容）
+     * @return 表名列表，去掉引号，按出现顺序忽略大小写去重
+     */
+    public static List<String> extractTables(String body) {
+        if (body == null || body.isEmpty()) return new ArrayList<>();
+        String sql = XML_COMMENT.matcher(body).replaceAll(" ");
+        sql = XML_TAG.matcher(sql).replaceAll(" ");
+        sql = PLACEHOLDER.matcher(sql).replaceAll("?");
+
+        Map<String, String> tables = new LinkedHashMap<>();
+        Matcher matcher = TABLE_REF.matcher(sql);
+        while (matcher.find()) {
+            addTable(tables, matcher.group(2));
+            if (!"from".equalsIgnoreCase(matcher.group(1))) continue;
+            Matcher next = NEXT_TABLE.matcher(sql);
+            next.region(matcher.end(), sql.length());
+            while (next.find()) addTable(tables, next.group(1));
+        }
+        return new ArrayList<>(tables.values());
+    }
+
+    private static void addTable(Map<String, String> tables, String name) {
+        String table = name.replaceAll("[`\"\\[\\]]", "");
+        if ("dual".equalsIgnoreCase(table)) return;
+        tables.putIfAbsent(table.toLowerCase(Locale.ROOT), table);
+    }
+}
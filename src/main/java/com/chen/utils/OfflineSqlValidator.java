@@ -0,0 +1,277 @@
+package com.chen.utils;
+
+import com.chen.entity.ColumnMeta;
+import com.chen.entity.SchemaSnapshot;
+import com.chen.entity.TableMeta;
+import net.sf.jsqlparser.expression.BinaryExpression;
+import net.sf.jsqlparser.expression.DoubleValue;
+import net.sf.jsqlparser.expression.Expression;
+import net.sf.jsqlparser.expression.LongValue;
+import net.sf.jsqlparser.expression.StringValue;
+import net.sf.jsqlparser.expression.operators.relational.EqualsTo;
+import net.sf.jsqlparser.expression.operators.relational.GreaterThan;
+import net.sf.jsqlparser.expression.operators.relational.GreaterThanEquals;
+import net.sf.jsqlparser.expression.operators.relational.MinorThan;
+import net.sf.jsqlparser.expression.operators.relational.MinorThanEquals;
+import net.sf.jsqlparser.expression.operators.relational.NotEqualsTo;
+import net.sf.jsqlparser.schema.Column;
+import net.sf.jsqlparser.schema.Table;
+import net.sf.jsqlparser.statement.Statement;
+import net.sf.jsqlparser.statement.insert.Insert;
+import net.sf.jsqlparser.statement.update.Update;
+import net.sf.jsqlparser.statement.update.UpdateSet;
+import net.sf.jsqlparser.util.TablesNamesFinder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static com.chen.constant.SqlConstants.*;
+
+/**
+ * 离线 SQL 校验工具类。
+ * <p>
+ * 不连接数据库，基于本地表结构快照（{@link SchemaSnapshot}）校验语句中引用的表与字段：
+ * 未知表、未知字段（带表别名的按别名所指的表查找，不带的在语句涉及的全部表中查找），
+ * 以及字段与常量比较时的类型不匹配（数值字段与非数字字符串比较、字符字段与数值比较导致隐式转换）。
+ * 子查询、CTE 与别名列无法精确定位来源，按宽松规则跳过，只报告确定的问题。
+ * </p>
+ *
+ * @author czh
+ * @version 1.0
+ * @since 2025/7/9
+ */
+public class OfflineSqlValidator {
+
+    /** 列别名（AS xxx）与 CTE 名称（xxx AS (...)），解析器中不作为表或列出现 */
+    private static final Pattern ALIAS = Pattern.compile("\\bAS\\s+[`\"\\[]?(\\w+)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern CTE = Pattern.compile("(\\w+)[`\"\\]]?\\s+AS\\s*\\(", Pattern.CASE_INSENSITIVE);
+
+    /** 会被解析为列的伪列与关键字 */
+    private static final Set<String> PSEUDO_COLUMNS = Set.of("true", "false", "null", "rownum", "rowid",
+            "sysdate", "systimestamp", "current_date", "current_time", "current_timestamp", "level");
+
+    private static final Pattern NUMERIC_TYPE = Pattern.compile(
+            "INT|DECIMAL|NUMERIC|NUMBER|FLOAT|DOUBLE|REAL|SERIAL|MONEY", Pattern.CASE_INSENSITIVE);
+    private static final Pattern CHAR_TYPE = Pattern.compile(
+            "CHAR|TEXT|CLOB|STRING", Pattern.CASE_INSENSITIVE);
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("[-+]?\\d+(\\.\\d+)?");
+
+    private OfflineSqlValidator() {
+    }
+
+    /**
+     * 按表结构快照校验 SQL
+     *
+     * @param snapshot 表结构快照
+     * @param sql      SQL 语句或脚本（MyBatis 语句需先渲染）
+     * @return 问题列表，多条语句时带语句序号前缀；校验通过返回空列表
+     */
+    public static List<String> validate(SchemaSnapshot snapshot, String sql) {
+        List<Statement> statements = SqlAstAnalyzer.parse(sql);
+        if (statements == null) return List.of(ERROR_OFFLINE_UNPARSEABLE);
+
+        Set<String> aliases = collect(ALIAS, sql);
+        Set<String> ctes = collect(CTE, sql);
+        List<String> problems = new ArrayList<>();
+        for (int i = 0; i < statements.size(); i++) {
+            String prefix = statements.size() > 1 ? String.format(WARN_STATEMENT_PREFIX, i + 1) : "";
+            for (String problem : validate(snapshot, statements.get(i), aliases, ctes)) {
+                problems.add(prefix + problem);
+            }
+        }
+        return problems;
+    }
+
+    private static Set<String> validate(SchemaSnapshot snapshot, Statement statement,
+                                        Set<String> aliases, Set<String> ctes) {
+        Collector collector = new Collector();
+        try {
+            collector.getTableList(statement);
+        } catch (UnsupportedOperationException e) {
+            // DDL 等解析器不支持遍历的语句不做校验
+            return Set.of();
+        }
+        collectTargetColumns(statement, collector);
+
+        Set<String> problems = new LinkedHashSet<>();
+        List<TableMeta> known = new ArrayList<>();
+        for (String table : collector.tables) {
+            TableMeta meta = snapshot.findTable(table);
+            if (meta != null) {
+                known.add(meta);
+            } else if (!ctes.contains(table) && !"dual".equals(table)) {
+                problems.add(String.format(ERROR_OFFLINE_UNKNOWN_TABLE, table));
+            }
+        }
+
+        for (Column column : collector.columns) {
+            String name = normalize(column.getColumnName());
+            if (PSEUDO_COLUMNS.contains(name) || aliases.contains(name)) continue;
+            String qualifier = column.getTable() == null ? null : normalize(column.getTable().getName());
+            if (qualifier != null) {
+                TableMeta meta = snapshot.findTable(collector.aliases.getOrDefault(qualifier, qualifier));
+                // 子查询或 CTE 的别名无法定位来源表
+                if (meta == null) continue;
+                if (snapshot.findColumn(meta.getTableName(), name) == null) {
+                    problems.add(String.format(ERROR_OFFLINE_UNKNOWN_COLUMN, qualifier + "." + name));
+                }
+            } else if (!known.isEmpty() && resolve(snapshot, known, name) == null
+                    && !column.getColumnName().startsWith("\"")) {
+                problems.add(String.format(ERROR_OFFLINE_UNKNOWN_COLUMN, name));
+            }
+        }
+
+        for (BinaryExpression comparison : collector.comparisons) {
+            String problem = checkTypes(snapshot, collector, known, comparison);
+            if (problem != null) problems.add(problem);
+        }
+        return problems;
+    }
+
+    /**
+     * INSERT 的字段列表与 UPDATE 的 SET 字段不经过表达式遍历，单独收集
+     */
+    private static void collectTargetColumns(Statement statement, Collector collector) {
+        if (statement instanceof Insert) {
+            Insert insert = (Insert) statement;
+            if (insert.getColumns() != null) {
+                for (Column column : insert.getColumns()) collector.columns.add(column);
+            }
+        } else if (statement instanceof Update) {
+            Update update = (Update) statement;
+            if (update.getUpdateSets() != null) {
+                for (UpdateSet set : update.getUpdateSets()) {
+                    for (Column column : set.getColumns()) collector.columns.add(column);
+                }
+            }
+        }
+    }
+
+    private static String checkTypes(SchemaSnapshot snapshot, Collector collector, List<TableMeta> known,
+                                     BinaryExpression comparison) {
+        Expression left = comparison.getLeftExpression();
+        Expression right = comparison.getRightExpression();
+        if (!(left instanceof Column)) {
+            Expression swap = left;
+            left = right;
+            right = swap;
+        }
+        if (!(left instanceof Column)) return null;
+        Column column = (Column) left;
+        String name = normalize(column.getColumnName());
+        ColumnMeta meta;
+        if (column.getTable() != null && column.getTable().getName() != null) {
+            String qualifier = normalize(column.getTable().getName());
+            meta = snapshot.findColumn(collector.aliases.getOrDefault(qualifier, qualifier), name);
+        } else {
+            meta = resolve(snapshot, known, name);
+        }
+        if (meta == null || meta.getType() == null) return null;
+
+        String type = meta.getType();
+        if (right instanceof StringValue && NUMERIC_TYPE.matcher(type).find()) {
+            String value = ((StringValue) right).getValue();
+            if (!NUMBER_LITERAL.matcher(value.trim()).matches()) {
+                return String.format(ERROR_OFFLINE_TYPE_MISMATCH, name, type, "'" + value + "'");
+            }
+        } else if ((right instanceof LongValue || right instanceof DoubleValue) && CHAR_TYPE.matcher(type).find()) {
+            return String.format(WARN_OFFLINE_IMPLICIT_CAST, name, type, right);
+        }
+        return null;
+    }
+
+    private static ColumnMeta resolve(SchemaSnapshot snapshot, List<TableMeta> tables, String column) {
+        for (TableMeta table : tables) {
+            ColumnMeta meta = snapshot.findColumn(table.getTableName(), column);
+            if (meta != null) return meta;
+        }
+        return null;
+    }
+
+    private static Set<String> collect(Pattern pattern, String sql) {
+        Set<String> names = new HashSet<>();
+        Matcher matcher = pattern.matcher(sql);
+        while (matcher.find()) names.add(matcher.group(1).toLowerCase(Locale.ROOT));
+        return names;
+    }
+
+    /**
+     * 去掉引号与库名前缀并转小写
+     */
+    private static String normalize(String identifier) {
+        if (identifier == null) return null;
+        String name = identifier;
+        int dot = name.lastIndexOf('.');
+        if (dot >= 0) name = name.substring(dot + 1);
+        return name.replaceAll("[`\"\\[\\]]", "").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 遍历语句，收集表名、表别名、字段引用与比较表达式
+     */
+    private static final class Collector extends TablesNamesFinder {
+        private final Set<String> tables = new LinkedHashSet<>();
+        private final Map<String, String> aliases = new HashMap<>();
+        private final List<Column> columns = new ArrayList<>();
+        private final List<BinaryExpression> comparisons = new ArrayList<>();
+
+        @Override
+        public void visit(Table table) {
+            super.visit(table);
+            String name = normalize(table.getName());
+            if (name == null) return;
+            tables.add(name);
+            if (table.getAlias() != null) aliases.put(normalize(table.getAlias().getName()), name);
+        }
+
+        @Override
+        public void visit(Column column) {
+            super.visit(column);
+            columns.add(column);
+        }
+
+        @Override
+        public void visit(EqualsTo expression) {
+            super.visit(expression);
+            comparisons.add(expression);
+        }
+
+        @Override
+        public void visit(NotEqualsTo expression) {
+            super.visit(expression);
+            comparisons.add(expression);
+        }
+
+        @Override
+        public void visit(GreaterThan expression) {
+            super.visit(expression);
+            comparisons.add(expression);
+        }
+
+        @Override
+        public void visit(GreaterThanEquals expression) {
+            super.visit(expression);
+            comparisons.add(expression);
+        }
+
+        @Override
+        public void visit(MinorThan expression) {
+            super.visit(expression);
+            comparisons.add(expression);
+        }
+
+        @Override
+        public void visit(MinorThanEquals expression) {
+            super.visit(expression);
+            comparisons.add(expression);
+        }
+    }
+}
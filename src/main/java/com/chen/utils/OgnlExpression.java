@@ -0,0 +1,499 @@
+package com.chen.utils;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * MyBatis &lt;if test&gt; / &lt;when test&gt; / &lt;bind value&gt; 使用的 OGNL 子集表达式。
+ * <p>
+ * 支持：and/or/not（及 &amp;&amp;、||、!）、== != &lt; &lt;= &gt; &gt;=（及 eq/neq/lt/lte/gt/gte）、+ - 运算、
+ * 括号、字符串/数字/true/false/null 字面量、嵌套属性（Map 键或 JavaBean getter）、
+ * 以及 size()/isEmpty()/length()/trim()/toString() 等无参方法调用。
+ * 表达式只解析一次并编译为 lambda 树，按表达式文本缓存，求值时不再做任何字符串解析。
+ * </p>
+ * <p>
+ * 与 OGNL 的差异：null 与空串视为相等（参数输入框中留空即视为未传）；单字符字面量按字符串处理；
+ * 字符串上调用 size() 按逗号分隔的元素个数计算，与 foreach 的取值方式一致。
+ * </p>
+ *
+ * @author czh
+ * @version 1.0
+ * @since 2025/7/5
+ */
+public class OgnlExpression {
+
+    /** 编译缓存的最大条目数，超出后整体清空 */
+    private static final int MAX_CACHED_EXPRESSIONS = 4096;
+
+    private static final Map<String, OgnlExpression> CACHE = new ConcurrentHashMap<>();
+
+    /** JavaBean getter 缓存：类 -> 属性名 -> getter */
+    private static final Map<Class<?>, Map<String, Method>> GETTERS = new ConcurrentHashMap<>();
+
+    /**
+     * 编译后的求值函数
+     */
+    @FunctionalInterface
+    interface Evaluator {
+        Object eval(Function<String, Object> resolver);
+    }
+
+    private final String text;
+    private final Evaluator evaluator;
+
+    private OgnlExpression(String text, Evaluator evaluator) {
+        this.text = text;
+        this.evaluator = evaluator;
+    }
+
+    /**
+     * 编译表达式，相同文本直接复用缓存
+     *
+     * @param expression 表达式文本
+     * @return 编译后的表达式
+     * @throws IllegalArgumentException 表达式语法错误
+     */
+    public static OgnlExpression compile(String expression) {
+        OgnlExpression compiled = CACHE.get(expression);
+        if (compiled != null) return compiled;
+        compiled = new OgnlExpression(expression, new Parser(expression).parse());
+        if (CACHE.size() >= MAX_CACHED_EXPRESSIONS) CACHE.clear();
+        CACHE.put(expression, compiled);
+        return compiled;
+    }
+
+    /**
+     * 求值
+     *
+     * @param resolver 根变量解析函数，参数为变量名或带点的属性路径
+     * @return 表达式的值
+     */
+    public Object evaluate(Function<String, Object> resolver) {
+        return evaluator.eval(resolver);
+    }
+
+    /**
+     * 按 OGNL 真值规则求布尔值：null、false、数值 0 为假，其余为真
+     *
+     * @param resolver 根变量解析函数
+     * @return 条件是否成立
+     */
+    public boolean test(Function<String, Object> resolver) {
+        return truthy(evaluator.eval(resolver));
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+
+    // ============================ 运行时语义 ============================
+
+    static boolean truthy(Object value) {
+        if (value == null) return false;
+        if (value instanceof Boolean) return (Boolean) value;
+        if (value instanceof Number) return ((Number) value).doubleValue() != 0;
+        if (value instanceof Character) return (Character) value != 0;
+        return true;
+    }
+
+    private static boolean isEmptyLike(Object value) {
+        return value == null || (value instanceof CharSequence && ((CharSequence) value).toString().trim().isEmpty());
+    }
+
+    /**
+     * 转为数值，无法转换返回 null
+     */
+    private static Double toNumber(Object value) {
+        if (value instanceof Number) return ((Number) value).doubleValue();
+        if (value instanceof Boolean) return (Boolean) value ? 1d : 0d;
+        if (value instanceof CharSequence) {
+            String s = value.toString().trim();
+            if (!SqlParamUtils.isNumber(s)) return null;
+            return Double.parseDouble(s);
+        }
+        return null;
+    }
+
+    static boolean equal(Object a, Object b) {
+        if (isEmptyLike(a) && isEmptyLike(b)) return true;
+        if (a == null || b == null) return false;
+        if (a instanceof Number || b instanceof Number || a instanceof Boolean || b instanceof Boolean) {
+            Double x = toNumber(a);
+            Double y = toNumber(b);
+            if (x != null && y != null) return x.doubleValue() == y.doubleValue();
+        }
+        if (a instanceof Enum || b instanceof Enum) return a.toString().equals(b.toString());
+        return a.equals(b) || a.toString().equals(b.toString());
+    }
+
+    /**
+     * 比较大小，两侧均可转为数值时按数值比较，否则按字符串比较；任一侧为 null 时返回 null
+     */
+    private static Integer compare(Object a, Object b) {
+        if (a == null || b == null) return null;
+        Double x = toNumber(a);
+        Double y = toNumber(b);
+        if (x != null && y != null) return Double.compare(x, y);
+        return a.toString().compareTo(b.toString());
+    }
+
+    private static Object plus(Object a, Object b) {
+        if (a instanceof CharSequence || b instanceof CharSequence || a == null || b == null) {
+            return (a == null ? "" : a.toString()) + (b == null ? "" : b.toString());
+        }
+        Double x = toNumber(a);
+        Double y = toNumber(b);
+        if (x == null || y == null) return a.toString() + b;
+        return narrow(x + y, a, b);
+    }
+
+    private static Object minus(Object a, Object b) {
+        Double x = toNumber(a);
+        Double y = toNumber(b);
+        if (x == null || y == null) return null;
+        return narrow(x - y, a, b);
+    }
+
+    /** 两个整数运算结果保持为整数 */
+    private static Object narrow(double result, Object a, Object b) {
+        boolean integral = isIntegral(a) && isIntegral(b);
+        return integral ? (Object) (long) result : (Object) result;
+    }
+
+    private static boolean isIntegral(Object value) {
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            return true;
+        }
+        return value instanceof CharSequence && value.toString().trim().matches("-?\\d+");
+    }
+
+    /**
+     * 读取属性：Map 键，或 JavaBean 的 getXxx()/isXxx()/同名公共方法
+     */
+    static Object property(Object target, String name) {
+        if (target == null) return null;
+        if (target instanceof Map) return ((Map<?, ?>) target).get(name);
+        Method getter = GETTERS.computeIfAbsent(target.getClass(), k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(name, n -> findGetter(target.getClass(), n));
+        if (getter == NO_GETTER) return null;
+        try {
+            return getter.invoke(target);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    private static final Method NO_GETTER;
+
+    static {
+        try {
+            NO_GETTER = Object.class.getMethod("hashCode");
+        } catch (NoSuchMethodException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static Method findGetter(Class<?> type, String name) {
+        String suffix = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        for (String candidate : new String[]{"get" + suffix, "is" + suffix, name}) {
+            try {
+                Method method = type.getMethod(candidate);
+                if (method.getReturnType() != void.class) return method;
+            } catch (NoSuchMethodException ignored) {
+                // 尝试下一种命名
+            }
+        }
+        return NO_GETTER;
+    }
+
+    /**
+     * 调用无参方法
+     */
+    static Object invoke(Object target, String method) {
+        if (target == null) return null;
+        switch (method) {
+            case "size":
+                return size(target);
+            case "isEmpty":
+                if (target instanceof CharSequence) return target.toString().trim().isEmpty();
+                Integer size = size(target);
+                return size == null ? null : size == 0;
+            case "length":
+                if (target instanceof CharSequence) return ((CharSequence) target).length();
+                return size(target);
+            case "trim":
+                return target.toString().trim();
+            case "toString":
+                return target.toString();
+            case "toLowerCase":
+                return target.toString().toLowerCase(Locale.ROOT);
+            case "toUpperCase":
+                return target.toString().toUpperCase(Locale.ROOT);
+            default:
+                return property(target, method);
+        }
+    }
+
+    private static Integer size(Object target) {
+        if (target instanceof Collection) return ((Collection<?>) target).size();
+        if (target instanceof Map) return ((Map<?, ?>) target).size();
+        if (target.getClass().isArray()) return Array.getLength(target);
+        if (target instanceof CharSequence) {
+            // 参数输入框中以逗号分隔的列表
+            String s = target.toString().trim();
+            if (s.isEmpty()) return 0;
+            int count = 0;
+            for (String part : s.split(",")) {
+                if (!part.trim().isEmpty()) count++;
+            }
+            return count;
+        }
+        return null;
+    }
+
+    // ============================ 解析 ============================
+
+    /**
+     * 递归下降解析器：词法与语法在同一趟中完成
+     */
+    private static final class Parser {
+        private final String src;
+        private int pos;
+
+        Parser(String src) {
+            this.src = src == null ? "" : src;
+        }
+
+        Evaluator parse() {
+            Evaluator result = or();
+            skipSpaces();
+            if (pos < src.length()) throw error("无法识别的内容");
+            return result;
+        }
+
+        private Evaluator or() {
+            Evaluator left = and();
+            while (acceptWord("or") || accept("||")) {
+                Evaluator l = left;
+                Evaluator r = and();
+                left = resolver -> truthy(l.eval(resolver)) || truthy(r.eval(resolver));
+            }
+            return left;
+        }
+
+        private Evaluator and() {
+            Evaluator left = not();
+            while (acceptWord("and") || accept("&&")) {
+                Evaluator l = left;
+                Evaluator r = not();
+                left = resolver -> truthy(l.eval(resolver)) && truthy(r.eval(resolver));
+            }
+            return left;
+        }
+
+        private Evaluator not() {
+            if (acceptWord("not") || (peekBang() && accept("!"))) {
+                Evaluator operand = not();
+                return resolver -> !truthy(operand.eval(resolver));
+            }
+            return comparison();
+        }
+
+        /** '!' 且不是 '!=' */
+        private boolean peekBang() {
+            skipSpaces();
+            return pos < src.length() && src.charAt(pos) == '!' && !src.startsWith("!=", pos);
+        }
+
+        private Evaluator comparison() {
+            Evaluator left = additive();
+            String op = comparisonOperator();
+            if (op == null) return left;
+            Evaluator right = additive();
+            switch (op) {
+                case "==":
+                    return resolver -> equal(left.eval(resolver), right.eval(resolver));
+                case "!=":
+                    return resolver -> !equal(left.eval(resolver), right.eval(resolver));
+                case "<":
+                    return resolver -> {
+                        Integer c = compare(left.eval(resolver), right.eval(resolver));
+                        return c != null && c < 0;
+                    };
+                case "<=":
+                    return resolver -> {
+                        Integer c = compare(left.eval(resolver), right.eval(resolver));
+                        return c != null && c <= 0;
+                    };
+                case ">":
+                    return resolver -> {
+                        Integer c = compare(left.eval(resolver), right.eval(resolver));
+                        return c != null && c > 0;
+                    };
+                default:
+                    return resolver -> {
+                        Integer c = compare(left.eval(resolver), right.eval(resolver));
+                        return c != null && c >= 0;
+                    };
+            }
+        }
+
+        private String comparisonOperator() {
+            skipSpaces();
+            for (String op : new String[]{"==", "!=", "<=", ">=", "<", ">"}) {
+                if (accept(op)) return op;
+            }
+            if (acceptWord("eq")) return "==";
+            if (acceptWord("neq")) return "!=";
+            if (acceptWord("lte")) return "<=";
+            if (acceptWord("gte")) return ">=";
+            if (acceptWord("lt")) return "<";
+            if (acceptWord("gt")) return ">";
+            return null;
+        }
+
+        private Evaluator additive() {
+            Evaluator left = primary();
+            while (true) {
+                if (accept("+")) {
+                    Evaluator l = left;
+                    Evaluator r = primary();
+                    left = resolver -> plus(l.eval(resolver), r.eval(resolver));
+                } else if (accept("-")) {
+                    Evaluator l = left;
+                    Evaluator r = primary();
+                    left = resolver -> minus(l.eval(resolver), r.eval(resolver));
+                } else {
+                    return left;
+                }
+            }
+        }
+
+        private Evaluator primary() {
+            skipSpaces();
+            if (pos >= src.length()) throw error("表达式不完整");
+            char c = src.charAt(pos);
+            if (c == '(') {
+                pos++;
+                Evaluator inner = or();
+                if (!accept(")")) throw error("缺少右括号");
+                return postfix(inner);
+            }
+            if (c == '\'' || c == '"') {
+                int end = src.indexOf(c, pos + 1);
+                if (end < 0) throw error("字符串未闭合");
+                String literal = src.substring(pos + 1, end);
+                pos = end + 1;
+                return postfix(resolver -> literal);
+            }
+            if (Character.isDigit(c) || (c == '-' && pos + 1 < src.length() && Character.isDigit(src.charAt(pos + 1)))) {
+                int start = pos++;
+                while (pos < src.length() && (Character.isDigit(src.charAt(pos)) || src.charAt(pos) == '.')) pos++;
+                // 去掉 L/D/F 等类型后缀
+                String number = src.substring(start, pos);
+                if (pos < src.length() && "lLdDfF".indexOf(src.charAt(pos)) >= 0) pos++;
+                Object value = number.contains(".") ? (Object) Double.parseDouble(number) : (Object) Long.parseLong(number);
+                return resolver -> value;
+            }
+            if (Character.isJavaIdentifierStart(c)) return path();
+            throw error("无法识别的字符 '" + c + "'");
+        }
+
+        /**
+         * 变量及其属性链、方法调用，如 user.roles.size()
+         */
+        private Evaluator path() {
+            String root = identifier();
+            switch (root) {
+                case "null":
+                    return resolver -> null;
+                case "true":
+                    return resolver -> Boolean.TRUE;
+                case "false":
+                    return resolver -> Boolean.FALSE;
+                default:
+                    break;
+            }
+            // 先收集纯属性路径，整体交给解析函数（兼容以 user.name 为键的平铺参数）
+            StringBuilder fullPath = new StringBuilder(root);
+            while (pos + 1 < src.length() && src.charAt(pos) == '.' && Character.isJavaIdentifierStart(src.charAt(pos + 1))) {
+                int save = pos;
+                pos++;
+                String name = identifier();
+                if (pos < src.length() && src.charAt(pos) == '(') {
+                    pos = save;
+                    break;
+                }
+                fullPath.append('.').append(name);
+            }
+            String pathText = fullPath.toString();
+            String[] segments = pathText.split("\\.");
+            Evaluator base = resolver -> {
+                Object value = resolver.apply(pathText);
+                if (value != null || segments.length == 1) return value;
+                value = resolver.apply(segments[0]);
+                for (int i = 1; i < segments.length && value != null; i++) value = property(value, segments[i]);
+                return value;
+            };
+            return postfix(base);
+        }
+
+        /**
+         * 处理 .method() 与 .property 后缀
+         */
+        private Evaluator postfix(Evaluator target) {
+            Evaluator result = target;
+            while (pos + 1 < src.length() && src.charAt(pos) == '.' && Character.isJavaIdentifierStart(src.charAt(pos + 1))) {
+                pos++;
+                String name = identifier();
+                Evaluator owner = result;
+                if (accept("(")) {
+                    if (!accept(")")) throw error("只支持无参方法调用");
+                    result = resolver -> invoke(owner.eval(resolver), name);
+                } else {
+                    result = resolver -> property(owner.eval(resolver), name);
+                }
+            }
+            return result;
+        }
+
+        private String identifier() {
+            int start = pos;
+            while (pos < src.length() && Character.isJavaIdentifierPart(src.charAt(pos))) pos++;
+            return src.substring(start, pos);
+        }
+
+        private void skipSpaces() {
+            while (pos < src.length() && Character.isWhitespace(src.charAt(pos))) pos++;
+        }
+
+        private boolean accept(String token) {
+            skipSpaces();
+            if (!src.startsWith(token, pos)) return false;
+            pos += token.length();
+            return true;
+        }
+
+        /**
+         * 匹配关键字，要求其后为单词边界，避免 brand 被识别为 and
+         */
+        private boolean acceptWord(String word) {
+            skipSpaces();
+            int end = pos + word.length();
+            if (!src.regionMatches(true, pos, word, 0, word.length())) return false;
+            if (end < src.length() && Character.isJavaIdentifierPart(src.charAt(end))) return false;
+            pos = end;
+            return true;
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException("表达式解析失败（位置 " + pos + "）：" + message + "，表达式：" + src);
+        }
+    }
+}
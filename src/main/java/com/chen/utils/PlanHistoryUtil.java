@@ -0,0 +1,378 @@
+package com.chen.utils;
+
+import com.chen.entity.DbConfig;
+import com.chen.entity.PlanHistoryEntry;
+import com.chen.entity.PlanHistoryEntry.Step;
+import com.chen.entity.PlanNode;
+import com.chen.entity.PreparedSql;
+import com.chen.utils.SqlLexer.Token;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.intellij.openapi.project.Project;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.chen.constant.FileConstant.PLAN_HISTORY_PATH;
+import static com.chen.constant.SqlConstants.*;
+
+/**
+ * 执行计划历史工具类。
+ * <p>
+ * 每次获取执行计划后按 语句指纹 + 数据源 追加到项目 .idea 下的 JSON Lines 文件（一行一条记录），
+ * 与该语句上一次的计划比较，报告回归：新增全表扫描、原来使用的索引不再使用、预估行数激增。
+ * 计划与上一条记录相同（操作、对象与行数量级一致）时不追加；文件超过行数上限时只保留每条语句最近几次记录。
+ * 参数值可能是真实业务数据，默认只记录参数类型，重新获取计划时以同类型的中性值代入。
+ * 读取结果按文件修改时间缓存在内存中。
+ * </p>
+ *
+ * @author czh
+ * @version 1.0
+ * @since 2025/7/9
+ */
+public class PlanHistoryUtil {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    /** MySQL 使用索引的访问类型 */
+    private static final Set<String> MYSQL_INDEX_ACCESS = Set.of("const", "eq_ref", "ref", "ref_or_null",
+            "range", "index_merge", "unique_subquery", "index_subquery", "fulltext");
+
+    /** 历史文件路径 → 已加载内容 */
+    private static final Map<Path, Loaded> LOADED = new ConcurrentHashMap<>();
+
+    private static final class Loaded {
+        private long lastModified;
+        private int lines;
+        /** 语句指纹 + 数据源 → 最新记录 */
+        private final Map<String, PlanHistoryEntry> latest = new LinkedHashMap<>();
+    }
+
+    private PlanHistoryUtil() {
+    }
+
+    /**
+     * 计算语句指纹：去掉注释，字符串、数字与参数占位符归一为 ?，IN 列表长度不同视为同一语句
+     *
+     * @param sql     SQL 语句
+     * @param dialect SQL 方言
+     * @return 十六进制指纹
+     */
+    public static String fingerprint(String sql, String dialect) {
+        List<String> parts = new ArrayList<>();
+        for (Token token : SqlLexer.tokenize(sql, dialect)) {
+            switch (token.getType()) {
+                case LINE_COMMENT:
+                case BLOCK_COMMENT:
+                    continue;
+                case STRING:
+                case NUMBER:
+                case PLACEHOLDER:
+                    int size = parts.size();
+                    if (size >= 2 && ",".equals(parts.get(size - 1)) && "?".equals(parts.get(size - 2))) {
+                        parts.remove(size - 1);
+                    } else {
+                        parts.add("?");
+                    }
+                    break;
+                default:
+                    parts.add(SqlLexer.text(sql, token).toLowerCase(Locale.ROOT));
+            }
+        }
+        return Long.toHexString(StringUtils.contentHash(String.join(" ", parts)));
+    }
+
+    /**
+     * 记录执行计划并与该语句上一次的计划比较
+     *
+     * @param project    当前项目
+     * @param config     数据库连接配置
+     * @param sql        获取计划时使用的预编译 SQL
+     * @param dialect    SQL 方言
+     * @param plan       执行计划根节点
+     * @param keepValues 是否明文保存参数值
+     * @return 回归问题列表，首次记录或没有回归时为空
+     */
+    public static synchronized List<String> record(Project project, DbConfig config, PreparedSql sql,
+                                                   String dialect, PlanNode plan, boolean keepValues) {
+        PlanHistoryEntry entry = new PlanHistoryEntry();
+        entry.setFingerprint(fingerprint(sql.getSql(), dialect));
+        entry.setDatasource(datasource(config));
+        entry.setCapturedAt(System.currentTimeMillis());
+        entry.setSql(sql.getSql());
+        List<String> types = new ArrayList<>();
+        for (Object value : sql.getParameters()) types.add(parameterType(value));
+        entry.setParameterTypes(types);
+        if (keepValues) entry.setParameters(new ArrayList<>(sql.getParameters()));
+        List<Step> steps = new ArrayList<>();
+        flatten(plan, steps);
+        entry.setSteps(steps);
+
+        Path path = Paths.get(project.getBasePath(), PLAN_HISTORY_PATH);
+        try {
+            Loaded loaded = load(path);
+            PlanHistoryEntry previous = loaded.latest.get(key(entry));
+            List<String> regressions = previous == null ? List.of() : compare(previous, entry);
+            if (previous == null || !digest(previous).equals(digest(entry))) {
+                append(path, loaded, entry);
+            }
+            return regressions;
+        } catch (IOException e) {
+            // 历史记录失败不影响执行计划展示
+            return List.of();
+        }
+    }
+
+    /**
+     * 读取当前数据源下每条语句最近一次的计划记录
+     *
+     * @param project 当前项目
+     * @param config  数据库连接配置
+     * @return 记录列表；历史文件不存在或读取失败时为空
+     */
+    public static synchronized List<PlanHistoryEntry> latestEntries(Project project, DbConfig config) {
+        String datasource = datasource(config);
+        List<PlanHistoryEntry> entries = new ArrayList<>();
+        try {
+            Loaded loaded = load(Paths.get(project.getBasePath(), PLAN_HISTORY_PATH));
+            for (PlanHistoryEntry entry : loaded.latest.values()) {
+                if (datasource.equals(entry.getDatasource())) entries.add(entry);
+            }
+        } catch (IOException e) {
+            return List.of();
+        }
+        return entries;
+    }
+
+    /**
+     * 比较同一语句的新旧计划
+     *
+     * @param previous 上一次的计划记录
+     * @param current  本次的计划记录
+     * @return 回归问题列表
+     */
+    public static List<String> compare(PlanHistoryEntry previous, PlanHistoryEntry current) {
+        return compare(previous, current, true);
+    }
+
+    /**
+     * 将重新获取的计划与记录比较，不写入历史，记录保持为上一次确认的计划；
+     * 以中性值代入参数时预估行数不可比，只比较访问方式
+     *
+     * @param previous 计划记录
+     * @param plan     重新获取的执行计划根节点
+     * @return 回归问题列表
+     */
+    public static List<String> compare(PlanHistoryEntry previous, PlanNode plan) {
+        PlanHistoryEntry current = new PlanHistoryEntry();
+        List<Step> steps = new ArrayList<>();
+        flatten(plan, steps);
+        current.setSteps(steps);
+        return compare(previous, current, hasValues(previous));
+    }
+
+    private static List<String> compare(PlanHistoryEntry previous, PlanHistoryEntry current, boolean compareRows) {
+        Set<String> problems = new LinkedHashSet<>();
+
+        Set<String> previousFullScans = new HashSet<>();
+        Set<String> currentObjects = new HashSet<>();
+        Map<String, Step> previousSteps = new HashMap<>();
+        for (Step step : previous.getSteps()) {
+            if (step.isFullScan()) previousFullScans.add(step.getObject());
+            previousSteps.putIfAbsent(step.getOperator() + " " + step.getObject(), step);
+        }
+        for (Step step : current.getSteps()) {
+            currentObjects.add(step.getObject());
+            if (step.isFullScan() && step.getObject() != null && !previousFullScans.contains(step.getObject())) {
+                problems.add(String.format(WARN_PLAN_NEW_FULL_SCAN, step.getObject()));
+            }
+        }
+        for (Step step : previous.getSteps()) {
+            if (isIndexAccess(step) && step.getObject() != null && !currentObjects.contains(step.getObject())) {
+                problems.add(String.format(WARN_PLAN_LOST_INDEX, step.getObject()));
+            }
+        }
+        if (!compareRows) return new ArrayList<>(problems);
+        for (Step step : current.getSteps()) {
+            Step before = previousSteps.get(step.getOperator() + " " + step.getObject());
+            if (before == null || before.getRows() == null || step.getRows() == null) continue;
+            if (step.getRows() >= PLAN_ROWS_EXPLOSION_MIN
+                    && step.getRows() >= Math.max(before.getRows(), 1) * PLAN_ROWS_EXPLOSION_FACTOR) {
+                problems.add(String.format(WARN_PLAN_ROWS_EXPLOSION,
+                        step.getOperator() + (step.getObject() == null ? "" : " " + step.getObject()),
+                        Math.round(before.getRows()), Math.round(step.getRows())));
+            }
+        }
+        return new ArrayList<>(problems);
+    }
+
+    /**
+     * 记录中是否保存了全部参数值（早期记录只有参数值、没有参数类型）
+     *
+     * @param entry 计划记录
+     * @return 可按原值重放返回 true
+     */
+    public static boolean hasValues(PlanHistoryEntry entry) {
+        return entry.getParameters().size() >= entry.getParameterTypes().size();
+    }
+
+    /**
+     * 构造重新获取计划用的预编译 SQL：保存了参数值时按原值，否则按参数类型代入中性值
+     *
+     * @param entry 计划记录
+     * @return 预编译 SQL
+     */
+    public static PreparedSql replaySql(PlanHistoryEntry entry) {
+        if (hasValues(entry)) return new PreparedSql(entry.getSql(), entry.getParameters());
+        List<Object> values = new ArrayList<>();
+        for (String type : entry.getParameterTypes()) {
+            switch (type) {
+                case PARAM_TYPE_NULL:
+                    values.add(null);
+                    break;
+                case PARAM_TYPE_NUMBER:
+                    values.add(0L);
+                    break;
+                case PARAM_TYPE_BOOLEAN:
+                    values.add(Boolean.FALSE);
+                    break;
+                default:
+                    values.add("");
+            }
+        }
+        return new PreparedSql(entry.getSql(), values);
+    }
+
+    private static String parameterType(Object value) {
+        if (value == null) return PARAM_TYPE_NULL;
+        if (value instanceof Number) return PARAM_TYPE_NUMBER;
+        if (value instanceof Boolean) return PARAM_TYPE_BOOLEAN;
+        return PARAM_TYPE_STRING;
+    }
+
+    private static boolean isIndexAccess(Step step) {
+        if (step.isFullScan() || step.getOperator() == null) return false;
+        String operator = step.getOperator().toLowerCase(Locale.ROOT);
+        return operator.contains("index") || MYSQL_INDEX_ACCESS.contains(operator);
+    }
+
+    private static void flatten(PlanNode node, List<Step> steps) {
+        if (node == null) return;
+        steps.add(new Step(node.getOperator(), node.getObject(), node.getEstimatedRows(),
+                ExplainPlanUtil.isFullScan(node)));
+        for (PlanNode child : node.getChildren()) flatten(child, steps);
+    }
+
+    /**
+     * 计划摘要：操作、对象与行数量级，行数小幅波动不视为计划变化
+     */
+    private static String digest(PlanHistoryEntry entry) {
+        StringBuilder digest = new StringBuilder();
+        for (Step step : entry.getSteps()) {
+            long magnitude = step.getRows() == null ? -1 : Math.round(Math.log10(Math.max(step.getRows(), 1)));
+            digest.append(step.getOperator()).append('|').append(step.getObject()).append('|')
+                    .append(magnitude).append(';');
+        }
+        return digest.toString();
+    }
+
+    private static String key(PlanHistoryEntry entry) {
+        return entry.getFingerprint() + "@" + entry.getDatasource();
+    }
+
+    private static String datasource(DbConfig config) {
+        return config.getUrl() + "#" + config.getUsername();
+    }
+
+    private static Loaded load(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            Loaded empty = new Loaded();
+            LOADED.put(path, empty);
+            return empty;
+        }
+        long lastModified = Files.getLastModifiedTime(path).toMillis();
+        Loaded loaded = LOADED.get(path);
+        if (loaded != null && loaded.lastModified == lastModified) return loaded;
+
+        loaded = new Loaded();
+        for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+            if (line.isBlank()) continue;
+            loaded.lines++;
+            try {
+                PlanHistoryEntry entry = objectMapper.readValue(line, PlanHistoryEntry.class);
+                loaded.latest.put(key(entry), entry);
+            } catch (IOException ignored) {
+                // 跳过写入中断等原因产生的损坏行
+            }
+        }
+        loaded.lastModified = lastModified;
+        LOADED.put(path, loaded);
+        return loaded;
+    }
+
+    private static void append(Path path, Loaded loaded, PlanHistoryEntry entry) throws IOException {
+        Files.createDirectories(path.getParent());
+        Files.writeString(path, objectMapper.writeValueAsString(entry) + "\n", StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        loaded.latest.put(key(entry), entry);
+        loaded.lines++;
+        if (loaded.lines > PLAN_HISTORY_MAX_LINES) {
+            loaded.lines = compact(path);
+        }
+        loaded.lastModified = Files.getLastModifiedTime(path).toMillis();
+    }
+
+    /**
+     * 只保留每条语句最近几次记录，先写临时文件再替换
+     *
+     * @return 压缩后的行数
+     */
+    private static int compact(Path path) throws IOException {
+        Map<String, Deque<String>> kept = new LinkedHashMap<>();
+        for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+            if (line.isBlank()) continue;
+            PlanHistoryEntry entry;
+            try {
+                entry = objectMapper.readValue(line, PlanHistoryEntry.class);
+            } catch (IOException e) {
+                continue;
+            }
+            Deque<String> lines = kept.computeIfAbsent(key(entry), k -> new ArrayDeque<>());
+            lines.addLast(line);
+            if (lines.size() > PLAN_HISTORY_KEEP_PER_KEY) lines.removeFirst();
+        }
+
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        int count = 0;
+        try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            for (Deque<String> lines : kept.values()) {
+                for (String line : lines) {
+                    writer.write(line);
+                    writer.newLine();
+                    count++;
+                }
+            }
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+        return count;
+    }
+}
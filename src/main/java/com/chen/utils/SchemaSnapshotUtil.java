@@ -0,0 +1,154 @@
+package com.chen.utils;
+
+import com.chen.entity.ColumnMeta;
+import com.chen.entity.DbConfig;
+import com.chen.entity.SchemaSnapshot;
+import com.chen.entity.TableMeta;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.intellij.openapi.project.Project;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.chen.constant.FileConstant.SCHEMA_SNAPSHOT_PATH;
+
+/**
+ * 表结构快照工具类。
+ * <p>
+ * 通过一次 DatabaseMetaData 遍历读取当前库（schema）下全部表与字段，写入项目 .idea 目录，
+ * 之后的离线校验只读本地快照，不再访问数据库。读取结果按文件修改时间缓存在内存中。
+ * 快照只记录字段名、类型与备注，不逐表查询主键与索引，以免大库上产生大量元数据查询。
+ * </p>
+ *
+ * @author czh
+ * @version 1.0
+ * @since 2025/7/9
+ */
+public class SchemaSnapshotUtil {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private static final String[] TABLE_TYPES = {"TABLE", "VIEW"};
+
+    /** 快照文件路径 → 已加载快照 */
+    private static final Map<Path, Loaded> LOADED = new ConcurrentHashMap<>();
+
+    private static final class Loaded {
+        private final long lastModified;
+        private final SchemaSnapshot snapshot;
+
+        Loaded(long lastModified, SchemaSnapshot snapshot) {
+            this.lastModified = lastModified;
+            this.snapshot = snapshot;
+        }
+    }
+
+    private SchemaSnapshotUtil() {
+    }
+
+    /**
+     * 从数据库读取当前库下全部表与字段
+     *
+     * @param config 数据库连接配置
+     * @return 表结构快照
+     */
+    public static SchemaSnapshot capture(DbConfig config) {
+        try (Connection conn = DataSourceManager.getDataSource(config).getConnection()) {
+            DatabaseMetaData meta = conn.getMetaData();
+            String catalog = conn.getCatalog();
+            String schema = conn.getSchema();
+
+            Map<String, TableMeta> tables = new LinkedHashMap<>();
+            try (ResultSet rs = meta.getTables(catalog, schema, "%", TABLE_TYPES)) {
+                while (rs.next()) {
+                    String name = rs.getString("TABLE_NAME");
+                    String remark = rs.getString("REMARKS");
+                    tables.put(name, new TableMeta(name, remark == null || remark.isBlank() ? name : remark,
+                            new ArrayList<>()));
+                }
+            }
+            try (ResultSet rs = meta.getColumns(catalog, schema, "%", "%")) {
+                while (rs.next()) {
+                    TableMeta table = tables.get(rs.getString("TABLE_NAME"));
+                    if (table == null) continue;
+                    table.getColumns().add(new ColumnMeta(rs.getString("COLUMN_NAME"),
+                            rs.getString("TYPE_NAME"), false, false, rs.getString("REMARKS")));
+                }
+            }
+            return new SchemaSnapshot(config.getUrl(), config.getUsername(), System.currentTimeMillis(),
+                    new ArrayList<>(tables.values()));
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * 保存快照到项目 .idea 目录
+     *
+     * @param project  当前项目
+     * @param snapshot 表结构快照
+     * @throws IOException 写入失败
+     */
+    public static void save(Project project, SchemaSnapshot snapshot) throws IOException {
+        Path path = Paths.get(project.getBasePath(), SCHEMA_SNAPSHOT_PATH);
+        Files.createDirectories(path.getParent());
+        objectMapper.writeValue(path.toFile(), snapshot);
+        LOADED.put(path, new Loaded(Files.getLastModifiedTime(path).toMillis(), snapshot));
+    }
+
+    /**
+     * 读取项目中与当前数据源匹配的快照，文件未变化时直接返回内存中的对象
+     *
+     * @param project 当前项目
+     * @param config  数据库连接配置
+     * @return 快照；不存在、读取失败或属于其他数据源时返回 null
+     */
+    public static SchemaSnapshot load(Project project, DbConfig config) {
+        Path path = Paths.get(project.getBasePath(), SCHEMA_SNAPSHOT_PATH);
+        try {
+            if (!Files.exists(path)) return null;
+            long lastModified = Files.getLastModifiedTime(path).toMillis();
+            Loaded loaded = LOADED.get(path);
+            if (loaded == null || loaded.lastModified != lastModified) {
+                loaded = new Loaded(lastModified, objectMapper.readValue(path.toFile(), SchemaSnapshot.class));
+                LOADED.put(path, loaded);
+            }
+            SchemaSnapshot snapshot = loaded.snapshot;
+            boolean sameSource = Objects.equals(snapshot.getUrl(), config.getUrl())
+                    && Objects.equals(snapshot.getUsername(), config.getUsername());
+            return sameSource ? snapshot : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 读取快照，不存在时连接数据库生成并保存
+     *
+     * @param project 当前项目
+     * @param config  数据库连接配置
+     * @return 表结构快照
+     * @throws IOException 保存失败
+     */
+    public static SchemaSnapshot loadOrCapture(Project project, DbConfig config) throws IOException {
+        SchemaSnapshot snapshot = load(project, config);
+        if (snapshot != null) return snapshot;
+        snapshot = capture(config);
+        save(project, snapshot);
+        return snapshot;
+    }
+}
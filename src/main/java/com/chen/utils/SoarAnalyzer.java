@@ -0,0 +1,188 @@
+package com.chen.utils;
+
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.util.concurrency.AppExecutorUtil;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static com.chen.constant.SqlConstants.*;
+
+/**
+ * soar 分析进程管理。
+ * <p>
+ * soar 没有常驻服务模式，每个进程从标准输入读完一条查询、输出报告后退出。
+ * 为避免每次分析都等待进程启动与配置解析，按数据源（soar 配置文件）预先启动一个阻塞在标准输入上的进程：
+ * 分析时把 SQL 写入其标准输入并读取输出，用完立即在后台补启下一个。
+ * 预热进程已退出（崩溃）或配置文件已变化（切换数据源）时丢弃重启；分析超时强制结束进程。
+ * 报告类型通过 -report-type 参数指定，不再改写 soar.yaml；同一 SQL 与报告类型的结果短时缓存，供预览后紧接着导出报告时复用。
+ * </p>
+ *
+ * @author czh
+ * @version 1.0
+ * @since 2025/7/9
+ */
+public class SoarAnalyzer {
+
+    private static final Logger LOG = Logger.getInstance(SoarAnalyzer.class);
+
+    /** 配置文件路径 → 预热进程（使用配置文件中的默认报告类型） */
+    private static final Map<Path, Worker> WORKERS = new ConcurrentHashMap<>();
+
+    /** 最近的分析结果，按访问顺序淘汰 */
+    private static final Map<String, Result> RESULTS = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Result> eldest) {
+            return size() > SOAR_RESULT_CACHE_SIZE;
+        }
+    };
+
+    private static final class Result {
+        private final String output;
+        private final long createdAt = System.currentTimeMillis();
+
+        Result(String output) {
+            this.output = output;
+        }
+    }
+
+    private static final class Worker {
+        private final Process process;
+        private final Path soar;
+        private final long configModified;
+
+        Worker(Process process, Path soar, long configModified) {
+            this.process = process;
+            this.soar = soar;
+            this.configModified = configModified;
+        }
+    }
+
+    private SoarAnalyzer() {
+    }
+
+    /**
+     * 预先启动数据源的 soar 进程，配置文件变化后调用可立即替换旧进程
+     *
+     * @param config soar 配置文件
+     */
+    public static void warmUp(Path config) {
+        AppExecutorUtil.getAppExecutorService().execute(() -> {
+            try {
+                Worker fresh = start(SoarBinaryUtil.resolve(), config, null);
+                Worker old = WORKERS.put(config, fresh);
+                if (old != null) old.process.destroy();
+            } catch (IOException e) {
+                // 预热失败不打断保存配置，分析时会直接启动进程并向用户报告错误
+                LOG.warn("soar 预热失败：" + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * 结束项目目录下各数据源的预热进程，项目关闭时调用
+     *
+     * @param projectDir 项目根目录
+     */
+    public static void shutdown(Path projectDir) {
+        WORKERS.entrySet().removeIf(entry -> {
+            if (!entry.getKey().startsWith(projectDir)) return false;
+            entry.getValue().process.destroy();
+            return true;
+        });
+    }
+
+    /**
+     * 分析 SQL
+     *
+     * @param config     soar 配置文件
+     * @param sql        SQL 文本
+     * @param reportType 报告类型，如 markdown、rewrite；为 null 时使用配置文件中的类型（可使用预热进程）
+     * @return soar 输出
+     * @throws IOException 进程启动失败、超时或异常退出
+     */
+    public static String analyze(Path config, String sql, String reportType) throws IOException {
+        long configModified = Files.getLastModifiedTime(config).toMillis();
+        String cacheKey = config + "\0" + configModified + "\0" + reportType + "\0" + sql;
+        synchronized (RESULTS) {
+            Result cached = RESULTS.get(cacheKey);
+            if (cached != null && System.currentTimeMillis() - cached.createdAt < SOAR_RESULT_CACHE_TTL_MS) {
+                return cached.output;
+            }
+        }
+
+        Path soar = SoarBinaryUtil.resolve();
+        Worker worker = null;
+        if (reportType == null) {
+            worker = WORKERS.remove(config);
+            if (worker != null && (!worker.process.isAlive() || worker.configModified != configModified
+                    || !worker.soar.equals(soar))) {
+                worker.process.destroy();
+                worker = null;
+            }
+        }
+        if (worker == null) worker = start(soar, config, reportType);
+
+        String output;
+        try {
+            output = run(worker.process, sql);
+        } finally {
+            if (reportType == null) warmUp(config);
+        }
+        synchronized (RESULTS) {
+            RESULTS.put(cacheKey, new Result(output));
+        }
+        return output;
+    }
+
+    private static Worker start(Path soar, Path config, String reportType) throws IOException {
+        List<String> command = new ArrayList<>(List.of(soar.toString(), "-config=" + config));
+        if (reportType != null) command.add("-report-type=" + reportType);
+        ProcessBuilder builder = new ProcessBuilder(command);
+        builder.directory(soar.getParent().toFile());
+        builder.redirectErrorStream(true);
+        return new Worker(builder.start(), soar, Files.getLastModifiedTime(config).toMillis());
+    }
+
+    /**
+     * 写入 SQL 并关闭标准输入，读取全部输出；超时由定时任务强制结束进程，读取随之结束
+     */
+    private static String run(Process process, String sql) throws IOException {
+        ScheduledFuture<?> killer = AppExecutorUtil.getAppScheduledExecutorService()
+                .schedule(process::destroyForcibly, SOAR_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        try {
+            try (OutputStream in = process.getOutputStream()) {
+                in.write(sql.getBytes(StandardCharsets.UTF_8));
+            }
+            String output;
+            try (InputStream out = process.getInputStream()) {
+                output = new String(out.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            int exitCode = process.waitFor();
+            if (!killer.cancel(false)) {
+                throw new IOException(String.format(ERROR_SOAR_TIMEOUT, SOAR_TIMEOUT_SECONDS));
+            }
+            if (exitCode != 0) {
+                throw new IOException(String.format(ERROR_SOAR_EXIT, exitCode) + System.lineSeparator() + output);
+            }
+            return output;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } finally {
+            killer.cancel(false);
+            if (process.isAlive()) process.destroyForcibly();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.chen.utils;
+
+import com.intellij.openapi.application.PathManager;
+import com.intellij.openapi.util.SystemInfo;
+import com.intellij.util.system.CpuArch;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+import static com.chen.constant.FileConstant.*;
+
+/**
+ * soar 程序提取工具类。
+ * <p>
+ * 按当前操作系统与 CPU 架构选择插件内置的 soar 程序资源，以内容 SHA-256 命名目录提取到 IDE 系统目录下的共享缓存，
+ * 所有项目与 IDE 重启后共用同一份；已提取的文件校验哈希一致才复用，损坏或被篡改时重新提取。
+ * 插件升级替换程序后哈希变化，自动提取到新目录。
+ * </p>
+ *
+ * @author czh
+ * @version 1.0
+ * @since 2025/7/9
+ */
+public class SoarBinaryUtil {
+
+    /** 本次 IDE 运行中已校验的程序路径 */
+    private static volatile Path resolved;
+
+    private SoarBinaryUtil() {
+    }
+
+    /**
+     * 获取当前平台可执行的 soar 程序，首次调用时提取并校验
+     *
+     * @return soar 程序路径
+     * @throws IOException 当前平台没有内置程序或提取失败
+     */
+    public static Path resolve() throws IOException {
+        Path path = resolved;
+        if (path != null && Files.isExecutable(path)) return path;
+        synchronized (SoarBinaryUtil.class) {
+            if (resolved != null && Files.isExecutable(resolved)) return resolved;
+            resolved = extract(resourceName());
+            return resolved;
+        }
+    }
+
+    /**
+     * 当前平台对应的 soar 程序资源名。soar 只发布 amd64 程序：
+     * Windows 与 macOS 的 arm64 机器通过系统自带的转译运行，Linux 仅支持 amd64
+     */
+    private static String resourceName() throws IOException {
+        if (SystemInfo.isWindows) return SOAR_RESOURCE_WINDOWS;
+        if (SystemInfo.isMac) return SOAR_RESOURCE_MAC_AMD64;
+        if (SystemInfo.isLinux && !CpuArch.isArm64()) return SOAR_RESOURCE_LINUX_AMD64;
+        throw new IOException("当前平台不支持 soar 分析：" + SystemInfo.OS_NAME + " " + CpuArch.CURRENT);
+    }
+
+    private static Path extract(String resourceName) throws IOException {
+        byte[] content;
+        try (InputStream in = SoarBinaryUtil.class.getClassLoader().getResourceAsStream(resourceName)) {
+            if (in == null) {
+                throw new FileNotFoundException("插件未内置当前平台（" + SystemInfo.OS_NAME + " " + CpuArch.CURRENT
+                        + "）的 soar 程序，缺少资源：" + resourceName);
+            }
+            content = in.readAllBytes();
+        }
+        String hash = sha256(content);
+        Path dir = Paths.get(PathManager.getSystemPath(), SOAR_CACHE_DIR, hash);
+        Path target = dir.resolve(resourceName);
+        if (Files.isRegularFile(target) && hash.equals(sha256(Files.readAllBytes(target)))) {
+            makeExecutable(target);
+            return target;
+        }
+
+        // 先写临时文件再替换，避免多个 IDE 实例同时提取时读到不完整的文件
+        Files.createDirectories(dir);
+        Path temp = Files.createTempFile(dir, resourceName, ".tmp");
+        try {
+            Files.write(temp, content);
+            makeExecutable(temp);
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        if (!hash.equals(sha256(Files.readAllBytes(target)))) {
+            throw new IOException("soar 程序校验失败：" + target);
+        }
+        return target;
+    }
+
+    private static void makeExecutable(Path path) throws IOException {
+        if (!SystemInfo.isWindows && !Files.isExecutable(path) && !path.toFile().setExecutable(true, false)) {
+            throw new IOException("无法设置 soar 程序可执行权限：" + path);
+        }
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
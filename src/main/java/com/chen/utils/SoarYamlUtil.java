@@ -3,7 +3,6 @@ package com.chen.utils;
 import com.chen.entity.DbConfig;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.intellij.openapi.project.Project;
-import com.intellij.openapi.ui.Messages;
 
 import java.io.*;
 import java.net.URL;
@@ -11,12 +10,13 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.text.SimpleDateFormat;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 
 import static com.chen.constant.FileConstant.*;
+import static com.chen.constant.SqlConstants.SOAR_REPORT_MARKDOWN;
+import static com.chen.constant.SqlConstants.SOAR_REPORT_REWRITE;
 
 /**
  * @author czh
@@ -48,30 +48,6 @@ public class SoarYamlUtil {
         }
     }
 
-    /**
-     * 复制resources目录下的soar.exe到目标目录
-     *
-     * @param targetDir 目标目录路径，例如 .idea目录的绝对路径
-     * @throws IOException
-     */
-    public static void copySoarExeToDir(Path targetDir) throws IOException {
-        if (!Files.exists(targetDir)) {
-            Files.createDirectories(targetDir);
-        }
-        Path targetFile = targetDir.resolve("soar.exe");
-        if (Files.exists(targetFile)) {
-            return;
-        }
-        // 资源路径（resources目录下的soar.exe）
-        try (InputStream in = SoarYamlUtil.class.getClassLoader().getResourceAsStream("soar.exe")) {
-            if (in == null) {
-                throw new FileNotFoundException("资源目录下找不到 soar.exe");
-            }
-
-            Files.copy(in, targetFile, StandardCopyOption.REPLACE_EXISTING);
-        }
-    }
-
     /**
      * 根据 json 配置替换 yaml 内容中的数据库连接信息
      *
@@ -107,6 +83,8 @@ public class SoarYamlUtil {
         Path yamlPath = Paths.get(projectBasePath, SOARYMAL_PATH);
         Files.createDirectories(yamlPath.getParent());
         Files.writeString(yamlPath, content, StandardCharsets.UTF_8);
+        // 配置变化后立即替换预热的 soar 进程
+        SoarAnalyzer.warmUp(yamlPath);
     }
 
     /**
@@ -137,204 +115,89 @@ public class SoarYamlUtil {
     }
 
     /**
-     * 确保结果输出目录存在，若不存在则创建
+     * 确保结果输出目录（用户目录下的 soar-result/子目录）存在，若不存在则创建
      */
     private static File ensureResultDir(String file) throws IOException {
-        File resultDir = new File(RESULT_DIR+file);
-        if (!resultDir.exists() && !resultDir.mkdirs()) {
-            throw new IOException("无法创建结果目录 " + RESULT_DIR);
+        Path resultDir = Paths.get(System.getProperty("user.home"), RESULT_DIR_NAME, file);
+        try {
+            Files.createDirectories(resultDir);
+        } catch (IOException e) {
+            throw new IOException("无法创建结果目录 " + resultDir, e);
         }
-        return resultDir;
+        return resultDir.toFile();
     }
 
     /**
-     * 运行分析命令并返回控制台输出（不生成文件）
+     * 将 .idea 下的 SQL 文件交给当前数据源的 soar 进程分析
+     *
+     * @param reportType 报告类型，为 null 时使用 soar.yaml 中的类型
      */
-    public static String runSoarFixed(Project project) throws Exception {
-        Path soarExePath = getIdeaPath(project, SOAR_EXE_NAME);
+    private static String analyze(Project project, String reportType) throws IOException {
+        Path yamlPath = getIdeaPath(project, YAML_FILE_NAME);
         Path sqlFilePath = getIdeaPath(project, SQL_FILE_NAME);
 
-        List<String> command = List.of(
-                soarExePath.toString(),
-                "-query=" + sqlFilePath
-        );
-
-        ProcessBuilder builder = new ProcessBuilder(command);
-        builder.redirectErrorStream(true);
+        if (!Files.exists(yamlPath) || !Files.exists(sqlFilePath)) {
+            throw new FileNotFoundException("配置文件或 SQL 文件不存在！");
+        }
+        String sql = Files.readString(sqlFilePath, StandardCharsets.UTF_8);
+        return SoarAnalyzer.analyze(yamlPath, sql, reportType);
+    }
 
+    /**
+     * 运行分析命令并返回控制台输出（不生成文件）
+     */
+    public static String runSoarFixed(Project project) throws Exception {
         StringBuilder output = new StringBuilder();
-        Process process = null;
-
+        DateTimeFormatter dtf = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+        output.append("执行时间: ").append(dtf.format(java.time.LocalDateTime.now())).append(System.lineSeparator());
         try {
-            DateTimeFormatter dtf = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-            output.append("执行时间: ").append(dtf.format(java.time.LocalDateTime.now())).append(System.lineSeparator());
-            process = builder.start();
-            try (BufferedReader reader = new BufferedReader(
-                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    if (line.contains("beelogger") || line.contains("jsonconfig must have filename") || line.contains("a:link")) {
-                        continue;
-                    }
-                    output.append(line).append(System.lineSeparator());
+            for (String line : analyze(project, null).split("\\R")) {
+                if (line.contains("beelogger") || line.contains("jsonconfig must have filename") || line.contains("a:link")) {
+                    continue;
                 }
-            }
-            int exitCode = process.waitFor();
-            if (exitCode != 0) {
-                output.append("进程异常退出，退出码: ").append(exitCode).append(System.lineSeparator());
+                output.append(line).append(System.lineSeparator());
             }
         } catch (Exception e) {
             e.printStackTrace();
             output.append("执行异常: ").append(e.getMessage()).append(System.lineSeparator());
-        } finally {
-            if (process != null) process.destroy();
         }
         return output.toString();
     }
 
     /**
      * 执行分析结果保存为 HTML 文件
+     *
+     * @return 生成的报告文件
      */
-    public static void downHtml(Project project) throws Exception {
-        File soarExe = getIdeaPath(project, SOAR_EXE_NAME).toFile();
-        File sqlFile = getIdeaPath(project, SQL_FILE_NAME).toFile();
-
-        if (!soarExe.exists() || !sqlFile.exists()) {
-            throw new FileNotFoundException("soar.exe 或 SQL 文件不存在！");
-        }
-
-        File resultDir = ensureResultDir("\\html");
-        File outputFile = new File(resultDir, REPORT_PREFIX + getTimestamp() + HTML_SUFFIX);
-
-        ProcessBuilder pb = new ProcessBuilder(
-                soarExe.getAbsolutePath(),
-                "-query=" + sqlFile.getAbsolutePath(),
-                "-log-output=stdout"
-        );
-        pb.redirectErrorStream(true);
-
-        Process process = pb.start();
-
-        try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
-             BufferedWriter writer = new BufferedWriter(
-                     new OutputStreamWriter(new FileOutputStream(outputFile), StandardCharsets.UTF_8))) {
-
-            String line;
-            while ((line = reader.readLine()) != null) {
-                writer.write(line);
-                writer.newLine();
-            }
-        }
-
-        if (process.waitFor() != 0) {
-            throw new RuntimeException("执行失败，退出码：" + process.exitValue());
-        }
-
-        Messages.showInfoMessage(project, "HTML 报告生成成功：\n" + outputFile.getAbsolutePath(), "生成成功");
+    public static File downHtml(Project project) throws Exception {
+        String report = analyze(project, null);
+        File outputFile = new File(ensureResultDir("html"), REPORT_PREFIX + getTimestamp() + HTML_SUFFIX);
+        Files.writeString(outputFile.toPath(), report, StandardCharsets.UTF_8);
+        return outputFile;
     }
 
     /**
      * 执行分析结果保存为 Markdown 文件
-     * 会修改 soar.yaml 报告类型配置，完成后再还原
+     * 报告类型通过命令行参数指定，不修改 soar.yaml
+     *
+     * @return 生成的报告文件
      */
-    public static void downMD(Project project) throws Exception {
-        Path yamlPath = getIdeaPath(project, YAML_FILE_NAME);
-        Path soarExePath = getIdeaPath(project, SOAR_EXE_NAME);
-        Path sqlFilePath = getIdeaPath(project, SQL_FILE_NAME);
-
-        if (!Files.exists(yamlPath) || !Files.exists(soarExePath) || !Files.exists(sqlFilePath)) {
-            throw new FileNotFoundException("配置文件、soar.exe 或 SQL 文件不存在！");
-        }
-
-        String originalYaml = Files.readString(yamlPath, StandardCharsets.UTF_8);
-        String modifiedYaml = originalYaml.replace("report-type: html", "report-type: markdown");
-
-        Files.writeString(yamlPath, modifiedYaml, StandardCharsets.UTF_8);
-
-        File outputMd = new File(ensureResultDir("\\md"), REPORT_PREFIX + getTimestamp() + MD_SUFFIX);
-
-        ProcessBuilder pb = new ProcessBuilder(
-                soarExePath.toAbsolutePath().toString(),
-                "-query=" + sqlFilePath.toAbsolutePath(),
-                "-log-output=stdout"
-        );
-        pb.redirectErrorStream(true);
-
-        Process process = pb.start();
-
-        try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
-             BufferedWriter writer = new BufferedWriter(
-                     new OutputStreamWriter(new FileOutputStream(outputMd), StandardCharsets.UTF_8))) {
-
-            String line;
-            while ((line = reader.readLine()) != null) {
-                writer.write(line);
-                writer.newLine();
-            }
-        }
-
-        if (process.waitFor() != 0) {
-            throw new RuntimeException("执行失败，退出码：" + process.exitValue());
-        }
-
-        // 恢复原 YAML
-        Files.writeString(yamlPath, originalYaml, StandardCharsets.UTF_8);
-
-        Messages.showInfoMessage(project, "Markdown 报告生成成功：\n" + outputMd.getAbsolutePath(), "生成成功");
+    public static File downMD(Project project) throws Exception {
+        String report = analyze(project, SOAR_REPORT_MARKDOWN);
+        File outputMd = new File(ensureResultDir("md"), REPORT_PREFIX + getTimestamp() + MD_SUFFIX);
+        Files.writeString(outputMd.toPath(), report, StandardCharsets.UTF_8);
+        return outputMd;
     }
 
     /**
      * 重写 SQL 并直接在弹窗中展示（不写入文件）
      */
     public static String rewriteSQL(Project project) throws Exception {
-
-        Path yamlPath = getIdeaPath(project, YAML_FILE_NAME);
-        Path soarExePath = getIdeaPath(project, SOAR_EXE_NAME);
-        Path sqlFilePath = getIdeaPath(project, SQL_FILE_NAME);
-
-        if (!Files.exists(yamlPath) || !Files.exists(soarExePath) || !Files.exists(sqlFilePath)) {
-            throw new FileNotFoundException("配置文件、soar.exe 或 SQL 文件不存在！");
-        }
-
-        String originalYaml = Files.readString(yamlPath, StandardCharsets.UTF_8);
-        String modifiedYaml = originalYaml.replace("report-type: html", "report-type: rewrite");
-        Files.writeString(yamlPath, modifiedYaml, StandardCharsets.UTF_8);
-        List<String> command = List.of(
-                soarExePath.toString(),
-                "-query=" + sqlFilePath,
-                "-log-output=stdout"
-        );
-
-        ProcessBuilder builder = new ProcessBuilder(command);
-        builder.redirectErrorStream(true);
-
-        StringBuilder output = new StringBuilder();
-        Process process = null;
-
         try {
-            process = builder.start();
-            try (BufferedReader reader = new BufferedReader(
-                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    output.append(line).append(System.lineSeparator());
-                }
-            }
-            int exitCode = process.waitFor();
-            if (exitCode != 0) {
-                output.append("进程异常退出，退出码: ").append(exitCode).append(System.lineSeparator());
-            }
-        } catch (Exception e) {
+            return analyze(project, SOAR_REPORT_REWRITE);
+        } catch (IOException e) {
             e.printStackTrace();
-            output.append("执行异常: ").append(e.getMessage()).append(System.lineSeparator());
-        } finally {
-            if (process != null) process.destroy();
+            return "执行异常: " + e.getMessage() + System.lineSeparator();
         }
-
-        return output.toString();
     }
-
-
 }
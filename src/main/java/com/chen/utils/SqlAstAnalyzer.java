@@ -0,0 +1,192 @@
+package com.chen.utils;
+
+import com.intellij.util.concurrency.AppExecutorUtil;
+import net.sf.jsqlparser.JSQLParserException;
+import net.sf.jsqlparser.expression.Expression;
+import net.sf.jsqlparser.expression.ExpressionVisitorAdapter;
+import net.sf.jsqlparser.parser.CCJSqlParserUtil;
+import net.sf.jsqlparser.schema.Column;
+import net.sf.jsqlparser.statement.Statement;
+import net.sf.jsqlparser.statement.Statements;
+import net.sf.jsqlparser.statement.delete.Delete;
+import net.sf.jsqlparser.statement.drop.Drop;
+import net.sf.jsqlparser.statement.select.Join;
+import net.sf.jsqlparser.statement.select.Limit;
+import net.sf.jsqlparser.statement.select.PlainSelect;
+import net.sf.jsqlparser.statement.select.SelectVisitorAdapter;
+import net.sf.jsqlparser.statement.select.SetOperationList;
+import net.sf.jsqlparser.statement.truncate.Truncate;
+import net.sf.jsqlparser.statement.update.Update;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import static com.chen.constant.SqlConstants.*;
+
+/**
+ * 基于 JSqlParser 语法树的 SQL 分析工具类。
+ * <p>
+ * 将脚本拆分为多条语句逐条分析：无 WHERE（或 WHERE 不引用任何列，如 1=1）的 DELETE/UPDATE、
+ * 仅靠 LIMIT 限制行数的 DELETE/UPDATE、缺少关联条件的 JOIN（笛卡尔积）以及 DROP/TRUNCATE。
+ * 解析结果按内容哈希缓存，重复检查同一 SQL 不再解析；解析设置超时，
+ * 超时或无法解析的 SQL（方言扩展、未渲染的 MyBatis 标签等）退化为按词边界匹配关键字。
+ * </p>
+ *
+ * @author czh
+ * @version 1.0
+ * @since 2025/7/9
+ */
+public class SqlAstAnalyzer {
+
+    /** 解析失败或超时的标记，与空脚本区分 */
+    private static final List<Statement> UNPARSEABLE = Collections.unmodifiableList(new ArrayList<>());
+
+    private static final String CACHE_NS_AST = "ast";
+
+    private static final Map<SqlTextCache.Key, List<Statement>> CACHE =
+            new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<SqlTextCache.Key, List<Statement>> eldest) {
+                    return size() > SQL_AST_CACHE_SIZE;
+                }
+            };
+
+    private static final Pattern DELETE_OR_UPDATE = Pattern.compile(
+            "^\\s*(" + SQL_DELETE + "|" + SQL_UPDATE + ")\\b", Pattern.CASE_INSENSITIVE);
+    private static final Pattern WHERE = Pattern.compile("\\b" + SQL_WHERE + "\\b", Pattern.CASE_INSENSITIVE);
+
+    private SqlAstAnalyzer() {
+    }
+
+    /**
+     * 解析 SQL 脚本为语句列表，结果按内容哈希缓存（调用方不得修改返回的语法树）
+     *
+     * @param sql SQL 脚本，可包含多条语句
+     * @return 语句列表；解析失败或超时返回 null
+     */
+    public static List<Statement> parse(String sql) {
+        SqlTextCache.Key key = SqlTextCache.key(CACHE_NS_AST, sql);
+        List<Statement> cached;
+        synchronized (CACHE) {
+            cached = CACHE.get(key);
+        }
+        if (cached == null) {
+            cached = doParse(sql);
+            synchronized (CACHE) {
+                CACHE.put(key, cached);
+            }
+        }
+        return cached == UNPARSEABLE ? null : cached;
+    }
+
+    private static List<Statement> doParse(String sql) {
+        try {
+            Statements statements = CCJSqlParserUtil.parseStatements(sql,
+                    AppExecutorUtil.getAppExecutorService(), parser -> parser.withTimeOut(SQL_PARSE_TIMEOUT_MS));
+            return statements == null ? UNPARSEABLE : Collections.unmodifiableList(new ArrayList<>(statements));
+        } catch (JSQLParserException e) {
+            return UNPARSEABLE;
+        }
+    }
+
+    /**
+     * 分析 SQL 脚本中的危险语句
+     *
+     * @param sql SQL 脚本，可包含多条语句
+     * @return 警告信息列表，多条语句时带语句序号前缀；无风险返回空列表
+     */
+    public static List<String> analyze(String sql) {
+        List<Statement> statements = parse(sql);
+        if (statements == null) {
+            return isUnsafeByKeyword(sql) ? List.of(WARN_UNSAFE_DELETE_UPDATE) : List.of();
+        }
+        List<String> warnings = new ArrayList<>();
+        for (int i = 0; i < statements.size(); i++) {
+            String warning = analyze(statements.get(i));
+            if (warning == null) continue;
+            warnings.add(statements.size() > 1 ? String.format(WARN_STATEMENT_PREFIX, i + 1) + warning : warning);
+        }
+        return warnings;
+    }
+
+    private static String analyze(Statement statement) {
+        if (statement instanceof Delete) {
+            Delete delete = (Delete) statement;
+            return checkWhere(delete.getWhere(), delete.getLimit());
+        }
+        if (statement instanceof Update) {
+            Update update = (Update) statement;
+            return checkWhere(update.getWhere(), update.getLimit());
+        }
+        if (statement instanceof PlainSelect) {
+            return checkJoins((PlainSelect) statement);
+        }
+        if (statement instanceof Drop) {
+            return String.format(WARN_DROP_TRUNCATE, "DROP " + ((Drop) statement).getType().toUpperCase());
+        }
+        if (statement instanceof Truncate) {
+            return String.format(WARN_DROP_TRUNCATE, "TRUNCATE");
+        }
+        return null;
+    }
+
+    private static String checkWhere(Expression where, Limit limit) {
+        if (where == null) {
+            return limit == null ? WARN_UNSAFE_DELETE_UPDATE : WARN_LIMIT_ONLY_DELETE_UPDATE;
+        }
+        return referencesColumn(where) ? null : WARN_CONSTANT_WHERE;
+    }
+
+    /**
+     * 检查缺少关联条件的 JOIN：逗号连接且无 WHERE，或显式 JOIN 既无 ON 也无 USING（CROSS/NATURAL JOIN 除外）
+     */
+    private static String checkJoins(PlainSelect select) {
+        List<Join> joins = select.getJoins();
+        if (joins == null) return null;
+        for (Join join : joins) {
+            if (join.isCross() || join.isNatural()) continue;
+            boolean hasOn = join.getOnExpressions() != null && !join.getOnExpressions().isEmpty();
+            boolean hasUsing = join.getUsingColumns() != null && !join.getUsingColumns().isEmpty();
+            if (hasOn || hasUsing) continue;
+            if (join.isSimple() && select.getWhere() != null) continue;
+            return String.format(WARN_CARTESIAN_JOIN, join.getFromItem());
+        }
+        return null;
+    }
+
+    /**
+     * 条件是否引用了列；EXISTS、IN 等子查询的结果取决于表数据，同样不视为常量条件
+     */
+    private static boolean referencesColumn(Expression expression) {
+        boolean[] found = {false};
+        ExpressionVisitorAdapter visitor = new ExpressionVisitorAdapter() {
+            @Override
+            public void visit(Column column) {
+                // 部分版本将 TRUE/FALSE 解析为列名
+                String name = column.getColumnName();
+                if (!"true".equalsIgnoreCase(name) && !"false".equalsIgnoreCase(name)) found[0] = true;
+            }
+        };
+        visitor.setSelectVisitor(new SelectVisitorAdapter() {
+            @Override
+            public void visit(PlainSelect plainSelect) {
+                found[0] = true;
+            }
+
+            @Override
+            public void visit(SetOperationList setOperationList) {
+                found[0] = true;
+            }
+        });
+        expression.accept(visitor);
+        return found[0];
+    }
+
+    private static boolean isUnsafeByKeyword(String sql) {
+        return DELETE_OR_UPDATE.matcher(sql).find() && !WHERE.matcher(sql).find();
+    }
+}
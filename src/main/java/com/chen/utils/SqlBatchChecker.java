@@ -0,0 +1,202 @@
+package com.chen.utils;
+
+import com.chen.entity.DbConfig;
+import com.chen.entity.PreparedSql;
+import com.chen.entity.SqlCheckResult;
+import com.chen.entity.SqlCheckResult.Severity;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.util.concurrency.AppExecutorUtil;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static com.chen.constant.SqlConstants.SQL_CHECK_EXECUTOR_NAME;
+import static com.chen.constant.SqlConstants.WARN_BATCH_DANGEROUS_SKIPPED;
+
+/**
+ * SQL 批量检查工具类。
+ * <p>
+ * 对一批语句并发执行试运行（或显式开启的执行并回滚）检查与危险语句检查：并发数不超过连接池大小，
+ * 每条语句设置执行超时，单条失败或超时不影响其余语句。每条语句完成后立即回调，
+ * 便于在工具窗口中边检查边展示。Mapper 语句以空参数渲染为预编译 SQL 后执行。
+ * 执行并回滚时，危险语句、隐式提交的 DDL 与事务控制语句只标记为警告，不真正执行。
+ * </p>
+ *
+ * @author czh
+ * @version 1.0
+ * @since 2025/7/9
+ */
+public class SqlBatchChecker {
+
+    /** 等待结果时轮询取消状态的间隔（ms） */
+    private static final long POLL_INTERVAL_MS = 100;
+
+    /**
+     * 一条待检查的语句
+     */
+    public static final class Target {
+        private final String filePath;
+        private final int offset;
+        private final int line;
+        private final String statementId;
+        private final String body;
+        private final boolean template;
+
+        /**
+         * @param filePath    文件路径
+         * @param offset      语句起始偏移
+         * @param line        语句所在行号（从 1 开始）
+         * @param statementId Mapper 语句 id，普通 SQL 为 null
+         * @param body        语句内容
+         * @param template    是否为 MyBatis 语句（需先渲染动态标签与参数）
+         */
+        public Target(String filePath, int offset, int line, String statementId, String body, boolean template) {
+            this.filePath = filePath;
+            this.offset = offset;
+            this.line = line;
+            this.statementId = statementId;
+            this.body = body;
+            this.template = template;
+        }
+
+        public String getFilePath() {
+            return filePath;
+        }
+
+        public int getOffset() {
+            return offset;
+        }
+
+        public int getLine() {
+            return line;
+        }
+
+        public String getStatementId() {
+            return statementId;
+        }
+
+        public String getBody() {
+            return body;
+        }
+
+        public boolean isTemplate() {
+            return template;
+        }
+    }
+
+    private SqlBatchChecker() {
+    }
+
+    /**
+     * 并发检查全部语句
+     *
+     * @param config         数据库连接配置
+     * @param targets        待检查语句
+     * @param parallelism    最大并发数，应不超过连接池大小
+     * @param timeoutSeconds 单条语句执行超时（秒）
+     * @param execute        是否执行并回滚，否则只试运行
+     * @param indicator      进度指示器；取消时抛出 ProcessCanceledException 并中止未开始的检查
+     * @param listener       单条检查完成回调，在检查线程中调用
+     * @return 检查结果，与 targets 顺序一致
+     */
+    public static List<SqlCheckResult> checkAll(DbConfig config, List<Target> targets, int parallelism,
+                                                int timeoutSeconds, boolean execute, ProgressIndicator indicator,
+                                                Consumer<SqlCheckResult> listener) {
+        ExecutorService executor = AppExecutorUtil.createBoundedApplicationPoolExecutor(
+                SQL_CHECK_EXECUTOR_NAME, Math.max(1, parallelism));
+        int total = targets.size();
+        AtomicInteger done = new AtomicInteger();
+        List<Future<SqlCheckResult>> futures = new ArrayList<>(total);
+        try {
+            for (Target target : targets) {
+                futures.add(executor.submit(() -> {
+                    if (indicator.isCanceled()) return null;
+                    SqlCheckResult result = check(config, target, timeoutSeconds, execute);
+                    listener.accept(result);
+                    indicator.setFraction((double) done.incrementAndGet() / total);
+                    return result;
+                }));
+            }
+            List<SqlCheckResult> results = new ArrayList<>(total);
+            for (Future<SqlCheckResult> future : futures) {
+                results.add(await(future, indicator));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static SqlCheckResult await(Future<SqlCheckResult> future, ProgressIndicator indicator) {
+        while (true) {
+            indicator.checkCanceled();
+            try {
+                return future.get(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException ignored) {
+                // 继续等待并检查取消状态
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            } catch (ExecutionException e) {
+                throw new RuntimeException(e.getCause());
+            }
+        }
+    }
+
+    /**
+     * 检查单条语句：数据库不接受为错误，可执行但属于危险语句为警告
+     *
+     * @param config         数据库连接配置
+     * @param target         待检查语句
+     * @param timeoutSeconds 执行超时（秒）
+     * @param execute        是否执行并回滚，否则只试运行
+     * @return 检查结果
+     */
+    public static SqlCheckResult check(DbConfig config, Target target, int timeoutSeconds, boolean execute) {
+        long begin = System.nanoTime();
+        SqlCheckResult result = new SqlCheckResult(target.filePath, target.offset, target.line,
+                target.statementId, target.body);
+        try {
+            // 没有参数值，按全部分支渲染：if/when 成立、foreach 渲染一个元素，参数保留为 ? 占位符并绑定 null
+            PreparedSql prepared = target.template
+                    ? SqlTemplate.compile(target.body).renderAllBranches()
+                    : new PreparedSql(target.body, Collections.emptyList());
+            result.setSql(prepared.getSql());
+
+            // 执行前先判断：危险语句与无法回滚的语句（隐式提交的 DDL、事务控制）不真正执行
+            String danger = SqlCheckUtil.checkDangerous(prepared.getSql());
+            if (execute) {
+                String skipReason = SqlScriptChecker.skipReason(prepared.getSql(),
+                        SqlScriptChecker.isTransactionalDdl(config));
+                if (skipReason == null && danger != null) skipReason = WARN_BATCH_DANGEROUS_SKIPPED;
+                if (skipReason != null) {
+                    result.setSeverity(Severity.WARNING);
+                    result.setMessage(danger == null ? skipReason : danger + "\n" + skipReason);
+                    result.setElapsedMillis((System.nanoTime() - begin) / 1_000_000);
+                    return result;
+                }
+            }
+            String error = SqlCheckUtil.checkSQL(config, prepared, timeoutSeconds, execute);
+            if (error != null) {
+                result.setSeverity(Severity.ERROR);
+                result.setMessage(error);
+            } else {
+                result.setSeverity(danger == null ? Severity.OK : Severity.WARNING);
+                result.setMessage(danger);
+            }
+        } catch (RuntimeException e) {
+            result.setSeverity(Severity.ERROR);
+            result.setMessage(e.getMessage());
+        }
+        result.setElapsedMillis((System.nanoTime() - begin) / 1_000_000);
+        return result;
+    }
+}
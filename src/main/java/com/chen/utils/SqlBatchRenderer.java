@@ -0,0 +1,339 @@
+package com.chen.utils;
+
+import com.chen.entity.BatchRenderResult;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.intellij.openapi.progress.ProgressIndicator;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * SQL 批量渲染工具类。
+ * <p>
+ * 将一条 Mapper 语句与参数文件（CSV 首行为参数名，JSON Lines 每行一个对象，或 JSON 对象数组）渲染为可直接执行的 SQL，
+ * 用于压测数据准备。读取线程只负责切分记录，每 {@link #CHUNK_SIZE} 条为一批提交到线程池解析并渲染，
+ * 写出线程按提交顺序依次取回结果写入文件；同时在途的批次数受限，内存占用与参数文件大小无关。
+ * 语句模板只编译一次（见 {@link SqlTemplate}），且不写入项目级渲染缓存，避免大批量结果挤占缓存。
+ * </p>
+ *
+ * @author czh
+ * @version 1.0
+ * @since 2025/7/6
+ */
+public class SqlBatchRenderer {
+
+    /** 每批参数组数 */
+    private static final int CHUNK_SIZE = 512;
+
+    /** 同时在途的批次数 */
+    private static final int MAX_IN_FLIGHT = Math.max(2, Runtime.getRuntime().availableProcessors() * 2);
+
+    private static final int BUFFER_SIZE = 256 * 1024;
+
+    /** 小数按原文解析为 BigDecimal，避免 199.00 经 double 渲染为 199.0 */
+    private static final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS, true);
+
+    /** 参数文件格式 */
+    public enum Format {
+        CSV, JSON_LINES, JSON_ARRAY;
+
+        /**
+         * 按扩展名判断格式，.jsonl/.ndjson 为 JSON Lines，.json 为对象数组，其余按 CSV 处理
+         */
+        public static Format of(Path file) {
+            String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+            if (name.endsWith(".jsonl") || name.endsWith(".ndjson")) return JSON_LINES;
+            return name.endsWith(".json") ? JSON_ARRAY : CSV;
+        }
+    }
+
+    /** 一批渲染结果 */
+    private static final class Chunk {
+        private final StringBuilder text = new StringBuilder();
+        private long rendered;
+        private long failed;
+    }
+
+    private SqlBatchRenderer() {
+    }
+
+    /**
+     * 批量渲染 SQL 并写入目标文件，每组参数输出一条以分号结尾的语句
+     *
+     * @param sql       语句模板（可包含 MyBatis 动态标签）
+     * @param source    参数文件
+     * @param format    参数文件格式
+     * @param target    输出文件，已存在则覆盖
+     * @param charset   读写字符集
+     * @param dialect   SQL 方言，决定字符串参数的转义方式
+     * @param executor  渲染线程池
+     * @param indicator 进度指示器，可为 null；取消时抛出 ProcessCanceledException
+     * @return 渲染结果统计
+     * @throws IOException 读写失败
+     */
+    public static BatchRenderResult render(String sql, Path source, Format format, Path target, Charset charset,
+                                           String dialect, Executor executor, @Nullable ProgressIndicator indicator)
+            throws IOException {
+        long begin = System.nanoTime();
+        SqlTemplate template = SqlTemplate.compile(sql);
+        boolean backslashEscapes = SqlParamUtils.backslashEscapes(dialect);
+        long rendered = 0;
+        long failed = 0;
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             BufferedReader reader = new BufferedReader(Channels.newReader(in, charset.newDecoder()
+                     .onMalformedInput(CodingErrorAction.REPLACE)
+                     .onUnmappableCharacter(CodingErrorAction.REPLACE), BUFFER_SIZE), BUFFER_SIZE);
+             Writer writer = new BufferedWriter(Channels.newWriter(FileChannel.open(target, StandardOpenOption.CREATE,
+                     StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE), charset.newEncoder(), BUFFER_SIZE),
+                     BUFFER_SIZE)) {
+
+            long size = Math.max(1, in.size());
+            List<String> header = format == Format.CSV ? readHeader(reader) : Collections.emptyList();
+            MappingIterator<JsonNode> elements = format == Format.JSON_ARRAY ? arrayElements(reader) : null;
+            Deque<CompletableFuture<Chunk>> inFlight = new ArrayDeque<>();
+            List<Object> records = new ArrayList<>(CHUNK_SIZE);
+            long recordNo = 0;
+            long chunkFirst = 1;
+            Object record;
+            while ((record = elements != null ? (elements.hasNextValue() ? elements.nextValue() : null)
+                    : nextRecord(reader, format)) != null) {
+                if (record instanceof String && ((String) record).trim().isEmpty()) continue;
+                recordNo++;
+                if (records.isEmpty()) chunkFirst = recordNo;
+                records.add(record);
+                if (records.size() < CHUNK_SIZE) continue;
+
+                if (indicator != null) {
+                    indicator.checkCanceled();
+                    indicator.setFraction(Math.min(1.0, (double) in.position() / size));
+                }
+                inFlight.add(submit(template, backslashEscapes, format, header, records, chunkFirst, executor));
+                records = new ArrayList<>(CHUNK_SIZE);
+                // 在途批次已满时先写出最早的一批，形成背压
+                while (inFlight.size() >= MAX_IN_FLIGHT) {
+                    Chunk chunk = join(inFlight.poll());
+                    writer.append(chunk.text);
+                    rendered += chunk.rendered;
+                    failed += chunk.failed;
+                }
+            }
+            if (!records.isEmpty()) inFlight.add(submit(template, backslashEscapes, format, header, records, chunkFirst, executor));
+            while (!inFlight.isEmpty()) {
+                if (indicator != null) indicator.checkCanceled();
+                Chunk chunk = join(inFlight.poll());
+                writer.append(chunk.text);
+                rendered += chunk.rendered;
+                failed += chunk.failed;
+            }
+            writer.flush();
+        }
+        return new BatchRenderResult(rendered, failed, System.nanoTime() - begin);
+    }
+
+    private static CompletableFuture<Chunk> submit(SqlTemplate template, boolean backslashEscapes, Format format,
+                                                   List<String> header, List<Object> records, long first,
+                                                   Executor executor) {
+        return CompletableFuture.supplyAsync(
+                () -> renderChunk(template, backslashEscapes, format, header, records, first), executor);
+    }
+
+    private static Chunk join(CompletableFuture<Chunk> future) throws IOException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() == null ? e : e.getCause();
+            throw new IOException(cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * 解析并渲染一批记录；单条记录失败时输出注释行并继续。
+     * CSV 与 JSON Lines 的记录为原始文本，JSON 数组的记录为读取线程已解析的元素
+     */
+    private static Chunk renderChunk(SqlTemplate template, boolean backslashEscapes, Format format,
+                                     List<String> header, List<Object> records, long first) {
+        Chunk chunk = new Chunk();
+        long recordNo = first;
+        for (Object record : records) {
+            try {
+                Map<String, Object> params;
+                if (format == Format.CSV) {
+                    params = parseCsv(header, (String) record);
+                } else if (format == Format.JSON_LINES) {
+                    params = parseJson((String) record);
+                } else {
+                    params = toParams((JsonNode) record);
+                }
+                chunk.text.append(template.render(params, backslashEscapes)).append(";\n");
+                chunk.rendered++;
+            } catch (RuntimeException e) {
+                chunk.text.append("-- 第 ").append(recordNo).append(" 组参数渲染失败：")
+                        .append(String.valueOf(e.getMessage()).replace('\n', ' ')).append('\n');
+                chunk.failed++;
+            }
+            recordNo++;
+        }
+        return chunk;
+    }
+
+    // ============================ CSV ============================
+
+    private static List<String> readHeader(BufferedReader reader) throws IOException {
+        String line = nextRecord(reader, Format.CSV);
+        if (line == null) return Collections.emptyList();
+        // 去掉 UTF-8 BOM
+        if (!line.isEmpty() && line.charAt(0) == '\uFEFF') line = line.substring(1);
+        List<String> header = new ArrayList<>();
+        for (String name : splitCsv(line)) header.add(name.trim());
+        return header;
+    }
+
+    /**
+     * 读取一条记录：JSON Lines 为一行；CSV 在引号未闭合时跨行拼接
+     */
+    private static String nextRecord(BufferedReader reader, Format format) throws IOException {
+        String line = reader.readLine();
+        if (line == null || format != Format.CSV || !hasOpenQuote(line)) return line;
+        StringBuilder record = new StringBuilder(line);
+        while (hasOpenQuote(record) && (line = reader.readLine()) != null) {
+            record.append('\n').append(line);
+        }
+        return record.toString();
+    }
+
+    private static boolean hasOpenQuote(CharSequence text) {
+        boolean open = false;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '"') open = !open;
+        }
+        return open;
+    }
+
+    /**
+     * 按 RFC 4180 拆分一条 CSV 记录，支持引号包裹与 "" 转义
+     */
+    static List<String> splitCsv(String record) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < record.length(); i++) {
+            char c = record.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < record.length() && record.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static Map<String, Object> parseCsv(List<String> header, String record) {
+        List<String> fields = splitCsv(record);
+        if (fields.size() > header.size()) {
+            throw new IllegalArgumentException("列数 " + fields.size() + " 超过表头列数 " + header.size());
+        }
+        Map<String, Object> params = new LinkedHashMap<>();
+        for (int i = 0; i < fields.size(); i++) params.put(header.get(i), fields.get(i));
+        return params;
+    }
+
+    // ============================ JSON ============================
+
+    private static Map<String, Object> parseJson(String record) {
+        try {
+            return toParams(objectMapper.readTree(record));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(e.getOriginalMessage(), e);
+        }
+    }
+
+    /**
+     * 逐个读取顶层数组的元素，读取线程不需要把整个文件载入内存
+     */
+    private static MappingIterator<JsonNode> arrayElements(BufferedReader reader) throws IOException {
+        JsonParser parser = objectMapper.getFactory().createParser(reader);
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            throw new IOException(".json 参数文件应为 JSON 对象数组，每行一个对象请使用 .jsonl 扩展名");
+        }
+        return objectMapper.readValues(parser, JsonNode.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> toParams(JsonNode node) {
+        if (node == null || !node.isObject()) throw new IllegalArgumentException("每组参数应为一个 JSON 对象");
+        return (Map<String, Object>) toJava(node);
+    }
+
+    /**
+     * 转为 Map/List/String/Number/Boolean，整数保持为 Long，避免渲染出 1.0
+     */
+    private static Object toJava(JsonNode node) {
+        if (node == null || node.isNull()) return null;
+        if (node.isObject()) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                map.put(field.getKey(), toJava(field.getValue()));
+            }
+            return map;
+        }
+        if (node.isArray()) {
+            List<Object> list = new ArrayList<>();
+            for (JsonNode item : node) list.add(toJava(item));
+            return list;
+        }
+        if (node.isBoolean()) return node.booleanValue();
+        if (node.isNumber()) {
+            BigDecimal number = node.decimalValue();
+            try {
+                return number.longValueExact();
+            } catch (ArithmeticException e) {
+                return number;
+            }
+        }
+        return node.asText();
+    }
+}
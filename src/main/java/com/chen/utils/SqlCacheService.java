@@ -0,0 +1,52 @@
+package com.chen.utils;
+
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.project.Project;
+
+import static com.chen.constant.SqlConstants.FORMAT_CACHE_MAX_CHARS;
+import static com.chen.constant.SqlConstants.RENDER_CACHE_MAX_CHARS;
+
+/**
+ * 项目级 SQL 文本缓存服务。
+ * 格式化、预览真实 SQL、SQL 检查、执行计划等操作共享同一份格式化结果缓存与渲染 SQL 缓存，
+ * 随项目关闭释放
+ *
+ * @author czh
+ * @version 1.0
+ * @since 2025/7/2
+ */
+@Service(Service.Level.PROJECT)
+public final class SqlCacheService {
+
+    /** 格式化结果缓存，键为方言 + 原始 SQL */
+    private final SqlTextCache formatCache = new SqlTextCache(FORMAT_CACHE_MAX_CHARS);
+
+    /** 渲染 SQL 缓存，键为 SQL 模板 + 参数值 */
+    private final SqlTextCache renderCache = new SqlTextCache(RENDER_CACHE_MAX_CHARS);
+
+    /**
+     * 获取项目对应的缓存服务
+     *
+     * @param project 当前项目
+     * @return 缓存服务
+     */
+    public static SqlCacheService getInstance(Project project) {
+        return project.getService(SqlCacheService.class);
+    }
+
+    public SqlTextCache getFormatCache() {
+        return formatCache;
+    }
+
+    public SqlTextCache getRenderCache() {
+        return renderCache;
+    }
+
+    /**
+     * 清空全部缓存
+     */
+    public void clear() {
+        formatCache.clear();
+        renderCache.clear();
+    }
+}
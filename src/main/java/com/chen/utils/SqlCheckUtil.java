@@ -2,24 +2,45 @@ package com.chen.utils;
 
 import com.chen.constant.SqlConstants;
 import com.chen.entity.DbConfig;
+import com.chen.entity.PreparedSql;
 import net.sf.jsqlparser.JSQLParserException;
 import net.sf.jsqlparser.parser.CCJSqlParserUtil;
 
 import java.sql.Connection;
-import java.sql.Statement;
+import java.sql.PreparedStatement;
+import java.sql.SQLTimeoutException;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * SQL 语句检查工具类。
  * <p>
  * 提供对 SQL 执行安全性与语法合法性的静态校验功能，适用于开发工具、在线 SQL 编辑器等场景。
  * 包括：
- * - 通过回滚事务方式检测 SQL 是否能成功执行；
+ * - 通过预编译 / 解释试运行检测 SQL 是否能被数据库接受（默认）；
+ * - 通过回滚事务方式检测 SQL 是否能成功执行（需显式开启，会加锁并写 undo）；
  * - 语法层面的静态检查；
- * - 检测是否存在无 WHERE 条件的危险 DELETE/UPDATE 操作。
+ * - 基于语法树检测无 WHERE 条件的 DELETE/UPDATE、笛卡尔积 JOIN 等危险操作。
  * </p>
  */
 public class SqlCheckUtil {
 
+    /**
+     * 检查 SQL 能否被数据库接受：默认试运行（只预编译或解释，不执行，见 {@link SqlDryRunChecker}），
+     * 显式开启时才真正执行并回滚
+     *
+     * @param config         数据库连接配置
+     * @param sql            预编译 SQL 及绑定参数
+     * @param timeoutSeconds 超时（秒），0 表示不限制
+     * @param execute        是否执行并回滚
+     * @return 若无异常返回 null，若出错或超时返回错误前缀加具体错误信息
+     */
+    public static String checkSQL(DbConfig config, PreparedSql sql, int timeoutSeconds, boolean execute) {
+        return execute
+                ? checkSQLWithRollback(config, sql, timeoutSeconds)
+                : SqlDryRunChecker.check(config, sql, timeoutSeconds);
+    }
+
     /**
      * 尝试执行 SQL，并立即回滚，用于检测 SQL 是否能被数据库正常解析和执行。
      * <p>
@@ -32,13 +53,46 @@ public class SqlCheckUtil {
      * @return 若无异常返回 null，若出错返回错误前缀加具体错误信息
      */
     public static String checkSQLWithRollback(DbConfig config, String sql) {
-        try (Connection conn = DataSourceManager.getDataSource(config).getConnection();
-             Statement stmt = conn.createStatement()) {
+        return checkSQLWithRollback(config, new PreparedSql(sql, Collections.emptyList()));
+    }
 
+    /**
+     * 以 PreparedStatement 执行预编译 SQL 并立即回滚。
+     * <p>
+     * 参数通过绑定列表设置而不是拼接进 SQL，同一语句不同参数的 SQL 文本相同，
+     * 数据库可复用已解析的语句与执行计划，不会对每组参数重新硬解析。
+     * </p>
+     *
+     * @param config 数据库连接配置
+     * @param sql    预编译 SQL 及绑定参数
+     * @return 若无异常返回 null，若出错返回错误前缀加具体错误信息
+     */
+    public static String checkSQLWithRollback(DbConfig config, PreparedSql sql) {
+        return checkSQLWithRollback(config, sql, 0);
+    }
+
+    /**
+     * 以 PreparedStatement 执行预编译 SQL 并立即回滚，超过指定秒数由驱动取消执行
+     *
+     * @param config         数据库连接配置
+     * @param sql            预编译 SQL 及绑定参数
+     * @param timeoutSeconds 执行超时（秒），0 表示不限制
+     * @return 若无异常返回 null，若出错或超时返回错误前缀加具体错误信息
+     */
+    public static String checkSQLWithRollback(DbConfig config, PreparedSql sql, int timeoutSeconds) {
+        try (Connection conn = DataSourceManager.getDataSource(config).getConnection()) {
             conn.setAutoCommit(false); // 开启事务
-            stmt.execute(sql);         // 尝试执行 SQL
-            conn.rollback();           // 执行后立即回滚
+            try (PreparedStatement ps = conn.prepareStatement(sql.getSql())) {
+                if (timeoutSeconds > 0) ps.setQueryTimeout(timeoutSeconds);
+                SqlParamUtils.bindParameters(ps, sql.getParameters());
+                ps.execute();          // 尝试执行 SQL
+            } finally {
+                conn.rollback();       // 执行后立即回滚
+                conn.setAutoCommit(true); // 归还连接池前恢复自动提交
+            }
             return null;
+        } catch (SQLTimeoutException e) {
+            return SqlConstants.ERROR_SQL_EXECUTE_PREFIX + String.format(SqlConstants.ERROR_SQL_TIMEOUT, timeoutSeconds);
         } catch (Exception e) {
             return SqlConstants.ERROR_SQL_EXECUTE_PREFIX + e.getMessage();
         }
@@ -66,20 +120,18 @@ public class SqlCheckUtil {
     /**
      * 检查是否存在危险 SQL，例如没有 WHERE 子句的 DELETE 或 UPDATE。
      * <p>
+     * 基于语法树分析（见 {@link SqlAstAnalyzer}），脚本中的每条语句都会检查。
      * 示例：
      * DELETE FROM user → ⚠️ 警告
-     * UPDATE user SET name = 'x' → ⚠️ 警告
+     * UPDATE user SET name = 'x' WHERE 1 = 1 → ⚠️ 警告
+     * SELECT * FROM a, b → ⚠️ 警告（笛卡尔积）
      * </p>
      *
-     * @param sql SQL 语句
-     * @return 若是危险语句返回提示信息，否则返回 null
+     * @param sql SQL 语句或脚本
+     * @return 若是危险语句返回提示信息（多条时换行分隔），否则返回 null
      */
     public static String checkDangerous(String sql) {
-        String lower = sql.trim().toLowerCase();
-        if ((lower.startsWith(SqlConstants.SQL_DELETE) || lower.startsWith(SqlConstants.SQL_UPDATE))
-                && !lower.contains(SqlConstants.SQL_WHERE)) {
-            return SqlConstants.WARN_UNSAFE_DELETE_UPDATE;
-        }
-        return null;
+        List<String> warnings = SqlAstAnalyzer.analyze(sql);
+        return warnings.isEmpty() ? null : String.join("\n", warnings);
     }
 }
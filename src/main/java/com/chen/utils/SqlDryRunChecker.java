@@ -0,0 +1,164 @@
+package com.chen.utils;
+
+import com.chen.entity.DbConfig;
+import com.chen.entity.PreparedSql;
+import com.chen.utils.SqlLexer.Token;
+import com.chen.utils.SqlLexer.TokenType;
+import net.sf.jsqlparser.statement.Statement;
+import net.sf.jsqlparser.statement.delete.Delete;
+import net.sf.jsqlparser.statement.insert.Insert;
+import net.sf.jsqlparser.statement.select.Select;
+import net.sf.jsqlparser.statement.update.Update;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.regex.Pattern;
+
+import static com.chen.constant.DataSourceConstants.*;
+import static com.chen.constant.SqlConstants.*;
+
+/**
+ * SQL 试运行检查工具类。
+ * <p>
+ * 只让数据库解析、编译语句而不执行，不加行锁、不写 undo，大表上的无条件 UPDATE 也能立即返回：
+ * - MySQL：服务端 PREPARE ... FROM @变量，随后 DEALLOCATE；
+ * - PostgreSQL：PREPARE ... AS（? 改写为 $n），随后 DEALLOCATE；
+ * - SQL Server：SET NOEXEC ON 后提交语句，只编译不执行；
+ * - Oracle：EXPLAIN PLAN FOR（? 改写为 :n），写入的 PLAN_TABLE 行随事务回滚。
+ * 不支持的数据库或数据库无法预编译的语句（如 DDL）退化为 JSqlParser 语法检查。
+ * 需要真实执行时使用 {@link SqlCheckUtil#checkSQLWithRollback}。
+ * </p>
+ *
+ * @author czh
+ * @version 1.0
+ * @since 2025/7/9
+ */
+public class SqlDryRunChecker {
+
+    /**
+     * 单个数据库的试运行方式，语句有误时抛出 SQLException
+     */
+    @FunctionalInterface
+    private interface DryRun {
+        void run(Connection conn, String sql, int timeoutSeconds) throws SQLException;
+    }
+
+    private static final Map<String, DryRun> DB_TYPE_TO_DRY_RUN = Map.of(
+            DB_TYPE_MYSQL, SqlDryRunChecker::prepareMySql,
+            DB_TYPE_POSTGRESQL, SqlDryRunChecker::preparePostgreSql,
+            DB_TYPE_SQLSERVER, SqlDryRunChecker::noExecSqlServer,
+            DB_TYPE_ORACLE, SqlDryRunChecker::explainOracle
+    );
+
+    private static final Pattern TRAILING_SEMICOLON = Pattern.compile("[\\s;]+$");
+
+    private SqlDryRunChecker() {
+    }
+
+    /**
+     * 试运行检查 SQL，不执行语句
+     *
+     * @param config         数据库连接配置
+     * @param sql            预编译 SQL（参数为 ? 占位符，绑定值不参与检查）
+     * @param timeoutSeconds 超时（秒），0 表示不限制
+     * @return 若无异常返回 null，若出错或超时返回错误前缀加具体错误信息
+     */
+    public static String check(DbConfig config, PreparedSql sql, int timeoutSeconds) {
+        // PREPARE / EXPLAIN 只接受单条语句，去掉结尾分号
+        String text = TRAILING_SEMICOLON.matcher(sql.getSql()).replaceAll("");
+        DryRun dryRun = DB_TYPE_TO_DRY_RUN.get(DbConfigUtil.parseDbType(config.getUrl()));
+        if (dryRun == null || !isPreparable(text)) {
+            return checkSyntax(text);
+        }
+        try (Connection conn = DataSourceManager.getDataSource(config).getConnection()) {
+            dryRun.run(conn, text, timeoutSeconds);
+            return null;
+        } catch (SQLTimeoutException e) {
+            return ERROR_SQL_EXECUTE_PREFIX + String.format(ERROR_SQL_TIMEOUT, timeoutSeconds);
+        } catch (Exception e) {
+            return ERROR_SQL_EXECUTE_PREFIX + e.getMessage();
+        }
+    }
+
+    /**
+     * 只有单条 SELECT/INSERT/UPDATE/DELETE 能被各数据库预编译或解释；无法解析的语句交给数据库判断
+     */
+    private static boolean isPreparable(String sql) {
+        List<Statement> statements = SqlAstAnalyzer.parse(sql);
+        if (statements == null) return true;
+        if (statements.size() != 1) return false;
+        Statement statement = statements.get(0);
+        return statement instanceof Select || statement instanceof Insert
+                || statement instanceof Update || statement instanceof Delete;
+    }
+
+    private static String checkSyntax(String sql) {
+        return SqlAstAnalyzer.parse(sql) == null ? ERROR_SQL_SYNTAX_PREFIX + ERROR_OFFLINE_UNPARSEABLE : null;
+    }
+
+    private static void prepareMySql(Connection conn, String sql, int timeoutSeconds) throws SQLException {
+        try (PreparedStatement set = conn.prepareStatement("SET @" + DRY_RUN_STATEMENT_NAME + " = ?")) {
+            set.setString(1, sql);
+            set.execute();
+        }
+        try (java.sql.Statement stmt = conn.createStatement()) {
+            stmt.setQueryTimeout(timeoutSeconds);
+            stmt.execute("PREPARE " + DRY_RUN_STATEMENT_NAME + " FROM @" + DRY_RUN_STATEMENT_NAME);
+            stmt.execute("DEALLOCATE PREPARE " + DRY_RUN_STATEMENT_NAME);
+        }
+    }
+
+    private static void preparePostgreSql(Connection conn, String sql, int timeoutSeconds) throws SQLException {
+        try (java.sql.Statement stmt = conn.createStatement()) {
+            stmt.setQueryTimeout(timeoutSeconds);
+            stmt.execute("PREPARE " + DRY_RUN_STATEMENT_NAME + " AS "
+                    + replacePlaceholders(sql, DB_TYPE_POSTGRESQL, i -> "$" + i));
+            stmt.execute("DEALLOCATE " + DRY_RUN_STATEMENT_NAME);
+        }
+    }
+
+    private static void noExecSqlServer(Connection conn, String sql, int timeoutSeconds) throws SQLException {
+        try (java.sql.Statement stmt = conn.createStatement()) {
+            stmt.setQueryTimeout(timeoutSeconds);
+            stmt.execute("SET NOEXEC ON");
+            try {
+                // NOEXEC 下 sp_executesql 本身不会执行，参数以 NULL 代入后作为普通批处理编译
+                stmt.execute(replacePlaceholders(sql, DB_TYPE_SQLSERVER, i -> "NULL"));
+            } finally {
+                stmt.execute("SET NOEXEC OFF");
+            }
+        }
+    }
+
+    private static void explainOracle(Connection conn, String sql, int timeoutSeconds) throws SQLException {
+        conn.setAutoCommit(false);
+        try (java.sql.Statement stmt = conn.createStatement()) {
+            stmt.setQueryTimeout(timeoutSeconds);
+            stmt.execute("EXPLAIN PLAN SET STATEMENT_ID = '" + DRY_RUN_STATEMENT_NAME + "' FOR "
+                    + replacePlaceholders(sql, DB_TYPE_ORACLE, i -> ":" + i));
+        } finally {
+            conn.rollback();          // 丢弃写入 PLAN_TABLE 的计划
+            conn.setAutoCommit(true); // 归还连接池前恢复自动提交
+        }
+    }
+
+    /**
+     * 将字符串与注释之外的 ? 占位符按序号替换
+     */
+    static String replacePlaceholders(String sql, String dialect, IntFunction<String> replacement) {
+        StringBuilder out = new StringBuilder(sql.length() + 16);
+        int last = 0;
+        int index = 0;
+        for (Token token : SqlLexer.tokenize(sql, dialect)) {
+            if (token.getType() != TokenType.PLACEHOLDER || !"?".equals(SqlLexer.text(sql, token))) continue;
+            out.append(sql, last, token.getStart()).append(replacement.apply(++index));
+            last = token.getEnd();
+        }
+        return out.append(sql, last, sql.length()).toString();
+    }
+}
@@ -1,26 +1,40 @@
 package com.chen.utils;
 
-import com.github.vertical_blank.sqlformatter.SqlFormatter;
+import com.chen.entity.DbConfig;
+import com.chen.entity.SqlStatementRange;
+import com.chen.entity.TextReplacement;
+import com.chen.utils.SqlLexer.Token;
+import com.chen.utils.SqlLexer.TokenType;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.Arrays;
-import java.util.LinkedHashMap;
-import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * SQL 格式化工具类。
  * <p>
- * 基于第三方库 {@code vertical-blank/sql-formatter}，可根据指定方言对 SQL 字符串进行美化格式化，
- * 使 SQL 更易阅读，适用于开发工具、日志展示、SQL 编辑器等场景。
- * 如果传入方言无效或格式化失败，将原样返回 SQL 字符串。
+ * 基于 {@link SqlLexer} 的单趟词法分析，SQL 关键字与 MyBatis 动态标签在同一次遍历中完成排版：
+ * 顶层关键字换行缩进、逗号/AND/OR 换行、短括号内联、标签按嵌套层级缩进，结果写入同一个输出缓冲区。
+ * 适用于开发工具、日志展示、SQL 编辑器等场景。
+ * 如果格式化失败，将原样返回 SQL 字符串。
  * @author czh
- * @version 1.0
+ * @version 2.0
  * @since 2025/6/12
  */
 public class SqlFormatUtil {
 
+    /** 单级缩进 */
+    private static final String INDENT = "  ";
+
+    /** 括号内容不超过该长度时保持单行 */
+    private static final int INLINE_MAX_LENGTH = 50;
+
+    /** Mapper 语句内容相对标签的缩进 */
+    private static final String BODY_INDENT = "    ";
+
+    /** 未配置数据源时使用的默认方言 */
+    private static final String DEFAULT_DIALECT = "mysql";
+
     /**
      * 根据指定 SQL 方言对 SQL 字符串进行格式化美化处理。
      *
@@ -30,56 +44,394 @@ public class SqlFormatUtil {
      */
     public static String formatSql(String sql, String dialect) {
         try {
-            // 1. 提取所有MyBatis标签（成对和自闭合）作为占位符，保存原始内容
-            Map<String, String> placeholderMap = new LinkedHashMap<>();
-            String regex = "<(\\w+)(\\s[^>]*)?>[\\s\\S]*?</\\1>|<\\w+[^>]*/?>";
-            Pattern pattern = Pattern.compile(regex, Pattern.DOTALL);
-            Matcher matcher = pattern.matcher(sql);
-
-            int idx = 0;
-            StringBuffer buffer = new StringBuffer();
-            while (matcher.find()) {
-                String tag = matcher.group();
-                String key = "###PLACEHOLDER_" + idx++ + "###";
-                placeholderMap.put(key, tag);
-                matcher.appendReplacement(buffer, key);
+            List<Token> tokens = SqlLexer.tokenize(sql, dialect);
+            return new Formatter(sql, tokens).format();
+        } catch (Exception e) {
+            e.printStackTrace();
+            return sql;
+        }
+    }
+
+    /**
+     * 优先从缓存读取格式化结果，未命中时格式化并写入缓存
+     *
+     * @param sql     原始 SQL 字符串（非空）
+     * @param dialect SQL 方言名称
+     * @param cache   格式化结果缓存，为 null 时不使用缓存
+     * @return 格式化后的 SQL 字符串
+     */
+    public static String formatSql(String sql, String dialect, @Nullable SqlTextCache cache) {
+        if (cache == null) return formatSql(sql, dialect);
+        return cache.computeIfAbsent(SqlTextCache.key(dialect, sql), () -> formatSql(sql, dialect));
+    }
+
+    /**
+     * 为格式化结果的每一行添加统一缩进（空行不加缩进）
+     *
+     * @param formatted 格式化后的 SQL
+     * @param indent    缩进字符串
+     * @return 添加缩进后的 SQL
+     */
+    public static String indent(String formatted, String indent) {
+        StringBuilder sb = new StringBuilder(formatted.length() + indent.length() * 16);
+        int lineStart = 0;
+        int length = formatted.length();
+        while (lineStart <= length) {
+            int lineEnd = formatted.indexOf('\n', lineStart);
+            if (lineEnd < 0) lineEnd = length;
+            if (lineEnd > lineStart) sb.append(indent).append(formatted, lineStart, lineEnd);
+            if (lineEnd < length) sb.append('\n');
+            lineStart = lineEnd + 1;
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 格式化整个文档中的所有语句（Mapper 语句标签内容体或分号分隔的 SQL），不做缓存
+     *
+     * @param text    文档内容
+     * @param dialect SQL 方言
+     * @return 替换列表，按偏移升序；已是格式化结果的语句不会出现在列表中
+     */
+    public static List<TextReplacement> formatStatements(String text, String dialect) {
+        return formatStatements(text, dialect, null);
+    }
+
+    /**
+     * 格式化整个文档中的所有语句，单条语句的格式化结果经由缓存读写
+     *
+     * @param text    文档内容
+     * @param dialect SQL 方言
+     * @param cache   格式化结果缓存，为 null 时不使用缓存
+     * @return 替换列表，按偏移升序；已是格式化结果的语句不会出现在列表中
+     */
+    public static List<TextReplacement> formatStatements(String text, String dialect, @Nullable SqlTextCache cache) {
+        List<TextReplacement> replacements = new ArrayList<>();
+        for (SqlStatementRange range : SqlStatementSplitter.split(text, dialect)) {
+            String formatted = formatSql(text.substring(range.getStart(), range.getEnd()).trim(), dialect, cache);
+            String rendered = renderStatement(text, range, formatted);
+            if (!isSameText(text, range, rendered)) {
+                replacements.add(new TextReplacement(range.getStart(), range.getEnd(), rendered));
             }
-            matcher.appendTail(buffer);
+        }
+        return replacements;
+    }
+
+    /**
+     * 生成语句区间的最终文本：Mapper 语句按标签所在行缩进并前后换行，普通 SQL 原样输出
+     *
+     * @param text      文档内容
+     * @param range     语句区间
+     * @param formatted 该语句的格式化结果
+     * @return 用于替换语句区间的文本
+     */
+    public static String renderStatement(String text, SqlStatementRange range, String formatted) {
+        if (!range.isMapperStatement()) return formatted;
+        String baseIndent = lineIndent(text, range.getStart());
+        return "\n" + indent(formatted, baseIndent + BODY_INDENT) + "\n" + baseIndent;
+    }
+
+    /**
+     * 判断语句区间的当前内容是否与给定文本一致
+     *
+     * @param text     文档内容
+     * @param range    语句区间
+     * @param rendered 待比较文本
+     * @return 一致返回 true
+     */
+    public static boolean isSameText(String text, SqlStatementRange range, String rendered) {
+        return range.getEnd() - range.getStart() == rendered.length()
+                && text.regionMatches(range.getStart(), rendered, 0, rendered.length());
+    }
+
+    /**
+     * 获取 offset 所在行的行首空白
+     */
+    private static String lineIndent(String text, int offset) {
+        int lineStart = text.lastIndexOf('\n', offset - 1) + 1;
+        int i = lineStart;
+        while (i < offset && (text.charAt(i) == ' ' || text.charAt(i) == '\t')) i++;
+        return text.substring(lineStart, i);
+    }
+
+    /**
+     * 根据数据源配置解析格式化方言，未配置时默认 MySQL
+     *
+     * @param dbConfig 数据库连接配置，可为 null
+     * @return 方言名称，如 "mysql"、"oracle"
+     */
+    public static String resolveDialect(DbConfig dbConfig) {
+        if (dbConfig == null || dbConfig.getUrl() == null || !dbConfig.getUrl().startsWith("jdbc:")) {
+            return DEFAULT_DIALECT;
+        }
+        return DbConfigUtil.parseDbType(dbConfig.getUrl());
+    }
+
+    /**
+     * 单次格式化过程的状态：输出缓冲区、缩进栈、内联括号层级
+     */
+    private static final class Formatter {
+
+        /** 缩进类型：顶层关键字 */
+        private static final byte TOP_LEVEL = 1;
+        /** 缩进类型：括号块 */
+        private static final byte BLOCK_LEVEL = 2;
+        /** 缩进类型：MyBatis 标签 */
+        private static final byte TAG_LEVEL = 3;
+
+        private final String sql;
+        private final List<Token> tokens;
+        private final StringBuilder out;
+        private byte[] indents = new byte[16];
+        private int depth;
+        private int inlineLevel;
+        private Token lastReserved;
+
+        Formatter(String sql, List<Token> tokens) {
+            this.sql = sql;
+            this.tokens = tokens;
+            this.out = new StringBuilder(sql.length() + (sql.length() >> 1));
+        }
 
-            // 2. 格式化没有标签的SQL部分
-            String formatted = SqlFormatter.of(dialect).format(buffer.toString());
+        String format() {
+            for (int i = 0; i < tokens.size(); i++) {
+                Token token = tokens.get(i);
+                switch (token.getType()) {
+                    case LINE_COMMENT:
+                        append(token).newline();
+                        break;
+                    case BLOCK_COMMENT:
+                    case XML_COMMENT:
+                        newline().append(token).newline();
+                        break;
+                    case RESERVED_TOP_LEVEL:
+                        popWhile(TOP_LEVEL);
+                        newline();
+                        push(TOP_LEVEL);
+                        append(token).newline();
+                        lastReserved = token;
+                        break;
+                    case RESERVED_TOP_LEVEL_NO_INDENT:
+                        popWhile(TOP_LEVEL);
+                        newline().append(token).newline();
+                        lastReserved = token;
+                        break;
+                    case RESERVED_NEWLINE:
+                        if (!isAndAfterBetween(token)) newline();
+                        append(token).space();
+                        lastReserved = token;
+                        break;
+                    case RESERVED:
+                        append(token).space();
+                        lastReserved = token;
+                        break;
+                    case OPEN_PAREN:
+                        formatOpenParen(i, token);
+                        break;
+                    case CLOSE_PAREN:
+                        formatCloseParen(token);
+                        break;
+                    case COMMA:
+                        trimSpaces();
+                        out.append(',').append(' ');
+                        if (inlineLevel == 0 && !isAfter(lastReserved, "LIMIT")) newline();
+                        break;
+                    case SEMICOLON:
+                        trimSpaces();
+                        out.append(';').append('\n').append('\n');
+                        inlineLevel = 0;
+                        popUntilTag();
+                        appendIndent();
+                        break;
+                    case CONNECTOR:
+                        trimSpaces();
+                        append(token);
+                        break;
+                    case TAG_OPEN:
+                        newline().append(token);
+                        push(TAG_LEVEL);
+                        newline();
+                        break;
+                    case TAG_CLOSE:
+                        popUntilTag();
+                        if (depth > 0) depth--;
+                        newline().append(token).newline();
+                        break;
+                    case TAG_SELF_CLOSING:
+                        newline().append(token).newline();
+                        break;
+                    default:
+                        append(token).space();
+                        break;
+                }
+            }
+            trimTrailingWhitespace();
+            return out.toString();
+        }
 
-            // 3. 逐个替换回原始标签
-            for (Map.Entry<String, String> entry : placeholderMap.entrySet()) {
-                String key = entry.getKey();
-                String originalTag = entry.getValue();
-                formatted = formatted.replaceFirst(Pattern.quote(key), Matcher.quoteReplacement(originalTag));
+        /**
+         * 左括号（含 CASE）：短且不含换行关键字的括号保持单行，否则开启缩进块
+         */
+        private void formatOpenParen(int index, Token token) {
+            if (index > 0 && !token.isPrecededBySpace()) {
+                TokenType prev = tokens.get(index - 1).getType();
+                if (prev != TokenType.OPEN_PAREN && prev != TokenType.LINE_COMMENT
+                        && prev != TokenType.COMMA && prev != TokenType.OPERATOR) {
+                    trimSpaces();
+                }
+            }
+            append(token);
+            // CASE 后保留空格，左括号后不留空格
+            if (Character.isLetter(sql.charAt(token.getStart()))) space();
+            if (inlineLevel > 0 || isInlineBlock(index)) {
+                inlineLevel++;
+                return;
             }
+            push(BLOCK_LEVEL);
+            newline();
+        }
 
-            // 4. 标签缩进后处理
-            String[] lines = formatted.split("\n");
-            StringBuilder result = new StringBuilder();
-            for (String line : lines) {
-                String trim = line.trim();
-                if (trim.startsWith("<") && trim.endsWith(">")) {
-                    result.append("    ").append(trim).append("\n");
-                } else if(trim.equals("")) {
-                    result.append("\n");
+        /**
+         * 右括号（含 END）
+         */
+        private void formatCloseParen(Token token) {
+            if (inlineLevel > 0) {
+                inlineLevel--;
+                if (Character.isLetter(sql.charAt(token.getStart()))) {
+                    space();
                 } else {
-                    result.append(line).append("\n");
+                    trimSpaces();
                 }
+                append(token).space();
+                return;
             }
-            return result.toString();
+            popUntil(BLOCK_LEVEL);
+            newline().append(token).space();
+        }
 
-        } catch (Exception e) {
-            e.printStackTrace();
-            return sql;
+        /**
+         * 从 index 处的左括号向后查找匹配的右括号，判断能否单行输出
+         */
+        private boolean isInlineBlock(int index) {
+            int length = 0;
+            int level = 0;
+            for (int i = index; i < tokens.size(); i++) {
+                Token t = tokens.get(i);
+                length += t.length() + 1;
+                if (length > INLINE_MAX_LENGTH) return false;
+                switch (t.getType()) {
+                    case OPEN_PAREN:
+                        level++;
+                        break;
+                    case CLOSE_PAREN:
+                        if (--level == 0) return true;
+                        break;
+                    case RESERVED_TOP_LEVEL:
+                    case RESERVED_TOP_LEVEL_NO_INDENT:
+                    case RESERVED_NEWLINE:
+                    case LINE_COMMENT:
+                    case BLOCK_COMMENT:
+                    case XML_COMMENT:
+                    case SEMICOLON:
+                    case TAG_OPEN:
+                    case TAG_CLOSE:
+                    case TAG_SELF_CLOSING:
+                        return false;
+                    default:
+                        break;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * BETWEEN x AND y 中的 AND 不换行
+         */
+        private boolean isAndAfterBetween(Token token) {
+            return token.length() == 3 && sql.regionMatches(true, token.getStart(), "AND", 0, 3)
+                    && isAfter(lastReserved, "BETWEEN");
+        }
+
+        private boolean isAfter(Token reserved, String keyword) {
+            return reserved != null && reserved.length() == keyword.length()
+                    && sql.regionMatches(true, reserved.getStart(), keyword, 0, keyword.length());
+        }
+
+        private Formatter append(Token token) {
+            out.append(sql, token.getStart(), token.getEnd());
+            return this;
         }
-    }
 
+        private void space() {
+            int len = out.length();
+            if (len > 0 && out.charAt(len - 1) != ' ' && out.charAt(len - 1) != '\n') out.append(' ');
+        }
 
+        /**
+         * 去掉行尾空格后换行并写入当前缩进；已位于空行时只重写缩进，不产生多余空行
+         */
+        private Formatter newline() {
+            trimLineEnd();
+            int len = out.length();
+            if (len > 0 && out.charAt(len - 1) != '\n') out.append('\n');
+            if (out.length() > 0) appendIndent();
+            return this;
+        }
 
+        private void appendIndent() {
+            for (int i = 0; i < depth; i++) out.append(INDENT);
+        }
 
+        /**
+         * 去掉当前行尾的空格；若该行只有缩进则保留，避免冲掉行首缩进
+         */
+        private void trimSpaces() {
+            int len = out.length();
+            while (len > 0 && out.charAt(len - 1) == ' ') len--;
+            if (len > 0 && out.charAt(len - 1) != '\n') out.setLength(len);
+        }
 
+        private void trimLineEnd() {
+            int len = out.length();
+            while (len > 0 && out.charAt(len - 1) == ' ') len--;
+            out.setLength(len);
+        }
 
+        private void trimTrailingWhitespace() {
+            int len = out.length();
+            while (len > 0 && Character.isWhitespace(out.charAt(len - 1))) len--;
+            out.setLength(len);
+        }
+
+        private void push(byte type) {
+            if (depth == indents.length) {
+                byte[] grown = new byte[depth << 1];
+                System.arraycopy(indents, 0, grown, 0, depth);
+                indents = grown;
+            }
+            indents[depth++] = type;
+        }
+
+        /**
+         * 弹出栈顶连续的指定类型缩进
+         */
+        private void popWhile(byte type) {
+            while (depth > 0 && indents[depth - 1] == type) depth--;
+        }
+
+        /**
+         * 弹出顶层缩进后再弹出一个指定类型的缩进（遇到标签边界停止）
+         */
+        private void popUntil(byte type) {
+            popWhile(TOP_LEVEL);
+            if (depth > 0 && indents[depth - 1] == type) depth--;
+        }
+
+        /**
+         * 弹出直到栈顶为标签缩进，保证标签内部的缩进不会泄漏到标签外
+         */
+        private void popUntilTag() {
+            while (depth > 0 && indents[depth - 1] != TAG_LEVEL) depth--;
+        }
+    }
 }
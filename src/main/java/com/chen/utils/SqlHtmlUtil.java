@@ -0,0 +1,371 @@
+package com.chen.utils;
+
+import com.chen.entity.ColumnMeta;
+import com.chen.entity.PlanNode;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import static com.chen.constant.SqlConstants.EXPLAIN_MISESTIMATE_TOP;
+import static com.chen.constant.SqlConstants.EXPLAIN_ROW_MISESTIMATE_FACTOR;
+
+/**
+ * SQL 相关 HTML 构建工具类。
+ * <p>
+ * 执行计划表格、表结构悬浮文档、ER 图页面的 HTML 拼接，只依赖传入的数据，
+ * 不访问数据库与 IDE 组件，便于复用与基准测试。
+ * </p>
+ *
+ * @author czh
+ * @version 1.0
+ * @since 2025/7/1
+ */
+public class SqlHtmlUtil {
+
+    /**
+     * ER图HTML模板，内嵌D3与Dagre-D3绘图脚本和样式
+     */
+    private static final String HTML_TEMPLATE = """
+        <!DOCTYPE html>
+        <html>
+        <head>
+            <meta charset="UTF-8" />
+            <title>ER 图</title>
+            <script>
+            %s
+            </script>
+            <script>
+            %s
+            </script>
+            <style>
+                html, body { margin:0; padding:0; width:100vw; height:100vh; background:#1e1e1e; overflow:hidden; }
+                svg { width: 100%%; height: 100%%; cursor: grab; user-select: none; }
+                .node rect { fill:#4e88af; stroke:#333; stroke-width:1.5px; rx:8; ry:8; cursor:move; }
+                .node text { fill:white; font-family:monospace; font-size:12px; white-space:pre; pointer-events: none; }
+                .edgePath path { stroke:#ccc; stroke-width:1.5px; fill:none; }
+                .edgeLabel text { fill:#ccc; font-size:11px; }
+            </style>
+        </head>
+        <body>
+        <svg id="svg-canvas">
+            <g id="graph-container"></g>
+        </svg>
+        <script>
+            const g = new dagreD3.graphlib.Graph().setGraph({
+                rankdir: "LR", nodesep: 40, ranksep: 100, marginx: 20, marginy: 20
+            });
+            %s
+            %s
+            const svg = d3.select("#svg-canvas");
+            const inner = svg.select("#graph-container");
+            const render = new dagreD3.render();
+            render(inner, g);
+
+            inner.selectAll("g.node")
+                .attr("transform", d => {
+                    const node = g.node(d);
+                    node.x = node.x || 0;
+                    node.y = node.y || 0;
+                    return `translate(${node.x},${node.y})`;
+                });
+
+            const zoom = d3.zoom()
+                .scaleExtent([0.1, 2])
+                .on("zoom", event => {
+                    inner.attr("transform", event.transform);
+                });
+            svg.call(zoom);
+            svg.call(zoom.transform, d3.zoomIdentity.translate(20, 20).scale(1));
+
+            const drag = d3.drag()
+                .on("drag", (event, nodeId) => {
+                    const node = g.node(nodeId);
+                    node.x += event.dx;
+                    node.y += event.dy;
+                    inner.select(`g.node[id='${nodeId}']`).attr("transform", `translate(${node.x},${node.y})`);
+                    inner.selectAll("g.edgePath").each(function(d) {
+                        const edge = g.edge(d);
+                        const sourceNode = g.node(d.v);
+                        const targetNode = g.node(d.w);
+                        if (!sourceNode || !targetNode) return;
+                        const path = `M${sourceNode.x},${sourceNode.y}L${targetNode.x},${targetNode.y}`;
+                        d3.select(this).select("path").attr("d", path);
+                    });
+                });
+
+            inner.selectAll("g.node")
+                .attr("id", d => d)
+                .call(drag);
+        </script>
+        </body>
+        </html>
+        """;
+
+    /**
+     * 生成执行计划 HTML：按计划树逐行展示，缩进表示子节点（当前节点的输入），全表扫描节点高亮；
+     * EXPLAIN ANALYZE 的计划额外展示实际行数与耗时，高亮行数估算偏差大与耗时被低估的节点
+     *
+     * @param sql         分析的 SQL
+     * @param root        执行计划根节点，不能为空
+     * @param regressions 与该语句上一次计划相比的回归问题，可为空
+     * @return HTML 字符串
+     */
+    public static String buildExplainHtmlWithChinese(String sql, PlanNode root, List<String> regressions) {
+        StringBuilder html = new StringBuilder();
+        html.append("<style>")
+                .append(".db-table { width:100%; border-collapse:collapse; font-family:'Segoe UI',Arial,sans-serif; background:#23272f; border: 1px solid #444b58; }")
+                .append(".db-table th, .db-table td { border:1px solid #444b58; padding:10px 8px; color:#d8dee9; text-align:center; vertical-align:middle; }")
+                .append(".db-table th { background:linear-gradient(90deg,#34495e 0%,#23272f 100%); font-weight:600; font-size:15px; }")
+                .append(".db-table td { background:#23272f; font-size:14px; }")
+                .append(".db-table td.op { text-align:left; white-space:nowrap; }")
+                .append(".db-table td.detail { text-align:left; color:#8fa1b3; font-size:13px; }")
+                .append(".db-table tr:hover td { background:#2d333b; }")
+                .append(".db-table .warn { color: #ffa726; font-weight: bold; }")
+                .append("</style>");
+
+        html.append("<b style='font-size:1.1em;color:#e1eaff;'>SQL 执行计划分析：</b><br>");
+        html.append("<div style='color:#999999;padding:4px 0 8px;'>").append(escape(sql)).append("</div>");
+
+        appendRegressions(html, regressions);
+        boolean analyzed = ExplainPlanUtil.isAnalyzed(root);
+        if (analyzed) appendMisestimateSummary(html, root);
+
+        html.append("<table class='db-table'><thead><tr>")
+                .append("<th>操作</th><th>对象</th><th>预估行数</th><th>预估代价</th>");
+        if (analyzed) {
+            html.append("<th>实际行数</th><th>循环次数</th><th>实际耗时（ms）</th><th>行数偏差</th>");
+        }
+        html.append("<th>附加信息</th></tr></thead><tbody>");
+        appendPlanRows(html, root, root, 0, analyzed);
+        html.append("</tbody></table>");
+
+        html.append("<div style='padding-top:10px;padding-left:10px;font-size:13px;color:#8fa1b3;'>")
+                .append("<b>字段解释：</b><br>")
+                .append("➤ <b>操作</b>：数据库对该步骤采用的访问或处理方式，缩进的子节点是父节点的输入，先于父节点执行。<br>")
+                .append("➤ <b>对象</b>：访问的表，使用索引时为 表名.索引名。<br>")
+                .append("➤ <b>预估行数</b>：优化器估计该步骤输出（MySQL 为每次扫描读取）的行数，值越小越优。<br>")
+                .append("➤ <b>预估代价</b>：优化器估计的累计代价，单位随数据库不同，只适合同一数据库内比较。<br>")
+                .append("➤ <b>附加信息</b>：过滤与连接条件、排序键，以及 Using filesort、Using temporary 等额外操作。<br>")
+                .append("➤ <span class='warn'>全表扫描</span>：MySQL 的 ALL、PostgreSQL 的 Seq Scan、Oracle 的 TABLE ACCESS FULL、")
+                .append("SQL Server 的 Table Scan / Clustered Index Scan，大表上应尽量避免。<br>");
+        if (analyzed) {
+            html.append("➤ <b>实际行数 / 实际耗时</b>：语句真实执行（事务已回滚）时每次循环输出的行数与累计耗时（含子节点）。<br>")
+                    .append("➤ <b>行数偏差</b>：实际行数与预估行数的倍数，")
+                    .append("<span class='warn'>高亮</span>的节点统计信息可能过期或条件相关性未被识别，是选错计划的常见原因。<br>")
+                    .append("➤ <span class='warn'>耗时高亮</span>：该节点自身耗时占比高而预估代价占比低，优化器低估了它的开销。<br>");
+        }
+        html.append("</div>");
+
+        return html.toString();
+    }
+
+    private static void appendPlanRows(StringBuilder html, PlanNode node, PlanNode root, int depth,
+                                       boolean analyzed) {
+        String operator = escape(node.getOperator());
+        if (ExplainPlanUtil.isFullScan(node)) {
+            operator = "<span class='warn'>" + operator + "（全表扫描）</span>";
+        }
+        html.append("<tr><td class='op'>")
+                .append("&nbsp;&nbsp;&nbsp;&nbsp;".repeat(depth)).append(depth > 0 ? "└─ " : "").append(operator)
+                .append("</td><td>").append(escape(node.getObject()))
+                .append("</td><td>").append(formatNumber(node.getEstimatedRows()))
+                .append("</td><td>").append(formatNumber(node.getCost()));
+        if (analyzed) {
+            String time = formatNumber(node.getActualTimeMs() == null || node.getLoops() == null
+                    ? null : node.getActualTimeMs() * node.getLoops());
+            if (ExplainPlanUtil.isTimeHotspot(node, root)) time = "<span class='warn'>" + time + "</span>";
+            double factor = ExplainPlanUtil.rowMisestimate(node);
+            String deviation = factor == 0 ? "" : "×" + formatNumber(factor);
+            if (factor >= EXPLAIN_ROW_MISESTIMATE_FACTOR) deviation = "<span class='warn'>" + deviation + "</span>";
+            html.append("</td><td>").append(formatNumber(node.getActualRows()))
+                    .append("</td><td>").append(node.getLoops() == null ? "" : node.getLoops())
+                    .append("</td><td>").append(time)
+                    .append("</td><td>").append(deviation);
+        }
+        html.append("</td><td class='detail'>").append(escape(node.getDetail()))
+                .append("</td></tr>");
+        for (PlanNode child : node.getChildren()) {
+            appendPlanRows(html, child, root, depth + 1, analyzed);
+        }
+    }
+
+    private static void appendRegressions(StringBuilder html, List<String> regressions) {
+        if (regressions == null || regressions.isEmpty()) return;
+        html.append("<div style='padding:0 0 8px;color:#ef5350;'><b>与上次执行计划相比出现回归：</b><br>");
+        for (String regression : regressions) {
+            html.append("➤ ").append(escape(regression)).append("<br>");
+        }
+        html.append("</div>");
+    }
+
+    /**
+     * 生成执行计划回归检查报告 HTML
+     *
+     * @param regressions SQL → 回归问题列表（获取计划失败时为错误信息），只包含有问题的语句
+     * @param checked     检查的语句总数
+     * @return HTML 字符串
+     */
+    public static String buildPlanRegressionHtml(Map<String, List<String>> regressions, int checked) {
+        StringBuilder html = new StringBuilder();
+        html.append("<b style='font-size:1.1em;color:#e1eaff;'>执行计划回归检查：</b><br>")
+                .append("<div style='color:#999999;padding:4px 0 8px;'>共检查 ").append(checked)
+                .append(" 条语句，").append(regressions.size()).append(" 条出现回归或获取计划失败</div>");
+        for (Map.Entry<String, List<String>> entry : regressions.entrySet()) {
+            html.append("<div style='color:#d8dee9;padding:8px 0 2px;font-family:monospace;'>")
+                    .append(escape(entry.getKey())).append("</div>")
+                    .append("<div style='color:#ef5350;padding:0 0 8px 10px;'>");
+            for (String regression : entry.getValue()) {
+                html.append("➤ ").append(escape(regression)).append("<br>");
+            }
+            html.append("</div>");
+        }
+        return html.toString();
+    }
+
+    /**
+     * 列出行数估算偏差最大的几个节点
+     */
+    private static void appendMisestimateSummary(StringBuilder html, PlanNode root) {
+        List<PlanNode> nodes = new ArrayList<>();
+        collectNodes(root, nodes);
+        nodes.removeIf(node -> ExplainPlanUtil.rowMisestimate(node) < EXPLAIN_ROW_MISESTIMATE_FACTOR);
+        if (nodes.isEmpty()) return;
+        nodes.sort(Comparator.comparingDouble(ExplainPlanUtil::rowMisestimate).reversed());
+
+        html.append("<div style='padding:0 0 8px;color:#ffa726;'><b>行数估算偏差最大的节点：</b><br>");
+        for (PlanNode node : nodes.subList(0, Math.min(EXPLAIN_MISESTIMATE_TOP, nodes.size()))) {
+            html.append("➤ ").append(escape(node.getOperator()))
+                    .append(node.getObject() == null ? "" : " " + escape(node.getObject()))
+                    .append("：预估 ").append(formatNumber(node.getEstimatedRows()))
+                    .append(" 行，实际 ").append(formatNumber(node.getActualRows()))
+                    .append(" 行（×").append(formatNumber(ExplainPlanUtil.rowMisestimate(node))).append("）<br>");
+        }
+        html.append("</div>");
+    }
+
+    private static void collectNodes(PlanNode node, List<PlanNode> nodes) {
+        nodes.add(node);
+        for (PlanNode child : node.getChildren()) collectNodes(child, nodes);
+    }
+
+    private static String formatNumber(Double value) {
+        if (value == null) return "";
+        return value == Math.rint(value) && Math.abs(value) < 1e15
+                ? String.valueOf(value.longValue()) : String.format("%.2f", value);
+    }
+
+    /**
+     * 转义 HTML 特殊字符；只依赖 JDK，基准测试可在没有平台库的类路径上运行
+     */
+    private static String escape(String text) {
+        if (text == null) return "";
+        StringBuilder out = new StringBuilder(text.length() + 16);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '&': out.append("&amp;"); break;
+                case '<': out.append("&lt;"); break;
+                case '>': out.append("&gt;"); break;
+                case '"': out.append("&quot;"); break;
+                case '\'': out.append("&#39;"); break;
+                default: out.append(c);
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * 构建表结构的 HTML 表格展示
+     *
+     * @param tableName   表名
+     * @param tableRemark 表备注，可为 null
+     * @param columns     字段元数据
+     * @return HTML 字符串
+     */
+    public static String buildHtmlTable(String tableName, String tableRemark, List<ColumnMeta> columns) {
+        StringBuilder html = new StringBuilder();
+        html.append("<style>")
+                .append(".db-table { width:100%; border-collapse:collapse; font-family:'Segoe UI',Arial,sans-serif; background:#23272f; border: 1px solid #444b58; }")
+                .append(".db-table th, .db-table td { border:1px solid #444b58; padding:10px 8px; color:#d8dee9; text-align:center; vertical-align:middle; }")
+                .append(".db-table th { background:linear-gradient(90deg,#34495e 0%,#23272f 100%); font-weight:600; font-size:15px; }")
+                .append(".db-table td { background:#23272f; font-size:14px; }")
+                .append(".db-table tr:hover td { background:#2d333b; }")
+                .append(".db-table .pk { color:#ffb300; font-weight:bold; }")
+                .append(".db-table .idx { color:#4CAF50; font-weight:bold; }")
+                .append("</style>");
+
+        html.append("<b style='font-size:1.1em;color:#e1eaff;'>表名：</b> ")
+                .append(tableName)
+                .append(tableRemark != null && !tableRemark.isBlank() ? "（" + tableRemark + "）" : "")
+                .append("<br>");
+        html.append("<table class='db-table'><thead><tr>")
+                .append("<th style='width: 25%;'>字段名称</th>")
+                .append("<th style='width: 20%;'>类型</th>")
+                .append("<th style='width: 40%;'>备注</th>")
+                .append("<th style='width: 7.5%;'>主键</th>")
+                .append("<th style='width: 7.5%;'>索引</th>")
+                .append("</tr></thead><tbody>");
+
+        for (ColumnMeta col : columns) {
+            html.append("<tr><td>").append(col.getName()).append("</td>")
+                    .append("<td>").append(col.getType()).append("</td>")
+                    .append("<td>").append(col.getRemark() == null ? "" : col.getRemark()).append("</td>")
+                    .append("<td>").append(col.isPrimaryKey() ? "<span class='pk'>YES</span>" : "").append("</td>")
+                    .append("<td>").append(col.isIndex() ? "<span class='idx'>YES</span>" : "").append("</td></tr>");
+        }
+
+        html.append("</tbody></table>");
+        return html.toString();
+    }
+
+    /**
+     * 根据表、字段、外键信息构建ER图HTML内容（D3+dagre-d3代码）
+     *
+     * @param tableRemarks 表名 -> 表备注
+     * @param tableFields  表名 -> (字段名 -> 类型+备注)
+     * @param links        外键关系列表（from/to/label）
+     * @param d3Js         d3.js 脚本内容
+     * @param dagreJs      dagre-d3.js 脚本内容
+     * @return HTML字符串
+     */
+    public static String buildERHtml(Map<String, String> tableRemarks, Map<String, Map<String, String>> tableFields,
+                                     List<Map<String, String>> links, String d3Js, String dagreJs) {
+        StringBuilder nodesBuilder = new StringBuilder();
+        StringBuilder edgesBuilder = new StringBuilder();
+
+        // 1. 生成节点（表+备注+字段）
+        for (Map.Entry<String, Map<String, String>> entry : tableFields.entrySet()) {
+            String table = entry.getKey();
+            Map<String, String> fields = entry.getValue();
+            StringBuilder label = new StringBuilder();
+            label.append(table);
+            // 拼接表备注（如 user(用户表)）
+            if (tableRemarks.containsKey(table) && !tableRemarks.get(table).isEmpty()) {
+                label.append("(").append(tableRemarks.get(table)).append(")");
+            }
+            label.append("\\n———\\n");
+            // 拼接字段及备注
+            for (Map.Entry<String, String> field : fields.entrySet()) {
+                label.append(field.getKey()).append(": ").append(field.getValue()).append("\\n");
+            }
+            nodesBuilder.append("g.setNode(\"").append(table).append("\", {\n")
+                    .append("label: \"").append(label.toString().replace("\"", "\\\"")).append("\",\n")
+                    .append("shape: \"rect\"\n")
+                    .append("});\n");
+        }
+
+        // 2. 生成边（外键关系）
+        for (Map<String, String> link : links) {
+            edgesBuilder.append("g.setEdge(\"").append(link.get("from")).append("\", \"")
+                    .append(link.get("to")).append("\", {\n")
+                    .append("label: \"").append(link.get("label")).append("\",\n")
+                    .append("lineInterpolate: \"basis\",\n")
+                    .append("arrowhead: \"vee\"\n")
+                    .append("});\n");
+        }
+
+        return String.format(HTML_TEMPLATE, d3Js, dagreJs, nodesBuilder, edgesBuilder);
+    }
+}
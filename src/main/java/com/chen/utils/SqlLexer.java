@@ -0,0 +1,480 @@
+package com.chen.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * SQL + MyBatis XML 词法分析器。
+ * <p>
+ * 单次顺序扫描输入文本，同时识别 SQL 词法单元（关键字、标识符、字符串、数字、运算符、注释、参数占位符）
+ * 与 MyBatis 动态标签（{@code <if>}、{@code <foreach>}、{@code <where>}、{@code <include/>}、CDATA、XML 注释等），
+ * 供 {@link SqlFormatUtil} 直接遍历格式化，无需占位符替换与回填。
+ * Token 只记录在原文中的起止偏移，不复制文本。
+ * </p>
+ *
+ * @author czh
+ * @version 1.0
+ * @since 2025/6/28
+ */
+public class SqlLexer {
+
+    /**
+     * Token 类型
+     */
+    public enum TokenType {
+        /** 普通标识符、函数名 */
+        WORD,
+        /** 普通关键字 */
+        RESERVED,
+        /** 顶层关键字（SELECT、FROM、WHERE ...），独占一行并缩进其后内容 */
+        RESERVED_TOP_LEVEL,
+        /** 不缩进的顶层关键字（UNION、INTERSECT ...） */
+        RESERVED_TOP_LEVEL_NO_INDENT,
+        /** 换行关键字（AND、OR、JOIN ...） */
+        RESERVED_NEWLINE,
+        STRING,
+        NUMBER,
+        OPERATOR,
+        OPEN_PAREN,
+        CLOSE_PAREN,
+        COMMA,
+        SEMICOLON,
+        /** 点号、:: 等前后不留空格的连接符 */
+        CONNECTOR,
+        /** #{...}、${...}、?、:name、@var */
+        PLACEHOLDER,
+        LINE_COMMENT,
+        BLOCK_COMMENT,
+        /** MyBatis 开始标签，如 &lt;if test="..."&gt; */
+        TAG_OPEN,
+        /** MyBatis 结束标签，如 &lt;/if&gt; */
+        TAG_CLOSE,
+        /** MyBatis 自闭合标签，如 &lt;include refid="..."/&gt; */
+        TAG_SELF_CLOSING,
+        XML_COMMENT,
+        CDATA_OPEN,
+        CDATA_CLOSE
+    }
+
+    /**
+     * 词法单元，仅保存类型与原文偏移
+     */
+    public static final class Token {
+        private final TokenType type;
+        private final int start;
+        private final int end;
+        private final boolean precededBySpace;
+
+        Token(TokenType type, int start, int end, boolean precededBySpace) {
+            this.type = type;
+            this.start = start;
+            this.end = end;
+            this.precededBySpace = precededBySpace;
+        }
+
+        public TokenType getType() {
+            return type;
+        }
+
+        public int getStart() {
+            return start;
+        }
+
+        public int getEnd() {
+            return end;
+        }
+
+        public int length() {
+            return end - start;
+        }
+
+        /**
+         * 原文中该 Token 前是否有空白
+         */
+        public boolean isPrecededBySpace() {
+            return precededBySpace;
+        }
+    }
+
+    private static final Set<String> TOP_LEVEL = Set.of(
+            "SELECT", "FROM", "WHERE", "SET", "VALUES", "UPDATE", "HAVING", "LIMIT", "OFFSET",
+            "RETURNING", "ADD", "AFTER", "MODIFY", "GO", "INSERT");
+
+    private static final Set<String> TOP_LEVEL_NO_INDENT = Set.of(
+            "UNION", "INTERSECT", "EXCEPT", "MINUS");
+
+    private static final Set<String> NEWLINE = Set.of(
+            "AND", "OR", "XOR", "WHEN", "ELSE", "JOIN");
+
+    private static final Set<String> RESERVED = Set.of(
+            "AS", "ON", "IN", "IS", "NOT", "NULL", "LIKE", "BETWEEN", "EXISTS", "DISTINCT", "ALL", "ANY",
+            "ASC", "DESC", "BY", "INTO", "THEN", "CASE", "END", "INNER", "LEFT", "RIGHT", "FULL", "OUTER",
+            "CROSS", "USING", "WITH", "DELETE", "CREATE", "ALTER", "DROP", "TABLE", "INDEX", "VIEW",
+            "PRIMARY", "KEY", "DEFAULT", "TRUE", "FALSE", "TOP", "OVER", "PARTITION", "ROWNUM", "IF",
+            "REPLACE", "IGNORE", "DUPLICATE", "ORDER", "GROUP", "FETCH", "FIRST", "NEXT", "ROWS", "ONLY");
+
+    /**
+     * 多词关键字：首词 -> 候选短语（按长度降序），匹配成功后整体作为一个 Token
+     */
+    private static final Map<String, String[][]> PHRASES = Map.ofEntries(
+            Map.entry("ORDER", new String[][]{{"ORDER", "BY"}}),
+            Map.entry("GROUP", new String[][]{{"GROUP", "BY"}}),
+            Map.entry("PARTITION", new String[][]{{"PARTITION", "BY"}}),
+            Map.entry("INSERT", new String[][]{{"INSERT", "INTO"}}),
+            Map.entry("DELETE", new String[][]{{"DELETE", "FROM"}}),
+            Map.entry("UNION", new String[][]{{"UNION", "ALL"}}),
+            Map.entry("FETCH", new String[][]{{"FETCH", "FIRST"}, {"FETCH", "NEXT"}}),
+            Map.entry("ALTER", new String[][]{{"ALTER", "TABLE"}, {"ALTER", "COLUMN"}}),
+            Map.entry("ON", new String[][]{{"ON", "DUPLICATE", "KEY", "UPDATE"}}),
+            Map.entry("CROSS", new String[][]{{"CROSS", "APPLY"}, {"CROSS", "JOIN"}}),
+            Map.entry("OUTER", new String[][]{{"OUTER", "APPLY"}, {"OUTER", "JOIN"}}),
+            Map.entry("INNER", new String[][]{{"INNER", "JOIN"}}),
+            Map.entry("LEFT", new String[][]{{"LEFT", "OUTER", "JOIN"}, {"LEFT", "SEMI", "JOIN"}, {"LEFT", "JOIN"}}),
+            Map.entry("RIGHT", new String[][]{{"RIGHT", "OUTER", "JOIN"}, {"RIGHT", "JOIN"}}),
+            Map.entry("FULL", new String[][]{{"FULL", "OUTER", "JOIN"}, {"FULL", "JOIN"}}),
+            Map.entry("NATURAL", new String[][]{{"NATURAL", "JOIN"}}),
+            Map.entry("STRAIGHT_JOIN", new String[][]{{"STRAIGHT_JOIN"}})
+    );
+
+    private static final Set<String> TOP_LEVEL_PHRASES = Set.of(
+            "ORDER BY", "GROUP BY", "INSERT INTO", "DELETE FROM", "FETCH FIRST", "FETCH NEXT",
+            "ALTER TABLE", "ALTER COLUMN", "ON DUPLICATE KEY UPDATE");
+
+    private static final String[] XML_ENTITIES = {"&lt;", "&gt;", "&amp;", "&quot;", "&apos;"};
+
+    /** 多字符运算符，按长度降序匹配 */
+    private static final String[] MULTI_CHAR_OPERATORS = {
+            "<=>", "->>", "!=", "<>", "<=", ">=", "||", "&&", ":=", "->", "==", "!<", "!>"};
+
+    private final String sql;
+    private final int length;
+    private final boolean mysql;
+    private final boolean sqlServer;
+    private final boolean postgres;
+    private final List<Token> tokens;
+    private int pos;
+    private boolean inCdata;
+
+    private SqlLexer(String sql, String dialect) {
+        this.sql = sql;
+        this.length = sql.length();
+        String d = dialect == null ? "" : dialect.toLowerCase(Locale.ROOT);
+        this.mysql = d.isEmpty() || d.contains("mysql") || d.contains("mariadb");
+        this.sqlServer = d.contains("sqlserver") || d.contains("tsql");
+        this.postgres = d.contains("postgres") || d.contains("redshift");
+        this.tokens = new ArrayList<>(Math.max(16, length / 4));
+    }
+
+    /**
+     * 将 SQL（可包含 MyBatis 标签）切分为 Token 序列，空白不输出为 Token
+     *
+     * @param sql     原始 SQL
+     * @param dialect SQL 方言，如 "mysql"、"postgresql"、"sqlserver"、"oracle"
+     * @return Token 列表
+     */
+    public static List<Token> tokenize(String sql, String dialect) {
+        SqlLexer lexer = new SqlLexer(sql, dialect);
+        lexer.run();
+        return lexer.tokens;
+    }
+
+    /**
+     * 获取 Token 在原文中的文本
+     */
+    public static String text(String sql, Token token) {
+        return sql.substring(token.start, token.end);
+    }
+
+    private void run() {
+        while (pos < length) {
+            int wsStart = pos;
+            while (pos < length && Character.isWhitespace(sql.charAt(pos))) pos++;
+            if (pos >= length) break;
+            boolean space = pos > wsStart;
+            int start = pos;
+            TokenType type = next();
+            tokens.add(new Token(type, start, pos, space));
+        }
+    }
+
+    /**
+     * 从当前位置读取一个 Token，推进 pos 并返回类型
+     */
+    private TokenType next() {
+        char c = sql.charAt(pos);
+        char n = pos + 1 < length ? sql.charAt(pos + 1) : '\0';
+
+        if (inCdata && c == ']' && sql.startsWith("]]>", pos)) {
+            pos += 3;
+            inCdata = false;
+            return TokenType.CDATA_CLOSE;
+        }
+        if (c == '<' && !inCdata) {
+            TokenType tag = readTag();
+            if (tag != null) return tag;
+        }
+        if (c == '-' && n == '-') return readLineComment();
+        if (c == '#' && mysql && n != '{') return readLineComment();
+        if (c == '/' && n == '*') {
+            int close = sql.indexOf("*/", pos + 2);
+            pos = close < 0 ? length : close + 2;
+            return TokenType.BLOCK_COMMENT;
+        }
+        if ((c == '#' || c == '$') && n == '{') {
+            int close = sql.indexOf('}', pos + 2);
+            pos = close < 0 ? length : close + 1;
+            return TokenType.PLACEHOLDER;
+        }
+        if (c == '\'' || c == '"' || (c == '`' && mysql)) {
+            readQuoted(c);
+            return TokenType.STRING;
+        }
+        if (c == '[' && sqlServer) {
+            int close = sql.indexOf(']', pos + 1);
+            pos = close < 0 ? length : close + 1;
+            return TokenType.STRING;
+        }
+        if (c == '$' && postgres && (n == '$' || Character.isLetter(n))) {
+            TokenType dollar = readDollarQuoted();
+            if (dollar != null) return dollar;
+        }
+        if (c == '&') {
+            for (String entity : XML_ENTITIES) {
+                if (sql.startsWith(entity, pos)) {
+                    pos += entity.length();
+                    // &lt;= 、&gt;= 、&lt;&gt; 作为一个运算符
+                    if (pos < length && sql.charAt(pos) == '=') {
+                        pos++;
+                    } else if ("&lt;".equals(entity) && sql.startsWith("&gt;", pos)) {
+                        pos += 4;
+                    }
+                    return TokenType.OPERATOR;
+                }
+            }
+        }
+        if (Character.isDigit(c) || (c == '.' && Character.isDigit(n))) return readNumber();
+        if (c == '?') {
+            pos++;
+            return TokenType.PLACEHOLDER;
+        }
+        if ((c == ':' && n != ':' && isWordChar(n)) || (c == '@' && isWordChar(n))) {
+            pos++;
+            while (pos < length && isWordChar(sql.charAt(pos))) pos++;
+            return TokenType.PLACEHOLDER;
+        }
+        if (isWordStart(c)) return readWord();
+        pos++;
+        switch (c) {
+            case '(':
+                return TokenType.OPEN_PAREN;
+            case ')':
+                return TokenType.CLOSE_PAREN;
+            case ',':
+                return TokenType.COMMA;
+            case ';':
+                return TokenType.SEMICOLON;
+            case '.':
+                return TokenType.CONNECTOR;
+            case ':':
+                if (n == ':') {
+                    pos++;
+                    return TokenType.CONNECTOR;
+                }
+                return TokenType.OPERATOR;
+            default:
+                for (String op : MULTI_CHAR_OPERATORS) {
+                    if (sql.startsWith(op, pos - 1)) {
+                        pos += op.length() - 1;
+                        break;
+                    }
+                }
+                return TokenType.OPERATOR;
+        }
+    }
+
+    /**
+     * 尝试读取 XML 标签、注释或 CDATA；不是合法标签时返回 null 且不移动 pos
+     */
+    private TokenType readTag() {
+        if (sql.startsWith("<!--", pos)) {
+            int close = sql.indexOf("-->", pos + 4);
+            pos = close < 0 ? length : close + 3;
+            return TokenType.XML_COMMENT;
+        }
+        if (sql.startsWith("<![CDATA[", pos)) {
+            pos += 9;
+            inCdata = true;
+            return TokenType.CDATA_OPEN;
+        }
+        int i = pos + 1;
+        boolean closing = i < length && sql.charAt(i) == '/';
+        if (closing) i++;
+        if (i >= length || !Character.isLetter(sql.charAt(i))) return null;
+        while (i < length && (isWordChar(sql.charAt(i)) || sql.charAt(i) == '-' || sql.charAt(i) == ':')) i++;
+
+        // 属性：name="value" 或 name='value'
+        while (i < length) {
+            int wsStart = i;
+            while (i < length && Character.isWhitespace(sql.charAt(i))) i++;
+            if (i >= length) return null;
+            char c = sql.charAt(i);
+            if (c == '>') {
+                pos = i + 1;
+                return closing ? TokenType.TAG_CLOSE : TokenType.TAG_OPEN;
+            }
+            if (c == '/' && !closing && i + 1 < length && sql.charAt(i + 1) == '>') {
+                pos = i + 2;
+                return TokenType.TAG_SELF_CLOSING;
+            }
+            if (closing || i == wsStart || !Character.isLetter(c)) return null;
+            while (i < length && (isWordChar(sql.charAt(i)) || sql.charAt(i) == '-' || sql.charAt(i) == ':')) i++;
+            while (i < length && Character.isWhitespace(sql.charAt(i))) i++;
+            if (i >= length || sql.charAt(i) != '=') return null;
+            i++;
+            while (i < length && Character.isWhitespace(sql.charAt(i))) i++;
+            if (i >= length) return null;
+            char quote = sql.charAt(i);
+            if (quote != '"' && quote != '\'') return null;
+            int close = sql.indexOf(quote, i + 1);
+            if (close < 0) return null;
+            i = close + 1;
+        }
+        return null;
+    }
+
+    private TokenType readLineComment() {
+        int eol = sql.indexOf('\n', pos);
+        pos = eol < 0 ? length : eol;
+        return TokenType.LINE_COMMENT;
+    }
+
+    /**
+     * 读取引号包裹的内容，支持双写引号与反斜杠转义
+     */
+    private void readQuoted(char quote) {
+        int i = pos + 1;
+        while (i < length) {
+            char c = sql.charAt(i);
+            if (c == '\\' && quote != '`') {
+                i += 2;
+                continue;
+            }
+            if (c == quote) {
+                if (i + 1 < length && sql.charAt(i + 1) == quote) {
+                    i += 2;
+                    continue;
+                }
+                i++;
+                break;
+            }
+            i++;
+        }
+        pos = Math.min(i, length);
+    }
+
+    /**
+     * PostgreSQL 的 $$...$$ / $tag$...$tag$ 字符串
+     */
+    private TokenType readDollarQuoted() {
+        int tagEnd = sql.indexOf('$', pos + 1);
+        if (tagEnd < 0) return null;
+        for (int i = pos + 1; i < tagEnd; i++) {
+            if (!isWordChar(sql.charAt(i))) return null;
+        }
+        String tag = sql.substring(pos, tagEnd + 1);
+        int close = sql.indexOf(tag, tagEnd + 1);
+        pos = close < 0 ? length : close + tag.length();
+        return TokenType.STRING;
+    }
+
+    private TokenType readNumber() {
+        int i = pos;
+        if (sql.startsWith("0x", i) || sql.startsWith("0X", i)) {
+            i += 2;
+            while (i < length && Character.digit(sql.charAt(i), 16) >= 0) i++;
+        } else {
+            while (i < length && (Character.isDigit(sql.charAt(i)) || sql.charAt(i) == '.')) i++;
+            if (i < length && (sql.charAt(i) == 'e' || sql.charAt(i) == 'E')) {
+                int j = i + 1;
+                if (j < length && (sql.charAt(j) == '+' || sql.charAt(j) == '-')) j++;
+                if (j < length && Character.isDigit(sql.charAt(j))) {
+                    i = j;
+                    while (i < length && Character.isDigit(sql.charAt(i))) i++;
+                }
+            }
+        }
+        // 形如 1abc 的标识符按单词处理
+        if (i < length && isWordChar(sql.charAt(i))) {
+            while (i < length && isWordChar(sql.charAt(i))) i++;
+            pos = i;
+            return TokenType.WORD;
+        }
+        pos = i;
+        return TokenType.NUMBER;
+    }
+
+    /**
+     * 读取单词并识别关键字（含多词关键字，如 ORDER BY、LEFT OUTER JOIN）
+     */
+    private TokenType readWord() {
+        int start = pos;
+        while (pos < length && isWordChar(sql.charAt(pos))) pos++;
+        // 函数调用或限定名，如 count(、t.name 中的 t，不作关键字
+        String upper = sql.substring(start, pos).toUpperCase(Locale.ROOT);
+        if (pos < length && sql.charAt(pos) == '.') return TokenType.WORD;
+        if (start > 0 && sql.charAt(start - 1) == '.') return TokenType.WORD;
+
+        String[][] candidates = PHRASES.get(upper);
+        if (candidates != null) {
+            for (String[] phrase : candidates) {
+                int end = matchPhrase(start, phrase);
+                if (end > 0) {
+                    pos = end;
+                    String joined = String.join(" ", phrase);
+                    if (TOP_LEVEL_PHRASES.contains(joined)) return TokenType.RESERVED_TOP_LEVEL;
+                    if ("UNION ALL".equals(joined)) return TokenType.RESERVED_TOP_LEVEL_NO_INDENT;
+                    if (joined.endsWith("JOIN") || joined.endsWith("APPLY")) return TokenType.RESERVED_NEWLINE;
+                    return TokenType.RESERVED;
+                }
+            }
+        }
+        if (TOP_LEVEL.contains(upper)) return TokenType.RESERVED_TOP_LEVEL;
+        if (TOP_LEVEL_NO_INDENT.contains(upper)) return TokenType.RESERVED_TOP_LEVEL_NO_INDENT;
+        if (NEWLINE.contains(upper)) return TokenType.RESERVED_NEWLINE;
+        if ("CASE".equals(upper)) return TokenType.OPEN_PAREN;
+        if ("END".equals(upper)) return TokenType.CLOSE_PAREN;
+        if (RESERVED.contains(upper)) return TokenType.RESERVED;
+        return TokenType.WORD;
+    }
+
+    /**
+     * 从 start 开始匹配多词短语（词间允许任意空白），成功返回结束偏移，否则返回 -1
+     */
+    private int matchPhrase(int start, String[] phrase) {
+        int i = start;
+        for (int w = 0; w < phrase.length; w++) {
+            if (w > 0) {
+                int wsStart = i;
+                while (i < length && Character.isWhitespace(sql.charAt(i))) i++;
+                if (i == wsStart) return -1;
+            }
+            String word = phrase[w];
+            if (!sql.regionMatches(true, i, word, 0, word.length())) return -1;
+            i += word.length();
+            if (i < length && isWordChar(sql.charAt(i))) return -1;
+        }
+        return i;
+    }
+
+    private static boolean isWordStart(char c) {
+        return Character.isLetter(c) || c == '_' || c > 127;
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$' || c > 127;
+    }
+
+}
@@ -1,23 +1,25 @@
 package com.chen.utils;
 
+import com.chen.entity.PreparedSql;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
 import java.util.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import static com.chen.constant.SqlConstants.CACHE_NS_RENDER;
+
 /**
  * @author czh
- * @version 1.6
- * @description: SQL 参数工具类。包含参数提取、参数替换、if判断、foreach展开、set块修正、输入为空则跳过渲染（即便只判断 != null）
+ * @version 1.9
+ * @description: SQL 参数工具类。包含参数提取、按参数渲染 SQL 与预编译 SQL（动态标签由 {@link SqlTemplate} 处理）、绑定 PreparedStatement 参数
  * @date 2025/6/25
  */
 public class SqlParamUtils {
 
     public static final String PARAM_REGEX = "[#\\$]\\{(\\w+(?:\\.\\w+)*)}";
-    public static final String IF_BLOCK_REGEX = "<if\\s+test=\"([^\"]+)\">([\\s\\S]*?)</if>";
-    public static final String FOREACH_REGEX = "<foreach[^>]*collection=\"(\\w+)\"[^>]*>([\\s\\S]*?)</foreach>";
-    public static final String SQL_WHITESPACE_REGEX = "[\\t ]+";
-    public static final String SQL_MULTILINE_REGEX = "(\\r?\\n){2,}";
-    public static final String SET_BLOCK_REGEX = "<set>([\\s\\S]*?)</set>";
 
     /**
      * 提取 SQL 中的参数名
@@ -33,234 +35,127 @@ public class SqlParamUtils {
     }
 
     /**
-     * 根据参数值渲染最终 SQL，支持 if/foreach/set 模板语法
+     * 根据参数值渲染最终 SQL，支持 if/choose/foreach/where/set/trim/bind 及任意嵌套，
+     * 语句首次渲染时编译为模板树并缓存，见 {@link SqlTemplate}
      *
      * @param sql         SQL模板
      * @param paramValues 参数值映射
      * @return 渲染后的 SQL
      */
     public static String buildFinalSql(String sql, Map<String, Object> paramValues) {
-        sql = processIfBlocks(sql, paramValues);
-        sql = processForeachBlocks(sql, paramValues);
-        sql = processSetBlocks(sql);
-        sql= processWhereTag(sql);
-
-        for (Map.Entry<String, Object> entry : paramValues.entrySet()) {
-            String key = entry.getKey();
-            Object valObj = entry.getValue();
-            if (valObj == null || valObj.toString().trim().isEmpty()) {
-                sql = sql.replaceAll("[#\\$]\\{" + Pattern.quote(key) + "}", "");
-                continue;
-            }
-            String value = String.valueOf(valObj);
-            sql = sql.replaceAll("#\\{" + Pattern.quote(key) + "}", isNumber(value) ? value : ("'" + value + "'"));
-            sql = sql.replaceAll("\\$\\{" + Pattern.quote(key) + "}", value);
-        }
-        return sql.replaceAll("</?if.*?>", "")
-                .replaceAll(SQL_WHITESPACE_REGEX, " ")
-                .replaceAll(SQL_MULTILINE_REGEX, "\n")
-                .trim();
+        return SqlTemplate.compile(sql).render(paramValues);
     }
 
     /**
-     * 判断字符串是否为数字
+     * 根据参数值渲染最终 SQL，字符串参数按方言转义，见 {@link #backslashEscapes(String)}
      *
-     * @param s 输入字符串
-     * @return 是否数字
+     * @param sql         SQL模板
+     * @param paramValues 参数值映射
+     * @param dialect     SQL 方言
+     * @return 渲染后的 SQL
      */
-    public static boolean isNumber(String s) {
-        return s != null && s.matches("^-?\\d+(\\.\\d+)?$");
+    public static String buildFinalSql(String sql, Map<String, Object> paramValues, String dialect) {
+        return SqlTemplate.compile(sql).render(paramValues, backslashEscapes(dialect));
     }
 
-
     /**
-     * 处理 SQL 里的 <if test=""> 块
+     * 渲染为预编译 SQL：#{} 输出为 ? 占位符，参数值按顺序放入绑定列表，用于以 PreparedStatement 执行
      *
      * @param sql         SQL模板
      * @param paramValues 参数值映射
-     * @return 处理后的 SQL
+     * @return 含占位符的 SQL 与绑定参数
      */
-    public static String processIfBlocks(String sql, Map<String, ?> paramValues) {
-        Pattern ifBlock = Pattern.compile(IF_BLOCK_REGEX, Pattern.DOTALL);
-        Matcher matcher = ifBlock.matcher(sql);
-        StringBuffer sb = new StringBuffer();
-        while (matcher.find()) {
-            String condition = matcher.group(1);
-            String blockSql = matcher.group(2);
-            boolean show = evalCondition(condition, paramValues);
-            matcher.appendReplacement(sb, show ? Matcher.quoteReplacement(blockSql) : "");
-        }
-        matcher.appendTail(sb);
-        return sb.toString();
+    public static PreparedSql buildPreparedSql(String sql, Map<String, ?> paramValues) {
+        return SqlTemplate.compile(sql).renderPrepared(paramValues);
     }
 
     /**
-     * 模拟 MyBatis 的 <where> 标签逻辑：
-     * - 去除无用的 <where> 标签
-     * - 自动添加 WHERE
-     * - 移除第一个 AND 或 OR
+     * 依次设置 PreparedStatement 的参数，null 以 {@link Types#NULL} 绑定
+     *
+     * @param ps         预编译语句
+     * @param parameters 参数值列表
+     * @throws SQLException 设置参数失败
      */
-    public static String processWhereTag(String sql) {
-        Pattern pattern = Pattern.compile("<where>(.*?)</where>", Pattern.DOTALL);
-        Matcher matcher = pattern.matcher(sql);
-        StringBuffer sb = new StringBuffer();
-
-        while (matcher.find()) {
-            String body = matcher.group(1).trim();
-
-            // 去除最前面的 and / or
-            body = body.replaceFirst("(?i)^\\s*(and|or)\\s+", "");
-
-            if (!body.isEmpty()) {
-                matcher.appendReplacement(sb, "WHERE " + Matcher.quoteReplacement(body));
+    public static void bindParameters(PreparedStatement ps, List<Object> parameters) throws SQLException {
+        for (int i = 0; i < parameters.size(); i++) {
+            Object value = parameters.get(i);
+            if (value == null) {
+                ps.setNull(i + 1, Types.NULL);
             } else {
-                matcher.appendReplacement(sb, "");
+                ps.setObject(i + 1, value);
             }
         }
-
-        matcher.appendTail(sb);
-        return sb.toString();
     }
 
     /**
-     * 判断 if test 内的条件是否成立
-     * 只支持 xx != null, xx != '', xx != 0 的多 and 条件
+     * 优先从缓存读取渲染结果，键为 SQL 模板、是否转义反斜杠与按参数名排序的参数值
      *
-     * @param condition   条件表达式
+     * @param sql         SQL模板
      * @param paramValues 参数值映射
-     * @return 是否成立
+     * @param dialect     SQL 方言
+     * @param cache       渲染 SQL 缓存，为 null 时不使用缓存
+     * @return 渲染后的 SQL
      */
-    public static boolean evalCondition(String condition, Map<String, ?> paramValues) {
-        String[] ands = condition.split("and");
-        for (String cond : ands) {
-            cond = cond.trim();
-            Matcher keyMatch = Pattern.compile("(\\w+)").matcher(cond);
-            if (keyMatch.find()) {
-                String key = keyMatch.group(1);
-                Object val = paramValues.get(key);
-                if (cond.contains("!= null")) {
-                    if (val == null || val.toString().trim().isEmpty()) return false;
-                } else if (cond.contains("!= ''")) {
-                    if (val == null || val.toString().trim().isEmpty()) return false;
-                } else if (cond.contains("!= 0")) {
-                    if (val == null || "0".equals(val.toString().trim())) return false;
-                }
-            }
+    public static String buildFinalSql(String sql, Map<String, Object> paramValues, String dialect,
+                                       SqlTextCache cache) {
+        if (cache == null) return buildFinalSql(sql, paramValues, dialect);
+        StringBuilder keyText = new StringBuilder(sql.length() + paramValues.size() * 16).append(sql)
+                .append('\0').append(backslashEscapes(dialect));
+        for (Map.Entry<String, Object> entry : new TreeMap<>(paramValues).entrySet()) {
+            keyText.append('\0').append(entry.getKey()).append('=').append(entry.getValue());
         }
-        return true;
+        return cache.computeIfAbsent(SqlTextCache.key(CACHE_NS_RENDER, keyText), () -> buildFinalSql(sql, paramValues, dialect));
     }
 
     /**
-     * 处理带<foreach>的SQL模板，支持弹窗输入userId为单个或逗号分隔的字符串
-     * @param sql SQL模板
-     * @param paramValues 参数map(支持userIds传"1,2,3"或List)
-     * @return 替换后的SQL
+     * 判断字符串是否为数字
+     *
+     * @param s 输入字符串
+     * @return 是否数字
      */
-    public static String processForeachBlocks(String sql, Map<String, Object> paramValues) {
-        Pattern foreachPattern = Pattern.compile(
-                "<foreach\\s+([^>]*)>([\\s\\S]*?)</foreach>",
-                Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
-        Matcher matcher = foreachPattern.matcher(sql);
-        StringBuffer sb = new StringBuffer();
-
-        while (matcher.find()) {
-            String attrStr = matcher.group(1);
-            String content = matcher.group(2);
-
-            // 只关心item，不判定collection
-            String itemAlias = getAttr(attrStr, "item");
-            String open = getAttr(attrStr, "open", "(");
-            String separator = getAttr(attrStr, "separator", ",");
-            String close = getAttr(attrStr, "close", ")");
-
-            // 只从paramValues取itemAlias
-            Object valueObj = paramValues.get(itemAlias);
-            List<String> list = parseList(valueObj);
-
-            StringBuilder fragment = new StringBuilder();
-            fragment.append(open);
-            for (int i = 0; i < list.size(); i++) {
-                String val = list.get(i);
-                String itemSql = content;
-                itemSql = itemSql.replace(
-                        "#{" + itemAlias + "}",
-                        isNumber(val) ? val : ("'" + val + "'")
-                );
-                itemSql = itemSql.replace(
-                        "${" + itemAlias + "}",
-                        val
-                );
-                fragment.append(itemSql.trim());
-                if (i < list.size() - 1) fragment.append(separator);
-            }
-            fragment.append(close);
-
-            matcher.appendReplacement(sb, Matcher.quoteReplacement(fragment.toString()));
-        }
-        matcher.appendTail(sb);
-        return sb.toString();
+    public static boolean isNumber(String s) {
+        return s != null && s.matches("^-?\\d+(\\.\\d+)?$");
     }
 
-    private static List<String> parseList(Object obj) {
-        if (obj == null) return Collections.emptyList();
-        if (obj instanceof List) {
-            List<?> origin = (List<?>) obj;
-            List<String> ret = new ArrayList<>();
-            for (Object o : origin) ret.add(o == null ? "" : o.toString().trim());
-            return ret;
-        }
-        if (obj instanceof String) {
-            String s = ((String)obj).trim();
-            if (s.isEmpty()) return Collections.emptyList();
-            if (s.contains(",")) {
-                List<String> ret = new ArrayList<>();
-                for (String part : s.split(",")) ret.add(part.trim());
-                return ret;
-            } else {
-                return Collections.singletonList(s);
-            }
-        }
-        return Collections.singletonList(obj.toString().trim());
+    /**
+     * 方言的字符串字面量是否默认以反斜杠转义：MySQL/MariaDB 未开启 NO_BACKSLASH_ESCAPES 时为 true，
+     * 未指定方言时按 MySQL 处理
+     *
+     * @param dialect SQL 方言
+     * @return 反斜杠需要双写时返回 true
+     */
+    public static boolean backslashEscapes(String dialect) {
+        String d = dialect == null ? "" : dialect.toLowerCase(Locale.ROOT);
+        return d.isEmpty() || d.contains("mysql") || d.contains("mariadb");
     }
 
-    private static String getAttr(String attrStr, String attrName) {
-        return getAttr(attrStr, attrName, "");
-    }
-    private static String getAttr(String attrStr, String attrName, String defaultVal) {
-        Pattern p = Pattern.compile(attrName + "=\"([^\"]*)\"");
-        Matcher m = p.matcher(attrStr);
-        return m.find() ? m.group(1) : defaultVal;
+    /**
+     * 将文本转为 SQL 字符串字面量
+     *
+     * @param text             字符串值
+     * @param backslashEscapes 反斜杠是否需要双写，见 {@link #backslashEscapes(String)}
+     * @return 加单引号、单引号双写后的字面量
+     */
+    public static String quoteLiteral(String text, boolean backslashEscapes) {
+        StringBuilder out = new StringBuilder(text.length() + 2);
+        appendLiteral(out, text, backslashEscapes);
+        return out.toString();
     }
 
-
-
     /**
-     * 处理 <set> 块，自动补全逗号，去除末尾多余逗号
+     * 将文本作为 SQL 字符串字面量追加到缓冲区：加单引号，单引号双写，backslashEscapes 为 true 时反斜杠同样双写
      *
-     * @param sql SQL模板
-     * @return 处理后的 SQL
+     * @param out              输出缓冲区
+     * @param text             字符串值
+     * @param backslashEscapes 反斜杠是否需要双写
      */
-    public static String processSetBlocks(String sql) {
-        Pattern setBlock = Pattern.compile(SET_BLOCK_REGEX, Pattern.DOTALL);
-        Matcher matcher = setBlock.matcher(sql);
-        StringBuffer sb = new StringBuffer();
-        while (matcher.find()) {
-            String content = matcher.group(1).trim();
-            String[] lines = content.split("\r?\n");
-            StringBuilder cleaned = new StringBuilder();
-            for (String line : lines) {
-                String trimmed = line.trim();
-                if (trimmed.isEmpty()) continue;
-                cleaned.append(trimmed);
-                if (!trimmed.endsWith(",")) cleaned.append(",");
-                cleaned.append("\n");
-            }
-            if (cleaned.length() > 0 && cleaned.charAt(cleaned.length() - 2) == ',') {
-                cleaned.deleteCharAt(cleaned.length() - 2);
-            }
-            matcher.appendReplacement(sb, "SET\n" + Matcher.quoteReplacement(cleaned.toString().trim()));
+    public static void appendLiteral(StringBuilder out, CharSequence text, boolean backslashEscapes) {
+        out.append('\'');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\'' || (c == '\\' && backslashEscapes)) out.append(c);
+            out.append(c);
         }
-        matcher.appendTail(sb);
-        return sb.toString();
+        out.append('\'');
     }
 }
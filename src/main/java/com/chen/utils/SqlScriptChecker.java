@@ -0,0 +1,156 @@
+package com.chen.utils;
+
+import com.chen.entity.DbConfig;
+import com.chen.entity.SqlCheckResult;
+import com.chen.entity.SqlCheckResult.Severity;
+import com.chen.utils.SqlBatchChecker.Target;
+import com.intellij.openapi.progress.ProgressIndicator;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+import static com.chen.constant.DataSourceConstants.DB_TYPE_POSTGRESQL;
+import static com.chen.constant.DataSourceConstants.DB_TYPE_SQLSERVER;
+import static com.chen.constant.SqlConstants.*;
+
+/**
+ * SQL 脚本检查工具类。
+ * <p>
+ * 在同一个连接、同一个事务中按顺序执行整个脚本，每条语句前设置保存点：
+ * 语句失败时回滚到保存点并继续执行后续语句，结束后回滚整个事务。
+ * 后面的语句能看到前面语句建的表、插入的数据，检查结果与真实执行迁移脚本一致，并记录每条语句耗时。
+ * </p>
+ * <p>
+ * MySQL、Oracle 等数据库的 DDL 会隐式提交事务，无法回滚，这类语句不执行，只标记为警告；
+ * PostgreSQL、SQL Server 支持事务内 DDL，正常执行。脚本中的 COMMIT / ROLLBACK 等事务控制语句同样跳过。
+ * </p>
+ *
+ * @author czh
+ * @version 1.0
+ * @since 2025/7/9
+ */
+public class SqlScriptChecker {
+
+    /** DDL 可以在事务中回滚的数据库 */
+    private static final Set<String> TRANSACTIONAL_DDL = Set.of(DB_TYPE_POSTGRESQL, DB_TYPE_SQLSERVER);
+
+    private static final Pattern DDL = Pattern.compile(
+            "^\\s*(CREATE|ALTER|DROP|TRUNCATE|RENAME|GRANT|REVOKE|COMMENT)\\b", Pattern.CASE_INSENSITIVE);
+    private static final Pattern TRANSACTION_CONTROL = Pattern.compile(
+            "^\\s*(COMMIT|ROLLBACK|BEGIN|START\\s+TRANSACTION|SAVEPOINT|RELEASE|SET\\s+AUTOCOMMIT)\\b",
+            Pattern.CASE_INSENSITIVE);
+    /** 语句开头的注释，判断语句类型前去掉 */
+    private static final Pattern LEADING_COMMENTS = Pattern.compile("^(\\s*(--[^\\n]*\\n|/\\*.*?\\*/))*",
+            Pattern.DOTALL);
+
+    private SqlScriptChecker() {
+    }
+
+    /**
+     * 在单个事务中逐条执行脚本语句并最终回滚
+     *
+     * @param config         数据库连接配置
+     * @param statements     脚本语句，按执行顺序排列
+     * @param timeoutSeconds 单条语句执行超时（秒）
+     * @param indicator      进度指示器；取消时回滚并抛出 ProcessCanceledException
+     * @param listener       单条语句完成回调，在调用线程中调用
+     * @return 检查结果，与 statements 顺序一致
+     */
+    public static List<SqlCheckResult> check(DbConfig config, List<Target> statements, int timeoutSeconds,
+                                             ProgressIndicator indicator, Consumer<SqlCheckResult> listener) {
+        boolean transactionalDdl = isTransactionalDdl(config);
+        List<SqlCheckResult> results = new ArrayList<>(statements.size());
+        try (Connection conn = DataSourceManager.getDataSource(config).getConnection()) {
+            conn.setAutoCommit(false);
+            try (Statement stmt = conn.createStatement()) {
+                if (timeoutSeconds > 0) stmt.setQueryTimeout(timeoutSeconds);
+                for (int i = 0; i < statements.size(); i++) {
+                    indicator.checkCanceled();
+                    SqlCheckResult result = execute(conn, stmt, statements.get(i), transactionalDdl, timeoutSeconds);
+                    results.add(result);
+                    listener.accept(result);
+                    indicator.setFraction((double) (i + 1) / statements.size());
+                }
+            } finally {
+                conn.rollback();          // 脚本执行结果全部丢弃
+                conn.setAutoCommit(true); // 归还连接池前恢复自动提交
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(ERROR_SQL_EXECUTE_PREFIX + e.getMessage(), e);
+        }
+        return results;
+    }
+
+    private static SqlCheckResult execute(Connection conn, Statement stmt, Target target,
+                                          boolean transactionalDdl, int timeoutSeconds) throws SQLException {
+        SqlCheckResult result = new SqlCheckResult(target.getFilePath(), target.getOffset(), target.getLine(),
+                target.getStatementId(), target.getBody());
+        String skipReason = skipReason(target.getBody(), transactionalDdl);
+        if (skipReason != null) {
+            result.setSeverity(Severity.WARNING);
+            result.setMessage(skipReason);
+            return result;
+        }
+
+        long begin = System.nanoTime();
+        Savepoint savepoint = conn.setSavepoint();
+        try {
+            stmt.execute(target.getBody());
+            release(conn, savepoint);
+            String danger = SqlCheckUtil.checkDangerous(target.getBody());
+            result.setSeverity(danger == null ? Severity.OK : Severity.WARNING);
+            result.setMessage(danger);
+        } catch (SQLException e) {
+            // 回滚到保存点后事务恢复可用（PostgreSQL 出错后必须如此），继续执行后续语句
+            conn.rollback(savepoint);
+            result.setSeverity(Severity.ERROR);
+            result.setMessage(ERROR_SQL_EXECUTE_PREFIX + (e instanceof SQLTimeoutException
+                    ? String.format(ERROR_SQL_TIMEOUT, timeoutSeconds) : e.getMessage()));
+        }
+        result.setElapsedMillis((System.nanoTime() - begin) / 1_000_000);
+        return result;
+    }
+
+    /**
+     * 数据库的 DDL 是否可以在事务中回滚
+     *
+     * @param config 数据库连接配置
+     * @return PostgreSQL、SQL Server 返回 true
+     */
+    static boolean isTransactionalDdl(DbConfig config) {
+        return TRANSACTIONAL_DDL.contains(DbConfigUtil.parseDbType(config.getUrl()));
+    }
+
+    /**
+     * 执行并回滚检查时不能执行的语句：事务控制语句，以及数据库不支持事务内 DDL 时的 DDL
+     *
+     * @param sql              语句
+     * @param transactionalDdl DDL 是否可以在事务中回滚
+     * @return 跳过原因，可以执行时返回 null
+     */
+    static String skipReason(String sql, boolean transactionalDdl) {
+        String head = LEADING_COMMENTS.matcher(sql).replaceFirst("");
+        if (TRANSACTION_CONTROL.matcher(head).find()) return WARN_SCRIPT_TRANSACTION_SKIPPED;
+        if (!transactionalDdl && DDL.matcher(head).find()) return WARN_SCRIPT_DDL_SKIPPED;
+        return null;
+    }
+
+    /**
+     * 释放保存点，Oracle 等不支持释放的驱动忽略
+     */
+    private static void release(Connection conn, Savepoint savepoint) {
+        try {
+            conn.releaseSavepoint(savepoint);
+        } catch (SQLException ignored) {
+            // 保存点随事务结束释放
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.chen.utils;
+
+import com.chen.entity.SqlStatementRange;
+import com.chen.utils.SqlLexer.Token;
+import com.chen.utils.SqlLexer.TokenType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * SQL 语句切分工具类。
+ * <p>
+ * 将整个文档切分为若干条语句区间：
+ * - Mapper XML：提取 &lt;select&gt;/&lt;insert&gt;/&lt;update&gt;/&lt;delete&gt;/&lt;sql&gt; 标签内容体；
+ * - 普通 SQL 脚本：基于 {@link SqlLexer} 按分号切分，字符串与注释中的分号不会误切。
+ * </p>
+ *
+ * @author czh
+ * @version 1.0
+ * @since 2025/6/28
+ */
+public class SqlStatementSplitter {
+
+    /** Mapper 语句开始标签 */
+    private static final Pattern STATEMENT_TAG = Pattern.compile("<(select|insert|update|delete|sql)\\b([^>]*)>");
+
+    /** 标签 id 属性 */
+    private static final Pattern ID_ATTR = Pattern.compile("\\bid\\s*=\\s*[\"']([^\"']*)[\"']");
+
+    /** Mapper 文件标识 */
+    private static final String MAPPER_MARK = "<mapper";
+
+    /**
+     * 判断文本是否为 MyBatis Mapper XML
+     *
+     * @param text 文档内容
+     * @return 是 Mapper 返回 true
+     */
+    public static boolean isMapperXml(String text) {
+        return text != null && text.contains(MAPPER_MARK);
+    }
+
+    /**
+     * 自动识别文档类型并切分语句
+     *
+     * @param text    文档内容
+     * @param dialect SQL 方言
+     * @return 语句区间列表，按偏移升序
+     */
+    public static List<SqlStatementRange> split(String text, String dialect) {
+        return isMapperXml(text) ? splitMapper(text) : splitScript(text, dialect);
+    }
+
+    /**
+     * 提取 Mapper XML 中各语句标签的内容体区间，跳过 XML 注释中的标签
+     *
+     * @param xml Mapper XML 内容
+     * @return 语句区间列表
+     */
+    public static List<SqlStatementRange> splitMapper(String xml) {
+        List<SqlStatementRange> result = new ArrayList<>();
+        Matcher matcher = STATEMENT_TAG.matcher(xml);
+        int cursor = 0;
+        int commentStart = xml.indexOf("<!--");
+        while (matcher.find(cursor)) {
+            // 标签位于注释内时跳过整段注释
+            if (commentStart >= 0 && commentStart < matcher.start()) {
+                int commentEnd = xml.indexOf("-->", commentStart + 4);
+                if (commentEnd < 0) break;
+                if (commentEnd > matcher.start()) {
+                    cursor = commentEnd + 3;
+                    commentStart = xml.indexOf("<!--", cursor);
+                    continue;
+                }
+                commentStart = xml.indexOf("<!--", commentEnd + 3);
+                continue;
+            }
+            String attrs = matcher.group(2);
+            if (attrs.endsWith("/")) {
+                cursor = matcher.end();
+                continue;
+            }
+            String tagName = matcher.group(1);
+            int bodyStart = matcher.end();
+            int bodyEnd = xml.indexOf("</" + tagName + ">", bodyStart);
+            if (bodyEnd < 0) break;
+
+            Matcher idMatcher = ID_ATTR.matcher(attrs);
+            String id = idMatcher.find() ? idMatcher.group(1) : null;
+            result.add(new SqlStatementRange(bodyStart, bodyEnd, tagName, id));
+            cursor = bodyEnd + tagName.length() + 3;
+        }
+        return result;
+    }
+
+    /**
+     * 按分号切分普通 SQL 脚本，区间不包含分号及语句间的空白
+     *
+     * @param script  SQL 脚本内容
+     * @param dialect SQL 方言
+     * @return 语句区间列表
+     */
+    public static List<SqlStatementRange> splitScript(String script, String dialect) {
+        List<SqlStatementRange> result = new ArrayList<>();
+        int start = -1;
+        int end = -1;
+        for (Token token : SqlLexer.tokenize(script, dialect)) {
+            if (token.getType() == TokenType.SEMICOLON) {
+                if (start >= 0) result.add(new SqlStatementRange(start, end, null, null));
+                start = -1;
+                continue;
+            }
+            if (start < 0) start = token.getStart();
+            end = token.getEnd();
+        }
+        if (start >= 0) result.add(new SqlStatementRange(start, end, null, null));
+        return result;
+    }
+}
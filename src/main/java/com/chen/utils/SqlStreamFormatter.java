@@ -0,0 +1,298 @@
+package com.chen.utils;
+
+import com.intellij.openapi.progress.ProgressIndicator;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+
+/**
+ * SQL 大文件流式格式化工具类。
+ * <p>
+ * 面向数百 MB 的 SQL 导出（mysqldump）与迁移脚本：基于 NIO FileChannel 分块读取并解码，
+ * 逐字符识别字符串、注释与语句分隔符（支持 mysqldump 的 DELIMITER 指令），
+ * 每凑齐一条语句即格式化并写入输出通道，内存占用只与最长的单条语句相关。
+ * 超过 {@link #MAX_FORMAT_LENGTH} 的超长语句（如批量 INSERT）原样输出。
+ * </p>
+ *
+ * @author czh
+ * @version 1.0
+ * @since 2025/6/30
+ */
+public class SqlStreamFormatter {
+
+    /** 读取缓冲区大小（字符） */
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    /** 写出缓冲区大小（字符） */
+    private static final int WRITE_BUFFER_SIZE = 256 * 1024;
+
+    /** 超过该长度的语句不做格式化，直接原样输出 */
+    public static final int MAX_FORMAT_LENGTH = 1024 * 1024;
+
+    /** 默认语句分隔符 */
+    private static final String DEFAULT_DELIMITER = ";";
+
+    /** mysqldump 分隔符指令 */
+    private static final String DELIMITER_COMMAND = "DELIMITER";
+
+    private static final int NORMAL = 0;
+    private static final int SINGLE_QUOTE = 1;
+    private static final int DOUBLE_QUOTE = 2;
+    private static final int BACKTICK = 3;
+    private static final int LINE_COMMENT = 4;
+    private static final int BLOCK_COMMENT = 5;
+
+    private final String dialect;
+    private final boolean mysql;
+    private final Writer writer;
+    private final StringBuilder statement = new StringBuilder();
+    private String delimiter = DEFAULT_DELIMITER;
+    private int state = NORMAL;
+    private char prev;
+    private boolean escaped;
+    private long statementCount;
+
+    private SqlStreamFormatter(String dialect, Writer writer) {
+        this.dialect = dialect;
+        String d = dialect == null ? "" : dialect.toLowerCase(Locale.ROOT);
+        this.mysql = d.isEmpty() || d.contains("mysql") || d.contains("mariadb");
+        this.writer = writer;
+    }
+
+    /**
+     * 流式格式化 SQL 文件，结果写入目标文件（UTF-8）
+     *
+     * @param source    源 SQL 文件
+     * @param target    输出文件，已存在则覆盖
+     * @param dialect   SQL 方言
+     * @param indicator 进度指示器，可为 null；取消时抛出 ProcessCanceledException
+     * @return 处理的语句条数
+     * @throws IOException 读写失败
+     */
+    public static long formatFile(Path source, Path target, String dialect,
+                                  @Nullable ProgressIndicator indicator) throws IOException {
+        return formatFile(source, target, dialect, StandardCharsets.UTF_8, indicator);
+    }
+
+    /**
+     * 流式格式化 SQL 文件，按指定字符集读写
+     *
+     * @param source    源 SQL 文件
+     * @param target    输出文件，已存在则覆盖
+     * @param dialect   SQL 方言
+     * @param charset   文件字符集
+     * @param indicator 进度指示器，可为 null；取消时抛出 ProcessCanceledException
+     * @return 处理的语句条数
+     * @throws IOException 读写失败
+     */
+    public static long formatFile(Path source, Path target, String dialect, Charset charset,
+                                  @Nullable ProgressIndicator indicator) throws IOException {
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE,
+                     StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             Reader reader = Channels.newReader(in, charset.newDecoder()
+                     .onMalformedInput(CodingErrorAction.REPLACE)
+                     .onUnmappableCharacter(CodingErrorAction.REPLACE), READ_BUFFER_SIZE);
+             Writer writer = new BufferedWriter(Channels.newWriter(out, charset.newEncoder(), WRITE_BUFFER_SIZE),
+                     WRITE_BUFFER_SIZE)) {
+
+            SqlStreamFormatter formatter = new SqlStreamFormatter(dialect, writer);
+            long size = Math.max(1, in.size());
+            char[] buffer = new char[READ_BUFFER_SIZE];
+            int read;
+            while ((read = reader.read(buffer)) != -1) {
+                if (indicator != null) {
+                    indicator.checkCanceled();
+                    indicator.setFraction(Math.min(1.0, (double) in.position() / size));
+                }
+                formatter.accept(buffer, read);
+            }
+            formatter.finish();
+            return formatter.statementCount;
+        }
+    }
+
+    /**
+     * 消费一段字符，遇到完整语句立即格式化输出
+     */
+    private void accept(char[] chars, int length) throws IOException {
+        for (int i = 0; i < length; i++) {
+            char c = chars[i];
+            statement.append(c);
+            switch (state) {
+                case NORMAL:
+                    onNormal(c);
+                    break;
+                case SINGLE_QUOTE:
+                case DOUBLE_QUOTE:
+                    if (escaped) {
+                        escaped = false;
+                    } else if (c == '\\') {
+                        escaped = true;
+                    } else if (c == (state == SINGLE_QUOTE ? '\'' : '"')) {
+                        state = NORMAL;
+                    }
+                    break;
+                case BACKTICK:
+                    if (c == '`') state = NORMAL;
+                    break;
+                case LINE_COMMENT:
+                    if (c == '\n') {
+                        state = NORMAL;
+                        onLineEnd();
+                    }
+                    break;
+                case BLOCK_COMMENT:
+                    if (c == '/' && prev == '*') {
+                        state = NORMAL;
+                        c = '\0';
+                    }
+                    break;
+                default:
+                    break;
+            }
+            prev = c;
+        }
+    }
+
+    private void onNormal(char c) throws IOException {
+        switch (c) {
+            case '\'':
+                state = SINGLE_QUOTE;
+                return;
+            case '"':
+                state = DOUBLE_QUOTE;
+                return;
+            case '`':
+                if (mysql) state = BACKTICK;
+                return;
+            case '-':
+                if (prev == '-') state = LINE_COMMENT;
+                return;
+            case '#':
+                if (mysql) state = LINE_COMMENT;
+                return;
+            case '*':
+                if (prev == '/') state = BLOCK_COMMENT;
+                return;
+            case '\n':
+                onLineEnd();
+                return;
+            default:
+                break;
+        }
+        if (endsWithDelimiter() && delimiterCommandStart() < 0) {
+            statement.setLength(statement.length() - delimiter.length());
+            emitStatement(true);
+        }
+    }
+
+    /**
+     * 行结束时识别 DELIMITER 指令：指令行连同其前面的注释原样输出并切换分隔符
+     */
+    private void onLineEnd() throws IOException {
+        int start = delimiterCommandStart();
+        if (start < 0) return;
+        String newDelimiter = statement.substring(start + DELIMITER_COMMAND.length()).trim();
+        if (newDelimiter.isEmpty()) return;
+        int begin = 0;
+        while (begin < start && Character.isWhitespace(statement.charAt(begin))) begin++;
+        writer.append(statement, begin, statement.length());
+        delimiter = newDelimiter;
+        statement.setLength(0);
+    }
+
+    /**
+     * 当前缓冲内容去掉开头的空白与注释后是否为 DELIMITER 指令，是则返回指令起始下标，否则返回 -1。
+     * mysqldump 与手写脚本常在 DELIMITER 前带有版本注释或说明行
+     */
+    private int delimiterCommandStart() {
+        int start = skipLeadingComments();
+        if (start < 0) return -1;
+        int len = statement.length();
+        int commandEnd = start + DELIMITER_COMMAND.length();
+        if (commandEnd >= len || !Character.isWhitespace(statement.charAt(commandEnd))) return -1;
+        for (int i = 0; i < DELIMITER_COMMAND.length(); i++) {
+            if (Character.toUpperCase(statement.charAt(start + i)) != DELIMITER_COMMAND.charAt(i)) return -1;
+        }
+        return start;
+    }
+
+    /**
+     * 跳过缓冲区开头的空白、行注释与块注释，返回第一个有效字符的下标；注释未结束时返回 -1
+     */
+    private int skipLeadingComments() {
+        int len = statement.length();
+        int i = 0;
+        while (i < len) {
+            char c = statement.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '-' && i + 1 < len && statement.charAt(i + 1) == '-' || c == '#' && mysql) {
+                int end = statement.indexOf("\n", i);
+                if (end < 0) return -1;
+                i = end + 1;
+            } else if (c == '/' && i + 1 < len && statement.charAt(i + 1) == '*') {
+                int end = statement.indexOf("*/", i + 2);
+                if (end < 0) return -1;
+                i = end + 2;
+            } else {
+                return i;
+            }
+        }
+        return i;
+    }
+
+    private boolean endsWithDelimiter() {
+        int len = statement.length();
+        int dl = delimiter.length();
+        if (len < dl) return false;
+        for (int i = 0; i < dl; i++) {
+            if (statement.charAt(len - dl + i) != delimiter.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * 格式化并输出当前语句
+     *
+     * @param terminated 语句是否以分隔符结束
+     */
+    private void emitStatement(boolean terminated) throws IOException {
+        int start = 0;
+        int end = statement.length();
+        while (start < end && Character.isWhitespace(statement.charAt(start))) start++;
+        while (end > start && Character.isWhitespace(statement.charAt(end - 1))) end--;
+        if (start < end) {
+            if (end - start > MAX_FORMAT_LENGTH) {
+                writer.append(statement, start, end);
+            } else {
+                writer.write(SqlFormatUtil.formatSql(statement.substring(start, end), dialect));
+            }
+            statementCount++;
+        }
+        if (terminated) writer.write(delimiter);
+        if (start < end || terminated) writer.write("\n\n");
+        statement.setLength(0);
+        prev = '\0';
+    }
+
+    /**
+     * 输出末尾未以分隔符结束的语句
+     */
+    private void finish() throws IOException {
+        emitStatement(false);
+        writer.flush();
+    }
+}
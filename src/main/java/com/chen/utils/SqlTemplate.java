@@ -0,0 +1,797 @@
+package com.chen.utils;
+
+import com.chen.entity.PreparedSql;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * MyBatis 动态 SQL 模板。
+ * <p>
+ * 将语句内容体一次性解析为模板树：文本、参数（#{}/${}）、&lt;if&gt;、&lt;foreach&gt;、&lt;where&gt;、&lt;set&gt;、
+ * &lt;trim&gt;、&lt;choose&gt;/&lt;when&gt;/&lt;otherwise&gt;、&lt;bind&gt;，支持任意嵌套；
+ * XML 注释在解析时丢弃，CDATA 与实体（&amp;lt; 等）在解析时还原。
+ * 渲染时对每组参数只遍历一次模板树，写入同一个 StringBuilder，最后一趟规整空白。
+ * 编译结果按语句文本缓存，见 {@link #compile(String)}。
+ * 除内联参数值外，也可渲染为 ? 占位符加绑定参数列表，见 {@link #renderPrepared(Map)}；
+ * 批量检查等没有参数值的场景可按全部分支渲染，见 {@link #renderAllBranches()}。
+ * </p>
+ *
+ * @author czh
+ * @version 1.0
+ * @since 2025/7/4
+ */
+public class SqlTemplate {
+
+    /** 编译缓存的最大条目数，超出后整体清空 */
+    private static final int MAX_CACHED_TEMPLATES = 2048;
+
+    private static final Map<String, SqlTemplate> CACHE = new ConcurrentHashMap<>();
+
+    private final Node root;
+
+    private SqlTemplate(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * 编译语句模板，相同文本直接复用缓存的模板树
+     *
+     * @param sql 语句内容体（可包含 MyBatis 动态标签）
+     * @return 编译后的模板
+     */
+    public static SqlTemplate compile(String sql) {
+        SqlTemplate template = CACHE.get(sql);
+        if (template != null) return template;
+        template = new SqlTemplate(new Parser(sql).parse());
+        if (CACHE.size() >= MAX_CACHED_TEMPLATES) CACHE.clear();
+        CACHE.put(sql, template);
+        return template;
+    }
+
+    /**
+     * 使用一组参数渲染最终 SQL，字符串参数按标准 SQL 只双写单引号
+     *
+     * @param paramValues 参数值映射，键可为参数名或带点的属性路径
+     * @return 渲染后的 SQL，每行首尾空白与空行已去除
+     */
+    public String render(Map<String, ?> paramValues) {
+        return render(paramValues, false);
+    }
+
+    /**
+     * 使用一组参数渲染最终 SQL
+     *
+     * @param paramValues      参数值映射，键可为参数名或带点的属性路径
+     * @param backslashEscapes 字符串参数中的反斜杠是否双写，见 {@link SqlParamUtils#backslashEscapes(String)}
+     * @return 渲染后的 SQL，每行首尾空白与空行已去除
+     */
+    public String render(Map<String, ?> paramValues, boolean backslashEscapes) {
+        StringBuilder out = new StringBuilder(256);
+        root.render(new Scope(paramValues, null, false, backslashEscapes), out);
+        return normalizeWhitespace(out);
+    }
+
+    /**
+     * 使用一组参数渲染预编译 SQL：#{} 输出为 ? 并按顺序收集参数值，${} 仍按文本拼接
+     *
+     * @param paramValues 参数值映射，键可为参数名或带点的属性路径
+     * @return 含占位符的 SQL 与绑定参数列表
+     */
+    public PreparedSql renderPrepared(Map<String, ?> paramValues) {
+        StringBuilder out = new StringBuilder(256);
+        List<Object> binds = new ArrayList<>();
+        root.render(new Scope(paramValues, binds), out);
+        return new PreparedSql(normalizeWhitespace(out), binds);
+    }
+
+    /**
+     * 不提供参数值，按全部分支渲染预编译 SQL，供语法与执行检查使用：
+     * &lt;if&gt; 一律成立，&lt;choose&gt; 取第一个 &lt;when&gt;，空集合的 &lt;foreach&gt; 按一个元素渲染，
+     * #{} 输出为 ? 并绑定 null，${} 以参数名代替，使 set/where/foreach 等片段都出现在结果中
+     *
+     * @return 含占位符的 SQL 与绑定参数列表
+     */
+    public PreparedSql renderAllBranches() {
+        StringBuilder out = new StringBuilder(256);
+        List<Object> binds = new ArrayList<>();
+        root.render(new Scope(Collections.emptyMap(), binds, true, false), out);
+        return new PreparedSql(normalizeWhitespace(out), binds);
+    }
+
+    // ============================ 渲染上下文 ============================
+
+    /**
+     * 变量作用域：foreach 的 item/index 与 bind 变量以链表形式叠加在参数映射之上，不复制参数；
+     * 预编译渲染时各层作用域共享同一个绑定参数列表
+     */
+    static final class Scope {
+        private final Map<String, ?> params;
+        private final Binding bindings;
+
+        /** 预编译渲染的参数列表，内联渲染时为 null */
+        private final List<Object> binds;
+
+        /** 是否按全部分支渲染 */
+        private final boolean allBranches;
+
+        /** 内联字符串参数时反斜杠是否双写 */
+        private final boolean backslashEscapes;
+
+        Scope(Map<String, ?> params, List<Object> binds) {
+            this(params, binds, false, false);
+        }
+
+        Scope(Map<String, ?> params, List<Object> binds, boolean allBranches, boolean backslashEscapes) {
+            this(params, null, binds, allBranches, backslashEscapes);
+        }
+
+        private Scope(Map<String, ?> params, Binding bindings, List<Object> binds, boolean allBranches,
+                      boolean backslashEscapes) {
+            this.params = params;
+            this.bindings = bindings;
+            this.binds = binds;
+            this.allBranches = allBranches;
+            this.backslashEscapes = backslashEscapes;
+        }
+
+        Scope with(String name, Object value) {
+            return new Scope(params, new Binding(name, value, bindings), binds, allBranches, backslashEscapes);
+        }
+
+        /**
+         * 解析变量或属性路径（如 user.name），依次查找局部绑定、完整键、逐级属性（Map 键或 JavaBean getter）
+         */
+        Object resolve(String name) {
+            for (Binding b = bindings; b != null; b = b.next) {
+                if (b.name.equals(name)) return b.value;
+            }
+            if (params.containsKey(name)) return params.get(name);
+            int dot = name.indexOf('.');
+            if (dot < 0) return null;
+            Object value = resolve(name.substring(0, dot));
+            int start = dot + 1;
+            while (value != null && start <= name.length()) {
+                int next = name.indexOf('.', start);
+                String property = name.substring(start, next < 0 ? name.length() : next);
+                value = OgnlExpression.property(value, property);
+                if (next < 0) break;
+                start = next + 1;
+            }
+            return value;
+        }
+    }
+
+    private static final class Binding {
+        private final String name;
+        private final Object value;
+        private final Binding next;
+
+        Binding(String name, Object value, Binding next) {
+            this.name = name;
+            this.value = value;
+            this.next = next;
+        }
+    }
+
+    // ============================ 模板节点 ============================
+
+    interface Node {
+        void render(Scope scope, StringBuilder out);
+    }
+
+    /** 纯文本 */
+    static final class TextNode implements Node {
+        private final String text;
+
+        TextNode(String text) {
+            this.text = text;
+        }
+
+        @Override
+        public void render(Scope scope, StringBuilder out) {
+            out.append(text);
+        }
+    }
+
+    /** #{name} 预编译参数或 ${name} 字符串替换 */
+    static final class ParamNode implements Node {
+        private final String name;
+        private final boolean literal;
+
+        ParamNode(String name, boolean literal) {
+            this.name = name;
+            this.literal = literal;
+        }
+
+        @Override
+        public void render(Scope scope, StringBuilder out) {
+            Object value = scope.resolve(name);
+            if (!literal && scope.binds != null) {
+                out.append('?');
+                scope.binds.add(typed(value));
+                return;
+            }
+            if (value == null && literal && scope.allBranches) {
+                // 表名、列名等字符串替换没有取值时以参数名代替，保持语句结构完整
+                out.append(name);
+                return;
+            }
+            if (value == null) return;
+            String str = value.toString().trim();
+            if (str.isEmpty()) return;
+            if (literal || SqlParamUtils.isNumber(str)) {
+                out.append(str);
+            } else {
+                SqlParamUtils.appendLiteral(out, str, scope.backslashEscapes);
+            }
+        }
+
+        /**
+         * 转为绑定参数值：空串视为 null（与内联渲染跳过空值一致），数字字符串转为 Long/BigDecimal
+         */
+        private static Object typed(Object value) {
+            if (!(value instanceof CharSequence)) return value;
+            String str = value.toString().trim();
+            if (str.isEmpty()) return null;
+            if (!SqlParamUtils.isNumber(str)) return value.toString();
+            if (str.indexOf('.') >= 0 || str.length() > 18) return new BigDecimal(str);
+            return Long.parseLong(str);
+        }
+    }
+
+    /** 顺序渲染的子节点 */
+    static class MixedNode implements Node {
+        final List<Node> children;
+
+        MixedNode(List<Node> children) {
+            this.children = children;
+        }
+
+        @Override
+        public void render(Scope scope, StringBuilder out) {
+            for (Node child : children) child.render(scope, out);
+        }
+    }
+
+    /** &lt;if test&gt; */
+    static final class IfNode extends MixedNode {
+        /** 编译后的条件，null 表示无条件（otherwise） */
+        private final OgnlExpression test;
+        private final boolean invalid;
+
+        IfNode(String test, List<Node> children) {
+            super(children);
+            OgnlExpression compiled = null;
+            boolean failed = false;
+            if (test != null) {
+                try {
+                    compiled = OgnlExpression.compile(test);
+                } catch (IllegalArgumentException e) {
+                    // 无法解析的条件视为不成立，不影响其余部分渲染
+                    failed = true;
+                }
+            }
+            this.test = compiled;
+            this.invalid = failed;
+        }
+
+        boolean matches(Scope scope) {
+            if (scope.allBranches) return true;
+            if (invalid) return false;
+            return test == null || test.test(scope::resolve);
+        }
+
+        void renderChildren(Scope scope, StringBuilder out) {
+            super.render(scope, out);
+        }
+
+        @Override
+        public void render(Scope scope, StringBuilder out) {
+            if (matches(scope)) super.render(scope, out);
+        }
+    }
+
+    /** &lt;choose&gt;：渲染第一个成立的 when，否则渲染 otherwise */
+    static final class ChooseNode implements Node {
+        private final List<IfNode> whens;
+        private final Node otherwise;
+
+        ChooseNode(List<IfNode> whens, Node otherwise) {
+            this.whens = whens;
+            this.otherwise = otherwise;
+        }
+
+        @Override
+        public void render(Scope scope, StringBuilder out) {
+            for (IfNode when : whens) {
+                if (when.matches(scope)) {
+                    when.renderChildren(scope, out);
+                    return;
+                }
+            }
+            if (otherwise != null) otherwise.render(scope, out);
+        }
+    }
+
+    /** &lt;otherwise&gt; */
+    static final class OtherwiseNode extends MixedNode {
+        OtherwiseNode(List<Node> children) {
+            super(children);
+        }
+    }
+
+    /** &lt;trim&gt;，&lt;where&gt; 与 &lt;set&gt; 为其特例 */
+    static final class TrimNode extends MixedNode {
+        private final String prefix;
+        private final String suffix;
+        private final String[] prefixOverrides;
+        private final String[] suffixOverrides;
+
+        TrimNode(String prefix, String suffix, String prefixOverrides, String suffixOverrides, List<Node> children) {
+            super(children);
+            this.prefix = prefix;
+            this.suffix = suffix;
+            this.prefixOverrides = splitOverrides(prefixOverrides);
+            this.suffixOverrides = splitOverrides(suffixOverrides);
+        }
+
+        @Override
+        public void render(Scope scope, StringBuilder out) {
+            int mark = out.length();
+            super.render(scope, out);
+            // 在输出缓冲区原地裁剪首尾空白与多余的前后缀
+            int start = mark;
+            int end = out.length();
+            while (start < end && Character.isWhitespace(out.charAt(start))) start++;
+            while (end > start && Character.isWhitespace(out.charAt(end - 1))) end--;
+            start += matchPrefix(out, start, end);
+            end -= matchSuffix(out, start, end);
+            while (start < end && Character.isWhitespace(out.charAt(start))) start++;
+            while (end > start && Character.isWhitespace(out.charAt(end - 1))) end--;
+            if (start >= end) {
+                out.setLength(mark);
+                return;
+            }
+            String body = out.substring(start, end);
+            out.setLength(mark);
+            out.append(' ');
+            if (prefix != null && !prefix.isEmpty()) out.append(prefix).append(' ');
+            out.append(body);
+            if (suffix != null && !suffix.isEmpty()) out.append(' ').append(suffix);
+            out.append(' ');
+        }
+
+        private int matchPrefix(CharSequence s, int start, int end) {
+            for (String override : prefixOverrides) {
+                int len = override.length();
+                if (end - start >= len && regionMatchesIgnoreCase(s, start, override)) return len;
+            }
+            return 0;
+        }
+
+        private int matchSuffix(CharSequence s, int start, int end) {
+            for (String override : suffixOverrides) {
+                int len = override.length();
+                if (end - start >= len && regionMatchesIgnoreCase(s, end - len, override)) return len;
+            }
+            return 0;
+        }
+
+        private static String[] splitOverrides(String overrides) {
+            if (overrides == null || overrides.isEmpty()) return new String[0];
+            String[] parts = overrides.split("\\|");
+            List<String> result = new ArrayList<>(parts.length);
+            for (String part : parts) {
+                // "AND " 等带空格的写法同时匹配换行、制表符分隔
+                String trimmed = part.trim();
+                if (!trimmed.isEmpty()) result.add(trimmed);
+            }
+            return result.toArray(new String[0]);
+        }
+
+        private static boolean regionMatchesIgnoreCase(CharSequence s, int offset, String word) {
+            for (int i = 0; i < word.length(); i++) {
+                if (Character.toUpperCase(s.charAt(offset + i)) != Character.toUpperCase(word.charAt(i))) return false;
+            }
+            int after = offset + word.length();
+            // 关键字类覆盖项要求其后为单词边界，避免把 ORDER 误判为 OR
+            return !Character.isLetter(word.charAt(word.length() - 1))
+                    || after >= s.length() || !Character.isLetterOrDigit(s.charAt(after));
+        }
+    }
+
+    /** &lt;foreach&gt; */
+    static final class ForeachNode extends MixedNode {
+        private final String collection;
+        private final String item;
+        private final String index;
+        private final String open;
+        private final String close;
+        private final String separator;
+
+        ForeachNode(String collection, String item, String index, String open, String close, String separator,
+                    List<Node> children) {
+            super(children);
+            this.collection = collection;
+            this.item = item;
+            this.index = index;
+            this.open = open;
+            this.close = close;
+            this.separator = separator;
+        }
+
+        @Override
+        public void render(Scope scope, StringBuilder out) {
+            // 参数输入框按 #{item} 收集取值，collection 未提供时回退到 item
+            Object value = collection == null ? null : scope.resolve(collection);
+            if (value == null && item != null) value = scope.resolve(item);
+            Collection<?> items = toCollection(value);
+            if (items.isEmpty()) {
+                if (!scope.allBranches) return;
+                items = Collections.singletonList(null);
+            }
+
+            out.append(open);
+            int i = 0;
+            for (Object element : items) {
+                if (i > 0) out.append(separator);
+                Scope itemScope = scope;
+                if (item != null) itemScope = itemScope.with(item, element);
+                if (index != null) itemScope = itemScope.with(index, i);
+                int mark = out.length();
+                super.render(itemScope, out);
+                trimRegion(out, mark);
+                i++;
+            }
+            out.append(close);
+        }
+
+        private static Collection<?> toCollection(Object value) {
+            if (value == null) return Collections.emptyList();
+            if (value instanceof Collection) return (Collection<?>) value;
+            if (value instanceof Object[]) return Arrays.asList((Object[]) value);
+            String s = value.toString().trim();
+            if (s.isEmpty()) return Collections.emptyList();
+            if (s.indexOf(',') < 0) return Collections.singletonList(s);
+            List<String> parts = new ArrayList<>();
+            for (String part : s.split(",")) parts.add(part.trim());
+            return parts;
+        }
+
+        /** 去除单个元素渲染结果首尾空白 */
+        private static void trimRegion(StringBuilder out, int mark) {
+            int end = out.length();
+            while (end > mark && Character.isWhitespace(out.charAt(end - 1))) end--;
+            out.setLength(end);
+            int start = mark;
+            while (start < end && Character.isWhitespace(out.charAt(start))) start++;
+            if (start > mark) out.delete(mark, start);
+        }
+    }
+
+    /** &lt;bind name value&gt; 对后续兄弟节点生效 */
+    static final class BindNode implements Node {
+        final String name;
+        final OgnlExpression expression;
+
+        BindNode(String name, String expression) {
+            this.name = name;
+            this.expression = compileOrNull(expression);
+        }
+
+        /** 无法解析的表达式绑定为 null */
+        private static OgnlExpression compileOrNull(String expression) {
+            try {
+                return OgnlExpression.compile(expression == null ? "null" : expression);
+            } catch (IllegalArgumentException e) {
+                return OgnlExpression.compile("null");
+            }
+        }
+
+        Object evaluate(Scope scope) {
+            return expression.evaluate(scope::resolve);
+        }
+
+        @Override
+        public void render(Scope scope, StringBuilder out) {
+            // 由所在的 BlockNode 处理
+        }
+    }
+
+    /** 含 bind 的子节点序列：bind 之后的兄弟节点在新作用域中渲染 */
+    static final class BlockNode extends MixedNode {
+        BlockNode(List<Node> children) {
+            super(children);
+        }
+
+        @Override
+        public void render(Scope scope, StringBuilder out) {
+            for (Node child : children) {
+                if (child instanceof BindNode) {
+                    BindNode bind = (BindNode) child;
+                    scope = scope.with(bind.name, bind.evaluate(scope));
+                } else {
+                    child.render(scope, out);
+                }
+            }
+        }
+    }
+
+    // ============================ 解析 ============================
+
+    /**
+     * 单趟扫描的模板解析器
+     */
+    private static final class Parser {
+        private final String src;
+        private int pos;
+        /** 当前 CDATA 段的结束位置，不在 CDATA 中时为 -1 */
+        private int cdataEnd = -1;
+
+        Parser(String src) {
+            this.src = src;
+        }
+
+        Node parse() {
+            return block(parseChildren(null));
+        }
+
+        /**
+         * 解析子节点直到遇到 closingTag 的结束标签（为 null 时解析到末尾）
+         */
+        private List<Node> parseChildren(String closingTag) {
+            List<Node> nodes = new ArrayList<>();
+            StringBuilder text = new StringBuilder();
+            while (pos < src.length()) {
+                if (pos == cdataEnd) {
+                    pos += 3;
+                    cdataEnd = -1;
+                    continue;
+                }
+                char c = src.charAt(pos);
+                // CDATA 中的 '<'、'&' 均为普通字符，参数占位符照常解析
+                boolean inCdata = cdataEnd >= 0;
+                if (c == '<' && !inCdata) {
+                    if (src.startsWith("<!--", pos)) {
+                        int end = src.indexOf("-->", pos + 4);
+                        pos = end < 0 ? src.length() : end + 3;
+                        continue;
+                    }
+                    if (src.startsWith("<![CDATA[", pos)) {
+                        int end = src.indexOf("]]>", pos + 9);
+                        cdataEnd = end < 0 ? src.length() : end;
+                        pos += 9;
+                        continue;
+                    }
+                    if (pos + 1 < src.length() && src.charAt(pos + 1) == '/') {
+                        int end = src.indexOf('>', pos);
+                        String name = src.substring(pos + 2, end < 0 ? src.length() : end).trim().toLowerCase(Locale.ROOT);
+                        pos = end < 0 ? src.length() : end + 1;
+                        if (name.equals(closingTag)) {
+                            flushText(text, nodes);
+                            return nodes;
+                        }
+                        continue;
+                    }
+                    if (pos + 1 < src.length() && Character.isLetter(src.charAt(pos + 1))) {
+                        flushText(text, nodes);
+                        Node node = parseTag();
+                        if (node != null) nodes.add(node);
+                        continue;
+                    }
+                }
+                if (c == '&' && !inCdata) {
+                    int semi = src.indexOf(';', pos);
+                    if (semi > pos && semi - pos <= 6) {
+                        String decoded = decodeEntity(src.substring(pos + 1, semi));
+                        if (decoded != null) {
+                            text.append(decoded);
+                            pos = semi + 1;
+                            continue;
+                        }
+                    }
+                }
+                if ((c == '#' || c == '$') && pos + 1 < src.length() && src.charAt(pos + 1) == '{') {
+                    int end = src.indexOf('}', pos + 2);
+                    if (end > 0) {
+                        flushText(text, nodes);
+                        nodes.add(new ParamNode(paramName(src.substring(pos + 2, end)), c == '$'));
+                        pos = end + 1;
+                        continue;
+                    }
+                }
+                text.append(c);
+                pos++;
+            }
+            flushText(text, nodes);
+            return nodes;
+        }
+
+        /**
+         * 解析开始标签及其内容，pos 位于 '<'
+         */
+        private Node parseTag() {
+            int nameStart = pos + 1;
+            int i = nameStart;
+            while (i < src.length() && (Character.isLetterOrDigit(src.charAt(i)) || src.charAt(i) == '-'
+                    || src.charAt(i) == '_' || src.charAt(i) == ':')) i++;
+            String name = src.substring(nameStart, i).toLowerCase(Locale.ROOT);
+            Map<String, String> attrs = new HashMap<>();
+            boolean selfClosing = false;
+            // 解析属性，属性值中允许出现 '>'
+            while (i < src.length()) {
+                char c = src.charAt(i);
+                if (c == '>') {
+                    i++;
+                    break;
+                }
+                if (c == '/' && i + 1 < src.length() && src.charAt(i + 1) == '>') {
+                    selfClosing = true;
+                    i += 2;
+                    break;
+                }
+                if (Character.isLetter(c)) {
+                    int attrStart = i;
+                    while (i < src.length() && src.charAt(i) != '=' && !Character.isWhitespace(src.charAt(i))
+                            && src.charAt(i) != '>' && src.charAt(i) != '/') i++;
+                    String attrName = src.substring(attrStart, i);
+                    while (i < src.length() && Character.isWhitespace(src.charAt(i))) i++;
+                    if (i < src.length() && src.charAt(i) == '=') {
+                        i++;
+                        while (i < src.length() && Character.isWhitespace(src.charAt(i))) i++;
+                        if (i < src.length() && (src.charAt(i) == '"' || src.charAt(i) == '\'')) {
+                            char quote = src.charAt(i);
+                            int valueEnd = src.indexOf(quote, i + 1);
+                            if (valueEnd < 0) valueEnd = src.length();
+                            attrs.put(attrName, decodeAll(src.substring(i + 1, valueEnd)));
+                            i = Math.min(src.length(), valueEnd + 1);
+                        }
+                    }
+                    continue;
+                }
+                i++;
+            }
+            pos = i;
+
+            if (selfClosing) {
+                return "bind".equals(name) ? new BindNode(attrs.get("name"), attrs.get("value")) : null;
+            }
+            List<Node> children = parseChildren(name);
+            switch (name) {
+                case "if":
+                case "when":
+                    return new IfNode(attrs.get("test"), wrap(children));
+                case "otherwise":
+                    return new OtherwiseNode(wrap(children));
+                case "choose":
+                    return choose(children);
+                case "where":
+                    return new TrimNode("WHERE", null, "AND |OR ", null, wrap(children));
+                case "set":
+                    return new TrimNode("SET", null, null, ",", wrap(children));
+                case "trim":
+                    return new TrimNode(attrs.get("prefix"), attrs.get("suffix"),
+                            attrs.get("prefixOverrides"), attrs.get("suffixOverrides"), wrap(children));
+                case "foreach":
+                    return new ForeachNode(attrs.get("collection"), attrs.get("item"), attrs.get("index"),
+                            attrs.getOrDefault("open", ""), attrs.getOrDefault("close", ""),
+                            attrs.getOrDefault("separator", ""), wrap(children));
+                default:
+                    // include 等未知标签：渲染其内容
+                    return block(children);
+            }
+        }
+
+        private static Node choose(List<Node> children) {
+            List<IfNode> whens = new ArrayList<>();
+            Node otherwise = null;
+            for (Node child : children) {
+                if (child instanceof IfNode) {
+                    whens.add((IfNode) child);
+                } else if (child instanceof OtherwiseNode) {
+                    otherwise = child;
+                }
+            }
+            return new ChooseNode(whens, otherwise);
+        }
+
+        /** 子节点含 bind 时包装为 BlockNode 以维护作用域 */
+        private static List<Node> wrap(List<Node> children) {
+            for (Node child : children) {
+                if (child instanceof BindNode) return Collections.singletonList(new BlockNode(children));
+            }
+            return children;
+        }
+
+        private static Node block(List<Node> children) {
+            List<Node> wrapped = wrap(children);
+            return wrapped.size() == 1 ? wrapped.get(0) : new MixedNode(wrapped);
+        }
+
+        private static void flushText(StringBuilder text, List<Node> nodes) {
+            if (text.length() == 0) return;
+            nodes.add(new TextNode(text.toString()));
+            text.setLength(0);
+        }
+
+        /** 参数名：去掉 jdbcType 等选项 */
+        private static String paramName(String content) {
+            int comma = content.indexOf(',');
+            return (comma < 0 ? content : content.substring(0, comma)).trim();
+        }
+
+        private static String decodeEntity(String entity) {
+            switch (entity) {
+                case "lt":
+                    return "<";
+                case "gt":
+                    return ">";
+                case "amp":
+                    return "&";
+                case "quot":
+                    return "\"";
+                case "apos":
+                    return "'";
+                default:
+                    return null;
+            }
+        }
+
+        private static String decodeAll(String s) {
+            if (s.indexOf('&') < 0) return s;
+            StringBuilder sb = new StringBuilder(s.length());
+            int i = 0;
+            while (i < s.length()) {
+                char c = s.charAt(i);
+                int semi = c == '&' ? s.indexOf(';', i) : -1;
+                String decoded = semi > i && semi - i <= 6 ? decodeEntity(s.substring(i + 1, semi)) : null;
+                if (decoded != null) {
+                    sb.append(decoded);
+                    i = semi + 1;
+                } else {
+                    sb.append(c);
+                    i++;
+                }
+            }
+            return sb.toString();
+        }
+    }
+
+    // ============================ 输出规整 ============================
+
+    /**
+     * 一趟规整空白：行内连续空白合并为一个空格，去除行首尾空白与空行
+     */
+    static String normalizeWhitespace(CharSequence s) {
+        StringBuilder out = new StringBuilder(s.length());
+        boolean pendingSpace = false;
+        boolean lineHasContent = false;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '\n') {
+                if (lineHasContent) out.append('\n');
+                lineHasContent = false;
+                pendingSpace = false;
+            } else if (c == ' ' || c == '\t' || c == '\r') {
+                pendingSpace = lineHasContent;
+            } else {
+                if (pendingSpace) out.append(' ');
+                out.append(c);
+                pendingSpace = false;
+                lineHasContent = true;
+            }
+        }
+        int len = out.length();
+        if (len > 0 && out.charAt(len - 1) == '\n') out.setLength(len - 1);
+        return out.toString();
+    }
+}
@@ -0,0 +1,170 @@
+package com.chen.utils;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 按字符数加权的 LRU 文本缓存。
+ * <p>
+ * 以“命名空间（方言）+ 内容哈希 + 长度”为键缓存格式化、渲染等结果，
+ * 缓存值总字符数超过上限时按最近最少使用顺序淘汰；单个值超过上限 1/4 时不缓存，避免冲掉整个缓存。
+ * 结果计算在锁外进行，并发未命中时可能重复计算，但不会互相阻塞。
+ * </p>
+ *
+ * @author czh
+ * @version 1.0
+ * @since 2025/7/2
+ */
+public class SqlTextCache {
+
+    /**
+     * 缓存键：命名空间 + 内容哈希 + 内容长度，不持有原文
+     */
+    public static final class Key {
+        private final String namespace;
+        private final long hash;
+        private final int length;
+
+        private Key(String namespace, long hash, int length) {
+            this.namespace = namespace;
+            this.hash = hash;
+            this.length = length;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return hash == key.hash && length == key.length && namespace.equals(key.namespace);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(namespace, hash, length);
+        }
+    }
+
+    private final long maxChars;
+    private final LinkedHashMap<Key, String> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long totalChars;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * @param maxChars 缓存值总字符数上限
+     */
+    public SqlTextCache(long maxChars) {
+        this.maxChars = maxChars;
+    }
+
+    /**
+     * 构造缓存键
+     *
+     * @param namespace 命名空间，通常为 SQL 方言
+     * @param text      原文
+     * @return 缓存键
+     */
+    public static Key key(String namespace, CharSequence text) {
+        return new Key(namespace == null ? "" : namespace, StringUtils.contentHash(text), text.length());
+    }
+
+    /**
+     * 读取缓存，命中时刷新访问顺序
+     *
+     * @param key 缓存键
+     * @return 缓存值，未命中返回 null
+     */
+    public String get(Key key) {
+        String value;
+        synchronized (this) {
+            value = entries.get(key);
+        }
+        (value != null ? hits : misses).incrementAndGet();
+        return value;
+    }
+
+    /**
+     * 写入缓存并按总字符数淘汰最久未使用的条目
+     *
+     * @param key   缓存键
+     * @param value 缓存值
+     */
+    public synchronized void put(Key key, String value) {
+        if (value == null || value.length() > maxChars / 4) return;
+        String old = entries.put(key, value);
+        totalChars += value.length() - (old == null ? 0 : old.length());
+        Iterator<Map.Entry<Key, String>> it = entries.entrySet().iterator();
+        while (totalChars > maxChars && it.hasNext()) {
+            Map.Entry<Key, String> eldest = it.next();
+            totalChars -= eldest.getValue().length();
+            it.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    /**
+     * 读取缓存，未命中时计算并写入
+     *
+     * @param key     缓存键
+     * @param compute 结果计算逻辑，在锁外执行
+     * @return 缓存或新计算的结果
+     */
+    public String computeIfAbsent(Key key, Supplier<String> compute) {
+        String value = get(key);
+        if (value != null) return value;
+        value = compute.get();
+        put(key, value);
+        return value;
+    }
+
+    /**
+     * 清空缓存与统计计数
+     */
+    public synchronized void clear() {
+        entries.clear();
+        totalChars = 0;
+        hits.set(0);
+        misses.set(0);
+        evictions.set(0);
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public synchronized int getSize() {
+        return entries.size();
+    }
+
+    public synchronized long getTotalChars() {
+        return totalChars;
+    }
+
+    public long getMaxChars() {
+        return maxChars;
+    }
+
+    /**
+     * 命中率（0~1），尚无访问时为 0
+     */
+    public double getHitRate() {
+        long h = hits.get();
+        long total = h + misses.get();
+        return total == 0 ? 0 : (double) h / total;
+    }
+}
@@ -50,5 +50,32 @@ public class StringUtils {
         return str1.trim().equalsIgnoreCase(str2.trim());
     }
 
+    /**
+     * 计算文本内容的 64 位哈希（FNV-1a），用于按内容缓存格式化、解析等结果
+     *
+     * @param text 文本，null 视为空串
+     * @return 64 位哈希值
+     */
+    public static long contentHash(CharSequence text) {
+        return contentHash(text, 0, text == null ? 0 : text.length());
+    }
+
+    /**
+     * 计算文本指定区间的 64 位哈希（FNV-1a），避免截取子串
+     *
+     * @param text  文本
+     * @param start 起始偏移（包含）
+     * @param end   结束偏移（不包含）
+     * @return 64 位哈希值
+     */
+    public static long contentHash(CharSequence text, int start, int end) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = start; i < end; i++) {
+            hash ^= text.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
 
 }